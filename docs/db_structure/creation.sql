@@ -1,56 +1,77 @@
--- Таблица пользователей
-CREATE TABLE "User" (
-    username VARCHAR(15) PRIMARY KEY,
-    email TEXT NOT NULL
-);
-
--- Таблица ролей
-CREATE TABLE Role (
-    id SERIAL PRIMARY KEY,
-    name TEXT NOT NULL,
-    description TEXT
-);
-
--- Системные роли пользователей
-CREATE TABLE SystemUserRole (
-    id SERIAL PRIMARY KEY,
-    username VARCHAR(15) NOT NULL REFERENCES "User"(username) ON DELETE CASCADE,
-    role_id INT NOT NULL REFERENCES Role(id) ON DELETE CASCADE
-);
-
--- Таблица проектов
-CREATE TABLE Project (
-    id SERIAL PRIMARY KEY,
-    name VARCHAR(30) NOT NULL,
-    description TEXT,
-    minio_id INT UNIQUE NOT NULL,
-    date_created DATE NOT NULL,
-    date_updated DATE
-);
-
--- Назначение ролей пользователям в проектах
-CREATE TABLE ProjectUserRole (
-    id SERIAL PRIMARY KEY,
-    username VARCHAR(15) NOT NULL REFERENCES "User"(username) ON DELETE CASCADE,
-    role_id INT NOT NULL REFERENCES Role(id) ON DELETE CASCADE,
-    project_id INT NOT NULL REFERENCES Project(id) ON DELETE CASCADE
-);
-
--- Таблица бэкапов
-CREATE TABLE Backup (
-    id SERIAL PRIMARY KEY,
-    name VARCHAR(30) NOT NULL,
-    description TEXT,
-    minio_id INT UNIQUE NOT NULL,
-    project_id INT NOT NULL REFERENCES Project(id) ON DELETE CASCADE,
-    date_created DATE NOT NULL
-);
-
--- Таблица пресетов
-CREATE TABLE Presets (
-    id SERIAL PRIMARY KEY,
-    name VARCHAR(30) NOT NULL,
-    description TEXT,
-    username VARCHAR(15) NOT NULL REFERENCES "User"(username) ON DELETE CASCADE,
-    minio_id INT UNIQUE NOT NULL
-);
+-- Таблица пользователей
+CREATE TABLE "User" (
+    username VARCHAR(15) PRIMARY KEY,
+    email TEXT NOT NULL
+);
+
+-- Таблица ролей
+CREATE TABLE Role (
+    id SERIAL PRIMARY KEY,
+    name TEXT NOT NULL,
+    description TEXT
+);
+
+-- Системные роли пользователей
+CREATE TABLE SystemUserRole (
+    id SERIAL PRIMARY KEY,
+    username VARCHAR(15) NOT NULL REFERENCES "User"(username) ON DELETE CASCADE,
+    role_id INT NOT NULL REFERENCES Role(id) ON DELETE CASCADE
+);
+
+-- Таблица проектов
+CREATE TABLE Project (
+    id SERIAL PRIMARY KEY,
+    name VARCHAR(30) NOT NULL,
+    description TEXT,
+    minio_id INT UNIQUE NOT NULL,
+    date_created DATE NOT NULL,
+    date_updated DATE
+);
+
+-- Назначение ролей пользователям в проектах
+CREATE TABLE ProjectUserRole (
+    id SERIAL PRIMARY KEY,
+    username VARCHAR(15) NOT NULL REFERENCES "User"(username) ON DELETE CASCADE,
+    role_id INT NOT NULL REFERENCES Role(id) ON DELETE CASCADE,
+    project_id INT NOT NULL REFERENCES Project(id) ON DELETE CASCADE
+);
+
+-- Таблица бэкапов
+CREATE TABLE Backup (
+    id SERIAL PRIMARY KEY,
+    name VARCHAR(30) NOT NULL,
+    description TEXT,
+    minio_id INT UNIQUE NOT NULL,
+    project_id INT NOT NULL REFERENCES Project(id) ON DELETE CASCADE,
+    date_created DATE NOT NULL
+);
+
+-- Таблица пресетов
+CREATE TABLE Presets (
+    id SERIAL PRIMARY KEY,
+    name VARCHAR(30) NOT NULL,
+    description TEXT,
+    username VARCHAR(15) NOT NULL REFERENCES "User"(username) ON DELETE CASCADE,
+    minio_id INT UNIQUE NOT NULL
+);
+
+-- Задачи генерации проектов
+CREATE TABLE generation_jobs (
+    id VARCHAR(36) PRIMARY KEY,
+    saving_id BIGINT,
+    username VARCHAR(255) NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    error_message VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    phase_timings JSONB
+);
+
+-- Сохранения пакетной задачи генерации
+CREATE TABLE generation_job_batch_savings (
+    job_id VARCHAR(36) NOT NULL REFERENCES generation_jobs(id) ON DELETE CASCADE,
+    position INT NOT NULL,
+    saving_id BIGINT NOT NULL,
+    PRIMARY KEY (job_id, position)
+);
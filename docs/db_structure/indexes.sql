@@ -9,3 +9,6 @@ CREATE INDEX idx_backup_project_id ON Backup(project_id);
 
 -- Быстрый доступ к пресетам пользователя
 CREATE INDEX idx_presets_username ON Presets(username);
+
+-- Подсчет активных задач генерации пользователя
+CREATE INDEX idx_generation_jobs_username_status ON generation_jobs(username, status);
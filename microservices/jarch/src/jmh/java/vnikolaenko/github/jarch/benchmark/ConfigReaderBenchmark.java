@@ -0,0 +1,39 @@
+package vnikolaenko.github.jarch.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import vnikolaenko.github.jarch.generator.config.EntityConfig;
+import vnikolaenko.github.jarch.generator.utils.ConfigReader;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConfigReaderBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int entityCount;
+
+    @Param({"0.0", "0.5", "1.0"})
+    private double relationDensity;
+
+    private ConfigReader configReader;
+    private byte[] entityConfigJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        configReader = new ConfigReader();
+        entityConfigJson = new ObjectMapper()
+                .writeValueAsBytes(SyntheticProjects.entityConfig(entityCount, relationDensity));
+    }
+
+    @Benchmark
+    public EntityConfig readEntityConfig() throws IOException {
+        return configReader.readEntityConfig(entityConfigJson);
+    }
+}
@@ -0,0 +1,57 @@
+package vnikolaenko.github.jarch.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import vnikolaenko.github.jarch.generator.config.ApplicationConfig;
+import vnikolaenko.github.jarch.generator.config.EntityConfig;
+import vnikolaenko.github.jarch.generator.generator.EntityGenerator;
+import vnikolaenko.github.jarch.generator.output.GeneratedOutput;
+import vnikolaenko.github.jarch.generator.utils.PhaseTimings;
+import vnikolaenko.github.jarch.utils.LogCollector;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Генерация всех сущностей проекта (параллельно, на пуле размером с число ядер)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityGeneratorBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int entityCount;
+
+    @Param({"0.0", "0.5", "1.0"})
+    private double relationDensity;
+
+    private ForkJoinPool pool;
+    private EntityGenerator entityGenerator;
+    private ApplicationConfig appConfig;
+    private EntityConfig entityConfig;
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        entityGenerator = new EntityGenerator(pool);
+        appConfig = SyntheticProjects.applicationConfig();
+        entityConfig = SyntheticProjects.entityConfig(entityCount, relationDensity);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public GeneratedOutput generateAllEntities() {
+        GeneratedOutput output = new GeneratedOutput();
+        entityGenerator.generateAllEntities(appConfig, entityConfig, output, new LogCollector(), Map.of(),
+                new PhaseTimings());
+        return output;
+    }
+}
@@ -0,0 +1,131 @@
+package vnikolaenko.github.jarch.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import vnikolaenko.github.jarch.generator.auxiliary.Field;
+import vnikolaenko.github.jarch.generator.config.ApplicationConfig;
+import vnikolaenko.github.jarch.generator.config.EntityConfig;
+import vnikolaenko.github.jarch.generator.config.IdGenerationConfig;
+import vnikolaenko.github.jarch.generator.config.PaginationConfig;
+import vnikolaenko.github.jarch.generator.generator.ConfigGenerator;
+import vnikolaenko.github.jarch.generator.generator.included.*;
+import vnikolaenko.github.jarch.generator.output.GeneratedOutput;
+import vnikolaenko.github.jarch.generator.utils.TypeMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Отдельные генераторы, последовательно для всех сущностей проекта
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneratorsBenchmark {
+
+    private static final String BASE_PACKAGE = SyntheticProjects.BASE_PACKAGE;
+
+    @Param({"10", "100", "1000"})
+    private int entityCount;
+
+    @Param({"0.0", "0.5", "1.0"})
+    private double relationDensity;
+
+    private List<String> names;
+    private List<List<Field>> fields;
+    private List<EntityGraphSpec> graphs;
+    private List<List<IndexSpec>> indexes;
+    private TypeMapper types;
+    private PaginationConfig pagination;
+    private IdGenerationConfig idGeneration;
+
+    @Setup
+    public void setUp() {
+        names = new ArrayList<>();
+        fields = new ArrayList<>();
+        graphs = new ArrayList<>();
+        indexes = new ArrayList<>();
+        EntityConfig entityConfig = SyntheticProjects.entityConfig(entityCount, relationDensity);
+        ApplicationConfig appConfig = SyntheticProjects.applicationConfig();
+        types = TypeMapper.forProject(appConfig, entityConfig);
+        pagination = appConfig.getPagination();
+        idGeneration = appConfig.getIdGeneration();
+        for (EntityConfig.EntityDefinition entity : entityConfig.getEntities()) {
+            names.add(entity.getName());
+            fields.add(SyntheticProjects.fields(entity));
+            graphs.add(EntityGraphSpec.of(entity.getName(), fields.get(fields.size() - 1)));
+            indexes.add(IndexSpec.of(entity, fields.get(fields.size() - 1), types));
+        }
+    }
+
+    @Benchmark
+    public GeneratedOutput modelGenerator() {
+        GeneratedOutput output = new GeneratedOutput();
+        for (int i = 0; i < names.size(); i++) {
+            ModelGenerator.generateEntity(BASE_PACKAGE, names.get(i), fields.get(i), types, idGeneration,
+                    graphs.get(i), false, indexes.get(i), output);
+        }
+        return output;
+    }
+
+    @Benchmark
+    public GeneratedOutput dtoGenerator() {
+        GeneratedOutput output = new GeneratedOutput();
+        for (int i = 0; i < names.size(); i++) {
+            DtoGenerator.generateDTO(BASE_PACKAGE, names.get(i), fields.get(i), types, output);
+        }
+        return output;
+    }
+
+    @Benchmark
+    public GeneratedOutput mapperGenerator() {
+        GeneratedOutput output = new GeneratedOutput();
+        for (int i = 0; i < names.size(); i++) {
+            MapperGenerator.generateMapper(BASE_PACKAGE, names.get(i), fields.get(i), types,
+                    ApplicationConfig.MappingStrategy.GENERATED, false, output);
+        }
+        return output;
+    }
+
+    @Benchmark
+    public GeneratedOutput repositoryGenerator() {
+        GeneratedOutput output = new GeneratedOutput();
+        for (int i = 0; i < names.size(); i++) {
+            RepositoryGenerator.generateRepository(BASE_PACKAGE, names.get(i), fields.get(i), types, pagination, null,
+                    graphs.get(i), false, output);
+        }
+        return output;
+    }
+
+    @Benchmark
+    public GeneratedOutput serviceGenerator() {
+        GeneratedOutput output = new GeneratedOutput();
+        for (int i = 0; i < names.size(); i++) {
+            ServiceGenerator.generateService(BASE_PACKAGE, names.get(i), types, pagination, null, graphs.get(i),
+                    ApplicationConfig.MappingStrategy.MODEL_MAPPER, false, false, output);
+        }
+        return output;
+    }
+
+    @Benchmark
+    public GeneratedOutput controllerGenerator() {
+        GeneratedOutput output = new GeneratedOutput();
+        for (String name : names) {
+            ControllerGenerator.generateController(BASE_PACKAGE, name, types, pagination, null, false, output);
+        }
+        return output;
+    }
+
+    /**
+     * Не зависит от числа сущностей: генерируется один раз на проект
+     */
+    @Benchmark
+    public GeneratedOutput configGenerator() {
+        GeneratedOutput output = new GeneratedOutput();
+        ConfigGenerator.generateModelMapperConfig(BASE_PACKAGE, output);
+        return output;
+    }
+}
@@ -0,0 +1,109 @@
+package vnikolaenko.github.jarch.benchmark;
+
+import vnikolaenko.github.jarch.generator.auxiliary.Field;
+import vnikolaenko.github.jarch.generator.auxiliary.Relation;
+import vnikolaenko.github.jarch.generator.auxiliary.TypeOfRelation;
+import vnikolaenko.github.jarch.generator.config.ApplicationConfig;
+import vnikolaenko.github.jarch.generator.config.EntityConfig;
+import vnikolaenko.github.jarch.generator.utils.ConfigReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Синтетические конфигурации для бенчмарков
+ * Конфигурация детерминирована: одинаковые параметры дают одинаковый набор сущностей
+ */
+final class SyntheticProjects {
+
+    static final String BASE_PACKAGE = "com.benchmark.app";
+
+    private static final String[] BASIC_TYPES = {"String", "Integer", "Long", "LocalDateTime", "BigDecimal", "Boolean"};
+    private static final int BASIC_FIELDS = 6;
+    private static final int MAX_RELATIONS = 4;
+
+    private SyntheticProjects() {
+    }
+
+    static ApplicationConfig applicationConfig() {
+        String json = """
+                {"basePackage":"%s","applicationName":"benchmark","buildTool":"MAVEN",
+                 "propertiesFormat":"PROPERTIES","serverPort":8080,"database":{"type":"H2"}}
+                """.formatted(BASE_PACKAGE);
+        try {
+            return new ConfigReader().readApplicationConfig(json.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param entityCount     число сущностей
+     * @param relationDensity доля от максимального числа связей сущности (0 - без связей, 1 - {@value MAX_RELATIONS})
+     */
+    static EntityConfig entityConfig(int entityCount, double relationDensity) {
+        Random random = new Random(42);
+        List<EntityConfig.EntityDefinition> entities = new ArrayList<>();
+
+        for (int i = 0; i < entityCount; i++) {
+            EntityConfig.EntityDefinition entity = new EntityConfig.EntityDefinition();
+            entity.setName("Entity" + i);
+
+            List<EntityConfig.FieldDefinition> fields = new ArrayList<>();
+            for (int f = 0; f < BASIC_FIELDS; f++) {
+                fields.add(field("field" + f, BASIC_TYPES[f % BASIC_TYPES.length], null, null));
+            }
+
+            int relations = (int) Math.round(relationDensity * MAX_RELATIONS);
+            for (int r = 0; r < relations && entityCount > 1; r++) {
+                String target = "Entity" + random.nextInt(entityCount);
+                TypeOfRelation type = TypeOfRelation.values()[random.nextInt(TypeOfRelation.values().length)];
+                boolean collection = type == TypeOfRelation.ONE_TO_MANY || type == TypeOfRelation.MANY_TO_MANY;
+                fields.add(field("relation" + r, collection ? "List<" + target + ">" : target, type.name(), target));
+            }
+
+            entity.setFields(fields);
+            entities.add(entity);
+        }
+
+        EntityConfig config = new EntityConfig();
+        config.setEntities(entities);
+        return config;
+    }
+
+    /**
+     * Поля сущности в том виде, в котором их получают генераторы
+     */
+    static List<Field> fields(EntityConfig.EntityDefinition entity) {
+        List<Field> fields = new ArrayList<>();
+        for (EntityConfig.FieldDefinition fieldDef : entity.getFields()) {
+            Field field = new Field();
+            field.setFieldName(fieldDef.getName());
+            field.setFieldType(fieldDef.getType());
+            if (fieldDef.getRelation() != null) {
+                Relation relation = new Relation();
+                relation.setTypeOfRelation(TypeOfRelation.valueOf(fieldDef.getRelation().getType()));
+                field.setRelation(relation);
+            }
+            fields.add(field);
+        }
+        return fields;
+    }
+
+    private static EntityConfig.FieldDefinition field(String name, String type, String relationType, String target) {
+        EntityConfig.FieldDefinition field = new EntityConfig.FieldDefinition();
+        field.setName(name);
+        field.setType(type);
+        if (relationType != null) {
+            EntityConfig.RelationDefinition relation = new EntityConfig.RelationDefinition();
+            relation.setType(relationType);
+            relation.setTargetEntity(target);
+            field.setRelation(relation);
+        }
+        return field;
+    }
+}
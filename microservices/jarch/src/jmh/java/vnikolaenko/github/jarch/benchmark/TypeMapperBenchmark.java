@@ -0,0 +1,38 @@
+package vnikolaenko.github.jarch.benchmark;
+
+import com.squareup.javapoet.TypeName;
+import org.openjdk.jmh.annotations.*;
+import vnikolaenko.github.jarch.generator.utils.TypeMapper;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypeMapperBenchmark {
+
+    @Param({"String", "LocalDateTime", "BigDecimal", "Entity1", "List<Entity2>", "Set<Entity3>"})
+    private String fieldType;
+
+    private TypeMapper precomputed;
+    private TypeMapper uncached;
+
+    @Setup
+    public void setUp() {
+        precomputed = TypeMapper.forProject(SyntheticProjects.applicationConfig(), SyntheticProjects.entityConfig(100, 1.0));
+        uncached = TypeMapper.of(SyntheticProjects.BASE_PACKAGE);
+    }
+
+    @Benchmark
+    public TypeName precomputed() {
+        return precomputed.getJavaType(fieldType);
+    }
+
+    @Benchmark
+    public TypeName uncached() {
+        return uncached.getJavaType(fieldType);
+    }
+}
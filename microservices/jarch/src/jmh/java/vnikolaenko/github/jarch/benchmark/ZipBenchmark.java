@@ -0,0 +1,65 @@
+package vnikolaenko.github.jarch.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import vnikolaenko.github.jarch.generator.CodeGenerationOrchestrator;
+import vnikolaenko.github.jarch.generator.generator.ApplicationFileGenerator;
+import vnikolaenko.github.jarch.generator.generator.EntityGenerator;
+import vnikolaenko.github.jarch.generator.generator.MigrationGenerator;
+import vnikolaenko.github.jarch.generator.generator.SharedComponentGenerator;
+import vnikolaenko.github.jarch.generator.output.GeneratedOutput;
+import vnikolaenko.github.jarch.generator.output.FileArchive;
+import vnikolaenko.github.jarch.generator.template.ApplicationPropertiesTemplate;
+import vnikolaenko.github.jarch.utils.LogCollector;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Упаковка сгенерированного проекта в ZIP: во временный файл (для кэша) и потоком (при скачивании)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ZipBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int entityCount;
+
+    @Param({"0.5"})
+    private double relationDensity;
+
+    private GeneratedOutput output;
+
+    @Setup
+    public void setUp() {
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            CodeGenerationOrchestrator orchestrator = new CodeGenerationOrchestrator(
+                    new EntityGenerator(pool),
+                    new ApplicationFileGenerator(new ApplicationPropertiesTemplate()),
+                    new SharedComponentGenerator(),
+                    new MigrationGenerator());
+            output = orchestrator.generateCompleteProject(SyntheticProjects.applicationConfig(),
+                    SyntheticProjects.entityConfig(entityCount, relationDensity), new LogCollector());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public long spoolZip() throws IOException {
+        FileArchive archive = FileArchive.spool(output);
+        archive.release();
+        return archive.sizeInBytes();
+    }
+
+    @Benchmark
+    public void streamZip() throws IOException {
+        output.writeZip(OutputStream.nullOutputStream());
+    }
+}
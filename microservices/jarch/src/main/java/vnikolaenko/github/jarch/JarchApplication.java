@@ -3,9 +3,11 @@ package vnikolaenko.github.jarch;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication()
 @EntityScan("vnikolaenko.github.jarch.model")
+@EnableScheduling
 public class JarchApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,53 @@
+package vnikolaenko.github.jarch.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class GenerationExecutorConfig {
+
+    /**
+     * Отдельный пул для параллельной генерации сущностей
+     * Генерация упирается в CPU (форматирование JavaPoet), поэтому пул ограничен числом ядер
+     * и не пересекается с общим ForkJoinPool JVM
+     */
+    @Bean(name = "entityGenerationExecutor", destroyMethod = "shutdown")
+    public ExecutorService entityGenerationExecutor(
+            @Value("${jarch.generation.entity-parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(threads);
+    }
+
+    /**
+     * Пул исполнителей задач генерации проектов
+     * Очередь ограничена: при ее заполнении новые задачи отклоняются (429), а не копятся в памяти
+     */
+    @Bean(name = "generationJobExecutor", destroyMethod = "shutdown")
+    public ThreadPoolExecutor generationJobExecutor(
+            @Value("${jarch.generation.jobs.workers:4}") int workers,
+            @Value("${jarch.generation.jobs.queue-capacity:50}") int queueCapacity) {
+        ThreadFactory threadFactory = Thread.ofPlatform().name("generation-worker-", 1).factory();
+        return new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Пул для параллельной генерации проектов внутри пакетной задачи
+     * Отделен от пула задач, чтобы пакет не ждал освобождения собственного исполнителя
+     */
+    @Bean(name = "batchGenerationExecutor", destroyMethod = "shutdown")
+    public ExecutorService batchGenerationExecutor(
+            @Value("${jarch.generation.batch.parallelism:4}") int parallelism) {
+        ThreadFactory threadFactory = Thread.ofPlatform().name("batch-generation-", 1).factory();
+        return Executors.newFixedThreadPool(parallelism, threadFactory);
+    }
+}
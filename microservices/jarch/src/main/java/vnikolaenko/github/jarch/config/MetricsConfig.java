@@ -0,0 +1,33 @@
+package vnikolaenko.github.jarch.config;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Метрики пулов генерации и настройки Actuator по умолчанию (metrics.properties)
+ * Значения по умолчанию переопределяются application.properties
+ */
+@Configuration
+@PropertySource("classpath:metrics.properties")
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder generationExecutorMetrics(
+            @Qualifier("generationJobExecutor") ThreadPoolExecutor generationJobExecutor,
+            @Qualifier("entityGenerationExecutor") ExecutorService entityGenerationExecutor,
+            @Qualifier("batchGenerationExecutor") ExecutorService batchGenerationExecutor) {
+        return registry -> {
+            new ExecutorServiceMetrics(generationJobExecutor, "generation.jobs", Tags.empty()).bindTo(registry);
+            new ExecutorServiceMetrics(entityGenerationExecutor, "generation.entities", Tags.empty()).bindTo(registry);
+            new ExecutorServiceMetrics(batchGenerationExecutor, "generation.batch", Tags.empty()).bindTo(registry);
+        };
+    }
+}
@@ -3,6 +3,7 @@ package vnikolaenko.github.jarch.config;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.support.converter.DefaultClassMapper;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
@@ -13,6 +14,11 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class RabbitMQConfig {
 
+    public static final String GENERATION_EXCHANGE = "generation.exchange";
+    public static final String GENERATION_JOBS_QUEUE = "generation.jobs";
+    public static final String GENERATION_JOBS_ROUTING_KEY = "generation.jobs.routing.key";
+    public static final String GENERATION_EVENTS_EXCHANGE = "generation.events";
+
     @Bean
     public MessageConverter jsonMessageConverter() {
         Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter();
@@ -27,6 +33,7 @@ public class RabbitMQConfig {
         DefaultClassMapper classMapper = new DefaultClassMapper();
         classMapper.setTrustedPackages(
                 "vnikolaenko.github.notifiation_app.rabbit",
+                "vnikolaenko.github.network.rabbit",
                 "java.util",
                 "java.time"
         );
@@ -54,4 +61,28 @@ public class RabbitMQConfig {
                 .to(exchange)
                 .with("email.routing.key");
     }
-}
\ No newline at end of file
+
+    // Очередь задач генерации для воркеров
+    @Bean
+    public DirectExchange generationExchange() {
+        return new DirectExchange(GENERATION_EXCHANGE);
+    }
+
+    @Bean
+    public Queue generationJobsQueue() {
+        return new Queue(GENERATION_JOBS_QUEUE, true);
+    }
+
+    @Bean
+    public Binding generationJobsBinding(Queue generationJobsQueue, DirectExchange generationExchange) {
+        return BindingBuilder.bind(generationJobsQueue)
+                .to(generationExchange)
+                .with(GENERATION_JOBS_ROUTING_KEY);
+    }
+
+    // События хода генерации рассылаются всем узлам
+    @Bean
+    public FanoutExchange generationEventsExchange() {
+        return new FanoutExchange(GENERATION_EVENTS_EXCHANGE);
+    }
+}
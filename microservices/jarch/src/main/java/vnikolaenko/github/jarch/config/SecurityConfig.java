@@ -1,5 +1,6 @@
 package vnikolaenko.github.jarch.config;
 
+import jakarta.servlet.DispatcherType;
 import vnikolaenko.github.jarch.jwt.JwtValidationFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
@@ -23,9 +24,12 @@ public class SecurityConfig {
         http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        // Асинхронная отдача (SSE, потоковое скачивание ZIP) уже прошла проверку на исходном запросе
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers("/jarch/generate-project").authenticated()
                         .requestMatchers("/jarch/generate-project/download/**").authenticated()
                         .requestMatchers("/jarch/generate-project/stream/**").permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(sess -> sess
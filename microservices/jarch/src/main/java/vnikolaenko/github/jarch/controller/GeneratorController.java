@@ -1,180 +1,207 @@
 package vnikolaenko.github.jarch.controller;
 
-import vnikolaenko.github.jarch.service.MinioService;
-import vnikolaenko.github.jarch.utils.LogCollector;
-import lombok.AllArgsConstructor;
-import org.apache.tomcat.util.http.fileupload.FileUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.*;
-import vnikolaenko.github.jarch.generator.config.ApplicationConfig;
-import vnikolaenko.github.jarch.generator.CodeGenerationOrchestrator;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import vnikolaenko.github.jarch.generator.output.GeneratedArchive;
 import vnikolaenko.github.jarch.model.FileType;
+import vnikolaenko.github.jarch.model.GenerationJob;
+import vnikolaenko.github.jarch.service.BatchGenerationService;
+import vnikolaenko.github.jarch.service.GenerationCache;
+import vnikolaenko.github.jarch.service.GenerationJobService;
+import vnikolaenko.github.jarch.service.GenerationResultStore;
+import vnikolaenko.github.jarch.service.ProjectAccessService;
 import vnikolaenko.github.jarch.service.ProjectFileService;
+import vnikolaenko.github.jarch.service.ProjectGenerationService;
+import vnikolaenko.github.jarch.service.RemoteResultStore;
 import vnikolaenko.github.jarch.service.SavingService;
-import vnikolaenko.github.jarch.service.ProjectAccessService;
+import vnikolaenko.github.jarch.utils.SecurityUtils;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 @RestController
 @RequestMapping("/jarch/generate-project")
-@AllArgsConstructor
 public class GeneratorController {
 
-    private final Map<String, GenerationData> generationStore = new ConcurrentHashMap<>();
-    private final Map<String, byte[]> zipStore = new ConcurrentHashMap<>();
-
-    private final CodeGenerationOrchestrator orchestrator;
-    private final MinioService minioService;
     private final ProjectFileService projectFileService;
     private final SavingService savingService;
     private final ProjectAccessService projectAccessService;
+    private final SecurityUtils securityUtils;
+    private final GenerationJobService jobService;
+    private final BatchGenerationService batchService;
+    private final GenerationResultStore resultStore;
+    private final RemoteResultStore remoteResultStore;
+    private final GenerationCache generationCache;
+    private final Duration streamTimeout;
+
+    public GeneratorController(ProjectFileService projectFileService,
+                               SavingService savingService,
+                               ProjectAccessService projectAccessService,
+                               SecurityUtils securityUtils,
+                               GenerationJobService jobService,
+                               BatchGenerationService batchService,
+                               GenerationResultStore resultStore,
+                               RemoteResultStore remoteResultStore,
+                               GenerationCache generationCache,
+                               @Value("${jarch.generation.jobs.stream-timeout:PT10M}") Duration streamTimeout) {
+        this.projectFileService = projectFileService;
+        this.savingService = savingService;
+        this.projectAccessService = projectAccessService;
+        this.securityUtils = securityUtils;
+        this.jobService = jobService;
+        this.batchService = batchService;
+        this.resultStore = resultStore;
+        this.remoteResultStore = remoteResultStore;
+        this.generationCache = generationCache;
+        this.streamTimeout = streamTimeout;
+    }
 
     /**
      * Генерация проекта из сохранения
+     * Задача сразу ставится в очередь, ход выполнения доступен через /stream/{id}
      */
     @PostMapping("/from-saving/{savingId}")
     public ResponseEntity<Map<String, String>> generateFromSaving(@PathVariable Long savingId) throws Exception {
         var saving = savingService.getSavingById(savingId)
                 .orElseThrow(() -> new RuntimeException("Saving not found"));
         projectAccessService.validateProjectAccess(saving.getProject().getId());
-        
-        String generationId = UUID.randomUUID().toString();
-        
+
         byte[] entityConfig = projectFileService.getFileContent(savingId, FileType.ENTITY_CONFIG);
         byte[] appConfig = projectFileService.getFileContent(savingId, FileType.APP_CONFIG);
-        
-        GenerationData data = new GenerationData(savingId, entityConfig, appConfig);
-        generationStore.put(generationId, data);
-        
-        return ResponseEntity.ok(Map.of("id", generationId));
+
+        GenerationJob job = jobService.submit(savingId, securityUtils.getCurrentUsername(), appConfig, entityConfig);
+
+        return ResponseEntity.ok(Map.of("id", job.getId(), "status", job.getStatus().name()));
     }
 
     /**
-     * SSE подключение для отслеживания генерации
+     * Пакетная генерация нескольких сохранений одной задачей
+     * output=archive - один ZIP со всеми проектами через /download/{id};
+     * output=manifest - проекты загружаются в MinIO, ключи доступны через /batch/{id}/manifest
+     * Ход выполнения (события progress) доступен через /stream/{id}
      */
-    @GetMapping("/stream/{id}")
-    public SseEmitter stream(@PathVariable String id) {
-        SseEmitter emitter = new SseEmitter();
-
-        GenerationData data = generationStore.get(id);
-        if (data == null) {
-            try {
-                emitter.send(SseEmitter.event().name("error").data("Файлы не найдены"));
-            } catch (IOException ignored) {
-            }
-            emitter.complete();
-            return emitter;
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, String>> generateBatch(@RequestBody List<Long> savingIds,
+                                                             @RequestParam(defaultValue = "archive") String output)
+            throws Exception {
+        List<Long> ids = savingIds.stream().distinct().toList();
+        if (ids.isEmpty() || ids.size() > batchService.getMaxSize()) {
+            throw new IllegalArgumentException("Batch must contain from 1 to " + batchService.getMaxSize() + " savings");
+        }
+        BatchGenerationService.BatchOutput outputMode =
+                BatchGenerationService.BatchOutput.valueOf(output.toUpperCase());
+
+        List<BatchGenerationService.BatchItem> items = new ArrayList<>();
+        for (Long savingId : ids) {
+            var saving = savingService.getSavingById(savingId)
+                    .orElseThrow(() -> new RuntimeException("Saving not found: " + savingId));
+            projectAccessService.validateProjectAccess(saving.getProject().getId());
+
+            items.add(new BatchGenerationService.BatchItem(savingId, saving.getProject().getId(), saving.getName(),
+                    projectFileService.getFileContent(savingId, FileType.APP_CONFIG),
+                    projectFileService.getFileContent(savingId, FileType.ENTITY_CONFIG)));
         }
 
-        LogCollector logCollector = new LogCollector(emitter);
-
-        CompletableFuture.runAsync(() -> {
-            try {
-                logCollector.info("🚀 Начало генерации проекта...");
-
-                Path entityTemp = Files.createTempFile("entity-" + id, ".json");
-                Path appTemp = Files.createTempFile("app-" + id, ".json");
-                
-                Files.write(entityTemp, data.getEntityConfig());
-                Files.write(appTemp, data.getAppConfig());
-
-                ApplicationConfig config = ApplicationConfig.fromArgs(new String[]{
-                        appTemp.toString(),
-                        entityTemp.toString()
-                });
-
-                logCollector.info("📋 Конфигурация загружена");
-
-                Path tempProjectDir = Files.createDirectory(Path.of("project-" + id));
-
-                orchestrator.generateCompleteProject(config, tempProjectDir);
+        GenerationJob job = jobService.submitBatch(ids, securityUtils.getCurrentUsername(),
+                (jobId, logCollector) -> batchService.generate(jobId, items, outputMode, logCollector));
 
-                logCollector.info("📦 Упаковка в ZIP...");
+        return ResponseEntity.ok(Map.of("id", job.getId(), "status", job.getStatus().name()));
+    }
 
-                byte[] zipBytes = createZip(tempProjectDir);
-                zipStore.put(id, zipBytes);
+    /**
+     * Манифест пакетной генерации с ключами архивов проектов в MinIO
+     */
+    @GetMapping(value = "/batch/{id}/manifest", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> batchManifest(@PathVariable String id) throws Exception {
+        getOwnJob(id);
+        return ResponseEntity.ok(batchService.getManifest(id));
+    }
 
-                logCollector.getEmitter().send(SseEmitter.event().name("zipReady").data("ready"));
-                logCollector.info("✅ Генерация завершена");
+    /**
+     * SSE подключение к журналу задачи генерации
+     * Можно подключиться в любой момент: уже отправленные события будут повторены
+     */
+    @GetMapping("/stream/{id}")
+    public SseEmitter stream(@PathVariable String id) {
+        getOwnJob(id);
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        jobService.attach(id, emitter);
+        return emitter;
+    }
 
-                Files.deleteIfExists(entityTemp);
-                Files.deleteIfExists(appTemp);
-                FileUtils.deleteDirectory(tempProjectDir.toFile());
-                
-            } catch (Exception e) {
-                try {
-                    logCollector.error("❌ Ошибка: " + e.getMessage());
-                } catch (Exception ignored) {
-                }
-            } finally {
-                logCollector.getEmitter().complete();
-                generationStore.remove(id);
-            }
-        });
+    /**
+     * Состояние задачи генерации
+     */
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<GenerationJob> job(@PathVariable String id) {
+        return ResponseEntity.ok(getOwnJob(id));
+    }
 
-        return logCollector.getEmitter();
+    /**
+     * Статистика кэша генерации (попадания/промахи)
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Long>> cacheStats() {
+        return ResponseEntity.ok(generationCache.getStats());
     }
 
+    /**
+     * Скачивание результата генерации
+     * mode=diff - только файлы, изменившиеся с предыдущей генерации этого сохранения,
+     * удаленные пути перечислены в файле .jarch-deleted-files
+     */
     @GetMapping("/download/{id}")
-    public ResponseEntity<byte[]> download(@PathVariable String id) {
-        byte[] zip = zipStore.get(id);
-        zipStore.remove(id);
+    public ResponseEntity<StreamingResponseBody> download(@PathVariable String id,
+                                                          @RequestParam(defaultValue = "full") String mode) {
+        getOwnJob(id);
+        boolean diff = "diff".equalsIgnoreCase(mode);
+        String diffId = id + ProjectGenerationService.DIFF_SUFFIX;
+        GeneratedArchive archive = take(diff ? diffId : id);
+        GeneratedArchive other = take(diff ? id : diffId);
+        if (other != null) {
+            other.release();
+        }
 
-        if (zip == null) {
+        if (archive == null) {
             return ResponseEntity.badRequest().body(null);
         }
 
+        String filename = diff ? "project-" + id + "-diff.zip" : "project-" + id + ".zip";
+        // ZIP пишется в ответ по мере упаковки (chunked), без промежуточного буфера
         return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=project-" + id + ".zip")
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
                 .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .body(zip);
+                .body(out -> {
+                    try {
+                        archive.writeTo(out);
+                    } finally {
+                        archive.release();
+                    }
+                });
     }
 
-    private byte[] createZip(Path dir) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-
-        try (ZipOutputStream zos = new ZipOutputStream(baos)) {
-            Files.walk(dir)
-                    .filter(Files::isRegularFile)
-                    .forEach(path -> {
-                        try {
-                            zos.putNextEntry(new ZipEntry(dir.relativize(path).toString()));
-                            zos.write(Files.readAllBytes(path));
-                            zos.closeEntry();
-                        } catch (IOException e) {
-                            throw new RuntimeException(e);
-                        }
-                    });
-        }
-        return baos.toByteArray();
+    /**
+     * Результат локальной генерации хранится в памяти узла, результат воркера - в MinIO
+     */
+    private GeneratedArchive take(String id) {
+        GeneratedArchive archive = resultStore.take(id);
+        return archive != null ? archive : remoteResultStore.take(id);
     }
-    private static class GenerationData {
-        private final Long savingId;
-        private final byte[] entityConfig;
-        private final byte[] appConfig;
-        
-        public GenerationData(Long savingId, byte[] entityConfig, byte[] appConfig) {
-            this.savingId = savingId;
-            this.entityConfig = entityConfig;
-            this.appConfig = appConfig;
-        }
-        public byte[] getEntityConfig() {
-            return entityConfig;
-        }
-        public byte[] getAppConfig() {
-            return appConfig;
+
+    private GenerationJob getOwnJob(String id) {
+        GenerationJob job = jobService.getJob(id)
+                .orElseThrow(() -> new RuntimeException("Generation job not found"));
+        if (!job.getUsername().equals(securityUtils.getCurrentUsername())) {
+            throw new AccessDeniedException("No access to generation job");
         }
+        return job;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,55 @@
+package vnikolaenko.github.jarch.controller.project_manipulation;
+
+import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import vnikolaenko.github.jarch.service.ProjectAccessService;
+import vnikolaenko.github.jarch.service.TemplateOverrideService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Пользовательские шаблоны файлов проекта (pom.xml, application.properties, Dockerfile и т.д.)
+ */
+@RestController
+@AllArgsConstructor
+@RequestMapping("project-templates")
+public class TemplateController {
+    private final TemplateOverrideService templateOverrideService;
+    private final ProjectAccessService projectAccessService;
+
+    @GetMapping("get-all/{projectId}")
+    public ResponseEntity<List<TemplateOverrideService.TemplateInfo>> getTemplates(@PathVariable Long projectId)
+            throws Exception {
+        projectAccessService.validateProjectAccess(projectId);
+        return ResponseEntity.ok(templateOverrideService.list(projectId));
+    }
+
+    @GetMapping("get/{projectId}/{name}")
+    public ResponseEntity<String> getTemplate(@PathVariable Long projectId, @PathVariable String name) throws Exception {
+        projectAccessService.validateProjectAccess(projectId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(templateOverrideService.getSource(projectId, name));
+    }
+
+    @PutMapping(path = "upload/{projectId}/{name}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Void> uploadTemplate(@PathVariable Long projectId,
+                                               @PathVariable String name,
+                                               @RequestParam("template") MultipartFile templateFile) throws Exception {
+        projectAccessService.validateProjectAccess(projectId);
+        templateOverrideService.upload(projectId, name, new String(templateFile.getBytes(), StandardCharsets.UTF_8));
+        return ResponseEntity.ok().build();
+    }
+
+    @DeleteMapping("delete/{projectId}/{name}")
+    public ResponseEntity<Void> deleteTemplate(@PathVariable Long projectId, @PathVariable String name)
+            throws Exception {
+        projectAccessService.validateProjectAccess(projectId);
+        templateOverrideService.delete(projectId, name);
+        return ResponseEntity.ok().build();
+    }
+}
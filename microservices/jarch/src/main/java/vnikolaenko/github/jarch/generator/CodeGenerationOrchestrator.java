@@ -1,45 +1,72 @@
 package vnikolaenko.github.jarch.generator;
 
+import vnikolaenko.github.jarch.generator.output.GeneratedOutput;
+import vnikolaenko.github.jarch.generator.output.ProjectSnapshot;
 import vnikolaenko.github.jarch.generator.template.BuildTemplate;
 import vnikolaenko.github.jarch.generator.template.DockerTemplate;
+import vnikolaenko.github.jarch.generator.template.TemplateSet;
 import vnikolaenko.github.jarch.utils.LogCollector;
 import lombok.AllArgsConstructor;
 import vnikolaenko.github.jarch.generator.config.ApplicationConfig;
 import vnikolaenko.github.jarch.generator.config.EntityConfig;
 import vnikolaenko.github.jarch.generator.generator.ApplicationFileGenerator;
 import vnikolaenko.github.jarch.generator.generator.EntityGenerator;
-import vnikolaenko.github.jarch.generator.utils.ConfigReader;
+import vnikolaenko.github.jarch.generator.generator.MigrationGenerator;
+import vnikolaenko.github.jarch.generator.generator.SharedComponentGenerator;
+import vnikolaenko.github.jarch.generator.utils.EntityFingerprints;
+import vnikolaenko.github.jarch.generator.utils.PhaseTimings;
 import org.springframework.stereotype.Service;
 
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 public class CodeGenerationOrchestrator {
 
-    private final ConfigReader configReader;
     private final EntityGenerator entityGenerator;
     private final ApplicationFileGenerator applicationFileGenerator;
-    private final LogCollector logCollector;
+    private final SharedComponentGenerator sharedComponentGenerator;
+    private final MigrationGenerator migrationGenerator;
 
 
 
-    // Новый метод с поддержкой целевой директории
-    public void generateCompleteProject(ApplicationConfig appConfig, Path targetDir) throws Exception {
-        logCollector.info("📖 Reading entity configuration from: " + appConfig.getEntityConfigPath());
-
-        // Создаем целевую директорию если её нет
-        if (!targetDir.toFile().exists()) {
-            targetDir.toFile().mkdirs();
-        }
+    // Генерирует проект целиком в памяти, не обращаясь к файловой системе
+    public GeneratedOutput generateCompleteProject(ApplicationConfig appConfig, EntityConfig entityConfig,
+                                                   LogCollector logCollector) {
+        return generateProject(appConfig, entityConfig, logCollector, null, TemplateSet.builtIn(), new PhaseTimings())
+                .getOutput();
+    }
 
-        // Чтение конфигурации сущностей из указанного файла
-        EntityConfig entityConfig = configReader.readEntityConfig(appConfig.getEntityConfigPath());
+    /**
+     * Генерирует проект, повторно используя файлы сущностей, не изменившихся с предыдущей генерации
+     *
+     * @param previous результат предыдущей генерации того же сохранения или null
+     * @param templates шаблоны файлов проекта с учетом пользовательских переопределений
+     * @param timings  накопитель времени фаз генерации
+     * @return результат, пригодный для следующей инкрементальной генерации
+     */
+    public ProjectSnapshot generateProject(ApplicationConfig appConfig, EntityConfig entityConfig,
+                                           LogCollector logCollector, ProjectSnapshot previous,
+                                           TemplateSet templates, PhaseTimings timings) {
+        GeneratedOutput output = new GeneratedOutput();
+
+        Map<String, String> fingerprints = EntityFingerprints.compute(appConfig, entityConfig);
+        Map<String, GeneratedOutput> reusable = previous != null ? previous.reusableOutputs(fingerprints) : Map.of();
 
         // Генерация структуры проекта
-        generateProjectStructure(appConfig, entityConfig, targetDir);
+        EntityGenerator.EntityGenerationReport report =
+                generateProjectStructure(appConfig, entityConfig, output, logCollector, reusable, templates, timings);
+        if (report.reused() > 0) {
+            logCollector.info("♻️ Regenerated " + (entityConfig.getEntities().size() - report.reused()) +
+                    " changed entities, reused " + report.reused() + " unchanged");
+        }
+        if (!report.failures().isEmpty()) {
+            logCollector.warn("⚠️ " + report.failures().size() + " of " + entityConfig.getEntities().size() +
+                    " entities were not generated: " + report.failures().stream()
+                    .map(EntityGenerator.EntityFailure::entityName)
+                    .collect(Collectors.joining(", ")));
+        }
 
         logCollector.info("✅ Generated project with " + entityConfig.getEntities().size() + " entities");
         logCollector.info("📦 Build tool: " + appConfig.getBuildTool());
@@ -47,28 +74,47 @@ public class CodeGenerationOrchestrator {
         logCollector.info("🗄️ Database: " + appConfig.getDatabaseConfig().getType());
         logCollector.info("🔧 Properties format: " + appConfig.getPropertiesFormat());
 
-        printSetupInstructions(appConfig);
+        printSetupInstructions(appConfig, logCollector);
+        return new ProjectSnapshot(fingerprints, report.entityOutputs(), output, report.failures().stream()
+                .map(EntityGenerator.EntityFailure::entityName)
+                .toList());
     }
 
-    private void generateProjectStructure(ApplicationConfig appConfig, EntityConfig entityConfig, Path targetDir) throws Exception {
-        String config = BuildTemplate.generateBuildFile(appConfig);
+    private EntityGenerator.EntityGenerationReport generateProjectStructure(ApplicationConfig appConfig, EntityConfig entityConfig,
+                                                                            GeneratedOutput output, LogCollector logCollector,
+                                                                            Map<String, GeneratedOutput> reusable,
+                                                                            TemplateSet templates, PhaseTimings timings) {
+        String config = timings.time(PhaseTimings.BUILD_TEMPLATE,
+                () -> BuildTemplate.generateBuildFile(appConfig, entityConfig, templates));
         if (appConfig.getBuildTool().equals(ApplicationConfig.BuildTool.MAVEN)) {
-            Files.writeString(Paths.get(targetDir + "/pom.xml"), config);
+            output.writeString("pom.xml", config);
         } else {
-            Files.writeString(Paths.get(targetDir + "/build.gradle"), config);
+            output.writeString("build.gradle", config);
         }
 
-        String docker = DockerTemplate.generateDockerfile(appConfig);
-        Files.writeString(Paths.get(targetDir + "/Dockerfile"), docker);
+        String docker = timings.time(PhaseTimings.DOCKER_TEMPLATE,
+                () -> DockerTemplate.generateDockerfile(appConfig, templates));
+        output.writeString("Dockerfile", docker);
 
         // Генерация основных классов приложения
-        applicationFileGenerator.generateApplicationFiles(appConfig, targetDir);
+        timings.time(PhaseTimings.APPLICATION_FILES,
+                () -> applicationFileGenerator.generateApplicationFiles(appConfig, entityConfig, templates, output,
+                        logCollector));
+
+        // Общие компоненты проекта генерируются один раз, до сущностей
+        timings.time(PhaseTimings.SHARED_COMPONENTS,
+                () -> sharedComponentGenerator.generateSharedComponents(appConfig, entityConfig, output,
+                        logCollector));
+
+        // Скрипты миграций описывают схему всех сущностей сразу
+        timings.time(PhaseTimings.MIGRATIONS,
+                () -> migrationGenerator.generateMigrations(appConfig, entityConfig, output, logCollector));
 
         // Генерация сущностей и связанных компонентов
-        entityGenerator.generateAllEntities(appConfig, entityConfig, targetDir);
+        return entityGenerator.generateAllEntities(appConfig, entityConfig, output, logCollector, reusable, timings);
     }
 
-    private void printSetupInstructions(ApplicationConfig config) {
+    private void printSetupInstructions(ApplicationConfig config, LogCollector logCollector) {
         logCollector.info("\n🚀 SETUP INSTRUCTIONS:");
 
         if (config.getDatabaseConfig().getType() == ApplicationConfig.DatabaseType.POSTGRESQL) {
@@ -7,4 +7,5 @@ public class Field {
     private String fieldName;
     private String fieldType;
     private Relation relation;
+    private boolean required;
 }
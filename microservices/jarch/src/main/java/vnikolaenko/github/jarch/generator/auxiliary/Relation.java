@@ -2,7 +2,13 @@ package vnikolaenko.github.jarch.generator.auxiliary;
 
 import lombok.Data;
 
+import java.util.List;
+
 @Data
 public class Relation {
     private TypeOfRelation typeOfRelation;
+    private String targetEntity;
+    // Имена констант jakarta.persistence.FetchType и CascadeType; null - значения по умолчанию генератора
+    private String fetchType;
+    private List<String> cascadeTypes;
 }
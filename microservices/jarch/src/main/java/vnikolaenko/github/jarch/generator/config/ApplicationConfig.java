@@ -1,10 +1,14 @@
 package vnikolaenko.github.jarch.generator.config;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import vnikolaenko.github.jarch.generator.utils.ConfigReader;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 
 @Data
 @NoArgsConstructor
@@ -21,6 +25,33 @@ public class ApplicationConfig {
         H2, POSTGRESQL, MYSQL
     }
 
+    /**
+     * Преобразование между сущностями и DTO в сгенерированном проекте
+     * MODEL_MAPPER - ModelMapper на рефлексии; GENERATED - классы-мапперы, написанные генератором;
+     * MAPSTRUCT - интерфейсы MapStruct, реализация создается при компиляции проекта
+     */
+    public enum MappingStrategy {
+        MODEL_MAPPER, GENERATED, MAPSTRUCT
+    }
+
+    /**
+     * Стек сгенерированного проекта
+     * SERVLET - Spring MVC и JPA; REACTIVE - WebFlux и R2DBC: репозитории, сервисы и контроллеры возвращают
+     * Mono и Flux, ни один запрос не блокирует поток
+     */
+    public enum Stack {
+        SERVLET, REACTIVE
+    }
+
+    /**
+     * Потоки, на которых сгенерированный проект обрабатывает запросы
+     * PLATFORM - пул потоков Tomcat по умолчанию; VIRTUAL_THREADS - виртуальный поток на каждый запрос,
+     * блокирующие вызовы JPA не занимают поток ОС, число одновременных запросов ограничено соединениями Tomcat
+     */
+    public enum ConcurrencyModel {
+        PLATFORM, VIRTUAL_THREADS
+    }
+
     @JsonProperty("basePackage")
     private String basePackage = "com.myapp";
 
@@ -39,7 +70,37 @@ public class ApplicationConfig {
     @JsonProperty("database")
     private DatabaseConfig databaseConfig = new DatabaseConfig();
 
+    @JsonProperty("idGeneration")
+    private IdGenerationConfig idGeneration = new IdGenerationConfig();
+
+    @JsonProperty("mappingStrategy")
+    private MappingStrategy mappingStrategy = MappingStrategy.MODEL_MAPPER;
+
+    @JsonProperty("stack")
+    private Stack stack = Stack.SERVLET;
+
+    @JsonProperty("concurrencyModel")
+    private ConcurrencyModel concurrencyModel = ConcurrencyModel.PLATFORM;
+
+    @JsonProperty("pagination")
+    private PaginationConfig pagination = new PaginationConfig();
+
+    @JsonProperty("bulk")
+    private BulkConfig bulk = new BulkConfig();
+
+    @JsonProperty("migrations")
+    private MigrationConfig migrations = new MigrationConfig();
+
+    /**
+     * Пользовательские псевдонимы типов полей: имя -> базовый тип, сущность или полное имя класса
+     * Например, "Money" -> "BigDecimal", "Uuid" -> "java.util.UUID"
+     */
+    @JsonProperty("typeAliases")
+    private Map<String, String> typeAliases = new LinkedHashMap<>();
+
+    @JsonIgnore
     private String appConfigPath;  // Путь к app-config.json
+    @JsonIgnore
     private String entityConfigPath; // Путь к entity-config.json
 
     public static ApplicationConfig fromArgs(String[] args) {
@@ -48,29 +109,19 @@ public class ApplicationConfig {
             System.exit(1);
         }
 
-        ApplicationConfig config = new ApplicationConfig();
-        config.setAppConfigPath(args[0]);
-        config.setEntityConfigPath(args[1]);
-
         // Загружаем настройки из app-config.json
+        // ConfigReader не хранит состояния: парсер общий для всех экземпляров
+        ApplicationConfig config = null;
         try {
-            ConfigReader configReader = new ConfigReader();
-            ApplicationConfig loadedConfig = configReader.readApplicationConfig(args[0]);
-
-            // Копируем все поля из загруженного конфига
-            config.setBasePackage(loadedConfig.getBasePackage());
-            config.setApplicationName(loadedConfig.getApplicationName());
-            config.setBuildTool(loadedConfig.getBuildTool());
-            config.setPropertiesFormat(loadedConfig.getPropertiesFormat());
-            config.setServerPort(loadedConfig.getServerPort());
-            config.setDatabaseConfig(loadedConfig.getDatabaseConfig());
-
+            config = new ConfigReader().readApplicationConfig(args[0]);
         } catch (Exception e) {
             System.err.println("❌ Error loading app config from: " + args[0]);
             System.err.println("Error: " + e.getMessage());
             System.exit(1);
         }
 
+        config.setAppConfigPath(args[0]);
+        config.setEntityConfigPath(args[1]);
         return config;
     }
 
@@ -0,0 +1,30 @@
+package vnikolaenko.github.jarch.generator.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Массовые операции создания, обновления и удаления в сгенерированных контроллерах
+ * Включает два вида эндпоинтов с разной семантикой:
+ * POST /batch сохраняет список одной транзакцией (все или ничего),
+ * POST/PUT/DELETE /bulk обрабатывает список частями по chunkSize и возвращает результат каждого элемента.
+ * Реактивный стек получает только /batch
+ */
+@Setter
+@Getter
+public class BulkConfig {
+
+    @JsonProperty("enabled")
+    private boolean enabled = false;
+
+    /**
+     * Число элементов, обрабатываемых одной транзакцией
+     * Значение по умолчанию для свойства app.bulk.chunk-size сгенерированного проекта
+     */
+    @JsonProperty("chunkSize")
+    private int chunkSize = 500;
+
+    public BulkConfig() {}
+
+}
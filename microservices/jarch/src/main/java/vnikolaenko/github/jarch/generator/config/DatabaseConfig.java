@@ -32,6 +32,12 @@ public class DatabaseConfig {
     @JsonProperty("poolSize")
     private int poolSize = 10;
 
+    /**
+     * Размер пакета JDBC, которым Hibernate отправляет вставки и обновления
+     */
+    @JsonProperty("batchSize")
+    private int batchSize = 50;
+
     public DatabaseConfig() {}
 
 }
\ No newline at end of file
@@ -13,6 +13,37 @@ public class EntityConfig {
         private String name;
         private String description;
         private List<FieldDefinition> fields;
+        private KeysetDefinition keyset;
+        private CacheDefinition cache;
+        private List<IndexDefinition> indexes;
+    }
+
+    /**
+     * Составной индекс сущности; колонки индекса идут в порядке fields
+     */
+    @Data
+    public static class IndexDefinition {
+        private List<String> fields;
+        private boolean unique;
+    }
+
+    /**
+     * Курсорная (keyset) выдача страниц вместо смещения; включается наличием блока у сущности
+     * Без sortField страницы упорядочены по id, иначе по паре (sortField, id)
+     */
+    @Data
+    public static class KeysetDefinition {
+        private String sortField;
+    }
+
+    /**
+     * Кэширование сущности: второй уровень Hibernate и кэш findById в сервисе; включается наличием блока
+     * Подходит для справочных данных: изменения связанных сущностей видны в кэше не позже чем через ttlSeconds
+     */
+    @Data
+    public static class CacheDefinition {
+        private long maximumSize = 1000;
+        private long ttlSeconds = 600;
     }
 
     @Data
@@ -21,6 +52,8 @@ public class EntityConfig {
         private String type;
         private String description;
         private boolean required;
+        private boolean indexed;
+        private boolean unique;
         private RelationDefinition relation;
     }
 
@@ -0,0 +1,31 @@
+package vnikolaenko.github.jarch.generator.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Генерация первичных ключей сущностей
+ */
+@Setter
+@Getter
+public class IdGenerationConfig {
+
+    public enum Strategy {
+        IDENTITY, // автоинкремент БД: id известен только после INSERT, пакетная вставка Hibernate отключается
+        SEQUENCE, // последовательность с pooled оптимизатором: один запрос к БД на allocationSize id
+        UUID_V7   // UUID версии 7, создается приложением; упорядочен по времени, поэтому индекс растет с конца
+    }
+
+    @JsonProperty("strategy")
+    private Strategy strategy = Strategy.IDENTITY;
+
+    /**
+     * Число id, резервируемых одним обращением к последовательности (только для SEQUENCE)
+     */
+    @JsonProperty("allocationSize")
+    private int allocationSize = 50;
+
+    public IdGenerationConfig() {}
+
+}
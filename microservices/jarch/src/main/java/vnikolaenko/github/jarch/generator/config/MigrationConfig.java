@@ -0,0 +1,25 @@
+package vnikolaenko.github.jarch.generator.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Версионированные миграции схемы вместо ее создания Hibernate при запуске
+ */
+@Setter
+@Getter
+public class MigrationConfig {
+
+    public enum Tool {
+        NONE,      // схему создает Hibernate по database.ddlAuto
+        FLYWAY,    // SQL миграции db/migration/{vendor}, Hibernate только проверяет схему
+        LIQUIBASE  // formatted SQL changelog на каждую СУБД, Hibernate только проверяет схему
+    }
+
+    @JsonProperty("tool")
+    private Tool tool = Tool.NONE;
+
+    public MigrationConfig() {}
+
+}
@@ -0,0 +1,30 @@
+package vnikolaenko.github.jarch.generator.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Постраничная выдача списков в сгенерированных контроллерах
+ */
+@Setter
+@Getter
+public class PaginationConfig {
+
+    public enum ResponseType {
+        PAGE,  // Page: содержимое и общее число записей (дополнительный count запрос)
+        SLICE  // Slice: только признак следующей страницы, без count запроса
+    }
+
+    @JsonProperty("defaultPageSize")
+    private int defaultPageSize = 20;
+
+    @JsonProperty("maxPageSize")
+    private int maxPageSize = 100;
+
+    @JsonProperty("responseType")
+    private ResponseType responseType = ResponseType.PAGE;
+
+    public PaginationConfig() {}
+
+}
@@ -1,35 +1,22 @@
 package vnikolaenko.github.jarch.generator.generator;
 
 import vnikolaenko.github.jarch.generator.config.ApplicationConfig;
+import vnikolaenko.github.jarch.generator.output.GeneratedOutput;
 import vnikolaenko.github.jarch.utils.LogCollector;
-import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-
 @Service
-@AllArgsConstructor
 public class BuildFileGenerator {
-    private final LogCollector logCollector;
-
-    public void generateBuildFiles(ApplicationConfig config, Path targetDir) throws IOException {
-        // Создаем основную директорию generated
-        if (!Files.exists(targetDir)) {
-            Files.createDirectories(targetDir);
-            logCollector.info("📁 Created directory: " + targetDir.toAbsolutePath());
-        }
 
+    public void generateBuildFiles(ApplicationConfig config, GeneratedOutput output, LogCollector logCollector) {
         if (config.getBuildTool() == ApplicationConfig.BuildTool.MAVEN) {
-            generateMavenPom(config);
+            generateMavenPom(config, output, logCollector);
         } else {
-            generateGradleBuild(config);
+            generateGradleBuild(config, output, logCollector);
         }
     }
 
-    private void generateMavenPom(ApplicationConfig config) throws IOException {
+    private void generateMavenPom(ApplicationConfig config, GeneratedOutput output, LogCollector logCollector) {
         String artifactId = extractArtifactId(config.getBasePackage());
         String databaseDependency = getDatabaseDependency(config);
 
@@ -96,11 +83,11 @@ public class BuildFileGenerator {
             </project>
             """.formatted(config.getBasePackage(), artifactId, databaseDependency);
 
-        Files.writeString(Paths.get("/pom.xml"), content);
+        output.writeString("pom.xml", content);
         logCollector.info("Generated pom.xml");
     }
 
-    private void generateGradleBuild(ApplicationConfig config) throws IOException {
+    private void generateGradleBuild(ApplicationConfig config, GeneratedOutput output, LogCollector logCollector) {
         String databaseDependency = getGradleDatabaseDependency(config);
 
         String content = """
@@ -138,7 +125,7 @@ public class BuildFileGenerator {
             }
             """.formatted(config.getBasePackage(), databaseDependency);
 
-        Files.writeString(Paths.get("./generated/build.gradle"), content);
+        output.writeString("build.gradle", content);
         logCollector.info("Generated build.gradle");
     }
 
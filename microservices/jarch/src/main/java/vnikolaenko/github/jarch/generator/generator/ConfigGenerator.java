@@ -2,24 +2,19 @@ package vnikolaenko.github.jarch.generator.generator;
 
 
 import com.squareup.javapoet.*;
-import vnikolaenko.github.jarch.utils.LogCollector;
-import lombok.AllArgsConstructor;
+import vnikolaenko.github.jarch.generator.config.PaginationConfig;
+import vnikolaenko.github.jarch.generator.output.GeneratedOutput;
 import org.springframework.stereotype.Service;
 
 import javax.lang.model.element.Modifier;
-import java.io.IOException;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 
 @Service
-@AllArgsConstructor
 public class ConfigGenerator {
-    private final LogCollector logCollector;
 
     /**
      * Генерирует класс конфигурации для ModelMapper
      */
-    public static void generateModelMapperConfig(String basePackage, Path targetDir) throws IOException {
+    public static void generateModelMapperConfig(String basePackage, GeneratedOutput output) {
         String className = "ModelMapperConfig";
 
         TypeSpec configClass = TypeSpec.classBuilder(className)
@@ -28,7 +23,107 @@ public class ConfigGenerator {
                 .addMethod(createModelMapperMethod())
                 .build();
 
-        writeJavaFile(basePackage + ".config", configClass, targetDir);
+        writeJavaFile(basePackage + ".config", configClass, output);
+    }
+
+    /**
+     * Генерирует конфигурацию WebFlux с разбором параметров page, size и sort в Pageable
+     * Spring Boot настраивает Pageable только для Spring MVC, поэтому пределы читаются из тех же
+     * настроек spring.data.web.pageable.*
+     */
+    public static void generateWebFluxConfig(String basePackage, PaginationConfig pagination,
+                                             GeneratedOutput output) {
+        ClassName valueClass = ClassName.get("org.springframework.beans.factory.annotation", "Value");
+        ClassName resolverClass = ClassName.get("org.springframework.data.web",
+                "ReactivePageableHandlerMethodArgumentResolver");
+
+        MethodSpec configureArgumentResolvers = MethodSpec.methodBuilder("configureArgumentResolvers")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(ClassName.get("org.springframework.web.reactive.result.method.annotation",
+                        "ArgumentResolverConfigurer"), "configurer")
+                .addStatement("$T resolver = new $T()", resolverClass, resolverClass)
+                .addStatement("resolver.setFallbackPageable($T.ofSize(defaultPageSize))",
+                        ClassName.get("org.springframework.data.domain", "PageRequest"))
+                .addStatement("resolver.setMaxPageSize(maxPageSize)")
+                .addStatement("configurer.addCustomResolver(resolver)")
+                .build();
+
+        TypeSpec configClass = TypeSpec.classBuilder("WebFluxConfig")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(createConfigurationAnnotation())
+                .addSuperinterface(ClassName.get("org.springframework.web.reactive.config", "WebFluxConfigurer"))
+                .addField(FieldSpec.builder(int.class, "defaultPageSize", Modifier.PRIVATE)
+                        .addAnnotation(AnnotationSpec.builder(valueClass)
+                                .addMember("value", "$S", "${spring.data.web.pageable.default-page-size:"
+                                        + pagination.getDefaultPageSize() + "}")
+                                .build())
+                        .build())
+                .addField(FieldSpec.builder(int.class, "maxPageSize", Modifier.PRIVATE)
+                        .addAnnotation(AnnotationSpec.builder(valueClass)
+                                .addMember("value", "$S", "${spring.data.web.pageable.max-page-size:"
+                                        + pagination.getMaxPageSize() + "}")
+                                .build())
+                        .build())
+                .addMethod(configureArgumentResolvers)
+                .build();
+
+        writeJavaFile(basePackage + ".config", configClass, output);
+    }
+
+    /**
+     * Генерирует конфигурацию R2DBC
+     * Spring Data берет все имена таблиц и колонок в кавычки, как их пишут schema.sql и запросы в обход
+     * Spring Data: так зарезервированные слова SQL работают как имена. Для id из последовательностей
+     * добавляется обратный вызов, заполняющий поле с @Sequence перед вставкой, - Spring Boot его не регистрирует
+     *
+     * @param sequence берутся ли id из последовательностей
+     */
+    public static void generateR2dbcConfig(String basePackage, boolean sequence, GeneratedOutput output) {
+        ClassName mappingContextClass = ClassName.get("org.springframework.data.r2dbc.mapping", "R2dbcMappingContext");
+        ClassName namingStrategyClass = ClassName.get("org.springframework.data.relational.core.mapping",
+                "NamingStrategy");
+        ClassName callbackClass = ClassName.get("org.springframework.data.r2dbc.convert", "IdGeneratingEntityCallback");
+
+        // Тот же контекст, что создает R2dbcDataAutoConfiguration, но с forceQuote
+        MethodSpec mappingContext = MethodSpec.methodBuilder("r2dbcMappingContext")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(createBeanAnnotation())
+                .addParameter(ParameterizedTypeName.get(
+                        ClassName.get("org.springframework.beans.factory", "ObjectProvider"), namingStrategyClass),
+                        "namingStrategy")
+                .addParameter(ClassName.get("org.springframework.data.r2dbc.convert", "R2dbcCustomConversions"),
+                        "conversions")
+                .addParameter(ClassName.get("org.springframework.data.relational", "RelationalManagedTypes"),
+                        "managedTypes")
+                .returns(mappingContextClass)
+                .addStatement("$T context = new $T(namingStrategy.getIfAvailable(() -> $T.INSTANCE))",
+                        mappingContextClass, mappingContextClass,
+                        ClassName.get("org.springframework.data.relational.core.mapping", "DefaultNamingStrategy"))
+                .addStatement("context.setForceQuote(true)")
+                .addStatement("context.setSimpleTypeHolder(conversions.getSimpleTypeHolder())")
+                .addStatement("context.setManagedTypes(managedTypes)")
+                .addStatement("return context")
+                .build();
+
+        TypeSpec.Builder configClass = TypeSpec.classBuilder("R2dbcConfig")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(createConfigurationAnnotation())
+                .addMethod(mappingContext);
+        if (sequence) {
+            configClass.addMethod(MethodSpec.methodBuilder("idGeneratingEntityCallback")
+                    .addModifiers(Modifier.PUBLIC)
+                    .addAnnotation(createBeanAnnotation())
+                    .addParameter(mappingContextClass, "mappingContext")
+                    .addParameter(ClassName.get("org.springframework.r2dbc.core", "DatabaseClient"), "databaseClient")
+                    .returns(callbackClass)
+                    .addStatement("return new $T(mappingContext,\n" +
+                                    "$T.getDialect(databaseClient.getConnectionFactory()), databaseClient)",
+                            callbackClass, ClassName.get("org.springframework.data.r2dbc.dialect", "DialectResolver"))
+                    .build());
+        }
+
+        writeJavaFile(basePackage + ".config", configClass.build(), output);
     }
 
     /**
@@ -67,11 +162,9 @@ public class ConfigGenerator {
     /**
      * Записывает сгенерированный Java файл
      */
-    private static void writeJavaFile(String packageName, TypeSpec typeSpec, Path targetDir) throws IOException {
-        JavaFile javaFile = JavaFile.builder(packageName, typeSpec)
+    private static void writeJavaFile(String packageName, TypeSpec typeSpec, GeneratedOutput output) {
+        output.writeJavaFile(JavaFile.builder(packageName, typeSpec)
                 .indent("    ")
-                .build();
-
-        javaFile.writeTo(Paths.get(targetDir + "/src/main/java"));
+                .build());
     }
 }
\ No newline at end of file
@@ -5,76 +5,277 @@ import vnikolaenko.github.jarch.generator.auxiliary.Relation;
 import vnikolaenko.github.jarch.generator.auxiliary.TypeOfRelation;
 import vnikolaenko.github.jarch.generator.config.ApplicationConfig;
 import vnikolaenko.github.jarch.generator.config.EntityConfig;
+import vnikolaenko.github.jarch.generator.config.PaginationConfig;
 import vnikolaenko.github.jarch.generator.generator.included.*;
+import vnikolaenko.github.jarch.generator.output.GeneratedOutput;
+import vnikolaenko.github.jarch.generator.utils.PhaseTimings;
+import vnikolaenko.github.jarch.generator.utils.TypeMapper;
 import vnikolaenko.github.jarch.utils.LogCollector;
-import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
-import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 @Service
-@AllArgsConstructor
 public class EntityGenerator {
 
-    private final LogCollector logCollector;
-
-    public void generateAllEntities(ApplicationConfig appConfig, EntityConfig entityConfig, Path targetDir) throws Exception {
-        var entityDefinitions = entityConfig.getEntities().stream()
-                .collect(Collectors.toMap(
-                        EntityConfig.EntityDefinition::getName,
-                        entityDef -> convertFields(entityDef, entityConfig)
-                ));
-
-        for (var entry : entityDefinitions.entrySet()) {
-            String entityName = entry.getKey();
-            var fields = entry.getValue();
-
-            logCollector.info("Generating entity: " + entityName + " with " + fields.size() + " fields");
-            fields.forEach(field -> {
-                logCollector.info("  Field: " + field.getFieldName() + " type: " + field.getFieldType() +
-                        " relation: " + (field.getRelation() != null ? field.getRelation().getTypeOfRelation() : "none"));
-            });
-
-            System.out.println(targetDir);
-            ModelGenerator.generateEntity(appConfig.getBasePackage(), entityName, fields, targetDir);
-            DtoGenerator.generateDTO(appConfig.getBasePackage(), entityName, fields, targetDir);
-            RepositoryGenerator.generateRepository(appConfig.getBasePackage(), entityName, fields, targetDir);
-            ServiceGenerator.generateService(appConfig.getBasePackage(), entityName, targetDir);
-            ControllerGenerator.generateController(appConfig.getBasePackage(), entityName, targetDir);
-            ConfigGenerator.generateModelMapperConfig(appConfig.getBasePackage(), targetDir);
+    private final ExecutorService executor;
+
+    public EntityGenerator(@Qualifier("entityGenerationExecutor") ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Генерирует компоненты всех сущностей параллельно
+     * Общие для проекта классы сюда не входят - см. {@link SharedComponentGenerator}
+     * Каждая сущность генерируется в собственный приемник; результаты и журнал
+     * собираются в порядке объявления сущностей, поэтому вывод детерминирован.
+     * Ошибка в одной сущности не прерывает генерацию остальных.
+     *
+     * @param reusableOutputs ранее сгенерированные файлы неизменившихся сущностей,
+     *                        такие сущности не генерируются повторно
+     * @param timings         накопитель времени работы каждого генератора
+     */
+    public EntityGenerationReport generateAllEntities(ApplicationConfig appConfig, EntityConfig entityConfig,
+                                                      GeneratedOutput output, LogCollector logCollector,
+                                                      Map<String, GeneratedOutput> reusableOutputs,
+                                                      PhaseTimings timings) {
+        // Типы полей разбираются один раз на генерацию и используются всеми генераторами
+        TypeMapper types = TypeMapper.forProject(appConfig, entityConfig);
+
+        List<CompletableFuture<EntityResult>> tasks = new ArrayList<>();
+        for (EntityConfig.EntityDefinition entityDef : entityConfig.getEntities()) {
+            GeneratedOutput reusable = reusableOutputs.get(entityDef.getName());
+            if (reusable != null) {
+                tasks.add(CompletableFuture.completedFuture(new EntityResult(entityDef.getName(), reusable,
+                        List.of("Entity " + entityDef.getName() + " is unchanged, reusing previous output"), null)));
+                continue;
+            }
+
+            List<Field> fields = convertFields(entityDef, logCollector);
+            tasks.add(CompletableFuture.supplyAsync(
+                    () -> generateEntity(appConfig, entityDef, fields, types, timings),
+                    executor));
+        }
+
+        Map<String, GeneratedOutput> entityOutputs = new LinkedHashMap<>();
+        List<EntityFailure> failures = new ArrayList<>();
+        int processed = 0;
+        for (CompletableFuture<EntityResult> task : tasks) {
+            EntityResult result = task.join();
+            processed++;
+
+            result.logs().forEach(logCollector::info);
+            String error = result.error();
+            if (error == null) {
+                try {
+                    output.writeAll(result.output());
+                } catch (IllegalStateException e) {
+                    error = e.getMessage();
+                }
+            }
+
+            if (error == null) {
+                entityOutputs.put(result.entityName(), result.output());
+                logCollector.info("[" + processed + "/" + tasks.size() + "] Entity " + result.entityName() + " generated");
+            } else {
+                failures.add(new EntityFailure(result.entityName(), error));
+                logCollector.error("[" + processed + "/" + tasks.size() + "] Entity " + result.entityName() +
+                        " failed: " + error);
+            }
+        }
+        return new EntityGenerationReport(entityOutputs, failures, reusableOutputs.size());
+    }
+
+    private EntityResult generateEntity(ApplicationConfig appConfig, EntityConfig.EntityDefinition entityDef,
+                                        List<Field> fields, TypeMapper types, PhaseTimings timings) {
+        String basePackage = appConfig.getBasePackage();
+        String entityName = entityDef.getName();
+        PaginationConfig pagination = appConfig.getPagination();
+        ApplicationConfig.MappingStrategy mappingStrategy = appConfig.getMappingStrategy();
+        boolean bulk = appConfig.getBulk().isEnabled();
+        boolean cached = entityDef.getCache() != null;
+        List<String> logs = new ArrayList<>();
+        GeneratedOutput entityOutput = new GeneratedOutput();
+
+        try {
+            if (appConfig.getStack() == ApplicationConfig.Stack.REACTIVE) {
+                generateReactiveEntity(appConfig, entityDef, fields, types, timings, logs, entityOutput);
+                return new EntityResult(entityName, entityOutput, logs, null);
+            }
+            KeysetSpec keyset = KeysetSpec.of(entityDef, types);
+            EntityGraphSpec graphs = EntityGraphSpec.of(entityName, fields);
+            List<IndexSpec> indexes = IndexSpec.of(entityDef, fields, types);
+            logs.add("Generating entity: " + entityName + " with " + fields.size() + " fields");
+            fields.forEach(field -> logs.add("  Field: " + field.getFieldName() + " type: " + field.getFieldType() +
+                    " relation: " + (field.getRelation() != null ? field.getRelation().getTypeOfRelation() : "none")));
+
+            timings.time(PhaseTimings.MODEL,
+                    () -> ModelGenerator.generateEntity(basePackage, entityName, fields, types,
+                            appConfig.getIdGeneration(), graphs, cached, indexes, entityOutput));
+            timings.time(PhaseTimings.DTO,
+                    () -> DtoGenerator.generateDTO(basePackage, entityName, fields, types, entityOutput));
+            timings.time(PhaseTimings.MAPPER,
+                    () -> MapperGenerator.generateMapper(basePackage, entityName, fields, types, mappingStrategy,
+                            false, entityOutput));
+            timings.time(PhaseTimings.REPOSITORY,
+                    () -> RepositoryGenerator.generateRepository(basePackage, entityName, fields, types, pagination,
+                            keyset, graphs, bulk, entityOutput));
+            timings.time(PhaseTimings.SERVICE,
+                    () -> ServiceGenerator.generateService(basePackage, entityName, types, pagination, keyset,
+                            graphs, mappingStrategy, bulk, cached, entityOutput));
+            timings.time(PhaseTimings.CONTROLLER,
+                    () -> ControllerGenerator.generateController(basePackage, entityName, types, pagination, keyset,
+                            bulk, entityOutput));
+
+            return new EntityResult(entityName, entityOutput, logs, null);
+        } catch (RuntimeException e) {
+            return new EntityResult(entityName, entityOutput, logs, String.valueOf(e.getMessage()));
+        }
+    }
+
+    /**
+     * Компоненты сущности для WebFlux и R2DBC; графы загрузки и индексы JPA модели здесь не нужны,
+     * индексы создает schema.sql из {@link MigrationGenerator}
+     */
+    private void generateReactiveEntity(ApplicationConfig appConfig, EntityConfig.EntityDefinition entityDef,
+                                        List<Field> fields, TypeMapper types, PhaseTimings timings,
+                                        List<String> logs, GeneratedOutput entityOutput) {
+        String basePackage = appConfig.getBasePackage();
+        String entityName = entityDef.getName();
+        PaginationConfig pagination = appConfig.getPagination();
+        if (entityDef.getCache() != null) {
+            throw new IllegalArgumentException("Entity cache is not supported with the REACTIVE stack");
         }
+        KeysetSpec keyset = KeysetSpec.of(entityDef, types);
+        logs.add("Generating reactive entity: " + entityName + " with " + fields.size() + " fields");
+
+        timings.time(PhaseTimings.MODEL,
+                () -> ModelGenerator.generateReactiveEntity(basePackage, entityName, fields, types,
+                        appConfig.getIdGeneration(), entityOutput));
+        timings.time(PhaseTimings.DTO,
+                () -> DtoGenerator.generateDTO(basePackage, entityName, fields, types, entityOutput));
+        timings.time(PhaseTimings.MAPPER,
+                () -> MapperGenerator.generateMapper(basePackage, entityName, fields, types,
+                        appConfig.getMappingStrategy(), true, entityOutput));
+        timings.time(PhaseTimings.REPOSITORY,
+                () -> RepositoryGenerator.generateReactiveRepository(basePackage, entityName, fields, types,
+                        pagination, keyset, entityOutput));
+        timings.time(PhaseTimings.SERVICE,
+                () -> ReactiveServiceGenerator.generateService(basePackage, entityName, fields, types, pagination,
+                        keyset, appConfig.getMappingStrategy(), appConfig.getIdGeneration().getStrategy(),
+                        appConfig.getBulk().isEnabled(), entityOutput));
+        timings.time(PhaseTimings.CONTROLLER,
+                () -> ControllerGenerator.generateReactiveController(basePackage, entityName, types, pagination,
+                        keyset, appConfig.getBulk().isEnabled(), entityOutput));
     }
 
-    private List<Field> convertFields(EntityConfig.EntityDefinition entityDef, EntityConfig entityConfig) {
+    private List<Field> convertFields(EntityConfig.EntityDefinition entityDef, LogCollector logCollector) {
         List<Field> fields = new ArrayList<>();
 
         if (entityDef.getFields() != null) {
             for (EntityConfig.FieldDefinition fieldDef : entityDef.getFields()) {
-                Field field = new Field();
-                field.setFieldName(fieldDef.getName());
-                field.setFieldType(fieldDef.getType());
-
-                // Конвертация отношений
+                fields.add(toField(fieldDef));
                 if (fieldDef.getRelation() != null) {
-                    Relation relation = new Relation();
-                    try {
-                        relation.setTypeOfRelation(TypeOfRelation.valueOf(fieldDef.getRelation().getType()));
-                        field.setRelation(relation);
-                        logCollector.info("Added relation: " + fieldDef.getRelation().getType() +
-                                " for field: " + fieldDef.getName());
-                    } catch (IllegalArgumentException e) {
-                        logCollector.info("Unknown relation type: " + fieldDef.getRelation().getType() +
-                                " for field: " + fieldDef.getName());
-                    }
+                    logCollector.info("Added relation: " + fieldDef.getRelation().getType() +
+                            " for field: " + fieldDef.getName());
                 }
-
-                fields.add(field);
             }
         }
 
         return fields;
     }
-}
\ No newline at end of file
+
+    /**
+     * Поля сущности в том виде, в котором их получают генераторы
+     *
+     * @throws IllegalArgumentException если тип связи неизвестен
+     */
+    public static List<Field> toFields(EntityConfig.EntityDefinition entityDef) {
+        if (entityDef.getFields() == null) {
+            return List.of();
+        }
+        return entityDef.getFields().stream()
+                .map(EntityGenerator::toField)
+                .toList();
+    }
+
+    private static Field toField(EntityConfig.FieldDefinition fieldDef) {
+        Field field = new Field();
+        field.setFieldName(fieldDef.getName());
+        field.setFieldType(fieldDef.getType());
+        field.setRequired(fieldDef.isRequired());
+
+        // Конвертация отношений
+        if (fieldDef.getRelation() != null) {
+            EntityConfig.RelationDefinition relationDef = fieldDef.getRelation();
+            Relation relation = new Relation();
+            relation.setTypeOfRelation(TypeOfRelation.valueOf(relationDef.getType()));
+            relation.setTargetEntity(relationDef.getTargetEntity());
+            relation.setFetchType(relationDef.getFetchType());
+            relation.setCascadeTypes(parseCascadeTypes(relationDef.getCascadeType()));
+            field.setRelation(relation);
+            field.setFieldType(relationFieldType(fieldDef.getType(), relation));
+        }
+        return field;
+    }
+
+    /**
+     * Тип поля связи: если в конфигурации не указан тип или указана коллекция без параметра,
+     * связанная сущность берется из targetEntity
+     */
+    private static String relationFieldType(String fieldType, Relation relation) {
+        String target = relation.getTargetEntity();
+        if (target == null) {
+            return fieldType;
+        }
+        boolean collection = relation.getTypeOfRelation() == TypeOfRelation.ONE_TO_MANY
+                || relation.getTypeOfRelation() == TypeOfRelation.MANY_TO_MANY;
+        if (fieldType == null || fieldType.isBlank()) {
+            return collection ? "List<" + target + ">" : target;
+        }
+        if (collection && !fieldType.contains("<") && TypeMapper.isCollectionType(fieldType)) {
+            return fieldType.trim() + "<" + target + ">";
+        }
+        return fieldType;
+    }
+
+    /**
+     * Разбирает cascadeType: одно значение или несколько через запятую
+     */
+    private static List<String> parseCascadeTypes(String cascadeType) {
+        if (cascadeType == null || cascadeType.isBlank()) {
+            return null;
+        }
+        return Arrays.stream(cascadeType.split(","))
+                .map(String::trim)
+                .toList();
+    }
+
+    /**
+     * Итог генерации сущностей
+     *
+     * @param entityOutputs файлы каждой успешно сгенерированной сущности
+     * @param failures      сущности, генерация которых завершилась ошибкой
+     * @param reused        число сущностей, взятых из предыдущей генерации
+     */
+    public record EntityGenerationReport(Map<String, GeneratedOutput> entityOutputs,
+                                         List<EntityFailure> failures,
+                                         int reused) {
+    }
+
+    /**
+     * Сущность, генерация которой завершилась ошибкой
+     */
+    public record EntityFailure(String entityName, String message) {
+    }
+
+    private record EntityResult(String entityName, GeneratedOutput output, List<String> logs, String error) {
+    }
+}
@@ -0,0 +1,353 @@
+package vnikolaenko.github.jarch.generator.generator;
+
+import com.squareup.javapoet.TypeName;
+import vnikolaenko.github.jarch.generator.auxiliary.Field;
+import vnikolaenko.github.jarch.generator.auxiliary.Relation;
+import vnikolaenko.github.jarch.generator.auxiliary.TypeOfRelation;
+import vnikolaenko.github.jarch.generator.config.ApplicationConfig;
+import vnikolaenko.github.jarch.generator.config.EntityConfig;
+import vnikolaenko.github.jarch.generator.config.IdGenerationConfig;
+import vnikolaenko.github.jarch.generator.config.MigrationConfig;
+import vnikolaenko.github.jarch.generator.generator.included.IndexSpec;
+import vnikolaenko.github.jarch.generator.generator.included.JoinTableSpec;
+import vnikolaenko.github.jarch.generator.output.GeneratedOutput;
+import vnikolaenko.github.jarch.generator.utils.SqlKeywords;
+import vnikolaenko.github.jarch.generator.utils.StringUtils;
+import vnikolaenko.github.jarch.generator.utils.TypeMapper;
+import vnikolaenko.github.jarch.utils.LogCollector;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Генератор версионированных миграций схемы БД
+ * Схема строится по конфигурации сущностей так же, как ее отображает Hibernate, поэтому сгенерированное
+ * приложение запускается с ddl-auto=validate и не сравнивает схему с моделью при каждом старте.
+ * Скрипт создается для каждой СУБД, нужный выбирается при запуске по фактической базе.
+ * Для реактивного стека вместо миграций создается schema.sql под базу приложения.
+ * Объекты идут в фиксированном порядке (последовательности, таблицы в порядке объявления сущностей,
+ * индексы, внешние ключи), поэтому скрипты двух генераций сравниваются обычным diff.
+ * Имена, совпадающие с зарезервированными словами SQL, берутся в кавычки диалекта, как и в JPA модели;
+ * в schema.sql для R2DBC в кавычках все имена (см. {@link Names}).
+ * Генератор не хранит прежнюю схему проекта, поэтому миграция всегда одна - базовая (V1 / changeset 001)
+ * и описывает схему целиком. После изменения сущностей уже примененный V1 заменять нельзя (Flyway и Liquibase
+ * сверяют контрольные суммы): изменения переносятся в новый скрипт V2 по diff старого и нового V1
+ */
+@Service
+public class MigrationGenerator {
+
+    /**
+     * Каталог миграций Flyway; {vendor} Spring Boot заменяет на имя СУБД источника данных
+     */
+    public static final String FLYWAY_LOCATIONS = "classpath:db/migration/{vendor}";
+
+    public static final String LIQUIBASE_CHANGELOG = "classpath:db/changelog/db.changelog-master.yaml";
+
+    private static final String RESOURCES = "src/main/resources/";
+    private static final String SCRIPT_NAME = "init_schema";
+    private static final String BASELINE_NOTE = """
+            -- Baseline schema generated by JArch. Once applied, do not replace this script:
+            -- Flyway/Liquibase reject a changed checksum. Put later schema changes into a new
+            -- migration, e.g. by diffing this file against a regenerated one.
+
+            """;
+
+    /**
+     * СУБД, для которых генерируются скрипты; vendor совпадает с именем в Spring Boot и dbms в Liquibase
+     */
+    private enum Dialect {
+        H2("h2", '"'), POSTGRESQL("postgresql", '"'), MYSQL("mysql", '`');
+
+        private final String vendor;
+        private final char quote;
+
+        Dialect(String vendor, char quote) {
+            this.vendor = vendor;
+            this.quote = quote;
+        }
+    }
+
+    /**
+     * Запись имен таблиц и колонок в скрипте
+     * Spring Data R2DBC в сгенерированном проекте берет в кавычки все имена (forceQuote), поэтому schema.sql
+     * пишет их так же: иначе H2 привел бы имена без кавычек к верхнему регистру.
+     * В миграциях для JPA в кавычках только зарезервированные слова
+     *
+     * @param quoteAll брать ли в кавычки все имена
+     */
+    private record Names(Dialect dialect, boolean quoteAll) {
+
+        private String quote(String identifier) {
+            return quoteAll
+                    ? dialect.quote + identifier + dialect.quote
+                    : SqlKeywords.quote(identifier, dialect.quote);
+        }
+    }
+
+    public void generateMigrations(ApplicationConfig appConfig, EntityConfig entityConfig, GeneratedOutput output,
+                                   LogCollector logCollector) {
+        MigrationConfig.Tool tool = appConfig.getMigrations().getTool();
+        boolean reactive = appConfig.getStack() == ApplicationConfig.Stack.REACTIVE;
+        if (tool == MigrationConfig.Tool.NONE && !reactive) {
+            return;
+        }
+        TypeMapper types = TypeMapper.forProject(appConfig, entityConfig);
+        List<EntityTables> entities = new ArrayList<>();
+        for (EntityConfig.EntityDefinition entityDef : entityConfig.getEntities()) {
+            List<Field> fields = EntityGenerator.toFields(entityDef);
+            entities.add(new EntityTables(entityDef.getName(), fields, IndexSpec.of(entityDef, fields, types)));
+        }
+
+        if (reactive) {
+            // R2DBC не создает схему по модели: Spring Boot выполняет schema.sql при старте (spring.sql.init)
+            Dialect dialect = appConfig.getDatabaseConfig().getType() == ApplicationConfig.DatabaseType.POSTGRESQL
+                    ? Dialect.POSTGRESQL
+                    : Dialect.H2;
+            output.writeString(RESOURCES + "schema.sql",
+                    dropSchema(new Names(dialect, true), entities, types, appConfig.getIdGeneration())
+                    + generateSchema(dialect, entities, types, appConfig.getIdGeneration(), true));
+            logCollector.info("Generated " + dialect.vendor + " schema.sql for R2DBC");
+            return;
+        }
+
+        StringBuilder changelog = new StringBuilder("databaseChangeLog:\n");
+        for (Dialect dialect : Dialect.values()) {
+            String script = generateSchema(dialect, entities, types, appConfig.getIdGeneration(), false);
+            if (tool == MigrationConfig.Tool.FLYWAY) {
+                output.writeString(RESOURCES + "db/migration/" + dialect.vendor + "/V1__" + SCRIPT_NAME + ".sql",
+                        BASELINE_NOTE + script);
+            } else {
+                String path = "db/changelog/" + dialect.vendor + "/001-" + SCRIPT_NAME.replace('_', '-') + ".sql";
+                output.writeString(RESOURCES + path, "--liquibase formatted sql\n\n" + BASELINE_NOTE
+                        + "--changeset jarch:001-" + SCRIPT_NAME.replace('_', '-') + " dbms:" + dialect.vendor + "\n"
+                        + script);
+                changelog.append("  - include:\n      file: ").append(path).append('\n');
+            }
+        }
+        if (tool == MigrationConfig.Tool.LIQUIBASE) {
+            output.writeString(RESOURCES + "db/changelog/db.changelog-master.yaml", changelog.toString());
+        }
+        logCollector.info("Generated " + tool + " baseline migrations for " + Dialect.values().length + " databases");
+        logCollector.warn("Migrations describe the whole schema: if an earlier version of this project was already "
+                + "deployed, keep its applied scripts and add the changes as a new migration");
+    }
+
+    /**
+     * Скрипт создания схемы: внешние ключи добавляются после всех таблиц, поэтому порядок объявления
+     * сущностей не важен
+     */
+    private static String generateSchema(Dialect dialect, List<EntityTables> entities, TypeMapper types,
+                                         IdGenerationConfig idGeneration, boolean reactive) {
+        StringBuilder tables = new StringBuilder();
+        List<String> indexes = new ArrayList<>();
+        List<String> foreignKeys = new ArrayList<>();
+        String idType = columnType(types.getIdType(), dialect);
+        Names names = new Names(dialect, reactive);
+
+        for (EntityTables entity : entities) {
+            String table = StringUtils.toSnakeCase(entity.name());
+            if (idGeneration.getStrategy() == IdGenerationConfig.Strategy.SEQUENCE) {
+                tables.append(reactive
+                        // @Sequence берет одно значение на каждую вставку и всегда обращается по имени в кавычках
+                        ? sequence(names, sequenceName(table), 1)
+                        : sequence(names, table + "_seq", idGeneration.getAllocationSize()));
+            }
+
+            List<String> columns = new ArrayList<>();
+            StringBuilder joinTables = new StringBuilder();
+            List<String> joinIndexes = new ArrayList<>();
+            columns.add(names.quote("id") + " " + idColumn(dialect, idType, idGeneration.getStrategy()));
+            for (Field field : entity.fields()) {
+                Relation relation = field.getRelation();
+                if (relation == null) {
+                    if (types.isBasic(field.getFieldType())) {
+                        columns.add(names.quote(StringUtils.toSnakeCase(field.getFieldName())) + " "
+                                + columnType(types.getJavaType(field.getFieldType()), dialect) + notNull(field));
+                    }
+                    continue;
+                }
+                String target = StringUtils.toSnakeCase(targetEntity(field));
+                switch (relation.getTypeOfRelation()) {
+                    case MANY_TO_ONE, ONE_TO_ONE -> {
+                        String column = StringUtils.toSnakeCase(field.getFieldName()) + "_id";
+                        columns.add(names.quote(column) + " " + idType + notNull(field));
+                        foreignKeys.add(foreignKey(names, table, column, target));
+                    }
+                    case ONE_TO_MANY, MANY_TO_MANY -> {
+                        JoinTableSpec joinTable = JoinTableSpec.of(entity.name(), field, types);
+                        joinTables.append(joinTable(names, joinTable, idType));
+                        if (relation.getTypeOfRelation() == TypeOfRelation.ONE_TO_MANY) {
+                            // У OneToMany каждый элемент принадлежит одному владельцу
+                            joinIndexes.add(uniqueConstraint(names, joinTable.table(),
+                                    List.of(joinTable.elementColumn())));
+                        }
+                        if (!joinTable.set()) {
+                            joinIndexes.add(index(names, joinTable.table(), joinTable.ownerColumn()));
+                        }
+                        if (relation.getTypeOfRelation() == TypeOfRelation.MANY_TO_MANY) {
+                            joinIndexes.add(index(names, joinTable.table(), joinTable.elementColumn()));
+                        }
+                        foreignKeys.add(foreignKey(names, joinTable.table(), joinTable.ownerColumn(), table));
+                        foreignKeys.add(foreignKey(names, joinTable.table(), joinTable.elementColumn(), target));
+                    }
+                }
+            }
+            columns.add("primary key (" + names.quote("id") + ")");
+            tables.append(table(names, table, columns)).append(joinTables);
+
+            for (IndexSpec index : entity.indexes()) {
+                indexes.add(index.unique()
+                        ? uniqueConstraint(names, table, index.columns())
+                        : "create index " + index.name() + " on " + names.quote(table) + " ("
+                        + columnList(names, index.columns()) + ");\n");
+            }
+            indexes.addAll(joinIndexes);
+        }
+
+        StringBuilder script = new StringBuilder(tables);
+        if (!indexes.isEmpty()) {
+            script.append(String.join("", indexes)).append('\n');
+        }
+        foreignKeys.forEach(script::append);
+        return script.toString();
+    }
+
+    /**
+     * Обязательное поле - колонка NOT NULL, как nullable = false в JPA модели
+     */
+    private static String notNull(Field field) {
+        return field.isRequired() ? " not null" : "";
+    }
+
+    /**
+     * Удаление объектов схемы перед созданием: schema.sql выполняется при каждом старте, как ddl-auto=create
+     * Таблицы связей удаляются раньше таблиц сущностей, cascade снимает внешние ключи
+     */
+    private static String dropSchema(Names names, List<EntityTables> entities, TypeMapper types,
+                                     IdGenerationConfig idGeneration) {
+        StringBuilder script = new StringBuilder();
+        for (EntityTables entity : entities) {
+            for (JoinTableSpec joinTable : JoinTableSpec.of(entity.name(), entity.fields(), types)) {
+                script.append("drop table if exists ").append(names.quote(joinTable.table())).append(" cascade;\n");
+            }
+        }
+        for (EntityTables entity : entities) {
+            String table = StringUtils.toSnakeCase(entity.name());
+            script.append("drop table if exists ").append(names.quote(table)).append(" cascade;\n");
+            if (idGeneration.getStrategy() == IdGenerationConfig.Strategy.SEQUENCE) {
+                script.append("drop sequence if exists ").append(sequenceName(table)).append(";\n");
+            }
+        }
+        return script.append('\n').toString();
+    }
+
+    /**
+     * Имя последовательности для R2DBC @Sequence: в кавычках, чтобы H2 не приводил его к верхнему регистру
+     */
+    private static String sequenceName(String table) {
+        return "\"" + table + "_seq\"";
+    }
+
+    private static String sequence(Names names, String name, int allocationSize) {
+        if (names.dialect() == Dialect.MYSQL) {
+            // В MySQL нет последовательностей, Hibernate хранит следующее значение в таблице
+            return table(names, name, List.of("next_val bigint"))
+                    + "insert into " + name + " values (1);\n\n";
+        }
+        return "create sequence " + name + " start with 1 increment by " + allocationSize + ";\n\n";
+    }
+
+    private static String idColumn(Dialect dialect, String idType, IdGenerationConfig.Strategy strategy) {
+        if (strategy != IdGenerationConfig.Strategy.IDENTITY) {
+            return idType + " not null";
+        }
+        return dialect == Dialect.MYSQL
+                ? idType + " not null auto_increment"
+                : idType + " generated by default as identity";
+    }
+
+    private static String joinTable(Names names, JoinTableSpec joinTable, String idType) {
+        List<String> columns = new ArrayList<>(List.of(
+                names.quote(joinTable.ownerColumn()) + " " + idType + " not null",
+                names.quote(joinTable.elementColumn()) + " " + idType + " not null"));
+        if (joinTable.set()) {
+            // Set не допускает повторов, первичный ключ заодно служит индексом по ownerColumn
+            columns.add("primary key (" + columnList(names, List.of(joinTable.ownerColumn(),
+                    joinTable.elementColumn())) + ")");
+        }
+        return table(names, joinTable.table(), columns);
+    }
+
+    private static String table(Names names, String name, List<String> columns) {
+        return "create table " + names.quote(name) + " (\n    " + String.join(",\n    ", columns) + "\n)"
+                + (names.dialect() == Dialect.MYSQL ? " engine=InnoDB" : "") + ";\n\n";
+    }
+
+    /**
+     * Имена индексов и ограничений составлены из нескольких имен и не совпадают с зарезервированными словами
+     */
+    private static String index(Names names, String table, String column) {
+        return "create index idx_" + table + "_" + column + " on " + names.quote(table)
+                + " (" + names.quote(column) + ");\n";
+    }
+
+    private static String uniqueConstraint(Names names, String table, List<String> columns) {
+        return "alter table " + names.quote(table) + " add constraint uk_" + table + "_" + String.join("_", columns)
+                + " unique (" + columnList(names, columns) + ");\n";
+    }
+
+    private static String foreignKey(Names names, String table, String column, String target) {
+        return "alter table " + names.quote(table) + " add constraint fk_" + table + "_" + column
+                + " foreign key (" + names.quote(column) + ") references " + names.quote(target)
+                + " (" + names.quote("id") + ");\n";
+    }
+
+    private static String columnList(Names names, List<String> columns) {
+        return String.join(", ", columns.stream().map(names::quote).toList());
+    }
+
+    private static String targetEntity(Field field) {
+        if (field.getRelation().getTargetEntity() != null) {
+            return field.getRelation().getTargetEntity();
+        }
+        return TypeMapper.isCollectionType(field.getFieldType())
+                ? TypeMapper.extractGenericType(field.getFieldType())
+                : field.getFieldType();
+    }
+
+    /**
+     * Тип колонки для Java типа поля, как его выбирает диалект Hibernate по умолчанию
+     *
+     * @throws IllegalArgumentException если для типа нет соответствия
+     */
+    private static String columnType(TypeName type, Dialect dialect) {
+        boolean mysql = dialect == Dialect.MYSQL;
+        return switch (type.toString()) {
+            case "java.lang.String" -> "varchar(255)";
+            case "java.lang.Short" -> "smallint";
+            case "java.lang.Integer" -> "integer";
+            case "java.lang.Long" -> "bigint";
+            case "java.lang.Double" -> "float(53)";
+            case "java.lang.Float" -> switch (dialect) {
+                case H2 -> "float(24)";
+                case POSTGRESQL -> "float4";
+                case MYSQL -> "float(23)";
+            };
+            case "java.lang.Boolean" -> mysql ? "bit" : "boolean";
+            case "java.math.BigDecimal" -> mysql ? "decimal(38,2)" : "numeric(38,2)";
+            case "java.time.LocalDate" -> "date";
+            case "java.time.LocalTime" -> "time(6)";
+            case "java.time.LocalDateTime", "java.util.Date", "java.sql.Timestamp" ->
+                    mysql ? "datetime(6)" : "timestamp(6)";
+            case "java.time.Instant", "java.time.OffsetDateTime", "java.time.ZonedDateTime" ->
+                    mysql ? "datetime(6)" : "timestamp(6) with time zone";
+            case "java.util.UUID" -> mysql ? "binary(16)" : "uuid";
+            default -> throw new IllegalArgumentException("Type " + type + " has no SQL column mapping for "
+                    + dialect.vendor + " migrations");
+        };
+    }
+
+    private record EntityTables(String name, List<Field> fields, List<IndexSpec> indexes) {
+    }
+}
@@ -0,0 +1,532 @@
+package vnikolaenko.github.jarch.generator.generator;
+
+import com.squareup.javapoet.*;
+import vnikolaenko.github.jarch.generator.config.ApplicationConfig;
+import vnikolaenko.github.jarch.generator.config.EntityConfig;
+import vnikolaenko.github.jarch.generator.config.IdGenerationConfig;
+import vnikolaenko.github.jarch.generator.generator.included.ModelGenerator;
+import vnikolaenko.github.jarch.generator.generator.included.ReactiveServiceGenerator;
+import vnikolaenko.github.jarch.generator.generator.included.ServiceGenerator;
+import vnikolaenko.github.jarch.generator.output.GeneratedOutput;
+import vnikolaenko.github.jarch.generator.utils.StringUtils;
+import vnikolaenko.github.jarch.utils.LogCollector;
+import org.springframework.stereotype.Service;
+
+import javax.lang.model.element.Modifier;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Генератор общих для всего проекта компонентов (конфигурации, обработчики ошибок)
+ * Выполняется ровно один раз на проект, до генерации сущностей
+ */
+@Service
+public class SharedComponentGenerator {
+
+    public void generateSharedComponents(ApplicationConfig appConfig, EntityConfig entityConfig,
+                                         GeneratedOutput output, LogCollector logCollector) {
+        String basePackage = appConfig.getBasePackage();
+        boolean reactive = appConfig.getStack() == ApplicationConfig.Stack.REACTIVE;
+
+        if (appConfig.getMappingStrategy() == ApplicationConfig.MappingStrategy.MODEL_MAPPER) {
+            ConfigGenerator.generateModelMapperConfig(basePackage, output);
+        }
+        generateExceptionHandler(basePackage, reactive, output);
+        if (appConfig.getIdGeneration().getStrategy() == IdGenerationConfig.Strategy.UUID_V7) {
+            generateUuidV7Generator(basePackage, reactive, output);
+        }
+        if (reactive) {
+            ConfigGenerator.generateWebFluxConfig(basePackage, appConfig.getPagination(), output);
+            ConfigGenerator.generateR2dbcConfig(basePackage,
+                    appConfig.getIdGeneration().getStrategy() == IdGenerationConfig.Strategy.SEQUENCE, output);
+        }
+        if (entityConfig.getEntities().stream().anyMatch(entityDef -> entityDef.getKeyset() != null)) {
+            generateCursorPage(basePackage, output);
+        }
+        // Реактивный стек получает только /batch: BulkExecutor построен на транзакциях JPA
+        if (appConfig.getBulk().isEnabled() && !reactive) {
+            generateBulkItemResult(basePackage, output);
+            generateBulkExecutor(basePackage, appConfig.getBulk().getChunkSize(), output);
+        }
+        List<EntityConfig.EntityDefinition> cachedEntities = entityConfig.getEntities().stream()
+                .filter(entityDef -> entityDef.getCache() != null)
+                .toList();
+        // Кэшируемые сущности реактивный стек отклоняет при генерации сущностей
+        if (!cachedEntities.isEmpty() && !reactive) {
+            generateCacheConfig(basePackage, cachedEntities, output);
+        }
+
+        logCollector.info("Shared components generated successfully");
+    }
+
+    /**
+     * Генерирует глобальный обработчик ошибок, переводящий EntityNotFoundException в 404
+     * В реактивном проекте JPA нет, поэтому исключение генерируется вместе с обработчиком
+     */
+    private static void generateExceptionHandler(String basePackage, boolean reactive, GeneratedOutput output) {
+        ClassName responseEntityClass = ClassName.get("org.springframework.http", "ResponseEntity");
+        ClassName notFoundClass = reactive
+                ? ReactiveServiceGenerator.entityNotFoundClass(basePackage)
+                : ClassName.get("jakarta.persistence", "EntityNotFoundException");
+        if (reactive) {
+            TypeSpec exception = TypeSpec.classBuilder(notFoundClass)
+                    .addModifiers(Modifier.PUBLIC)
+                    .superclass(RuntimeException.class)
+                    .addMethod(MethodSpec.constructorBuilder()
+                            .addModifiers(Modifier.PUBLIC)
+                            .addParameter(String.class, "message")
+                            .addStatement("super(message)")
+                            .build())
+                    .build();
+            output.writeJavaFile(JavaFile.builder(notFoundClass.packageName(), exception)
+                    .indent("    ")
+                    .build());
+        }
+
+        MethodSpec handleNotFound = MethodSpec.methodBuilder("handleNotFound")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "ExceptionHandler"))
+                        .addMember("value", "$T.class", notFoundClass)
+                        .build())
+                .addParameter(notFoundClass, "ex")
+                .returns(ParameterizedTypeName.get(responseEntityClass, ClassName.get(String.class)))
+                .addStatement("return $T.status($T.NOT_FOUND).body(ex.getMessage())",
+                        responseEntityClass, ClassName.get("org.springframework.http", "HttpStatus"))
+                .build();
+
+        TypeSpec handler = TypeSpec.classBuilder("GlobalExceptionHandler")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(ClassName.get("org.springframework.web.bind.annotation", "RestControllerAdvice"))
+                .addMethod(handleNotFound)
+                .build();
+
+        output.writeJavaFile(JavaFile.builder(basePackage + ".exception", handler)
+                .indent("    ")
+                .build());
+    }
+
+    /**
+     * Генерирует аннотацию @UuidV7 и генератор Hibernate для нее
+     * Hibernate 6 не создает UUID версии 7 сам; id присваивается до INSERT, поэтому вставки идут пакетами,
+     * а упорядоченность по времени сохраняет локальность вставок в индекс первичного ключа.
+     * В реактивном проекте Hibernate нет: генерируется только класс с next(), id назначает сервис
+     */
+    private static void generateUuidV7Generator(String basePackage, boolean reactive, GeneratedOutput output) {
+        ClassName annotationClass = ModelGenerator.uuidV7Annotation(basePackage);
+        ClassName generatorClass = ClassName.get(annotationClass.packageName(), "UuidV7Generator");
+        ClassName eventType = ClassName.get("org.hibernate.generator", "EventType");
+
+        TypeSpec annotation = TypeSpec.annotationBuilder(annotationClass)
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(AnnotationSpec.builder(ClassName.get("org.hibernate.annotations", "IdGeneratorType"))
+                        .addMember("value", "$T.class", generatorClass)
+                        .build())
+                .addAnnotation(AnnotationSpec.builder(Retention.class)
+                        .addMember("value", "$T.RUNTIME", RetentionPolicy.class)
+                        .build())
+                .addAnnotation(AnnotationSpec.builder(Target.class)
+                        .addMember("value", "{$T.FIELD, $T.METHOD}", ElementType.class, ElementType.class)
+                        .build())
+                .build();
+
+        MethodSpec generate = MethodSpec.methodBuilder("generate")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(ClassName.get("org.hibernate.engine.spi", "SharedSessionContractImplementor"), "session")
+                .addParameter(Object.class, "owner")
+                .addParameter(Object.class, "currentValue")
+                .addParameter(eventType, "eventType")
+                .returns(Object.class)
+                .addStatement("return next()")
+                .build();
+
+        MethodSpec eventTypes = MethodSpec.methodBuilder("getEventTypes")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(ParameterizedTypeName.get(ClassName.get(EnumSet.class), eventType))
+                .addStatement("return $T.INSERT_ONLY", ClassName.get("org.hibernate.generator", "EventTypeSets"))
+                .build();
+
+        MethodSpec next = MethodSpec.methodBuilder("next")
+                .addJavadoc("UUID версии 7 (RFC 9562): 48 бит времени в миллисекундах, версия, вариант и случайные биты\n")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .returns(UUID.class)
+                .addStatement("long msb = ($T.currentTimeMillis() << 16) | 0x7000L | (RANDOM.nextInt() & 0x0FFFL)",
+                        System.class)
+                .addStatement("long lsb = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L")
+                .addStatement("return new $T(msb, lsb)", UUID.class)
+                .build();
+
+        FieldSpec random = FieldSpec.builder(SecureRandom.class, "RANDOM", Modifier.PRIVATE, Modifier.STATIC,
+                        Modifier.FINAL)
+                .initializer("new $T()", SecureRandom.class)
+                .build();
+        if (reactive) {
+            output.writeJavaFile(JavaFile.builder(generatorClass.packageName(), TypeSpec.classBuilder(generatorClass)
+                            .addModifiers(Modifier.PUBLIC)
+                            .addField(random)
+                            .addMethod(next)
+                            .build())
+                    .indent("    ")
+                    .build());
+            return;
+        }
+
+        TypeSpec generator = TypeSpec.classBuilder(generatorClass)
+                .addModifiers(Modifier.PUBLIC)
+                .addSuperinterface(ClassName.get("org.hibernate.generator", "BeforeExecutionGenerator"))
+                .addField(random)
+                .addMethod(generate)
+                .addMethod(eventTypes)
+                .addMethod(next)
+                .build();
+
+        output.writeJavaFile(JavaFile.builder(annotationClass.packageName(), annotation)
+                .indent("    ")
+                .build());
+        output.writeJavaFile(JavaFile.builder(generatorClass.packageName(), generator)
+                .indent("    ")
+                .build());
+    }
+
+    /**
+     * Генерирует страницу курсорной выдачи
+     * Курсор - непрозрачная для клиента строка: ключ последней строки страницы (id и значение поля сортировки)
+     * в Base64 без дополнения, пригодная для передачи в URL
+     */
+    private static void generateCursorPage(String basePackage, GeneratedOutput output) {
+        ClassName cursorPageClass = ServiceGenerator.cursorPageClass(basePackage);
+        TypeVariableName contentType = TypeVariableName.get("T");
+        ClassName base64Class = ClassName.get(Base64.class);
+        ClassName charsetsClass = ClassName.get(StandardCharsets.class);
+
+        MethodSpec encode = MethodSpec.methodBuilder("encode")
+                .addJavadoc("Кодирует ключ строки; sortValue равен null, если страницы упорядочены только по id\n")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .addParameter(Object.class, "id")
+                .addParameter(String.class, "sortValue")
+                .returns(String.class)
+                .addStatement("String key = sortValue == null ? String.valueOf(id) : id + \":\" + sortValue")
+                .addStatement("return $T.getUrlEncoder().withoutPadding().encodeToString(key.getBytes($T.UTF_8))",
+                        base64Class, charsetsClass)
+                .build();
+
+        MethodSpec decode = MethodSpec.methodBuilder("decode")
+                .addJavadoc("@return id и значение поля сортировки (null, если его нет в курсоре)\n")
+                .addJavadoc("@throws IllegalArgumentException если курсор не в Base64\n")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .addParameter(String.class, "cursor")
+                .returns(String[].class)
+                .addStatement("String key = new String($T.getUrlDecoder().decode(cursor), $T.UTF_8)",
+                        base64Class, charsetsClass)
+                .addStatement("int separator = key.indexOf(':')")
+                .addStatement("return separator == -1\n" +
+                        "? new String[]{key, null}\n" +
+                        ": new String[]{key.substring(0, separator), key.substring(separator + 1)}")
+                .build();
+
+        TypeSpec cursorPage = TypeSpec.classBuilder(cursorPageClass)
+                .addModifiers(Modifier.PUBLIC)
+                .addTypeVariable(contentType)
+                .addAnnotation(ClassName.get("lombok", "Data"))
+                .addAnnotation(ClassName.get("lombok", "AllArgsConstructor"))
+                .addField(ParameterizedTypeName.get(ClassName.get(List.class), contentType), "content", Modifier.PRIVATE)
+                .addField(FieldSpec.builder(String.class, "nextCursor", Modifier.PRIVATE)
+                        .addJavadoc("Курсор следующей страницы или null, если страница последняя\n")
+                        .build())
+                .addMethod(encode)
+                .addMethod(decode)
+                .build();
+
+        output.writeJavaFile(JavaFile.builder(cursorPageClass.packageName(), cursorPage)
+                .indent("    ")
+                .build());
+    }
+
+    /**
+     * Генерирует результат обработки одного элемента массовой операции
+     */
+    private static void generateBulkItemResult(String basePackage, GeneratedOutput output) {
+        ClassName resultClass = ServiceGenerator.bulkItemResultClass(basePackage);
+        TypeVariableName dataType = TypeVariableName.get("T");
+        TypeName resultType = ParameterizedTypeName.get(resultClass, dataType);
+
+        MethodSpec ok = MethodSpec.methodBuilder("ok")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .addTypeVariable(dataType)
+                .addParameter(int.class, "index")
+                .addParameter(dataType, "data")
+                .returns(resultType)
+                .addStatement("return new $T<>(index, true, data, null)", resultClass)
+                .build();
+
+        MethodSpec failed = MethodSpec.methodBuilder("failed")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .addTypeVariable(dataType)
+                .addParameter(int.class, "index")
+                .addParameter(String.class, "error")
+                .returns(resultType)
+                .addStatement("return new $T<>(index, false, null, error)", resultClass)
+                .build();
+
+        TypeSpec result = TypeSpec.classBuilder(resultClass)
+                .addModifiers(Modifier.PUBLIC)
+                .addTypeVariable(dataType)
+                .addAnnotation(ClassName.get("lombok", "Data"))
+                .addAnnotation(ClassName.get("lombok", "AllArgsConstructor"))
+                .addField(FieldSpec.builder(int.class, "index", Modifier.PRIVATE)
+                        .addJavadoc("Позиция элемента в массиве запроса\n")
+                        .build())
+                .addField(boolean.class, "success", Modifier.PRIVATE)
+                .addField(dataType, "data", Modifier.PRIVATE)
+                .addField(String.class, "error", Modifier.PRIVATE)
+                .addMethod(ok)
+                .addMethod(failed)
+                .build();
+
+        output.writeJavaFile(JavaFile.builder(resultClass.packageName(), result)
+                .indent("    ")
+                .build());
+    }
+
+    /**
+     * Генерирует исполнитель массовых операций
+     * Элементы обрабатываются частями, каждая часть - отдельной транзакцией: запрос на тысячи строк
+     * не держит одну длинную транзакцию и не копит все сущности в контексте персистентности.
+     * Если часть не удалась, ее элементы повторяются по одному, чтобы ошибка попала только в результаты
+     * ошибочных элементов. Клиент получает общее сообщение об ошибке элемента, подробности пишутся в лог
+     */
+    private static void generateBulkExecutor(String basePackage, int chunkSize, GeneratedOutput output) {
+        ClassName executorClass = ServiceGenerator.bulkExecutorClass(basePackage);
+        ClassName resultClass = ServiceGenerator.bulkItemResultClass(basePackage);
+        ClassName transactionTemplateClass = ClassName.get("org.springframework.transaction.support",
+                "TransactionTemplate");
+        ClassName entityManagerClass = ClassName.get("jakarta.persistence", "EntityManager");
+        ClassName listClass = ClassName.get(List.class);
+        TypeVariableName inputType = TypeVariableName.get("I");
+        TypeVariableName outputType = TypeVariableName.get("O");
+        TypeName inputList = ParameterizedTypeName.get(listClass, inputType);
+        TypeName outputList = ParameterizedTypeName.get(listClass, outputType);
+        TypeName operationType = ParameterizedTypeName.get(ClassName.get(Function.class), inputList, outputList);
+
+        MethodSpec constructor = MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(transactionTemplateClass, "transactionTemplate")
+                .addParameter(entityManagerClass, "entityManager")
+                .addParameter(ParameterSpec.builder(int.class, "chunkSize")
+                        .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.beans.factory.annotation", "Value"))
+                                .addMember("value", "$S", "${app.bulk.chunk-size:" + chunkSize + "}")
+                                .build())
+                        .build())
+                .addStatement("this.transactionTemplate = transactionTemplate")
+                .addStatement("this.entityManager = entityManager")
+                .addStatement("this.chunkSize = chunkSize")
+                .build();
+
+        MethodSpec execute = MethodSpec.methodBuilder("execute")
+                .addJavadoc("Применяет operation к элементам частями по chunkSize\n")
+                .addJavadoc("@param operation обработка части; возвращает результаты в порядке элементов\n")
+                .addModifiers(Modifier.PUBLIC)
+                .addTypeVariable(inputType)
+                .addTypeVariable(outputType)
+                .addParameter(inputList, "items")
+                .addParameter(operationType, "operation")
+                .returns(ParameterizedTypeName.get(listClass, ParameterizedTypeName.get(resultClass, outputType)))
+                .addStatement("$T<$T<$T>> results = new $T<>(items.size())", listClass, resultClass, outputType,
+                        ArrayList.class)
+                .beginControlFlow("for (int from = 0; from < items.size(); from += chunkSize)")
+                .addStatement("$T chunk = items.subList(from, $T.min(from + chunkSize, items.size()))",
+                        inputList, Math.class)
+                .beginControlFlow("try")
+                .addStatement("$T outputs = inTransaction(chunk, operation)", outputList)
+                .beginControlFlow("for (int i = 0; i < outputs.size(); i++)")
+                .addStatement("results.add($T.ok(from + i, outputs.get(i)))", resultClass)
+                .endControlFlow()
+                .nextControlFlow("catch ($T chunkError)", RuntimeException.class)
+                .beginControlFlow("for (int i = 0; i < chunk.size(); i++)")
+                .addStatement("results.add(executeOne(from + i, chunk.get(i), operation))")
+                .endControlFlow()
+                .endControlFlow()
+                .endControlFlow()
+                .addStatement("return results")
+                .build();
+
+        MethodSpec executeOne = MethodSpec.methodBuilder("executeOne")
+                .addModifiers(Modifier.PRIVATE)
+                .addTypeVariable(inputType)
+                .addTypeVariable(outputType)
+                .addParameter(int.class, "index")
+                .addParameter(inputType, "item")
+                .addParameter(operationType, "operation")
+                .returns(ParameterizedTypeName.get(resultClass, outputType))
+                .beginControlFlow("try")
+                .addStatement("return $T.ok(index, inTransaction($T.singletonList(item), operation).get(0))",
+                        resultClass, Collections.class)
+                .nextControlFlow("catch ($T e)", ClassName.get("jakarta.persistence", "EntityNotFoundException"))
+                .addStatement("return $T.failed(index, e.getMessage())", resultClass)
+                // flush EntityManager не переводит исключения Hibernate в исключения Spring
+                .nextControlFlow("catch ($T | $T e)",
+                        ClassName.get("org.springframework.dao", "DataIntegrityViolationException"),
+                        ClassName.get("org.hibernate.exception", "ConstraintViolationException"))
+                .addComment("Текст ошибки драйвера содержит SQL и данные других записей: клиенту уходит только общее сообщение")
+                .addStatement("log.warn($S, index, e)", "Элемент {} массовой операции нарушает ограничение БД")
+                .addStatement("return $T.failed(index, $S)", resultClass, "Нарушено ограничение целостности данных")
+                .nextControlFlow("catch ($T e)", ClassName.get("jakarta.validation", "ConstraintViolationException"))
+                .addStatement("log.warn($S, index, e)", "Элемент {} массовой операции не прошел валидацию")
+                .addStatement("return $T.failed(index, $S)", resultClass, "Данные не прошли валидацию")
+                .nextControlFlow("catch ($T e)", RuntimeException.class)
+                .addStatement("log.error($S, index, e)", "Элемент {} массовой операции не обработан")
+                .addStatement("return $T.failed(index, $S)", resultClass, "Внутренняя ошибка обработки элемента")
+                .endControlFlow()
+                .build();
+
+        MethodSpec inTransaction = MethodSpec.methodBuilder("inTransaction")
+                .addModifiers(Modifier.PRIVATE)
+                .addTypeVariable(inputType)
+                .addTypeVariable(outputType)
+                .addParameter(inputList, "chunk")
+                .addParameter(operationType, "operation")
+                .returns(outputList)
+                .beginControlFlow("try")
+                .addCode("return transactionTemplate.execute(status -> {\n$>" +
+                        "$T outputs = operation.apply(chunk);\n" +
+                        "entityManager.flush();\n" +
+                        "return outputs;\n" +
+                        "$<});\n", outputList)
+                .nextControlFlow("finally")
+                .addComment("При open-in-view контекст персистентности живет весь запрос, сущности прошлых частей в нем не нужны")
+                .addStatement("entityManager.clear()")
+                .endControlFlow()
+                .build();
+
+        TypeSpec executor = TypeSpec.classBuilder(executorClass)
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(ClassName.get("org.springframework.stereotype", "Component"))
+                .addAnnotation(ClassName.get("lombok.extern.slf4j", "Slf4j"))
+                .addField(transactionTemplateClass, "transactionTemplate", Modifier.PRIVATE, Modifier.FINAL)
+                .addField(entityManagerClass, "entityManager", Modifier.PRIVATE, Modifier.FINAL)
+                .addField(int.class, "chunkSize", Modifier.PRIVATE, Modifier.FINAL)
+                .addMethod(constructor)
+                .addMethod(execute)
+                .addMethod(executeOne)
+                .addMethod(inTransaction)
+                .build();
+
+        output.writeJavaFile(JavaFile.builder(executorClass.packageName(), executor)
+                .indent("    ")
+                .build());
+    }
+
+    /**
+     * Генерирует конфигурацию кэшей на Caffeine через JCache
+     * Один CacheManager обслуживает и кэши сервисов Spring, и второй уровень Hibernate: для каждой сущности
+     * создаются кэш с именем {@link ServiceGenerator#cacheName} и регион Hibernate с полным именем класса.
+     * Размер и время жизни читаются из app.cache.<имя>.*, значения из конфигурации сущности - по умолчанию
+     */
+    private static void generateCacheConfig(String basePackage, List<EntityConfig.EntityDefinition> cachedEntities,
+                                            GeneratedOutput output) {
+        ClassName environmentClass = ClassName.get("org.springframework.core.env", "Environment");
+        ClassName jcacheCacheManagerClass = ClassName.get("org.springframework.cache.jcache", "JCacheCacheManager");
+        ClassName caffeineConfigurationClass = ClassName.get("com.github.benmanes.caffeine.jcache.configuration",
+                "CaffeineConfiguration");
+        ClassName availableSettingsClass = ClassName.get("org.hibernate.cfg", "AvailableSettings");
+        TypeName objectConfiguration = ParameterizedTypeName.get(caffeineConfigurationClass,
+                ClassName.OBJECT, ClassName.OBJECT);
+
+        CodeBlock.Builder createCaches = CodeBlock.builder()
+                .add("return cacheManager -> {\n$>");
+        for (EntityConfig.EntityDefinition entityDef : cachedEntities) {
+            ClassName entityClass = ClassName.get(basePackage + ".model",
+                    StringUtils.capitalizeFirst(entityDef.getName()));
+            createCaches.addStatement("createCaches(cacheManager, environment, $S, $T.class, $LL, $LL)",
+                    ServiceGenerator.cacheName(entityDef.getName()), entityClass,
+                    entityDef.getCache().getMaximumSize(), entityDef.getCache().getTtlSeconds());
+        }
+        createCaches.add("$<};\n");
+
+        MethodSpec cacheCreator = MethodSpec.methodBuilder("cacheCreator")
+                .addAnnotation(ClassName.get("org.springframework.context.annotation", "Bean"))
+                .addModifiers(Modifier.PUBLIC)
+                .returns(ClassName.get("org.springframework.boot.autoconfigure.cache", "JCacheManagerCustomizer"))
+                .addParameter(environmentClass, "environment")
+                .addCode(createCaches.build())
+                .build();
+
+        MethodSpec transactionAware = MethodSpec.methodBuilder("transactionAwareCaches")
+                .addJavadoc("Вытеснение из кэша выполняется после фиксации транзакции, а не в момент вызова метода\n")
+                .addAnnotation(ClassName.get("org.springframework.context.annotation", "Bean"))
+                .addModifiers(Modifier.PUBLIC)
+                .returns(ParameterizedTypeName.get(
+                        ClassName.get("org.springframework.boot.autoconfigure.cache", "CacheManagerCustomizer"),
+                        jcacheCacheManagerClass))
+                .addStatement("return cacheManager -> cacheManager.setTransactionAware(true)")
+                .build();
+
+        MethodSpec hibernateCustomizer = MethodSpec.methodBuilder("secondLevelCache")
+                .addJavadoc("Подключает второй уровень Hibernate к общему CacheManager\n")
+                .addAnnotation(ClassName.get("org.springframework.context.annotation", "Bean"))
+                .addModifiers(Modifier.PUBLIC)
+                .returns(ClassName.get("org.springframework.boot.autoconfigure.orm.jpa",
+                        "HibernatePropertiesCustomizer"))
+                .addParameter(jcacheCacheManagerClass, "cacheManager")
+                .addCode("return properties -> {\n$>")
+                .addStatement("properties.put($T.USE_SECOND_LEVEL_CACHE, true)", availableSettingsClass)
+                .addStatement("properties.put($T.CACHE_REGION_FACTORY, $S)", availableSettingsClass, "jcache")
+                .addStatement("properties.put($T.CACHE_MANAGER, cacheManager.getCacheManager())",
+                        ClassName.get("org.hibernate.cache.jcache", "ConfigSettings"))
+                .addStatement("properties.put($T.JAKARTA_SHARED_CACHE_MODE, $T.ENABLE_SELECTIVE)",
+                        availableSettingsClass, ClassName.get("jakarta.persistence", "SharedCacheMode"))
+                .addCode("$<};\n")
+                .build();
+
+        MethodSpec createCachesMethod = MethodSpec.methodBuilder("createCaches")
+                .addJavadoc("Создает кэш сервиса и регион Hibernate сущности с одинаковыми ограничениями\n")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .addParameter(ClassName.get("javax.cache", "CacheManager"), "cacheManager")
+                .addParameter(environmentClass, "environment")
+                .addParameter(String.class, "name")
+                .addParameter(ParameterizedTypeName.get(ClassName.get(Class.class),
+                        WildcardTypeName.subtypeOf(Object.class)), "entityClass")
+                .addParameter(long.class, "maximumSize")
+                .addParameter(long.class, "ttlSeconds")
+                .addStatement("$T size = environment.getProperty($S + name + $S, $T.class, maximumSize)",
+                        long.class, "app.cache.", ".maximum-size", Long.class)
+                .addStatement("$T ttl = environment.getProperty($S + name + $S, $T.class,\n$T.ofSeconds(ttlSeconds))",
+                        Duration.class, "app.cache.", ".ttl", Duration.class, Duration.class)
+                .addStatement("$T configuration = new $T<>()", objectConfiguration, caffeineConfigurationClass)
+                .addComment("По умолчанию JCache копирует значения через сериализацию, DTO для этого не предназначены")
+                .addStatement("configuration.setStoreByValue(false)")
+                .addStatement("configuration.setMaximumSize($T.of(size))", OptionalLong.class)
+                .addStatement("configuration.setExpireAfterWrite($T.of(ttl.toNanos()))", OptionalLong.class)
+                .addStatement("cacheManager.createCache(name, configuration)")
+                .addStatement("cacheManager.createCache(entityClass.getName(), configuration)")
+                .build();
+
+        TypeSpec cacheConfig = TypeSpec.classBuilder("CacheConfig")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(ClassName.get("org.springframework.context.annotation", "Configuration"))
+                .addAnnotation(ClassName.get("org.springframework.cache.annotation", "EnableCaching"))
+                .addMethod(cacheCreator)
+                .addMethod(transactionAware)
+                .addMethod(hibernateCustomizer)
+                .addMethod(createCachesMethod)
+                .build();
+
+        output.writeJavaFile(JavaFile.builder(basePackage + ".config", cacheConfig)
+                .indent("    ")
+                .build());
+    }
+}
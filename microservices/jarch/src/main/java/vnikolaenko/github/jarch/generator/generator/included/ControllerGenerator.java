@@ -1,12 +1,12 @@
 package vnikolaenko.github.jarch.generator.generator.included;
 
 import com.squareup.javapoet.*;
+import vnikolaenko.github.jarch.generator.config.PaginationConfig;
+import vnikolaenko.github.jarch.generator.output.GeneratedOutput;
 import vnikolaenko.github.jarch.generator.utils.StringUtils;
+import vnikolaenko.github.jarch.generator.utils.TypeMapper;
 
 import javax.lang.model.element.Modifier;
-import java.io.IOException;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 
 /**
  * Генератор REST контроллеров для Spring приложения
@@ -14,10 +14,19 @@ import java.nio.file.Paths;
  */
 public class ControllerGenerator {
 
+    private static final ClassName VALID = ClassName.get("jakarta.validation", "Valid");
+
     /**
      * Генерирует REST контроллер для сущности
+     *
+     * @param types      таблица типов текущей генерации
+     * @param pagination настройки постраничной выдачи getAll
+     * @param keyset     параметры курсорной выдачи или null
+     * @param bulk       генерировать ли массовые операции /batch и /bulk
      */
-    public static void generateController(String basePackage, String entityName, Path targetDir) throws IOException {
+    public static void generateController(String basePackage, String entityName, TypeMapper types,
+                                          PaginationConfig pagination, KeysetSpec keyset, boolean bulk,
+                                          GeneratedOutput output) {
         String className = StringUtils.capitalizeFirst(entityName) + "Controller";
         String serviceName = StringUtils.capitalizeFirst(entityName) + "Service";
         String dtoName = StringUtils.capitalizeFirst(entityName) + "DTO";
@@ -26,44 +35,145 @@ public class ControllerGenerator {
         // Импорты классов
         ClassName serviceClass = ClassName.get(basePackage + ".service", serviceName);
         ClassName dtoClass = ClassName.get(basePackage + ".dto", dtoName);
-        ClassName listClass = ClassName.get("java.util", "List");
         ClassName responseEntityClass = ClassName.get("org.springframework.http", "ResponseEntity");
 
         // Создание методов контроллера
-        MethodSpec getAll = createGetAllMethod(serviceFieldName, listClass, dtoClass);
-        MethodSpec getById = createGetByIdMethod(serviceFieldName, dtoClass);
+        MethodSpec getAll = createGetAllMethod(serviceFieldName, ServiceGenerator.pageClass(pagination), dtoClass);
+        TypeName idType = types.getIdType();
+        MethodSpec getById = createGetByIdMethod(serviceFieldName, dtoClass, idType);
         MethodSpec create = createCreateMethod(serviceFieldName, dtoClass);
-        MethodSpec update = createUpdateMethod(serviceFieldName, dtoClass);
-        MethodSpec delete = createDeleteMethod(serviceFieldName, responseEntityClass);
+        MethodSpec update = createUpdateMethod(serviceFieldName, dtoClass, idType);
+        MethodSpec delete = createDeleteMethod(serviceFieldName, responseEntityClass, idType);
 
         // Создание класса контроллера
-        TypeSpec controller = TypeSpec.classBuilder(className)
+        TypeSpec.Builder controllerBuilder = TypeSpec.classBuilder(className)
                 .addModifiers(Modifier.PUBLIC)
                 .addAnnotation(createRestControllerAnnotation())
                 .addAnnotation(createRequestMappingAnnotation(entityName))
                 .addAnnotation(createRequiredArgsConstructorAnnotation()) // Добавляем Lombok аннотацию
                 .addField(createServiceField(serviceClass, serviceFieldName))
-                .addMethod(getAll)
+                .addMethod(getAll);
+        if (keyset != null) {
+            controllerBuilder.addMethod(createGetAllByCursorMethod(serviceFieldName,
+                    ServiceGenerator.cursorPageClass(basePackage), dtoClass, pagination));
+        }
+        controllerBuilder
                 .addMethod(getById)
                 .addMethod(create)
                 .addMethod(update)
-                .addMethod(delete)
-                .build();
+                .addMethod(delete);
+        if (bulk) {
+            ClassName resultClass = ServiceGenerator.bulkItemResultClass(basePackage);
+            controllerBuilder
+                    .addMethod(createCreateAllMethod(serviceFieldName, dtoClass))
+                    .addMethod(createBulkMethod("createBulk", "PostMapping", serviceFieldName, resultClass,
+                            dtoClass, "dtos"))
+                    .addMethod(createBulkMethod("updateBulk", "PutMapping", serviceFieldName, resultClass,
+                            dtoClass, "dtos"))
+                    .addMethod(createBulkMethod("deleteBulk", "DeleteMapping", serviceFieldName, resultClass,
+                            idType, "ids"));
+        }
+        TypeSpec controller = controllerBuilder.build();
 
         // Запись сгенерированного файла
-        writeJavaFile(basePackage + ".controller", controller, targetDir);
+        writeJavaFile(basePackage + ".controller", controller, output);
+    }
+
+    /**
+     * Генерирует реактивный REST контроллер WebFlux с теми же путями и телами ответов, что и у servlet стека
+     * Page оборачивается в PagedModel: в WebFlux Spring Boot не настраивает сериализацию страниц через DTO
+     *
+     * @param types      таблица типов текущей генерации
+     * @param pagination настройки постраничной выдачи getAll
+     * @param keyset     параметры курсорной выдачи или null
+     * @param bulk       генерировать ли /batch; частичная обработка /bulk построена на JPA и здесь не создается
+     */
+    public static void generateReactiveController(String basePackage, String entityName, TypeMapper types,
+                                                  PaginationConfig pagination, KeysetSpec keyset, boolean bulk,
+                                                  GeneratedOutput output) {
+        String serviceFieldName = StringUtils.getServiceFieldName(entityName);
+        ClassName serviceClass = ClassName.get(basePackage + ".service",
+                StringUtils.capitalizeFirst(entityName) + "Service");
+        ClassName dtoClass = ClassName.get(basePackage + ".dto", StringUtils.capitalizeFirst(entityName) + "DTO");
+        ClassName responseEntityClass = ClassName.get("org.springframework.http", "ResponseEntity");
+        TypeName idType = types.getIdType();
+
+        MethodSpec getAll;
+        if (pagination.getResponseType() == PaginationConfig.ResponseType.PAGE) {
+            ClassName pagedModelClass = ClassName.get("org.springframework.data.web", "PagedModel");
+            getAll = MethodSpec.methodBuilder("getAll")
+                    .addModifiers(Modifier.PUBLIC)
+                    .addAnnotation(ClassName.get("org.springframework.web.bind.annotation", "GetMapping"))
+                    .addParameter(ClassName.get("org.springframework.data.domain", "Pageable"), "pageable")
+                    .returns(mono(ParameterizedTypeName.get(pagedModelClass, dtoClass)))
+                    .addStatement("return $L.findAll(pageable)\n" +
+                            ".map($T::new)", serviceFieldName, pagedModelClass)
+                    .build();
+        } else {
+            getAll = createGetAllMethod(serviceFieldName, ServiceGenerator.pageClass(pagination), dtoClass);
+            getAll = reactive(getAll, mono(getAll.returnType));
+        }
+
+        TypeSpec.Builder controllerBuilder = TypeSpec.classBuilder(StringUtils.capitalizeFirst(entityName) + "Controller")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(createRestControllerAnnotation())
+                .addAnnotation(createRequestMappingAnnotation(entityName))
+                .addAnnotation(createRequiredArgsConstructorAnnotation())
+                .addField(createServiceField(serviceClass, serviceFieldName))
+                .addMethod(getAll);
+        if (keyset != null) {
+            MethodSpec getAllByCursor = createGetAllByCursorMethod(serviceFieldName,
+                    ServiceGenerator.cursorPageClass(basePackage), dtoClass, pagination);
+            controllerBuilder.addMethod(reactive(getAllByCursor, mono(getAllByCursor.returnType)));
+        }
+        controllerBuilder
+                .addMethod(reactive(createGetByIdMethod(serviceFieldName, dtoClass, idType), mono(dtoClass)))
+                .addMethod(reactive(createCreateMethod(serviceFieldName, dtoClass), mono(dtoClass)));
+        if (bulk) {
+            MethodSpec createAll = createCreateAllMethod(serviceFieldName, dtoClass);
+            controllerBuilder.addMethod(reactive(createAll, ParameterizedTypeName.get(
+                    ClassName.get("reactor.core.publisher", "Flux"), dtoClass)));
+        }
+        controllerBuilder
+                .addMethod(reactive(createUpdateMethod(serviceFieldName, dtoClass, idType), mono(dtoClass)))
+                .addMethod(MethodSpec.methodBuilder("delete")
+                        .addModifiers(Modifier.PUBLIC)
+                        .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "DeleteMapping"))
+                                .addMember("value", "$S", "/{id}")
+                                .build())
+                        .addParameter(createIdParameter(idType))
+                        .returns(mono(ParameterizedTypeName.get(responseEntityClass, ClassName.get(Void.class))))
+                        .addStatement("return $L.delete(id)\n" +
+                                ".thenReturn($T.ok().build())", serviceFieldName, responseEntityClass)
+                        .build());
+
+        writeJavaFile(basePackage + ".controller", controllerBuilder.build(), output);
+    }
+
+    /**
+     * Метод servlet контроллера с реактивным типом результата: тело метода только передает результат сервиса
+     */
+    private static MethodSpec reactive(MethodSpec method, TypeName returnType) {
+        return method.toBuilder()
+                .returns(returnType)
+                .build();
+    }
+
+    private static TypeName mono(TypeName type) {
+        return ParameterizedTypeName.get(ClassName.get("reactor.core.publisher", "Mono"), type);
     }
 
     /**
      * Создает метод для удаления записи (исправленный)
      */
-    private static MethodSpec createDeleteMethod(String serviceFieldName, ClassName responseEntityClass) {
+    private static MethodSpec createDeleteMethod(String serviceFieldName, ClassName responseEntityClass,
+                                                 TypeName idType) {
         return MethodSpec.methodBuilder("delete")
                 .addModifiers(Modifier.PUBLIC)
                 .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "DeleteMapping"))
                         .addMember("value", "$S", "/{id}")
                         .build())
-                .addParameter(createIdParameter())
+                .addParameter(createIdParameter(idType))
                 .returns(ParameterizedTypeName.get(responseEntityClass, ClassName.get(Void.class)))
                 .addStatement("$L.delete(id)", serviceFieldName)
                 .addStatement("return $T.ok().build()", responseEntityClass)
@@ -71,28 +181,60 @@ public class ControllerGenerator {
     }
 
     /**
-     * Создает метод для получения всех записей
+     * Создает метод для получения страницы записей
+     * Размер страницы и сортировка передаются параметрами page, size и sort;
+     * размер по умолчанию и максимальный задаются в application.properties
      */
-    private static MethodSpec createGetAllMethod(String serviceFieldName, ClassName listClass, ClassName dtoClass) {
+    private static MethodSpec createGetAllMethod(String serviceFieldName, ClassName pageClass, ClassName dtoClass) {
         return MethodSpec.methodBuilder("getAll")
                 .addModifiers(Modifier.PUBLIC)
                 .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "GetMapping"))
                         .build())
-                .returns(ParameterizedTypeName.get(listClass, dtoClass))
-                .addStatement("return $L.findAll()", serviceFieldName)
+                .addParameter(ClassName.get("org.springframework.data.domain", "Pageable"), "pageable")
+                .returns(ParameterizedTypeName.get(pageClass, dtoClass))
+                .addStatement("return $L.findAll(pageable)", serviceFieldName)
+                .build();
+    }
+
+    /**
+     * Создает метод для получения страницы курсорной выдачи
+     * Без cursor возвращается первая страница, nextCursor ответа передается для получения следующей;
+     * размер страницы ограничивается теми же пределами, что и у getAll
+     */
+    private static MethodSpec createGetAllByCursorMethod(String serviceFieldName, ClassName cursorPageClass,
+                                                         ClassName dtoClass, PaginationConfig pagination) {
+        ClassName requestParam = ClassName.get("org.springframework.web.bind.annotation", "RequestParam");
+        return MethodSpec.methodBuilder("getAllByCursor")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "GetMapping"))
+                        .addMember("value", "$S", "/cursor")
+                        .build())
+                .addParameter(ParameterSpec.builder(String.class, "cursor")
+                        .addAnnotation(AnnotationSpec.builder(requestParam)
+                                .addMember("required", "$L", false)
+                                .build())
+                        .build())
+                .addParameter(ParameterSpec.builder(int.class, "size")
+                        .addAnnotation(AnnotationSpec.builder(requestParam)
+                                .addMember("defaultValue", "$S", String.valueOf(pagination.getDefaultPageSize()))
+                                .build())
+                        .build())
+                .returns(ParameterizedTypeName.get(cursorPageClass, dtoClass))
+                .addStatement("return $L.findAllByCursor(cursor, $T.max(1, $T.min(size, $L)))", serviceFieldName,
+                        Math.class, Math.class, pagination.getMaxPageSize())
                 .build();
     }
 
     /**
      * Создает метод для получения записи по ID
      */
-    private static MethodSpec createGetByIdMethod(String serviceFieldName, ClassName dtoClass) {
+    private static MethodSpec createGetByIdMethod(String serviceFieldName, ClassName dtoClass, TypeName idType) {
         return MethodSpec.methodBuilder("getById")
                 .addModifiers(Modifier.PUBLIC)
                 .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "GetMapping"))
                         .addMember("value", "$S", "/{id}")
                         .build())
-                .addParameter(createIdParameter())
+                .addParameter(createIdParameter(idType))
                 .returns(dtoClass)
                 .addStatement("return $L.findById(id)", serviceFieldName)
                 .build();
@@ -112,16 +254,59 @@ public class ControllerGenerator {
                 .build();
     }
 
+    /**
+     * Создает метод для создания списка записей одним запросом
+     * Список сохраняется одной транзакцией: любая ошибка отменяет весь запрос, в отличие от /bulk
+     */
+    private static MethodSpec createCreateAllMethod(String serviceFieldName, ClassName dtoClass) {
+        TypeName dtoList = ParameterizedTypeName.get(ClassName.get("java.util", "List"), dtoClass);
+        // List<@Valid DTO>: Spring проверяет каждый элемент встроенной валидацией методов
+        TypeName validDtoList = ParameterizedTypeName.get(ClassName.get("java.util", "List"),
+                dtoClass.annotated(AnnotationSpec.builder(VALID).build()));
+        return MethodSpec.methodBuilder("createAll")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "PostMapping"))
+                        .addMember("value", "$S", "/batch")
+                        .build())
+                .addParameter(ParameterSpec.builder(validDtoList, "dtos")
+                        .addAnnotation(ClassName.get("org.springframework.web.bind.annotation", "RequestBody"))
+                        .build())
+                .returns(dtoList)
+                .addStatement("return $L.saveAll(dtos)", serviceFieldName)
+                .build();
+    }
+
+    /**
+     * Создает метод массовой операции
+     * В отличие от /batch, части обрабатываются отдельными транзакциями, а ответ содержит результат
+     * каждого элемента: ошибка в одном элементе не отменяет остальные
+     */
+    private static MethodSpec createBulkMethod(String name, String mapping, String serviceFieldName,
+                                               ClassName resultClass, TypeName itemType, String parameterName) {
+        ClassName listClass = ClassName.get("java.util", "List");
+        return MethodSpec.methodBuilder(name)
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", mapping))
+                        .addMember("value", "$S", "/bulk")
+                        .build())
+                .addParameter(ParameterSpec.builder(ParameterizedTypeName.get(listClass, itemType.box()), parameterName)
+                        .addAnnotation(ClassName.get("org.springframework.web.bind.annotation", "RequestBody"))
+                        .build())
+                .returns(ParameterizedTypeName.get(listClass, ParameterizedTypeName.get(resultClass, itemType.box())))
+                .addStatement("return $L.$L($L)", serviceFieldName, name, parameterName)
+                .build();
+    }
+
     /**
      * Создает метод для обновления записи
      */
-    private static MethodSpec createUpdateMethod(String serviceFieldName, ClassName dtoClass) {
+    private static MethodSpec createUpdateMethod(String serviceFieldName, ClassName dtoClass, TypeName idType) {
         return MethodSpec.methodBuilder("update")
                 .addModifiers(Modifier.PUBLIC)
                 .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.web.bind.annotation", "PutMapping"))
                         .addMember("value", "$S", "/{id}")
                         .build())
-                .addParameter(createIdParameter())
+                .addParameter(createIdParameter(idType))
                 .addParameter(createDtoParameter(dtoClass))
                 .returns(dtoClass)
                 .addStatement("return $L.update(id, dto)", serviceFieldName)
@@ -131,17 +316,18 @@ public class ControllerGenerator {
     /**
      * Создает параметр ID для методов
      */
-    private static ParameterSpec createIdParameter() {
-        return ParameterSpec.builder(Long.class, "id")
+    private static ParameterSpec createIdParameter(TypeName idType) {
+        return ParameterSpec.builder(idType, "id")
                 .addAnnotation(ClassName.get("org.springframework.web.bind.annotation", "PathVariable"))
                 .build();
     }
 
     /**
-     * Создает параметр DTO для методов
+     * Создает параметр DTO для методов; ограничения полей DTO (@NotNull) проверяются до вызова сервиса
      */
     private static ParameterSpec createDtoParameter(ClassName dtoClass) {
         return ParameterSpec.builder(dtoClass, "dto")
+                .addAnnotation(VALID)
                 .addAnnotation(ClassName.get("org.springframework.web.bind.annotation", "RequestBody"))
                 .build();
     }
@@ -191,11 +377,9 @@ public class ControllerGenerator {
     /**
      * Записывает сгенерированный Java файл
      */
-    private static void writeJavaFile(String packageName, TypeSpec typeSpec, Path targetDir) throws IOException {
-        JavaFile javaFile = JavaFile.builder(packageName, typeSpec)
+    private static void writeJavaFile(String packageName, TypeSpec typeSpec, GeneratedOutput output) {
+        output.writeJavaFile(JavaFile.builder(packageName, typeSpec)
                 .indent("    ")
-                .build();
-
-        javaFile.writeTo(Paths.get(targetDir + "/src/main/java"));
+                .build());
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package vnikolaenko.github.jarch.generator.generator.included;
 
 import com.squareup.javapoet.*;
+import vnikolaenko.github.jarch.generator.output.GeneratedOutput;
 import vnikolaenko.github.jarch.generator.auxiliary.Field;
 import vnikolaenko.github.jarch.generator.auxiliary.Relation;
 import vnikolaenko.github.jarch.generator.auxiliary.TypeOfRelation;
@@ -8,9 +9,6 @@ import vnikolaenko.github.jarch.generator.utils.StringUtils;
 import vnikolaenko.github.jarch.generator.utils.TypeMapper;
 
 import javax.lang.model.element.Modifier;
-import java.io.IOException;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.List;
 
 /**
@@ -25,8 +23,10 @@ public class DtoGenerator {
      * @param basePackage базовый пакет приложения
      * @param entityName  имя сущности
      * @param fields      список полей сущности
+     * @param types       таблица типов текущей генерации
      */
-    public static void generateDTO(String basePackage, String entityName, List<Field> fields, Path targetDir) throws IOException {
+    public static void generateDTO(String basePackage, String entityName, List<Field> fields, TypeMapper types,
+                                   GeneratedOutput output) {
         String className = StringUtils.capitalizeFirst(entityName) + "DTO";
 
         // Создаем билдер для DTO класса
@@ -38,11 +38,11 @@ public class DtoGenerator {
                 .addAnnotation(createLombokBuilderAnnotation());
 
         // Добавляем поле ID
-        dtoBuilder.addField(createIdField());
+        dtoBuilder.addField(createIdField(types.getIdType()));
 
         // Добавляем все поля из entity
         for (Field field : fields) {
-            FieldSpec fieldSpec = createDtoField(field, basePackage);
+            FieldSpec fieldSpec = createDtoField(field, types);
             if (fieldSpec != null) {
                 dtoBuilder.addField(fieldSpec);
             }
@@ -51,14 +51,14 @@ public class DtoGenerator {
         TypeSpec dto = dtoBuilder.build();
 
         // Записываем сгенерированный файл
-        writeJavaFile(basePackage + ".dto", dto, targetDir);
+        writeJavaFile(basePackage + ".dto", dto, output);
     }
 
     /**
      * Создает поле ID для DTO
      */
-    private static FieldSpec createIdField() {
-        return FieldSpec.builder(Long.class, "id", Modifier.PRIVATE)
+    private static FieldSpec createIdField(TypeName idType) {
+        return FieldSpec.builder(idType, "id", Modifier.PRIVATE)
                 .build();
     }
 
@@ -66,25 +66,33 @@ public class DtoGenerator {
      * Создает поле DTO на основе поля entity
      * Обрабатывает как обычные поля, так и отношения между сущностями
      */
-    private static FieldSpec createDtoField(Field field, String basePackage) {
+    private static FieldSpec createDtoField(Field field, TypeMapper types) {
         String fieldName = field.getFieldName();
         String fieldType = field.getFieldType();
         Relation relation = field.getRelation();
 
         // Обрабатываем отношения между сущностями
-        if (relation != null) {
-            return createRelationField(relation, fieldName);
+        FieldSpec fieldSpec = relation != null
+                ? createRelationField(relation, fieldName, types.getIdType())
+                // Обычное поле - используем соответствующий Java тип
+                : createBasicField(fieldType, fieldName, types);
+
+        // Обязательное поле проверяется при приеме запроса (@Valid в контроллере), а не только базой
+        boolean collection = relation != null && (relation.getTypeOfRelation() == TypeOfRelation.ONE_TO_MANY
+                || relation.getTypeOfRelation() == TypeOfRelation.MANY_TO_MANY);
+        if (field.isRequired() && !collection) {
+            fieldSpec = fieldSpec.toBuilder()
+                    .addAnnotation(ClassName.get("jakarta.validation.constraints", "NotNull"))
+                    .build();
         }
-
-        // Обычное поле - используем соответствующий Java тип
-        return createBasicField(fieldType, fieldName, basePackage);
+        return fieldSpec;
     }
 
     /**
      * Создает поле для отношений между сущностями
      * Для коллекций использует списки ID, для одиночных отношений - одиночный ID
      */
-    private static FieldSpec createRelationField(Relation relation, String fieldName) {
+    private static FieldSpec createRelationField(Relation relation, String fieldName, TypeName idType) {
         TypeOfRelation relationType = relation.getTypeOfRelation();
 
         switch (relationType) {
@@ -94,7 +102,7 @@ public class DtoGenerator {
                 return FieldSpec.builder(
                         ParameterizedTypeName.get(
                                 ClassName.get("java.util", "List"),
-                                ClassName.get(Long.class)
+                                idType
                         ),
                         fieldName + "Ids",
                         Modifier.PRIVATE
@@ -103,11 +111,11 @@ public class DtoGenerator {
             case ONE_TO_ONE:
             case MANY_TO_ONE:
                 // Для одиночных отношений используем одиночный ID
-                return FieldSpec.builder(Long.class, fieldName + "Id", Modifier.PRIVATE)
+                return FieldSpec.builder(idType, fieldName + "Id", Modifier.PRIVATE)
                         .build();
 
             default:
-                return FieldSpec.builder(Long.class, fieldName + "Id", Modifier.PRIVATE)
+                return FieldSpec.builder(idType, fieldName + "Id", Modifier.PRIVATE)
                         .build();
         }
     }
@@ -115,8 +123,8 @@ public class DtoGenerator {
     /**
      * Создает поле для базового типа данных
      */
-    private static FieldSpec createBasicField(String fieldType, String fieldName, String basePackage) {
-        TypeName javaType = TypeMapper.getJavaType(fieldType, basePackage);
+    private static FieldSpec createBasicField(String fieldType, String fieldName, TypeMapper types) {
+        TypeName javaType = types.getJavaType(fieldType);
         return FieldSpec.builder(javaType, fieldName, Modifier.PRIVATE)
                 .build();
     }
@@ -156,10 +164,9 @@ public class DtoGenerator {
     /**
      * Записывает сгенерированный Java файл
      */
-    private static void writeJavaFile(String packageName, TypeSpec typeSpec, Path targetDir) throws IOException {
-        JavaFile.builder(packageName, typeSpec)
+    private static void writeJavaFile(String packageName, TypeSpec typeSpec, GeneratedOutput output) {
+        output.writeJavaFile(JavaFile.builder(packageName, typeSpec)
                 .indent("    ")
-                .build()
-                .writeTo(Paths.get(targetDir + "/src/main/java"));
+                .build());
     }
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+package vnikolaenko.github.jarch.generator.generator.included;
+
+import vnikolaenko.github.jarch.generator.auxiliary.Field;
+import vnikolaenko.github.jarch.generator.auxiliary.TypeOfRelation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Именованные графы загрузки сущности для генераторов модели, репозитория и сервиса
+ * summary - связи "к одному": подгружаются JOIN в запросах страниц, не размножая строки;
+ * detail - для выдачи одной записи: связи "к одному" и первая коллекция. Две коллекции в одном запросе
+ * дали бы декартово произведение строк (а для List - MultipleBagFetchException), поэтому остальные
+ * коллекции догружаются лениво пакетами hibernate.default_batch_fetch_size
+ *
+ * @param summaryName  имя графа summary или null, если у сущности нет связей "к одному"
+ * @param summaryNodes поля графа summary
+ * @param detailName   имя графа detail
+ * @param detailNodes  поля графа detail
+ */
+public record EntityGraphSpec(String summaryName, List<String> summaryNodes,
+                              String detailName, List<String> detailNodes) {
+
+    /**
+     * @return графы сущности или null, если у сущности нет связей
+     */
+    public static EntityGraphSpec of(String entityName, List<Field> fields) {
+        List<String> toOne = new ArrayList<>();
+        String collection = null;
+        for (Field field : fields) {
+            if (field.getRelation() == null) {
+                continue;
+            }
+            TypeOfRelation relationType = field.getRelation().getTypeOfRelation();
+            if (relationType == TypeOfRelation.ONE_TO_ONE || relationType == TypeOfRelation.MANY_TO_ONE) {
+                toOne.add(field.getFieldName());
+            } else if (collection == null) {
+                collection = field.getFieldName();
+            }
+        }
+        if (toOne.isEmpty() && collection == null) {
+            return null;
+        }
+
+        List<String> detail = new ArrayList<>(toOne);
+        if (collection != null) {
+            detail.add(collection);
+        }
+        return new EntityGraphSpec(toOne.isEmpty() ? null : entityName + ".summary", List.copyOf(toOne),
+                entityName + ".detail", List.copyOf(detail));
+    }
+
+    public boolean hasSummary() {
+        return summaryName != null;
+    }
+}
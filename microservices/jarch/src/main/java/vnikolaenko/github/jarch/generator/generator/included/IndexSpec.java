@@ -0,0 +1,109 @@
+package vnikolaenko.github.jarch.generator.generator.included;
+
+import vnikolaenko.github.jarch.generator.auxiliary.Field;
+import vnikolaenko.github.jarch.generator.auxiliary.TypeOfRelation;
+import vnikolaenko.github.jarch.generator.config.EntityConfig;
+import vnikolaenko.github.jarch.generator.utils.SqlKeywords;
+import vnikolaenko.github.jarch.generator.utils.StringUtils;
+import vnikolaenko.github.jarch.generator.utils.TypeMapper;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Индекс таблицы сущности для генераторов модели и скриптов миграций
+ *
+ * @param name    имя индекса: idx_ для обычного, uk_ для уникального
+ * @param table   имя таблицы
+ * @param columns колонки индекса в порядке объявления
+ * @param unique  уникальный ли индекс
+ */
+public record IndexSpec(String name, String table, List<String> columns, boolean unique) {
+
+    /**
+     * Индексы сущности в порядке:
+     * <ul>
+     *     <li>первое поле - по нему репозиторий всегда генерирует findBy;</li>
+     *     <li>поля с unique или indexed и внешние ключи связей "к одному", для OneToOne - уникальные;</li>
+     *     <li>составные индексы сущности;</li>
+     *     <li>(sortField, id) курсорной выдачи.</li>
+     * </ul>
+     * Индексы с одинаковым набором колонок объединяются, уникальность сохраняется; обычный индекс,
+     * колонки которого - начало другого индекса, не создается: запросы по нему обслужит более широкий индекс
+     */
+    public static List<IndexSpec> of(EntityConfig.EntityDefinition entityDef, List<Field> fields, TypeMapper types) {
+        String table = StringUtils.toSnakeCase(entityDef.getName());
+        Map<String, EntityConfig.FieldDefinition> definitions = new LinkedHashMap<>();
+        if (entityDef.getFields() != null) {
+            entityDef.getFields().forEach(fieldDef -> definitions.put(fieldDef.getName(), fieldDef));
+        }
+        Map<String, String> columns = new LinkedHashMap<>();
+        // Внешние ключи: колонка -> уникальна ли она (у OneToOne каждая запись ссылается на свою)
+        Map<String, Boolean> foreignKeys = new LinkedHashMap<>();
+        for (Field field : fields) {
+            String column = column(field, types);
+            if (column != null) {
+                columns.put(field.getFieldName(), column);
+                if (field.getRelation() != null) {
+                    foreignKeys.put(column, field.getRelation().getTypeOfRelation() == TypeOfRelation.ONE_TO_ONE);
+                }
+            }
+        }
+
+        Map<List<String>, Boolean> indexes = new LinkedHashMap<>();
+        if (!fields.isEmpty() && columns.containsKey(fields.get(0).getFieldName())) {
+            add(indexes, List.of(columns.get(fields.get(0).getFieldName())), false);
+        }
+        columns.forEach((fieldName, column) -> {
+            EntityConfig.FieldDefinition fieldDef = definitions.get(fieldName);
+            if (fieldDef != null && (fieldDef.isUnique() || fieldDef.isIndexed() || foreignKeys.containsKey(column))) {
+                add(indexes, List.of(column), fieldDef.isUnique() || foreignKeys.getOrDefault(column, false));
+            }
+        });
+        if (entityDef.getIndexes() != null) {
+            for (EntityConfig.IndexDefinition indexDef : entityDef.getIndexes()) {
+                add(indexes, indexDef.getFields().stream().map(columns::get).toList(), indexDef.isUnique());
+            }
+        }
+        if (entityDef.getKeyset() != null && entityDef.getKeyset().getSortField() != null) {
+            add(indexes, List.of(columns.get(entityDef.getKeyset().getSortField()), "id"), false);
+        }
+
+        indexes.entrySet().removeIf(index -> !index.getValue() && indexes.keySet().stream()
+                .anyMatch(other -> other.size() > index.getKey().size()
+                        && other.subList(0, index.getKey().size()).equals(index.getKey())));
+
+        List<IndexSpec> specs = new ArrayList<>();
+        indexes.forEach((indexColumns, unique) -> specs.add(new IndexSpec(
+                (unique ? "uk_" : "idx_") + table + "_" + String.join("_", indexColumns),
+                table, indexColumns, unique)));
+        return specs;
+    }
+
+    /**
+     * Колонки через запятую, в формате columnList аннотации @Index; зарезервированные имена в кавычках
+     */
+    public String columnList() {
+        return String.join(", ", columns.stream().map(SqlKeywords::quote).toList());
+    }
+
+    /**
+     * Колонка поля или null, если поле не хранится в таблице сущности (коллекции и составные типы)
+     */
+    private static String column(Field field, TypeMapper types) {
+        if (field.getRelation() == null) {
+            return types.isBasic(field.getFieldType()) ? StringUtils.toSnakeCase(field.getFieldName()) : null;
+        }
+        TypeOfRelation relationType = field.getRelation().getTypeOfRelation();
+        if (relationType == TypeOfRelation.MANY_TO_ONE || relationType == TypeOfRelation.ONE_TO_ONE) {
+            return StringUtils.toSnakeCase(field.getFieldName()) + "_id";
+        }
+        return null;
+    }
+
+    private static void add(Map<List<String>, Boolean> indexes, List<String> columns, boolean unique) {
+        indexes.merge(columns, unique, Boolean::logicalOr);
+    }
+}
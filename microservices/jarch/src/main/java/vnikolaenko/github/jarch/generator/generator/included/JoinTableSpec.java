@@ -0,0 +1,63 @@
+package vnikolaenko.github.jarch.generator.generator.included;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.ParameterizedTypeName;
+import vnikolaenko.github.jarch.generator.auxiliary.Field;
+import vnikolaenko.github.jarch.generator.auxiliary.TypeOfRelation;
+import vnikolaenko.github.jarch.generator.utils.StringUtils;
+import vnikolaenko.github.jarch.generator.utils.TypeMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Таблица связи коллекции сущности для генераторов скриптов схемы и реактивного сервиса
+ * Имена совпадают с тем, как связь отображает JPA модель из {@link ModelGenerator}
+ *
+ * @param field         поле коллекции
+ * @param table         имя таблицы связи
+ * @param ownerColumn   колонка с id владельца коллекции
+ * @param elementColumn колонка с id элемента коллекции
+ * @param set           коллекция - Set, повторы элементов не допускаются
+ */
+public record JoinTableSpec(String field, String table, String ownerColumn, String elementColumn, boolean set) {
+
+    /**
+     * Таблицы связей коллекций сущности в порядке объявления полей
+     */
+    public static List<JoinTableSpec> of(String entityName, List<Field> fields, TypeMapper types) {
+        List<JoinTableSpec> joinTables = new ArrayList<>();
+        for (Field field : fields) {
+            JoinTableSpec joinTable = of(entityName, field, types);
+            if (joinTable != null) {
+                joinTables.add(joinTable);
+            }
+        }
+        return joinTables;
+    }
+
+    /**
+     * @return таблица связи поля или null, если поле не коллекция сущностей
+     */
+    public static JoinTableSpec of(String entityName, Field field, TypeMapper types) {
+        if (field.getRelation() == null) {
+            return null;
+        }
+        String table = StringUtils.toSnakeCase(entityName);
+        String column = StringUtils.toSnakeCase(field.getFieldName());
+        boolean set = types.getJavaType(field.getFieldType()) instanceof ParameterizedTypeName type
+                && type.rawType.equals(ClassName.get(Set.class));
+        TypeOfRelation relationType = field.getRelation().getTypeOfRelation();
+        if (relationType == TypeOfRelation.ONE_TO_MANY) {
+            // Однонаправленная связь без mappedBy хранится в таблице <сущность>_<поле>
+            return new JoinTableSpec(field.getFieldName(), table + "_" + column, table + "_id", column + "_id", set);
+        }
+        if (relationType == TypeOfRelation.MANY_TO_MANY) {
+            // Имена колонок заданы @JoinTable в ModelGenerator
+            return new JoinTableSpec(field.getFieldName(), column + "_mapping", column + "_id", "related_entity_id",
+                    set);
+        }
+        return null;
+    }
+}
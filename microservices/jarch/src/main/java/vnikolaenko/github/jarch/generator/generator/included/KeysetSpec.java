@@ -0,0 +1,95 @@
+package vnikolaenko.github.jarch.generator.generator.included;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.TypeName;
+import vnikolaenko.github.jarch.generator.config.EntityConfig;
+import vnikolaenko.github.jarch.generator.utils.TypeMapper;
+
+import java.util.Set;
+
+/**
+ * Параметры курсорной (keyset) выдачи сущности для генераторов репозитория, сервиса и контроллера
+ *
+ * @param sortField поле сортировки или null, если страницы упорядочены только по id
+ * @param sortType  Java тип поля сортировки
+ * @param idType    Java тип первичного ключа
+ */
+public record KeysetSpec(String sortField, TypeName sortType, TypeName idType) {
+
+    private static final Set<String> VALUE_OF_TYPES = Set.of("java.lang.Integer", "java.lang.Long",
+            "java.lang.Double", "java.lang.Float", "java.lang.Boolean", "java.sql.Timestamp");
+    private static final Set<String> PARSE_TYPES = Set.of("java.time.LocalDateTime", "java.time.LocalDate",
+            "java.time.LocalTime", "java.time.Instant", "java.time.OffsetDateTime");
+
+    /**
+     * @return параметры курсорной выдачи или null, если сущность использует только постраничную выдачу
+     */
+    public static KeysetSpec of(EntityConfig.EntityDefinition entityDef, TypeMapper types) {
+        if (entityDef.getKeyset() == null) {
+            return null;
+        }
+        String sortField = entityDef.getKeyset().getSortField();
+        if (sortField == null) {
+            return new KeysetSpec(null, null, types.getIdType());
+        }
+        String fieldType = entityDef.getFields().stream()
+                .filter(field -> sortField.equals(field.getName()))
+                .map(EntityConfig.FieldDefinition::getType)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Keyset sort field " + sortField + " is not declared"));
+        return new KeysetSpec(sortField, types.getJavaType(fieldType), types.getIdType());
+    }
+
+    public boolean hasSortField() {
+        return sortField != null;
+    }
+
+    /**
+     * Выражение, восстанавливающее значение поля сортировки из строки курсора
+     *
+     * @throws IllegalArgumentException если тип поля нельзя использовать в курсоре
+     */
+    public CodeBlock parseValue(String variable) {
+        String type = sortType.toString();
+        if (type.equals("java.lang.String")) {
+            return CodeBlock.of("$L", variable);
+        }
+        if (VALUE_OF_TYPES.contains(type)) {
+            return CodeBlock.of("$T.valueOf($L)", sortType, variable);
+        }
+        if (PARSE_TYPES.contains(type)) {
+            return CodeBlock.of("$T.parse($L)", sortType, variable);
+        }
+        switch (type) {
+            case "java.math.BigDecimal":
+                return CodeBlock.of("new $T($L)", sortType, variable);
+            case "java.util.UUID":
+                return CodeBlock.of("$T.fromString($L)", sortType, variable);
+            case "java.util.Date":
+                return CodeBlock.of("new $T($T.parseLong($L))", sortType, ClassName.get(Long.class), variable);
+            default:
+                throw new IllegalArgumentException("Type " + type + " of keyset sort field " + sortField
+                        + " cannot be used in a cursor");
+        }
+    }
+
+    /**
+     * Выражение, восстанавливающее id последней строки из строки курсора
+     */
+    public CodeBlock parseId(String variable) {
+        return idType.toString().equals("java.util.UUID")
+                ? CodeBlock.of("$T.fromString($L)", idType, variable)
+                : CodeBlock.of("$T.valueOf($L)", idType, variable);
+    }
+
+    /**
+     * Выражение, записывающее значение поля сортировки в строку курсора
+     */
+    public CodeBlock formatValue(String expression) {
+        if (sortType.toString().equals("java.util.Date")) {
+            return CodeBlock.of("$T.valueOf($L.getTime())", ClassName.get(String.class), expression);
+        }
+        return CodeBlock.of("$T.valueOf($L)", ClassName.get(String.class), expression);
+    }
+}
@@ -0,0 +1,287 @@
+package vnikolaenko.github.jarch.generator.generator.included;
+
+import com.squareup.javapoet.*;
+import vnikolaenko.github.jarch.generator.auxiliary.Field;
+import vnikolaenko.github.jarch.generator.auxiliary.TypeOfRelation;
+import vnikolaenko.github.jarch.generator.config.ApplicationConfig;
+import vnikolaenko.github.jarch.generator.output.GeneratedOutput;
+import vnikolaenko.github.jarch.generator.utils.StringUtils;
+import vnikolaenko.github.jarch.generator.utils.TypeMapper;
+
+import javax.lang.model.element.Modifier;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Генератор мапперов между сущностью и DTO
+ * Мапперы заменяют ModelMapper: поля копируются явными вызовами геттеров и сеттеров без рефлексии,
+ * отношения переводятся в id и обратно в ссылки EntityManager.getReference без загрузки связанных строк.
+ * В реактивном стеке сущность хранит id связи "к одному" сама, а id коллекций заполняет сервис
+ */
+public class MapperGenerator {
+
+    private static final ClassName ENTITY_MANAGER = ClassName.get("jakarta.persistence", "EntityManager");
+    private static final ClassName MAPSTRUCT_MAPPER = ClassName.get("org.mapstruct", "Mapper");
+    private static final ClassName MAPSTRUCT_MAPPING = ClassName.get("org.mapstruct", "Mapping");
+
+    /**
+     * Генерирует маппер сущности
+     * Для MODEL_MAPPER ничего не генерируется: используется общий бин из ModelMapperConfig
+     *
+     * @param basePackage базовый пакет приложения
+     * @param entityName  имя сущности
+     * @param fields      список полей сущности
+     * @param types       таблица типов текущей генерации
+     * @param strategy    способ преобразования сущностей и DTO
+     * @param reactive    сущность R2DBC из {@link ModelGenerator#generateReactiveEntity}
+     */
+    public static void generateMapper(String basePackage, String entityName, List<Field> fields, TypeMapper types,
+                                      ApplicationConfig.MappingStrategy strategy, boolean reactive,
+                                      GeneratedOutput output) {
+        if (strategy == ApplicationConfig.MappingStrategy.MODEL_MAPPER) {
+            return;
+        }
+
+        ClassName entityClass = ClassName.get(basePackage + ".model", StringUtils.capitalizeFirst(entityName));
+        ClassName dtoClass = ClassName.get(basePackage + ".dto", StringUtils.capitalizeFirst(entityName) + "DTO");
+        ClassName mapperClass = mapperClass(basePackage, entityName);
+        List<MappedField> mappedFields = fields.stream()
+                .map(field -> MappedField.of(field, types, reactive))
+                .toList();
+
+        TypeSpec mapper = strategy == ApplicationConfig.MappingStrategy.MAPSTRUCT
+                ? createMapStructMapper(mapperClass, entityClass, dtoClass, types.getIdType(), mappedFields)
+                : createGeneratedMapper(mapperClass, entityClass, dtoClass, mappedFields);
+        output.writeJavaFile(JavaFile.builder(mapperClass.packageName(), mapper)
+                .indent("    ")
+                .build());
+    }
+
+    /**
+     * Класс маппера сущности
+     */
+    public static ClassName mapperClass(String basePackage, String entityName) {
+        return ClassName.get(basePackage + ".mapper", StringUtils.capitalizeFirst(entityName) + "Mapper");
+    }
+
+    /**
+     * Создает маппер, полностью написанный генератором
+     */
+    private static TypeSpec createGeneratedMapper(ClassName mapperClass, ClassName entityClass, ClassName dtoClass,
+                                                  List<MappedField> fields) {
+        MethodSpec.Builder toDto = MethodSpec.methodBuilder("toDto")
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(entityClass, "entity")
+                .returns(dtoClass)
+                .addStatement("$T dto = new $T()", dtoClass, dtoClass)
+                .addStatement("dto.setId(entity.getId())");
+        MethodSpec.Builder updateEntity = MethodSpec.methodBuilder("updateEntity")
+                .addJavadoc("Переносит поля DTO в сущность; id сущности не меняется\n")
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(dtoClass, "dto")
+                .addParameter(entityClass, "entity");
+
+        for (MappedField field : fields) {
+            String entityGetter = "entity.get" + StringUtils.capitalizeFirst(field.name()) + "()";
+            String entitySetter = "entity.set" + StringUtils.capitalizeFirst(field.name());
+            String dtoGetter = "dto.get" + StringUtils.capitalizeFirst(field.dtoName()) + "()";
+            String dtoSetter = "dto.set" + StringUtils.capitalizeFirst(field.dtoName());
+
+            switch (field.kind()) {
+                case BASIC -> {
+                    toDto.addStatement("$L($L)", dtoSetter, entityGetter);
+                    updateEntity.addStatement("$L($L)", entitySetter, dtoGetter);
+                }
+                case TO_ONE -> {
+                    toDto.addStatement("$L($L != null ? $L.getId() : null)", dtoSetter, entityGetter, entityGetter);
+                    updateEntity.addStatement("$L($L != null ? entityManager.getReference($T.class, $L) : null)",
+                            entitySetter, dtoGetter, field.target(), dtoGetter);
+                }
+                case TO_MANY -> {
+                    // У только что сохраненной сущности коллекция может быть null: в ответе она пустая, как при чтении
+                    toDto.addStatement("$L($L != null ? $L.stream().map($T::getId).toList() : $T.of())",
+                            dtoSetter, entityGetter, entityGetter, field.target(), ClassName.get("java.util", "List"));
+                    updateEntity.addStatement("$L($L != null ? $L.stream()\n" +
+                                    ".map(id -> entityManager.getReference($T.class, id))\n" +
+                                    ".collect($T.$L()) : null)",
+                            entitySetter, dtoGetter, dtoGetter, field.target(),
+                            ClassName.get("java.util.stream", "Collectors"), field.collector());
+                }
+                case LINKS -> {
+                }
+            }
+        }
+
+        MethodSpec toEntity = MethodSpec.methodBuilder("toEntity")
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(dtoClass, "dto")
+                .returns(entityClass)
+                .addStatement("$T entity = new $T()", entityClass, entityClass)
+                .addStatement("updateEntity(dto, entity)")
+                .addStatement("return entity")
+                .build();
+
+        TypeSpec.Builder mapper = TypeSpec.classBuilder(mapperClass)
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(ClassName.get("org.springframework.stereotype", "Component"));
+        if (hasRelations(fields)) {
+            mapper.addAnnotation(ClassName.get("lombok", "RequiredArgsConstructor"))
+                    .addField(ENTITY_MANAGER, "entityManager", Modifier.PRIVATE, Modifier.FINAL);
+        }
+        return mapper
+                .addMethod(toDto.addStatement("return dto").build())
+                .addMethod(toEntity)
+                .addMethod(updateEntity.build())
+                .build();
+    }
+
+    /**
+     * Создает абстрактный маппер MapStruct; реализация генерируется процессором аннотаций при сборке проекта
+     * Отношения переводятся вспомогательными методами: сущность -> id и id -> ссылка на сущность
+     */
+    private static TypeSpec createMapStructMapper(ClassName mapperClass, ClassName entityClass, ClassName dtoClass,
+                                                  TypeName idType, List<MappedField> fields) {
+        MethodSpec.Builder toDto = MethodSpec.methodBuilder("toDto")
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .addParameter(entityClass, "entity")
+                .returns(dtoClass);
+        MethodSpec.Builder updateEntity = MethodSpec.methodBuilder("updateEntity")
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .addAnnotation(createMappingAnnotation("id", null))
+                .addParameter(dtoClass, "dto")
+                .addParameter(ParameterSpec.builder(entityClass, "entity")
+                        .addAnnotation(ClassName.get("org.mapstruct", "MappingTarget"))
+                        .build());
+
+        // Ссылки нужны для всех отношений, id элементов - только для коллекций: одиночные берутся через "x.id"
+        Set<ClassName> targets = new LinkedHashSet<>();
+        Set<ClassName> collectionTargets = new LinkedHashSet<>();
+        for (MappedField field : fields) {
+            switch (field.kind()) {
+                case TO_ONE -> {
+                    toDto.addAnnotation(createMappingAnnotation(field.dtoName(), field.name() + ".id"));
+                    updateEntity.addAnnotation(createMappingAnnotation(field.name(), field.dtoName()));
+                    targets.add(field.target());
+                }
+                case TO_MANY -> {
+                    toDto.addAnnotation(createMappingAnnotation(field.dtoName(), field.name()).toBuilder()
+                            .addMember("defaultExpression", "$S", "java(java.util.List.of())")
+                            .build());
+                    updateEntity.addAnnotation(createMappingAnnotation(field.name(), field.dtoName()));
+                    targets.add(field.target());
+                    collectionTargets.add(field.target());
+                }
+                case LINKS -> toDto.addAnnotation(createMappingAnnotation(field.dtoName(), null));
+                default -> {
+                }
+            }
+        }
+
+        MethodSpec toEntity = MethodSpec.methodBuilder("toEntity")
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .addAnnotation(AnnotationSpec.builder(ClassName.get("org.mapstruct", "InheritConfiguration"))
+                        .addMember("name", "$S", "updateEntity")
+                        .build())
+                .addParameter(dtoClass, "dto")
+                .returns(entityClass)
+                .build();
+
+        TypeSpec.Builder mapper = TypeSpec.classBuilder(mapperClass)
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .addAnnotation(AnnotationSpec.builder(MAPSTRUCT_MAPPER)
+                        .addMember("componentModel", "$S", "spring")
+                        .build());
+        if (!targets.isEmpty()) {
+            mapper.addField(FieldSpec.builder(ENTITY_MANAGER, "entityManager", Modifier.PROTECTED)
+                    .addAnnotation(ClassName.get("org.springframework.beans.factory.annotation", "Autowired"))
+                    .build());
+        }
+        mapper.addMethod(toDto.build())
+                .addMethod(toEntity)
+                .addMethod(updateEntity.build());
+
+        for (ClassName target : targets) {
+            String name = StringUtils.uncapitalizeFirst(target.simpleName());
+            if (collectionTargets.contains(target)) {
+                mapper.addMethod(MethodSpec.methodBuilder(name + "Id")
+                        .addModifiers(Modifier.PROTECTED)
+                        .addParameter(target, name)
+                        .returns(idType)
+                        .addStatement("return $L != null ? $L.getId() : null", name, name)
+                        .build());
+            }
+            mapper.addMethod(MethodSpec.methodBuilder(name + "Reference")
+                    .addModifiers(Modifier.PROTECTED)
+                    .addParameter(idType, "id")
+                    .returns(target)
+                    .addStatement("return id != null ? entityManager.getReference($T.class, id) : null", target)
+                    .build());
+        }
+        return mapper.build();
+    }
+
+    /**
+     * Создает аннотацию MapStruct @Mapping; без source поле цели пропускается
+     */
+    private static AnnotationSpec createMappingAnnotation(String target, String source) {
+        AnnotationSpec.Builder mapping = AnnotationSpec.builder(MAPSTRUCT_MAPPING)
+                .addMember("target", "$S", target);
+        return source != null
+                ? mapping.addMember("source", "$S", source).build()
+                : mapping.addMember("ignore", "$L", true).build();
+    }
+
+    private static boolean hasRelations(List<MappedField> fields) {
+        return fields.stream()
+                .anyMatch(field -> field.kind() == FieldKind.TO_ONE || field.kind() == FieldKind.TO_MANY);
+    }
+
+    /**
+     * LINKS - коллекция реактивной сущности: в сущности ее нет, id элементов берутся из таблицы связи
+     */
+    private enum FieldKind {
+        BASIC, TO_ONE, TO_MANY, LINKS
+    }
+
+    /**
+     * Поле сущности и соответствующее ему поле DTO
+     * Имена полей DTO для отношений совпадают с {@link DtoGenerator}: xId для одиночных, xIds для коллекций
+     *
+     * @param target    класс связанной сущности или null для базовых полей
+     * @param collector метод Collectors для коллекции сущности (toList или toSet)
+     */
+    private record MappedField(String name, String dtoName, FieldKind kind, ClassName target, String collector) {
+
+        static MappedField of(Field field, TypeMapper types, boolean reactive) {
+            String name = field.getFieldName();
+            if (field.getRelation() == null) {
+                return new MappedField(name, name, FieldKind.BASIC, null, null);
+            }
+            if (reactive) {
+                TypeOfRelation relationType = field.getRelation().getTypeOfRelation();
+                return relationType == TypeOfRelation.ONE_TO_MANY || relationType == TypeOfRelation.MANY_TO_MANY
+                        ? new MappedField(name, name + "Ids", FieldKind.LINKS, null, null)
+                        : new MappedField(name + "Id", name + "Id", FieldKind.BASIC, null, null);
+            }
+
+            TypeName type = types.getJavaType(field.getFieldType());
+            TypeOfRelation relationType = field.getRelation().getTypeOfRelation();
+            if (relationType == TypeOfRelation.ONE_TO_MANY || relationType == TypeOfRelation.MANY_TO_MANY) {
+                if (!(type instanceof ParameterizedTypeName collection)
+                        || !(collection.typeArguments.get(0) instanceof ClassName)) {
+                    throw new IllegalArgumentException("Field " + name + " with relation " + relationType
+                            + " must be a collection of entities");
+                }
+                String collector = collection.rawType.equals(ClassName.get(Set.class)) ? "toSet" : "toList";
+                return new MappedField(name, name + "Ids", FieldKind.TO_MANY,
+                        (ClassName) collection.typeArguments.get(0), collector);
+            }
+            if (!(type instanceof ClassName target)) {
+                throw new IllegalArgumentException("Field " + name + " with relation " + relationType
+                        + " must refer to a single entity");
+            }
+            return new MappedField(name, name + "Id", FieldKind.TO_ONE, target, null);
+        }
+    }
+}
@@ -1,16 +1,16 @@
 package vnikolaenko.github.jarch.generator.generator.included;
 
 import com.squareup.javapoet.*;
+import vnikolaenko.github.jarch.generator.output.GeneratedOutput;
 import vnikolaenko.github.jarch.generator.auxiliary.Field;
 import vnikolaenko.github.jarch.generator.auxiliary.Relation;
 import vnikolaenko.github.jarch.generator.auxiliary.TypeOfRelation;
+import vnikolaenko.github.jarch.generator.config.IdGenerationConfig;
+import vnikolaenko.github.jarch.generator.utils.SqlKeywords;
 import vnikolaenko.github.jarch.generator.utils.StringUtils;
 import vnikolaenko.github.jarch.generator.utils.TypeMapper;
 
 import javax.lang.model.element.Modifier;
-import java.io.IOException;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.List;
 
 /**
@@ -25,10 +25,16 @@ public class ModelGenerator {
      * @param basePackage базовый пакет приложения
      * @param entityName имя сущности
      * @param fields список полей сущности
+     * @param types таблица типов текущей генерации
+     * @param idGeneration способ генерации первичного ключа
+     * @param graphs графы загрузки сущности или null, если у нее нет связей
+     * @param cached хранить ли сущность во втором уровне кэша Hibernate
+     * @param indexes индексы таблицы сущности
      */
-    public static void generateEntity(String basePackage, String entityName, List<Field> fields, Path targetDir) throws IOException {
+    public static void generateEntity(String basePackage, String entityName, List<Field> fields, TypeMapper types,
+                                      IdGenerationConfig idGeneration, EntityGraphSpec graphs, boolean cached,
+                                      List<IndexSpec> indexes, GeneratedOutput output) {
         String className = StringUtils.capitalizeFirst(entityName);
-        System.out.println("Генерация класса сущности: " + className);
 
         // Создаем билдер для класса сущности
         TypeSpec.Builder modelBuilder = TypeSpec.classBuilder(className)
@@ -37,52 +43,146 @@ public class ModelGenerator {
                 .addAnnotation(createLombokDataAnnotation())
                 .addAnnotation(createLombokNoArgsConstructorAnnotation())
                 .addAnnotation(createLombokAllArgsConstructorAnnotation())
-                .addField(createIdField());
+                .addField(createIdField(basePackage, entityName, types, idGeneration));
+        String table = StringUtils.toSnakeCase(entityName);
+        if (!indexes.isEmpty() || SqlKeywords.isReserved(table)) {
+            modelBuilder.addAnnotation(createTableAnnotation(table, indexes));
+        }
+        if (graphs != null) {
+            modelBuilder.addAnnotation(createNamedEntityGraphsAnnotation(graphs));
+        }
+        if (cached) {
+            modelBuilder.addAnnotation(ClassName.get("jakarta.persistence", "Cacheable"));
+            modelBuilder.addAnnotation(createCacheAnnotation());
+        }
 
         // Обрабатываем все поля сущности
         for (Field field : fields) {
-            FieldSpec fieldSpec = createFieldSpec(field, basePackage);
+            FieldSpec fieldSpec = createFieldSpec(table, field, types);
             if (fieldSpec != null) {
                 modelBuilder.addField(fieldSpec);
-                System.out.println("Добавлено поле: " + field.getFieldName() +
-                        " с отношением: " + (field.getRelation() != null ?
-                        field.getRelation().getTypeOfRelation() : "отсутствует"));
             }
         }
 
         TypeSpec model = modelBuilder.build();
 
         // Записываем сгенерированный файл
-        writeJavaFile(basePackage + ".model", model, targetDir);
-        System.out.println("Успешно сгенерирован: " + className + ".java");
+        writeJavaFile(basePackage + ".model", model, output);
     }
 
     /**
-     * Создает поле ID с JPA аннотациями
+     * Генерирует класс сущности Spring Data R2DBC для реактивного стека
+     * R2DBC не поддерживает связи между сущностями: связь "к одному" хранится как id связанной записи
+     * в колонке x_id, коллекции в сущность не входят - их таблицы связей ведет сервис
+     * Имена таблицы и колонок указаны без кавычек: в кавычки их берет Spring Data (forceQuote в R2dbcConfig)
+     *
+     * @param basePackage базовый пакет приложения
+     * @param entityName имя сущности
+     * @param fields список полей сущности
+     * @param types таблица типов текущей генерации
+     * @param idGeneration способ генерации первичного ключа
      */
-    private static FieldSpec createIdField() {
-        return FieldSpec.builder(Long.class, "id", Modifier.PRIVATE)
-                .addAnnotation(createIdAnnotation())
-                .addAnnotation(createGeneratedValueAnnotation())
+    public static void generateReactiveEntity(String basePackage, String entityName, List<Field> fields,
+                                              TypeMapper types, IdGenerationConfig idGeneration,
+                                              GeneratedOutput output) {
+        String className = StringUtils.capitalizeFirst(entityName);
+
+        // Имя колонки задано явно: выведенное имя в кавычках H2 переводит в верхний регистр
+        FieldSpec.Builder idField = FieldSpec.builder(types.getIdType(), "id", Modifier.PRIVATE)
+                .addAnnotation(ClassName.get("org.springframework.data.annotation", "Id"))
+                .addAnnotation(AnnotationSpec.builder(
+                                ClassName.get("org.springframework.data.relational.core.mapping", "Column"))
+                        .addMember("value", "$S", "id")
+                        .build());
+        if (idGeneration.getStrategy() == IdGenerationConfig.Strategy.SEQUENCE) {
+            idField.addAnnotation(AnnotationSpec.builder(
+                            ClassName.get("org.springframework.data.relational.core.mapping", "Sequence"))
+                    .addMember("value", "$S", StringUtils.toSnakeCase(entityName) + "_seq")
+                    .build());
+        }
+
+        TypeSpec.Builder modelBuilder = TypeSpec.classBuilder(className)
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(AnnotationSpec.builder(
+                                ClassName.get("org.springframework.data.relational.core.mapping", "Table"))
+                        .addMember("value", "$S", StringUtils.toSnakeCase(entityName))
+                        .build())
+                .addAnnotation(createLombokDataAnnotation())
+                .addAnnotation(createLombokNoArgsConstructorAnnotation())
+                .addAnnotation(createLombokAllArgsConstructorAnnotation())
+                .addField(idField.build());
+
+        for (Field field : fields) {
+            Relation relation = field.getRelation();
+            if (relation == null) {
+                TypeMapper.ResolvedType resolvedType = types.resolve(field.getFieldType());
+                if (resolvedType.basic()) {
+                    modelBuilder.addField(createReactiveColumn(resolvedType.typeName(), field.getFieldName(),
+                            StringUtils.toSnakeCase(field.getFieldName())));
+                }
+            } else if (relation.getTypeOfRelation() == TypeOfRelation.MANY_TO_ONE
+                    || relation.getTypeOfRelation() == TypeOfRelation.ONE_TO_ONE) {
+                modelBuilder.addField(createReactiveColumn(types.getIdType(), field.getFieldName() + "Id",
+                        StringUtils.toSnakeCase(field.getFieldName()) + "_id"));
+            }
+        }
+
+        writeJavaFile(basePackage + ".model", modelBuilder.build(), output);
+    }
+
+    private static FieldSpec createReactiveColumn(TypeName type, String name, String column) {
+        return FieldSpec.builder(type, name, Modifier.PRIVATE)
+                .addAnnotation(AnnotationSpec.builder(
+                                ClassName.get("org.springframework.data.relational.core.mapping", "Column"))
+                        .addMember("value", "$S", column)
+                        .build())
                 .build();
     }
 
+    /**
+     * Создает поле ID с JPA аннотациями
+     */
+    private static FieldSpec createIdField(String basePackage, String entityName, TypeMapper types,
+                                           IdGenerationConfig idGeneration) {
+        FieldSpec.Builder idField = FieldSpec.builder(types.getIdType(), "id", Modifier.PRIVATE)
+                .addAnnotation(createIdAnnotation());
+
+        switch (idGeneration.getStrategy()) {
+            case SEQUENCE -> {
+                String sequenceName = StringUtils.toSnakeCase(entityName) + "_seq";
+                idField.addAnnotation(createSequenceGeneratedValueAnnotation(sequenceName));
+                idField.addAnnotation(createSequenceGeneratorAnnotation(sequenceName,
+                        idGeneration.getAllocationSize()));
+            }
+            case UUID_V7 -> idField.addAnnotation(uuidV7Annotation(basePackage));
+            default -> idField.addAnnotation(createGeneratedValueAnnotation());
+        }
+        return idField.build();
+    }
+
+    /**
+     * Аннотация генератора UUID версии 7, общая для всех сущностей проекта
+     */
+    public static ClassName uuidV7Annotation(String basePackage) {
+        return ClassName.get(basePackage + ".model", "UuidV7");
+    }
+
     /**
      * Создает спецификацию поля с поддержкой JPA отношений
      */
-    private static FieldSpec createFieldSpec(Field field, String basePackage) {
+    private static FieldSpec createFieldSpec(String table, Field field, TypeMapper types) {
         String fieldName = field.getFieldName();
         String fieldType = field.getFieldType();
         Relation relation = field.getRelation();
 
-        TypeName fieldTypeName = TypeMapper.getFieldType(fieldType, basePackage);
-        FieldSpec.Builder fieldBuilder = FieldSpec.builder(fieldTypeName, fieldName, Modifier.PRIVATE);
+        TypeMapper.ResolvedType resolvedType = types.resolve(fieldType);
+        FieldSpec.Builder fieldBuilder = FieldSpec.builder(resolvedType.typeName(), fieldName, Modifier.PRIVATE);
 
         // Добавляем JPA аннотации в зависимости от типа поля
         if (relation != null) {
-            addRelationAnnotations(fieldBuilder, relation, fieldName);
-        } else if (TypeMapper.isBasicType(fieldType)) {
-            addColumnAnnotation(fieldBuilder, fieldName);
+            addRelationAnnotations(fieldBuilder, table, relation, fieldName, field.isRequired());
+        } else if (resolvedType.basic()) {
+            addColumnAnnotation(fieldBuilder, fieldName, field.isRequired());
         }
 
         return fieldBuilder.build();
@@ -91,38 +191,97 @@ public class ModelGenerator {
     /**
      * Добавляет аннотации для отношений между сущностями
      */
-    private static void addRelationAnnotations(FieldSpec.Builder fieldBuilder, Relation relation, String fieldName) {
+    private static void addRelationAnnotations(FieldSpec.Builder fieldBuilder, String table, Relation relation,
+                                               String fieldName, boolean required) {
         TypeOfRelation relationType = relation.getTypeOfRelation();
 
         switch (relationType) {
             case ONE_TO_ONE:
-                fieldBuilder.addAnnotation(createOneToOneAnnotation());
-                fieldBuilder.addAnnotation(createJoinColumnAnnotation(fieldName));
+                fieldBuilder.addAnnotation(createRelationAnnotation("OneToOne", relation));
+                fieldBuilder.addAnnotation(createJoinColumnAnnotation(fieldName, required));
                 break;
 
             case ONE_TO_MANY:
-                fieldBuilder.addAnnotation(createOneToManyAnnotation());
+                fieldBuilder.addAnnotation(createRelationAnnotation("OneToMany", relation));
+                if (SqlKeywords.isReserved(table)) {
+                    // Hibernate берет в кавычки и имена, производные от имени таблицы в кавычках,
+                    // поэтому таблица связи задается явно с теми же именами, что и по умолчанию
+                    fieldBuilder.addAnnotation(createOwnedJoinTableAnnotation(table, fieldName));
+                }
                 break;
 
             case MANY_TO_ONE:
-                fieldBuilder.addAnnotation(createManyToOneAnnotation());
-                fieldBuilder.addAnnotation(createJoinColumnAnnotation(fieldName));
+                fieldBuilder.addAnnotation(createRelationAnnotation("ManyToOne", relation));
+                fieldBuilder.addAnnotation(createJoinColumnAnnotation(fieldName, required));
                 break;
 
             case MANY_TO_MANY:
-                fieldBuilder.addAnnotation(createManyToManyAnnotation());
+                fieldBuilder.addAnnotation(createRelationAnnotation("ManyToMany", relation));
                 fieldBuilder.addAnnotation(createJoinTableAnnotation(fieldName));
                 break;
         }
     }
 
     /**
-     * Добавляет аннотацию @Column для базовых полей
+     * Создает аннотацию связи с fetch и cascade из конфигурации
+     * По умолчанию все связи ленивые, чтобы связанные записи не загружались без запроса;
+     * каскад по умолчанию только у OneToMany (CascadeType.ALL), как и раньше
      */
-    private static void addColumnAnnotation(FieldSpec.Builder fieldBuilder, String fieldName) {
-        fieldBuilder.addAnnotation(AnnotationSpec.builder(ClassName.get("jakarta.persistence", "Column"))
-                .addMember("name", "$S", StringUtils.toSnakeCase(fieldName))
-                .build());
+    private static AnnotationSpec createRelationAnnotation(String annotation, Relation relation) {
+        ClassName cascadeTypeClass = ClassName.get("jakarta.persistence", "CascadeType");
+        List<String> cascadeTypes = relation.getCascadeTypes();
+        if (cascadeTypes == null && relation.getTypeOfRelation() == TypeOfRelation.ONE_TO_MANY) {
+            cascadeTypes = List.of("ALL");
+        }
+
+        AnnotationSpec.Builder builder = AnnotationSpec.builder(ClassName.get("jakarta.persistence", annotation));
+        if (cascadeTypes != null) {
+            for (String cascadeType : cascadeTypes) {
+                builder.addMember("cascade", "$T.$L", cascadeTypeClass, cascadeType);
+            }
+        }
+        return builder
+                .addMember("fetch", "$T.$L", ClassName.get("jakarta.persistence", "FetchType"),
+                        relation.getFetchType() != null ? relation.getFetchType() : "LAZY")
+                .build();
+    }
+
+    /**
+     * Создает аннотацию @NamedEntityGraphs с графами summary и detail
+     */
+    private static AnnotationSpec createNamedEntityGraphsAnnotation(EntityGraphSpec graphs) {
+        AnnotationSpec.Builder builder = AnnotationSpec.builder(ClassName.get("jakarta.persistence", "NamedEntityGraphs"));
+        if (graphs.hasSummary()) {
+            builder.addMember("value", "$L", createNamedEntityGraphAnnotation(graphs.summaryName(),
+                    graphs.summaryNodes()));
+        }
+        return builder
+                .addMember("value", "$L", createNamedEntityGraphAnnotation(graphs.detailName(), graphs.detailNodes()))
+                .build();
+    }
+
+    private static AnnotationSpec createNamedEntityGraphAnnotation(String name, List<String> nodes) {
+        AnnotationSpec.Builder builder = AnnotationSpec.builder(ClassName.get("jakarta.persistence", "NamedEntityGraph"))
+                .addMember("name", "$S", name);
+        for (String node : nodes) {
+            builder.addMember("attributeNodes", "$L",
+                    AnnotationSpec.builder(ClassName.get("jakarta.persistence", "NamedAttributeNode"))
+                            .addMember("value", "$S", node)
+                            .build());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Добавляет аннотацию @Column для базовых полей; обязательное поле - колонка NOT NULL
+     */
+    private static void addColumnAnnotation(FieldSpec.Builder fieldBuilder, String fieldName, boolean required) {
+        AnnotationSpec.Builder column = AnnotationSpec.builder(ClassName.get("jakarta.persistence", "Column"))
+                .addMember("name", "$S", SqlKeywords.quote(StringUtils.toSnakeCase(fieldName)));
+        if (required) {
+            column.addMember("nullable", "$L", false);
+        }
+        fieldBuilder.addAnnotation(column.build());
     }
 
     /**
@@ -133,62 +292,88 @@ public class ModelGenerator {
     }
 
     /**
-     * Создает аннотацию @Id
+     * Создает аннотацию @Table с индексами; имя таблицы задается только для зарезервированного слова,
+     * иначе остается по умолчанию
      */
-    private static AnnotationSpec createIdAnnotation() {
-        return AnnotationSpec.builder(ClassName.get("jakarta.persistence", "Id")).build();
+    private static AnnotationSpec createTableAnnotation(String table, List<IndexSpec> indexes) {
+        AnnotationSpec.Builder builder = AnnotationSpec.builder(ClassName.get("jakarta.persistence", "Table"));
+        if (SqlKeywords.isReserved(table)) {
+            builder.addMember("name", "$S", SqlKeywords.quote(table));
+        }
+        for (IndexSpec index : indexes) {
+            AnnotationSpec.Builder indexBuilder = AnnotationSpec.builder(ClassName.get("jakarta.persistence", "Index"))
+                    .addMember("name", "$S", index.name())
+                    .addMember("columnList", "$S", index.columnList());
+            if (index.unique()) {
+                indexBuilder.addMember("unique", "$L", true);
+            }
+            builder.addMember("indexes", "$L", indexBuilder.build());
+        }
+        return builder.build();
     }
 
     /**
-     * Создает аннотацию @GeneratedValue
+     * Создает аннотацию Hibernate @Cache
+     * READ_WRITE: запись блокирует элемент кэша до фиксации транзакции, поэтому чтение не видит незафиксированное
      */
-    private static AnnotationSpec createGeneratedValueAnnotation() {
-        return AnnotationSpec.builder(ClassName.get("jakarta.persistence", "GeneratedValue"))
-                .addMember("strategy", "$T.IDENTITY",
-                        ClassName.get("jakarta.persistence", "GenerationType"))
+    private static AnnotationSpec createCacheAnnotation() {
+        return AnnotationSpec.builder(ClassName.get("org.hibernate.annotations", "Cache"))
+                .addMember("usage", "$T.READ_WRITE",
+                        ClassName.get("org.hibernate.annotations", "CacheConcurrencyStrategy"))
                 .build();
     }
 
     /**
-     * Создает аннотацию @OneToOne
+     * Создает аннотацию @Id
      */
-    private static AnnotationSpec createOneToOneAnnotation() {
-        return AnnotationSpec.builder(ClassName.get("jakarta.persistence", "OneToOne")).build();
+    private static AnnotationSpec createIdAnnotation() {
+        return AnnotationSpec.builder(ClassName.get("jakarta.persistence", "Id")).build();
     }
 
     /**
-     * Создает аннотацию @OneToMany
+     * Создает аннотацию @GeneratedValue
      */
-    private static AnnotationSpec createOneToManyAnnotation() {
-        return AnnotationSpec.builder(ClassName.get("jakarta.persistence", "OneToMany"))
-                .addMember("cascade", "$T.ALL", ClassName.get("jakarta.persistence", "CascadeType"))
-                .addMember("fetch", "$T.LAZY", ClassName.get("jakarta.persistence", "FetchType"))
+    private static AnnotationSpec createGeneratedValueAnnotation() {
+        return AnnotationSpec.builder(ClassName.get("jakarta.persistence", "GeneratedValue"))
+                .addMember("strategy", "$T.IDENTITY",
+                        ClassName.get("jakarta.persistence", "GenerationType"))
                 .build();
     }
 
     /**
-     * Создает аннотацию @ManyToOne
+     * Создает аннотацию @GeneratedValue для id из последовательности
      */
-    private static AnnotationSpec createManyToOneAnnotation() {
-        return AnnotationSpec.builder(ClassName.get("jakarta.persistence", "ManyToOne"))
-                .addMember("fetch", "$T.LAZY", ClassName.get("jakarta.persistence", "FetchType"))
+    private static AnnotationSpec createSequenceGeneratedValueAnnotation(String sequenceName) {
+        return AnnotationSpec.builder(ClassName.get("jakarta.persistence", "GeneratedValue"))
+                .addMember("strategy", "$T.SEQUENCE",
+                        ClassName.get("jakarta.persistence", "GenerationType"))
+                .addMember("generator", "$S", sequenceName)
                 .build();
     }
 
     /**
-     * Создает аннотацию @ManyToMany
+     * Создает аннотацию @SequenceGenerator
+     * При allocationSize больше 1 Hibernate использует pooled оптимизатор: значения выдаются из памяти,
+     * к последовательности обращается один раз на allocationSize вставок
      */
-    private static AnnotationSpec createManyToManyAnnotation() {
-        return AnnotationSpec.builder(ClassName.get("jakarta.persistence", "ManyToMany")).build();
+    private static AnnotationSpec createSequenceGeneratorAnnotation(String sequenceName, int allocationSize) {
+        return AnnotationSpec.builder(ClassName.get("jakarta.persistence", "SequenceGenerator"))
+                .addMember("name", "$S", sequenceName)
+                .addMember("sequenceName", "$S", sequenceName)
+                .addMember("allocationSize", "$L", allocationSize)
+                .build();
     }
 
     /**
-     * Создает аннотацию @JoinColumn
+     * Создает аннотацию @JoinColumn; у обязательной связи колонка NOT NULL
      */
-    private static AnnotationSpec createJoinColumnAnnotation(String fieldName) {
-        return AnnotationSpec.builder(ClassName.get("jakarta.persistence", "JoinColumn"))
-                .addMember("name", "$S", StringUtils.toSnakeCase(fieldName) + "_id")
-                .build();
+    private static AnnotationSpec createJoinColumnAnnotation(String fieldName, boolean required) {
+        AnnotationSpec.Builder joinColumn = AnnotationSpec.builder(ClassName.get("jakarta.persistence", "JoinColumn"))
+                .addMember("name", "$S", StringUtils.toSnakeCase(fieldName) + "_id");
+        if (required) {
+            joinColumn.addMember("nullable", "$L", false);
+        }
+        return joinColumn.build();
     }
 
     /**
@@ -202,6 +387,19 @@ public class ModelGenerator {
                 .build();
     }
 
+    /**
+     * Создает аннотацию @JoinTable однонаправленной OneToMany с именами по умолчанию: <таблица>_<поле>
+     */
+    private static AnnotationSpec createOwnedJoinTableAnnotation(String table, String fieldName) {
+        String column = StringUtils.toSnakeCase(fieldName);
+        ClassName joinColumn = ClassName.get("jakarta.persistence", "JoinColumn");
+        return AnnotationSpec.builder(ClassName.get("jakarta.persistence", "JoinTable"))
+                .addMember("name", "$S", table + "_" + column)
+                .addMember("joinColumns", "@$T(name = $S)", joinColumn, table + "_id")
+                .addMember("inverseJoinColumns", "@$T(name = $S)", joinColumn, column + "_id")
+                .build();
+    }
+
     /**
      * Создает аннотацию Lombok @Data
      */
@@ -226,10 +424,9 @@ public class ModelGenerator {
     /**
      * Записывает сгенерированный Java файл
      */
-    private static void writeJavaFile(String packageName, TypeSpec typeSpec, Path targetDir) throws IOException {
-        JavaFile.builder(packageName, typeSpec)
+    private static void writeJavaFile(String packageName, TypeSpec typeSpec, GeneratedOutput output) {
+        output.writeJavaFile(JavaFile.builder(packageName, typeSpec)
                 .indent("    ")
-                .build()
-                .writeTo(Paths.get(targetDir + "/src/main/java"));
+                .build());
     }
 }
\ No newline at end of file
@@ -0,0 +1,515 @@
+package vnikolaenko.github.jarch.generator.generator.included;
+
+import com.squareup.javapoet.*;
+import vnikolaenko.github.jarch.generator.auxiliary.Field;
+import vnikolaenko.github.jarch.generator.config.ApplicationConfig;
+import vnikolaenko.github.jarch.generator.config.IdGenerationConfig;
+import vnikolaenko.github.jarch.generator.config.PaginationConfig;
+import vnikolaenko.github.jarch.generator.output.GeneratedOutput;
+import vnikolaenko.github.jarch.generator.utils.SqlKeywords;
+import vnikolaenko.github.jarch.generator.utils.StringUtils;
+import vnikolaenko.github.jarch.generator.utils.TypeMapper;
+
+import javax.lang.model.element.Modifier;
+import java.util.List;
+
+/**
+ * Генератор реактивного Service слоя для WebFlux и R2DBC
+ * Методы возвращают Mono и Flux. Коллекции сущности хранятся в тех же таблицах связей, что и у JPA модели:
+ * id элементов читаются одним запросом на страницу, при сохранении строки связей пишутся пакетом
+ */
+public class ReactiveServiceGenerator {
+
+    private static final ClassName MONO = ClassName.get("reactor.core.publisher", "Mono");
+    private static final ClassName FLUX = ClassName.get("reactor.core.publisher", "Flux");
+    private static final ClassName LIST = ClassName.get("java.util", "List");
+    private static final ClassName MAP = ClassName.get("java.util", "Map");
+    private static final ClassName PAGEABLE = ClassName.get("org.springframework.data.domain", "Pageable");
+    private static final ClassName DATABASE_CLIENT = ClassName.get("org.springframework.r2dbc.core", "DatabaseClient");
+    private static final String NOT_FOUND_MESSAGE = "Сущность не найдена с id: ";
+
+    /**
+     * Исключение отсутствующей записи; в реактивном проекте нет JPA, поэтому класс генерируется
+     */
+    public static ClassName entityNotFoundClass(String basePackage) {
+        return ClassName.get(basePackage + ".exception", "EntityNotFoundException");
+    }
+
+    /**
+     * Генерирует реактивный Service интерфейс и его реализацию
+     *
+     * @param fields          список полей сущности
+     * @param types           таблица типов текущей генерации
+     * @param pagination      настройки постраничной выдачи findAll
+     * @param keyset          параметры курсорной выдачи или null
+     * @param mappingStrategy способ преобразования сущности в DTO
+     * @param idStrategy      способ генерации первичного ключа
+     * @param bulk            генерировать ли saveAll для /batch
+     */
+    public static void generateService(String basePackage, String entityName, List<Field> fields, TypeMapper types,
+                                       PaginationConfig pagination, KeysetSpec keyset,
+                                       ApplicationConfig.MappingStrategy mappingStrategy,
+                                       IdGenerationConfig.Strategy idStrategy, boolean bulk,
+                                       GeneratedOutput output) {
+        String className = StringUtils.capitalizeFirst(entityName);
+        ClassName entityClass = ClassName.get(basePackage + ".model", className);
+        ClassName dtoClass = ClassName.get(basePackage + ".dto", className + "DTO");
+        ClassName serviceInterface = ClassName.get(basePackage + ".service", className + "Service");
+        ClassName repositoryClass = ClassName.get(basePackage + ".repository", className + "Repository");
+        TypeName idType = types.getIdType().box();
+        ClassName pageClass = ServiceGenerator.pageClass(pagination);
+
+        TypeSpec.Builder interfaceBuilder = TypeSpec.interfaceBuilder(serviceInterface)
+                .addModifiers(Modifier.PUBLIC)
+                .addMethod(abstractMethod("findAll", mono(ParameterizedTypeName.get(pageClass, dtoClass)))
+                        .addParameter(PAGEABLE, "pageable")
+                        .build());
+        if (keyset != null) {
+            interfaceBuilder.addMethod(abstractMethod("findAllByCursor",
+                    mono(ParameterizedTypeName.get(ServiceGenerator.cursorPageClass(basePackage), dtoClass)))
+                    .addParameter(String.class, "cursor")
+                    .addParameter(int.class, "size")
+                    .build());
+        }
+        interfaceBuilder
+                .addMethod(abstractMethod("findById", mono(dtoClass)).addParameter(idType, "id").build())
+                .addMethod(abstractMethod("save", mono(dtoClass)).addParameter(dtoClass, "dto").build());
+        if (bulk) {
+            interfaceBuilder.addMethod(abstractMethod("saveAll", ParameterizedTypeName.get(FLUX, dtoClass))
+                    .addParameter(ParameterizedTypeName.get(LIST, dtoClass), "dtos")
+                    .build());
+        }
+        interfaceBuilder
+                .addMethod(abstractMethod("update", mono(dtoClass))
+                        .addParameter(idType, "id")
+                        .addParameter(dtoClass, "dto")
+                        .build())
+                .addMethod(abstractMethod("delete", mono(ClassName.get(Void.class)))
+                        .addParameter(idType, "id")
+                        .build());
+        writeJavaFile(serviceInterface.packageName(), interfaceBuilder.build(), output);
+
+        Implementation impl = new Implementation(basePackage, entityClass, dtoClass, idType,
+                new ServiceGenerator.Mapping(mappingStrategy, entityClass, dtoClass),
+                JoinTableSpec.of(entityName, fields, types));
+        TypeSpec.Builder implBuilder = TypeSpec.classBuilder(className + "ServiceImpl")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(ClassName.get("org.springframework.stereotype", "Service"))
+                .addAnnotation(createTransactionalAnnotation())
+                .addAnnotation(ClassName.get("lombok", "RequiredArgsConstructor"))
+                .addSuperinterface(serviceInterface)
+                .addField(createAutowiredField(repositoryClass, "repository"))
+                .addField(impl.mapping().createField(basePackage, entityName))
+                .addField(createAutowiredField(
+                        ClassName.get("org.springframework.data.r2dbc.core", "R2dbcEntityTemplate"), "entityTemplate"));
+        if (impl.hasLinks()) {
+            implBuilder.addField(createAutowiredField(DATABASE_CLIENT, "databaseClient"));
+        }
+        implBuilder.addMethod(pagination.getResponseType() == PaginationConfig.ResponseType.SLICE
+                ? impl.createFindAllSliceMethod()
+                : impl.createFindAllPageMethod());
+        if (keyset != null) {
+            implBuilder.addMethod(impl.createFindAllByCursorMethod(keyset));
+        }
+        implBuilder
+                .addMethod(impl.createFindByIdMethod())
+                .addMethod(impl.createSaveMethod(idStrategy));
+        if (bulk) {
+            implBuilder.addMethod(impl.createSaveAllMethod());
+        }
+        implBuilder
+                .addMethod(impl.createUpdateMethod())
+                .addMethod(impl.createDeleteMethod())
+                .addMethod(impl.createToDtosMethod())
+                .addMethod(impl.createToDtoMethod());
+        if (impl.hasLinks()) {
+            implBuilder
+                    .addMethod(impl.createFindJoinRowsMethod())
+                    .addMethod(impl.createInsertJoinRowsMethod())
+                    .addMethod(impl.createInsertLinksMethod())
+                    .addMethod(impl.createDeleteLinksMethod());
+        }
+        writeJavaFile(serviceInterface.packageName(), implBuilder.build(), output);
+    }
+
+    /**
+     * Методы реализации сервиса одной сущности
+     *
+     * @param links таблицы связей коллекций сущности
+     */
+    private record Implementation(String basePackage, ClassName entityClass, ClassName dtoClass, TypeName idType,
+                                  ServiceGenerator.Mapping mapping, List<JoinTableSpec> links) {
+
+        boolean hasLinks() {
+            return !links.isEmpty();
+        }
+
+        /**
+         * Страница с общим числом записей: строки и count выполняются двумя запросами
+         */
+        MethodSpec createFindAllPageMethod() {
+            return MethodSpec.methodBuilder("findAll")
+                    .addAnnotation(createTransactionalReadOnlyAnnotation())
+                    .addModifiers(Modifier.PUBLIC)
+                    .addParameter(PAGEABLE, "pageable")
+                    .returns(mono(ParameterizedTypeName.get(
+                            ClassName.get("org.springframework.data.domain", "Page"), dtoClass)))
+                    .addStatement("return repository.$L(pageable)\n" +
+                                    ".collectList()\n" +
+                                    ".flatMap(this::toDtos)\n" +
+                                    ".zipWith(repository.count())\n" +
+                                    ".map(page -> new $T<>(page.getT1(), pageable, page.getT2()))",
+                            RepositoryGenerator.SLICE_FINDER,
+                            ClassName.get("org.springframework.data.domain", "PageImpl"))
+                    .build();
+        }
+
+        /**
+         * Slice без count запроса: читается на одну строку больше размера страницы
+         */
+        MethodSpec createFindAllSliceMethod() {
+            return MethodSpec.methodBuilder("findAll")
+                    .addAnnotation(createTransactionalReadOnlyAnnotation())
+                    .addModifiers(Modifier.PUBLIC)
+                    .addParameter(PAGEABLE, "pageable")
+                    .returns(mono(ParameterizedTypeName.get(
+                            ClassName.get("org.springframework.data.domain", "Slice"), dtoClass)))
+                    .addStatement("return entityTemplate.select($T.empty().with(pageable).limit(pageable.getPageSize() + 1),\n" +
+                                    "$T.class)\n" +
+                                    ".collectList()\n" +
+                                    ".flatMap(rows -> {\n" +
+                                    "boolean hasNext = rows.size() > pageable.getPageSize();\n" +
+                                    "return toDtos(hasNext ? rows.subList(0, pageable.getPageSize()) : rows)\n" +
+                                    ".map(content -> new $T<>(content, pageable, hasNext));\n" +
+                                    "})",
+                            ClassName.get("org.springframework.data.relational.core.query", "Query"), entityClass,
+                            ClassName.get("org.springframework.data.domain", "SliceImpl"))
+                    .build();
+        }
+
+        /**
+         * Страница курсорной выдачи: как и в servlet стеке, лишняя строка означает наличие следующей страницы
+         */
+        MethodSpec createFindAllByCursorMethod(KeysetSpec keyset) {
+            ClassName cursorPageClass = ServiceGenerator.cursorPageClass(basePackage);
+            CodeBlock.Builder nextPage = CodeBlock.builder()
+                    .addStatement("$T lastId", keyset.idType());
+            String nextPageArguments = "lastId, size + 1";
+            if (keyset.hasSortField()) {
+                nextPage.addStatement("$T sortValue", keyset.sortType());
+                nextPageArguments = "sortValue, " + nextPageArguments;
+            }
+            nextPage.beginControlFlow("try")
+                    .addStatement("String[] key = $T.decode(cursor)", cursorPageClass)
+                    .addStatement("lastId = $L", keyset.parseId("key[0]"));
+            if (keyset.hasSortField()) {
+                nextPage.addStatement("sortValue = $L", keyset.parseValue("key[1]"));
+            }
+            nextPage.nextControlFlow("catch ($T e)", RuntimeException.class)
+                    .addStatement("return $T.error(new $T($T.BAD_REQUEST, $S, e))", MONO,
+                            ClassName.get("org.springframework.web.server", "ResponseStatusException"),
+                            ClassName.get("org.springframework.http", "HttpStatus"), "Invalid cursor")
+                    .endControlFlow()
+                    .addStatement("rows = repository.$L($L)", RepositoryGenerator.KEYSET_NEXT_PAGE, nextPageArguments);
+
+            CodeBlock lastKey = keyset.hasSortField()
+                    ? CodeBlock.of("last.getId(), $L", keyset.formatValue("last.get"
+                    + StringUtils.capitalizeFirst(keyset.sortField()) + "()"))
+                    : CodeBlock.of("last.getId(), null");
+
+            return MethodSpec.methodBuilder("findAllByCursor")
+                    .addAnnotation(createTransactionalReadOnlyAnnotation())
+                    .addModifiers(Modifier.PUBLIC)
+                    .addParameter(String.class, "cursor")
+                    .addParameter(int.class, "size")
+                    .returns(mono(ParameterizedTypeName.get(cursorPageClass, dtoClass)))
+                    .addStatement("$T<$T> rows", FLUX, entityClass)
+                    .beginControlFlow("if (cursor == null || cursor.isEmpty())")
+                    .addStatement("rows = repository.$L(size + 1)", RepositoryGenerator.KEYSET_FIRST_PAGE)
+                    .nextControlFlow("else")
+                    .addCode(nextPage.build())
+                    .endControlFlow()
+                    .addCode("\n")
+                    .addStatement("return rows.collectList()\n" +
+                                    ".flatMap(page -> {\n" +
+                                    "boolean hasNext = page.size() > size;\n" +
+                                    "$T last = hasNext ? page.get(size - 1) : null;\n" +
+                                    "String nextCursor = last != null ? $T.encode($L) : null;\n" +
+                                    "return toDtos(hasNext ? page.subList(0, size) : page)\n" +
+                                    ".map(content -> new $T<>(content, nextCursor));\n" +
+                                    "})",
+                            entityClass, cursorPageClass, lastKey, cursorPageClass)
+                    .build();
+        }
+
+        MethodSpec createFindByIdMethod() {
+            return MethodSpec.methodBuilder("findById")
+                    .addAnnotation(createTransactionalReadOnlyAnnotation())
+                    .addModifiers(Modifier.PUBLIC)
+                    .addParameter(idType, "id")
+                    .returns(mono(dtoClass))
+                    .addStatement("return repository.findById(id)\n" +
+                            ".switchIfEmpty($L)\n" +
+                            ".flatMap(this::toDto)", notFound())
+                    .build();
+        }
+
+        /**
+         * Новая запись всегда вставляется: id из DTO не используется, его назначает база или генератор
+         */
+        MethodSpec createSaveMethod(IdGenerationConfig.Strategy idStrategy) {
+            CodeBlock id = idStrategy == IdGenerationConfig.Strategy.UUID_V7
+                    ? CodeBlock.of("$T.next()", ClassName.get(basePackage + ".model", "UuidV7Generator"))
+                    : CodeBlock.of("null");
+            MethodSpec.Builder method = MethodSpec.methodBuilder("save")
+                    .addModifiers(Modifier.PUBLIC)
+                    .addParameter(dtoClass, "dto")
+                    .returns(mono(dtoClass))
+                    .addStatement("$T entity = $L", entityClass, mapping.toEntity("dto"))
+                    .addStatement("entity.setId($L)", id);
+            if (hasLinks()) {
+                return method.addStatement("return entityTemplate.insert(entity)\n" +
+                                ".flatMap(saved -> insertLinks(saved.getId(), dto).then(toDto(saved)))")
+                        .build();
+            }
+            return method.addStatement("return entityTemplate.insert(entity)\n" +
+                            ".flatMap(this::toDto)")
+                    .build();
+        }
+
+        /**
+         * Сохраняет список записей одной транзакцией, записи вставляются по очереди
+         */
+        MethodSpec createSaveAllMethod() {
+            return MethodSpec.methodBuilder("saveAll")
+                    .addModifiers(Modifier.PUBLIC)
+                    .addParameter(ParameterizedTypeName.get(LIST, dtoClass), "dtos")
+                    .returns(ParameterizedTypeName.get(FLUX, dtoClass))
+                    .addStatement("return $T.fromIterable(dtos)\n" +
+                            ".concatMap(this::save)", FLUX)
+                    .build();
+        }
+
+        MethodSpec createUpdateMethod() {
+            MethodSpec.Builder method = MethodSpec.methodBuilder("update")
+                    .addModifiers(Modifier.PUBLIC)
+                    .addParameter(idType, "id")
+                    .addParameter(dtoClass, "dto")
+                    .returns(mono(dtoClass))
+                    .addStatement("return repository.findById(id)\n" +
+                                    ".switchIfEmpty($L)\n" +
+                                    ".flatMap(entity -> {\n" +
+                                    "$L;\n" +
+                                    "entity.setId(id);\n" +
+                                    "return repository.save(entity);\n" +
+                                    "})\n" +
+                                    (hasLinks()
+                                            ? ".flatMap(saved -> deleteLinks(id)\n" +
+                                            ".then(insertLinks(id, dto))\n" +
+                                            ".then(toDto(saved)))"
+                                            : ".flatMap(this::toDto)"),
+                            notFound(), mapping.updateEntity("dto", "entity"));
+            return method.build();
+        }
+
+        MethodSpec createDeleteMethod() {
+            return MethodSpec.methodBuilder("delete")
+                    .addModifiers(Modifier.PUBLIC)
+                    .addParameter(idType, "id")
+                    .returns(mono(ClassName.get(Void.class)))
+                    .addStatement("return repository.findById(id)\n" +
+                            ".switchIfEmpty($L)\n" +
+                            (hasLinks()
+                                    ? ".flatMap(entity -> deleteLinks(id).then(repository.delete(entity)))"
+                                    : ".flatMap(repository::delete)"), notFound())
+                    .build();
+        }
+
+        /**
+         * Переводит записи в DTO; id элементов коллекций загружаются одним запросом на каждую таблицу связи
+         */
+        MethodSpec createToDtosMethod() {
+            MethodSpec.Builder method = MethodSpec.methodBuilder("toDtos")
+                    .addModifiers(Modifier.PRIVATE)
+                    .addParameter(ParameterizedTypeName.get(LIST, entityClass), "entities")
+                    .returns(mono(ParameterizedTypeName.get(LIST, dtoClass)));
+            if (!hasLinks()) {
+                return method.addStatement("return $T.just(entities.stream()\n" +
+                                ".map(entity -> $L)\n" +
+                                ".toList())", MONO, mapping.toDto("entity"))
+                        .build();
+            }
+
+            method.addStatement("$T<$T> dtos = entities.stream()\n" +
+                            ".map(entity -> $L)\n" +
+                            ".toList()", LIST, dtoClass, mapping.toDto("entity"))
+                    .beginControlFlow("if (dtos.isEmpty())")
+                    .addStatement("return $T.just(dtos)", MONO)
+                    .endControlFlow()
+                    .addStatement("$T<$T> ids = entities.stream()\n" +
+                            ".map($T::getId)\n" +
+                            ".toList()", LIST, idType, entityClass);
+            CodeBlock.Builder chain = CodeBlock.builder().add("return ");
+            for (int i = 0; i < links.size(); i++) {
+                JoinTableSpec link = links.get(i);
+                CodeBlock query = CodeBlock.of("findJoinRows($S, ids)\n" +
+                                ".doOnNext(links -> dtos.forEach(dto -> dto.set$LIds(links.getOrDefault(dto.getId(), $T.of()))))",
+                        "select " + SqlKeywords.quoteAlways(link.ownerColumn()) + ", "
+                                + SqlKeywords.quoteAlways(link.elementColumn()) + " from "
+                                + SqlKeywords.quoteAlways(link.table())
+                                + " where " + SqlKeywords.quoteAlways(link.ownerColumn()) + " in (:ids)",
+                        StringUtils.capitalizeFirst(link.field()), LIST);
+                chain.add(i == 0 ? "$L" : "\n.then($L)", query);
+            }
+            return method.addStatement(chain.add("\n.thenReturn(dtos)").build())
+                    .build();
+        }
+
+        MethodSpec createToDtoMethod() {
+            MethodSpec.Builder method = MethodSpec.methodBuilder("toDto")
+                    .addModifiers(Modifier.PRIVATE)
+                    .addParameter(entityClass, "entity")
+                    .returns(mono(dtoClass));
+            return hasLinks()
+                    ? method.addStatement("return toDtos($T.of(entity))\n" +
+                    ".map(dtos -> dtos.get(0))", LIST).build()
+                    : method.addStatement("return $T.just($L)", MONO, mapping.toDto("entity")).build();
+        }
+
+        /**
+         * Пары (владелец, элемент) таблицы связи, сгруппированные по владельцу
+         */
+        MethodSpec createFindJoinRowsMethod() {
+            ClassName collectors = ClassName.get("java.util.stream", "Collectors");
+            return MethodSpec.methodBuilder("findJoinRows")
+                    .addModifiers(Modifier.PRIVATE)
+                    .addParameter(String.class, "sql")
+                    .addParameter(ParameterizedTypeName.get(LIST, idType), "ids")
+                    .returns(mono(ParameterizedTypeName.get(MAP, idType, ParameterizedTypeName.get(LIST, idType))))
+                    .addStatement("return databaseClient.sql(sql)\n" +
+                                    ".bind($S, ids)\n" +
+                                    ".map(row -> $T.entry(row.get(0, $T.class), row.get(1, $T.class)))\n" +
+                                    ".all()\n" +
+                                    ".collect($T.groupingBy($T.Entry::getKey,\n" +
+                                    "$T.mapping($T.Entry::getValue, $T.toList())))",
+                            "ids", MAP, idType, idType, collectors, MAP, collectors, MAP, collectors)
+                    .build();
+        }
+
+        /**
+         * Вставляет строки связей одного владельца одним пакетом параметров вместо запроса на каждую строку
+         */
+        MethodSpec createInsertJoinRowsMethod() {
+            return MethodSpec.methodBuilder("insertJoinRows")
+                    .addModifiers(Modifier.PRIVATE)
+                    .addParameter(String.class, "sql")
+                    .addParameter(idType, "ownerId")
+                    .addParameter(ParameterizedTypeName.get(ClassName.get("java.util", "Collection"), idType),
+                            "elementIds")
+                    .returns(mono(ClassName.get(Void.class)))
+                    .beginControlFlow("if (elementIds == null || elementIds.isEmpty())")
+                    .addStatement("return $T.empty()", MONO)
+                    .endControlFlow()
+                    .addStatement("return databaseClient.inConnectionMany(connection -> {\n" +
+                                    "$T statement = connection.createStatement(sql);\n" +
+                                    "$T<$T> elements = elementIds.iterator();\n" +
+                                    "statement.bind(0, ownerId).bind(1, elements.next());\n" +
+                                    "while (elements.hasNext()) {\n" +
+                                    "statement.add().bind(0, ownerId).bind(1, elements.next());\n" +
+                                    "}\n" +
+                                    "return $T.from(statement.execute()).flatMap($T::getRowsUpdated);\n" +
+                                    "})\n" +
+                                    ".then()",
+                            ClassName.get("io.r2dbc.spi", "Statement"), ClassName.get("java.util", "Iterator"),
+                            idType, FLUX, ClassName.get("io.r2dbc.spi", "Result"))
+                    .build();
+        }
+
+        /**
+         * Записывает связи коллекций DTO; повторы элементов Set отбрасываются
+         */
+        MethodSpec createInsertLinksMethod() {
+            CodeBlock.Builder chain = CodeBlock.builder().add("return ");
+            for (int i = 0; i < links.size(); i++) {
+                JoinTableSpec link = links.get(i);
+                String getter = "dto.get" + StringUtils.capitalizeFirst(link.field()) + "Ids()";
+                CodeBlock elements = link.set()
+                        ? CodeBlock.of("$L != null ? new $T<>($L) : null", getter,
+                        ClassName.get("java.util", "LinkedHashSet"), getter)
+                        : CodeBlock.of("$L", getter);
+                CodeBlock insert = CodeBlock.of("insertJoinRows($S, id,\n$L)",
+                        "insert into " + SqlKeywords.quoteAlways(link.table())
+                                + " (" + SqlKeywords.quoteAlways(link.ownerColumn()) + ", "
+                                + SqlKeywords.quoteAlways(link.elementColumn()) + ") values ($1, $2)", elements);
+                chain.add(i == 0 ? "$L" : "\n.then($L)", insert);
+            }
+            return MethodSpec.methodBuilder("insertLinks")
+                    .addModifiers(Modifier.PRIVATE)
+                    .addParameter(idType, "id")
+                    .addParameter(dtoClass, "dto")
+                    .returns(mono(ClassName.get(Void.class)))
+                    .addStatement(chain.build())
+                    .build();
+        }
+
+        MethodSpec createDeleteLinksMethod() {
+            CodeBlock.Builder chain = CodeBlock.builder().add("return ");
+            for (int i = 0; i < links.size(); i++) {
+                JoinTableSpec link = links.get(i);
+                CodeBlock delete = CodeBlock.of("databaseClient.sql($S)\n" +
+                                ".bind($S, id)\n" +
+                                ".then()",
+                        "delete from " + SqlKeywords.quoteAlways(link.table())
+                                + " where " + SqlKeywords.quoteAlways(link.ownerColumn()) + " = :id", "id");
+                chain.add(i == 0 ? "$L" : "\n.then($L)", delete);
+            }
+            return MethodSpec.methodBuilder("deleteLinks")
+                    .addModifiers(Modifier.PRIVATE)
+                    .addParameter(idType, "id")
+                    .returns(mono(ClassName.get(Void.class)))
+                    .addStatement(chain.build())
+                    .build();
+        }
+
+        private CodeBlock notFound() {
+            return CodeBlock.of("$T.error(() -> new $T($S + id))", MONO, entityNotFoundClass(basePackage),
+                    NOT_FOUND_MESSAGE);
+        }
+    }
+
+    private static MethodSpec.Builder abstractMethod(String name, TypeName returnType) {
+        return MethodSpec.methodBuilder(name)
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .returns(returnType);
+    }
+
+    private static TypeName mono(TypeName type) {
+        return ParameterizedTypeName.get(MONO, type);
+    }
+
+    private static FieldSpec createAutowiredField(TypeName type, String name) {
+        return FieldSpec.builder(type, name, Modifier.PRIVATE, Modifier.FINAL)
+                .addAnnotation(ClassName.get("org.springframework.beans.factory.annotation", "Autowired"))
+                .build();
+    }
+
+    private static AnnotationSpec createTransactionalAnnotation() {
+        return AnnotationSpec.builder(ClassName.get("org.springframework.transaction.annotation", "Transactional"))
+                .build();
+    }
+
+    private static AnnotationSpec createTransactionalReadOnlyAnnotation() {
+        return AnnotationSpec.builder(ClassName.get("org.springframework.transaction.annotation", "Transactional"))
+                .addMember("readOnly", "$L", "true")
+                .build();
+    }
+
+    /**
+     * Записывает сгенерированный Java файл
+     */
+    private static void writeJavaFile(String packageName, TypeSpec typeSpec, GeneratedOutput output) {
+        output.writeJavaFile(JavaFile.builder(packageName, typeSpec)
+                .indent("    ")
+                .build());
+    }
+}
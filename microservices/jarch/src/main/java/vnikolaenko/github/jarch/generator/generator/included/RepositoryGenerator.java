@@ -1,58 +1,195 @@
 package vnikolaenko.github.jarch.generator.generator.included;
 
 import com.squareup.javapoet.*;
+import vnikolaenko.github.jarch.generator.config.PaginationConfig;
+import vnikolaenko.github.jarch.generator.output.GeneratedOutput;
 import vnikolaenko.github.jarch.generator.auxiliary.Field;
+import vnikolaenko.github.jarch.generator.utils.SqlKeywords;
 import vnikolaenko.github.jarch.generator.utils.StringUtils;
 import vnikolaenko.github.jarch.generator.utils.TypeMapper;
 
 import javax.lang.model.element.Modifier;
-import java.io.IOException;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.List;
 
 /**
- * Генератор Repository интерфейсов для Spring Data JPA
+ * Генератор Repository интерфейсов для Spring Data JPA и Spring Data R2DBC
  * Отвечает за создание репозиториев для доступа к данным
  */
 public class RepositoryGenerator {
 
+    /**
+     * Производный метод выборки страницы без count запроса, используется при Slice выдаче
+     */
+    public static final String SLICE_FINDER = "findAllBy";
+
+    /**
+     * Методы курсорной выдачи: первая страница и строки после заданного ключа
+     */
+    public static final String KEYSET_FIRST_PAGE = "findKeysetFirstPage";
+    public static final String KEYSET_NEXT_PAGE = "findKeysetNextPage";
+
+    /**
+     * Выборка одной записи по графу detail
+     */
+    public static final String DETAIL_FINDER = "findDetailedById";
+
+    /**
+     * Выборка только существующих id из переданных, используется массовым удалением
+     */
+    public static final String EXISTING_IDS_FINDER = "findExistingIds";
+
+    private static final ClassName PAGEABLE = ClassName.get("org.springframework.data.domain", "Pageable");
+    private static final ClassName FLUX = ClassName.get("reactor.core.publisher", "Flux");
+
     /**
      * Генерирует Repository интерфейс для сущности
      *
      * @param basePackage базовый пакет приложения
      * @param entityName имя сущности
      * @param fields список полей сущности
+     * @param types таблица типов текущей генерации
+     * @param pagination настройки постраничной выдачи
+     * @param keyset параметры курсорной выдачи или null
+     * @param graphs графы загрузки сущности или null
+     * @param bulk генерировать ли методы для массовых операций
      */
-    public static void generateRepository(String basePackage, String entityName, List<Field> fields, Path targetDir) throws IOException {
+    public static void generateRepository(String basePackage, String entityName, List<Field> fields, TypeMapper types,
+                                          PaginationConfig pagination, KeysetSpec keyset, EntityGraphSpec graphs,
+                                          boolean bulk, GeneratedOutput output) {
         String className = StringUtils.capitalizeFirst(entityName) + "Repository";
         String entityClassName = StringUtils.capitalizeFirst(entityName);
 
         // Импорты классов
         ClassName entityClass = ClassName.get(basePackage + ".model", entityClassName);
-        ClassName longClass = ClassName.get(Long.class);
 
         // Создаем билдер для интерфейса репозитория
         TypeSpec.Builder repositoryBuilder = TypeSpec.interfaceBuilder(className)
                 .addModifiers(Modifier.PUBLIC)
-                .addSuperinterface(createJpaRepositoryInterface(entityClass, longClass))
+                .addSuperinterface(createJpaRepositoryInterface(entityClass, types.getIdType()))
                 .addSuperinterface(createJpaSpecificationExecutorInterface());
 
         // Добавляем кастомные методы поиска, если есть поля
         if (!fields.isEmpty()) {
-            repositoryBuilder.addMethod(createFindByMethod(fields.get(0), entityClass));
+            repositoryBuilder.addMethod(createFindByMethod(fields.get(0), entityClass, types));
+        }
+        // Запросы страниц подгружают связи "к одному" по графу summary
+        AnnotationSpec summaryGraph = graphs != null && graphs.hasSummary()
+                ? createEntityGraphAnnotation(graphs.summaryName())
+                : null;
+        if (pagination.getResponseType() == PaginationConfig.ResponseType.SLICE) {
+            repositoryBuilder.addMethod(withGraph(createSliceFinderMethod(entityClass), summaryGraph));
+        } else if (summaryGraph != null) {
+            repositoryBuilder.addMethod(createFindAllPageMethod(entityClass, summaryGraph));
+        }
+        if (keyset != null) {
+            repositoryBuilder.addMethod(withGraph(createKeysetFirstPageMethod(entityClass, keyset), summaryGraph));
+            repositoryBuilder.addMethod(withGraph(createKeysetNextPageMethod(entityClass, keyset, types.getIdType()),
+                    summaryGraph));
+        }
+        if (graphs != null) {
+            repositoryBuilder.addMethod(createDetailFinderMethod(entityClass, types.getIdType(), graphs));
+        }
+        if (bulk) {
+            repositoryBuilder.addMethod(createExistingIdsMethod(entityClass, types.getIdType()));
         }
 
         TypeSpec repository = repositoryBuilder.build();
 
         // Записываем сгенерированный файл
-        writeJavaFile(basePackage + ".repository", repository, targetDir);
+        writeJavaFile(basePackage + ".repository", repository, output);
+    }
+
+    /**
+     * Генерирует реактивный Repository интерфейс Spring Data R2DBC
+     * Запросы курсорной выдачи написаны на SQL: у R2DBC нет JPQL, а имена колонок берутся из схемы
+     *
+     * @param basePackage базовый пакет приложения
+     * @param entityName имя сущности
+     * @param fields список полей сущности
+     * @param types таблица типов текущей генерации
+     * @param pagination настройки постраничной выдачи
+     * @param keyset параметры курсорной выдачи или null
+     */
+    public static void generateReactiveRepository(String basePackage, String entityName, List<Field> fields,
+                                                  TypeMapper types, PaginationConfig pagination, KeysetSpec keyset,
+                                                  GeneratedOutput output) {
+        ClassName entityClass = ClassName.get(basePackage + ".model", StringUtils.capitalizeFirst(entityName));
+        TypeName fluxType = ParameterizedTypeName.get(FLUX, entityClass);
+
+        TypeSpec.Builder repositoryBuilder = TypeSpec.interfaceBuilder(StringUtils.capitalizeFirst(entityName)
+                        + "Repository")
+                .addModifiers(Modifier.PUBLIC)
+                .addSuperinterface(ParameterizedTypeName.get(
+                        ClassName.get("org.springframework.data.repository.reactive", "ReactiveCrudRepository"),
+                        entityClass, types.getIdType()));
+
+        // Поиск по первому полю, если оно хранится в колонке сущности
+        if (!fields.isEmpty() && JoinTableSpec.of(entityName, fields.get(0), types) == null) {
+            Field field = fields.get(0);
+            boolean reference = field.getRelation() != null;
+            if (reference || types.isBasic(field.getFieldType())) {
+                String name = reference ? field.getFieldName() + "Id" : field.getFieldName();
+                repositoryBuilder.addMethod(MethodSpec.methodBuilder("findBy" + StringUtils.capitalizeFirst(name))
+                        .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                        .returns(fluxType)
+                        .addParameter(reference ? types.getIdType() : types.getJavaType(field.getFieldType()), name)
+                        .build());
+            }
+        }
+        if (pagination.getResponseType() == PaginationConfig.ResponseType.PAGE) {
+            repositoryBuilder.addMethod(MethodSpec.methodBuilder(SLICE_FINDER)
+                    .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                    .returns(fluxType)
+                    .addParameter(PAGEABLE, "pageable")
+                    .build());
+        }
+        if (keyset != null) {
+            // Имена в кавычках, как их пишет Spring Data R2DBC и schema.sql
+            String table = SqlKeywords.quoteAlways(StringUtils.toSnakeCase(entityName));
+            String id = SqlKeywords.quoteAlways("id");
+            String orderBy = keyset.hasSortField()
+                    ? " order by " + SqlKeywords.quoteAlways(StringUtils.toSnakeCase(keyset.sortField())) + ", " + id
+                    + " limit :limit"
+                    : " order by " + id + " limit :limit";
+            repositoryBuilder.addMethod(MethodSpec.methodBuilder(KEYSET_FIRST_PAGE)
+                    .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                    .addAnnotation(createReactiveQueryAnnotation("select * from " + table + orderBy))
+                    .returns(fluxType)
+                    .addParameter(createParamParameter(TypeName.INT, "limit"))
+                    .build());
+
+            MethodSpec.Builder nextPage = MethodSpec.methodBuilder(KEYSET_NEXT_PAGE)
+                    .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                    .returns(fluxType);
+            String condition;
+            if (keyset.hasSortField()) {
+                String sortColumn = SqlKeywords.quoteAlways(StringUtils.toSnakeCase(keyset.sortField()));
+                condition = sortColumn + " > :sortValue or (" + sortColumn + " = :sortValue and " + id + " > :lastId)";
+                nextPage.addParameter(createParamParameter(keyset.sortType(), "sortValue"));
+            } else {
+                condition = id + " > :lastId";
+            }
+            repositoryBuilder.addMethod(nextPage
+                    .addAnnotation(createReactiveQueryAnnotation("select * from " + table + " where " + condition
+                            + orderBy))
+                    .addParameter(createParamParameter(types.getIdType(), "lastId"))
+                    .addParameter(createParamParameter(TypeName.INT, "limit"))
+                    .build());
+        }
+
+        writeJavaFile(basePackage + ".repository", repositoryBuilder.build(), output);
+    }
+
+    private static AnnotationSpec createReactiveQueryAnnotation(String query) {
+        return AnnotationSpec.builder(ClassName.get("org.springframework.data.r2dbc.repository", "Query"))
+                .addMember("value", "$S", query)
+                .build();
     }
 
     /**
      * Создает интерфейс JpaRepository с указанными generic типами
      */
-    private static ParameterizedTypeName createJpaRepositoryInterface(ClassName entityClass, ClassName idClass) {
+    private static ParameterizedTypeName createJpaRepositoryInterface(ClassName entityClass, TypeName idClass) {
         return ParameterizedTypeName.get(
                 ClassName.get("org.springframework.data.jpa.repository", "JpaRepository"),
                 entityClass, idClass);
@@ -68,7 +205,7 @@ public class RepositoryGenerator {
     /**
      * Создает кастомный метод поиска по первому полю
      */
-    private static MethodSpec createFindByMethod(Field field, ClassName entityClass) {
+    private static MethodSpec createFindByMethod(Field field, ClassName entityClass, TypeMapper types) {
         String fieldName = field.getFieldName();
         String methodName = "findBy" + StringUtils.capitalizeFirst(fieldName);
 
@@ -77,17 +214,140 @@ public class RepositoryGenerator {
                 .returns(ParameterizedTypeName.get(
                         ClassName.get("java.util", "List"),
                         entityClass))
-                .addParameter(TypeMapper.getJavaType(field.getFieldType(), ""), fieldName)
+                .addParameter(types.getJavaType(field.getFieldType()), fieldName)
+                .build();
+    }
+
+    /**
+     * Создает метод выборки страницы в виде Slice
+     */
+    private static MethodSpec createSliceFinderMethod(ClassName entityClass) {
+        return MethodSpec.methodBuilder(SLICE_FINDER)
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .returns(ParameterizedTypeName.get(
+                        ClassName.get("org.springframework.data.domain", "Slice"),
+                        entityClass))
+                .addParameter(PAGEABLE, "pageable")
+                .build();
+    }
+
+    /**
+     * Переопределяет findAll(Pageable) для загрузки страницы по графу
+     */
+    private static MethodSpec createFindAllPageMethod(ClassName entityClass, AnnotationSpec graph) {
+        return MethodSpec.methodBuilder("findAll")
+                .addAnnotation(Override.class)
+                .addAnnotation(graph)
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .returns(ParameterizedTypeName.get(
+                        ClassName.get("org.springframework.data.domain", "Page"),
+                        entityClass))
+                .addParameter(PAGEABLE, "pageable")
+                .build();
+    }
+
+    /**
+     * Создает метод выборки одной записи вместе со связями графа detail одним запросом
+     */
+    private static MethodSpec createDetailFinderMethod(ClassName entityClass, TypeName idType,
+                                                       EntityGraphSpec graphs) {
+        return MethodSpec.methodBuilder(DETAIL_FINDER)
+                .addAnnotation(createEntityGraphAnnotation(graphs.detailName()))
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .returns(ParameterizedTypeName.get(ClassName.get("java.util", "Optional"), entityClass))
+                .addParameter(idType, "id")
+                .build();
+    }
+
+    private static AnnotationSpec createEntityGraphAnnotation(String graphName) {
+        return AnnotationSpec.builder(ClassName.get("org.springframework.data.jpa.repository", "EntityGraph"))
+                .addMember("value", "$S", graphName)
+                .build();
+    }
+
+    private static MethodSpec withGraph(MethodSpec method, AnnotationSpec graph) {
+        return graph == null ? method : method.toBuilder()
+                .addAnnotation(graph)
+                .build();
+    }
+
+    /**
+     * Создает метод выборки первой страницы курсорной выдачи
+     * Число строк ограничивается переданным Pageable, смещение всегда нулевое
+     */
+    private static MethodSpec createKeysetFirstPageMethod(ClassName entityClass, KeysetSpec keyset) {
+        return MethodSpec.methodBuilder(KEYSET_FIRST_PAGE)
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .addAnnotation(createQueryAnnotation("select e from " + entityClass.simpleName() + " e"
+                        + keysetOrderBy(keyset)))
+                .returns(ParameterizedTypeName.get(ClassName.get("java.util", "List"), entityClass))
+                .addParameter(PAGEABLE, "limit")
+                .build();
+    }
+
+    /**
+     * Создает метод выборки строк, следующих за последней строкой предыдущей страницы
+     * Условие по (sortField, id) позволяет базе читать индекс с нужной позиции вместо пропуска OFFSET строк
+     */
+    private static MethodSpec createKeysetNextPageMethod(ClassName entityClass, KeysetSpec keyset, TypeName idType) {
+        MethodSpec.Builder method = MethodSpec.methodBuilder(KEYSET_NEXT_PAGE)
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .returns(ParameterizedTypeName.get(ClassName.get("java.util", "List"), entityClass));
+
+        String condition;
+        if (keyset.hasSortField()) {
+            String sortField = "e." + keyset.sortField();
+            condition = sortField + " > :sortValue or (" + sortField + " = :sortValue and e.id > :lastId)";
+            method.addParameter(createParamParameter(keyset.sortType(), "sortValue"));
+        } else {
+            condition = "e.id > :lastId";
+        }
+        return method
+                .addAnnotation(createQueryAnnotation("select e from " + entityClass.simpleName() + " e where "
+                        + condition + keysetOrderBy(keyset)))
+                .addParameter(createParamParameter(idType, "lastId"))
+                .addParameter(PAGEABLE, "limit")
+                .build();
+    }
+
+    /**
+     * Создает метод выборки существующих id; читается только индекс первичного ключа, сущности не загружаются
+     */
+    private static MethodSpec createExistingIdsMethod(ClassName entityClass, TypeName idType) {
+        return MethodSpec.methodBuilder(EXISTING_IDS_FINDER)
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .addAnnotation(createQueryAnnotation("select e.id from " + entityClass.simpleName()
+                        + " e where e.id in :ids"))
+                .returns(ParameterizedTypeName.get(ClassName.get("java.util", "List"), idType.box()))
+                .addParameter(createParamParameter(ParameterizedTypeName.get(ClassName.get("java.util", "Collection"),
+                        idType.box()), "ids"))
+                .build();
+    }
+
+    private static String keysetOrderBy(KeysetSpec keyset) {
+        return keyset.hasSortField() ? " order by e." + keyset.sortField() + ", e.id" : " order by e.id";
+    }
+
+    private static AnnotationSpec createQueryAnnotation(String query) {
+        return AnnotationSpec.builder(ClassName.get("org.springframework.data.jpa.repository", "Query"))
+                .addMember("value", "$S", query)
+                .build();
+    }
+
+    private static ParameterSpec createParamParameter(TypeName type, String name) {
+        return ParameterSpec.builder(type, name)
+                .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.data.repository.query", "Param"))
+                        .addMember("value", "$S", name)
+                        .build())
                 .build();
     }
 
     /**
      * Записывает сгенерированный Java файл
      */
-    private static void writeJavaFile(String packageName, TypeSpec typeSpec, Path targetDir) throws IOException {
-        JavaFile.builder(packageName, typeSpec)
+    private static void writeJavaFile(String packageName, TypeSpec typeSpec, GeneratedOutput output) {
+        output.writeJavaFile(JavaFile.builder(packageName, typeSpec)
                 .indent("    ")
-                .build()
-                .writeTo(Paths.get(targetDir + "/src/main/java"));
+                .build());
     }
 }
\ No newline at end of file
@@ -1,57 +1,124 @@
 package vnikolaenko.github.jarch.generator.generator.included;
 
 import com.squareup.javapoet.*;
+import vnikolaenko.github.jarch.generator.config.ApplicationConfig;
+import vnikolaenko.github.jarch.generator.config.PaginationConfig;
+import vnikolaenko.github.jarch.generator.output.GeneratedOutput;
 import vnikolaenko.github.jarch.generator.utils.StringUtils;
+import vnikolaenko.github.jarch.generator.utils.TypeMapper;
 
 import javax.lang.model.element.Modifier;
-import java.io.IOException;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 
 /**
  * Генератор Service слоя приложения с правильным внедрением зависимостей
  */
 public class ServiceGenerator {
 
+    private static final ClassName PAGEABLE = ClassName.get("org.springframework.data.domain", "Pageable");
+
     /**
      * Генерирует Service интерфейс и его реализацию
+     *
+     * @param types      таблица типов текущей генерации
+     * @param pagination настройки постраничной выдачи findAll
+     * @param keyset     параметры курсорной выдачи или null
+     * @param graphs     графы загрузки сущности или null
+     * @param mappingStrategy способ преобразования сущности в DTO
+     * @param bulk       генерировать ли массовые операции saveAll, createBulk, updateBulk и deleteBulk
+     * @param cached     кэшировать ли findById
      */
-    public static void generateService(String basePackage, String entityName, Path targetDir) throws IOException {
+    public static void generateService(String basePackage, String entityName, TypeMapper types,
+                                       PaginationConfig pagination, KeysetSpec keyset, EntityGraphSpec graphs,
+                                       ApplicationConfig.MappingStrategy mappingStrategy, boolean bulk,
+                                       boolean cached, GeneratedOutput output) {
         // Генерируем интерфейс сервиса
-        generateServiceInterface(basePackage, entityName, targetDir);
+        generateServiceInterface(basePackage, entityName, types.getIdType(), pagination, keyset, bulk, output);
 
         // Генерируем реализацию сервиса
-        generateServiceImpl(basePackage, entityName, targetDir);
+        generateServiceImpl(basePackage, entityName, types.getIdType(), pagination, keyset, graphs, mappingStrategy,
+                bulk, cached ? cacheName(entityName) : null, output);
+    }
+
+    /**
+     * Класс страницы курсорной выдачи, общий для всех сущностей проекта
+     */
+    public static ClassName cursorPageClass(String basePackage) {
+        return ClassName.get(basePackage + ".dto", "CursorPage");
+    }
+
+    /**
+     * Имя кэша сервиса сущности; используется и как ключ ее настроек app.cache.* в сгенерированном проекте
+     */
+    public static String cacheName(String entityName) {
+        return StringUtils.toSnakeCase(entityName).replace('_', '-');
+    }
+
+    /**
+     * Результат обработки одного элемента массовой операции, общий для всех сущностей проекта
+     */
+    public static ClassName bulkItemResultClass(String basePackage) {
+        return ClassName.get(basePackage + ".dto", "BulkItemResult");
+    }
+
+    /**
+     * Исполнитель массовых операций частями в отдельных транзакциях
+     */
+    public static ClassName bulkExecutorClass(String basePackage) {
+        return ClassName.get(basePackage + ".service", "BulkExecutor");
+    }
+
+    /**
+     * Тип страницы, возвращаемой findAll: Page или Slice
+     */
+    public static ClassName pageClass(PaginationConfig pagination) {
+        return ClassName.get("org.springframework.data.domain",
+                pagination.getResponseType() == PaginationConfig.ResponseType.SLICE ? "Slice" : "Page");
     }
 
     /**
      * Генерирует интерфейс сервиса
      */
-    private static void generateServiceInterface(String basePackage, String entityName, Path targetDir) throws IOException {
+    private static void generateServiceInterface(String basePackage, String entityName, TypeName idType,
+                                                 PaginationConfig pagination, KeysetSpec keyset, boolean bulk,
+                                                 GeneratedOutput output) {
         String interfaceName = StringUtils.capitalizeFirst(entityName) + "Service";
         String dtoName = StringUtils.capitalizeFirst(entityName) + "DTO";
 
         ClassName dtoClass = ClassName.get(basePackage + ".dto", dtoName);
-        ClassName listClass = ClassName.get("java.util", "List");
 
         // Создаем интерфейс с CRUD методами
-        TypeSpec serviceInterface = TypeSpec.interfaceBuilder(interfaceName)
+        TypeSpec.Builder interfaceBuilder = TypeSpec.interfaceBuilder(interfaceName)
                 .addModifiers(Modifier.PUBLIC)
-                .addMethod(createFindAllMethod(listClass, dtoClass))
-                .addMethod(createFindByIdMethod(dtoClass))
+                .addMethod(createFindAllMethod(pageClass(pagination), dtoClass));
+        if (keyset != null) {
+            interfaceBuilder.addMethod(createFindAllByCursorMethod(cursorPageClass(basePackage), dtoClass));
+        }
+        interfaceBuilder
+                .addMethod(createFindByIdMethod(dtoClass, idType))
                 .addMethod(createSaveMethod(dtoClass))
-                .addMethod(createUpdateMethod(dtoClass))
-                .addMethod(createDeleteMethod())
-                .build();
+                .addMethod(createUpdateMethod(dtoClass, idType))
+                .addMethod(createDeleteMethod(idType));
+        if (bulk) {
+            ClassName resultClass = bulkItemResultClass(basePackage);
+            interfaceBuilder
+                    .addMethod(createSaveAllMethod(dtoClass))
+                    .addMethod(createBulkMethod("createBulk", resultClass, dtoClass, dtoClass, "dtos"))
+                    .addMethod(createBulkMethod("updateBulk", resultClass, dtoClass, dtoClass, "dtos"))
+                    .addMethod(createBulkMethod("deleteBulk", resultClass, idType, idType, "ids"));
+        }
+        TypeSpec serviceInterface = interfaceBuilder.build();
 
         // Записываем сгенерированный интерфейс
-        writeJavaFile(basePackage + ".service", serviceInterface, targetDir);
+        writeJavaFile(basePackage + ".service", serviceInterface, output);
     }
 
     /**
      * Генерирует реализацию сервиса с правильными аннотациями
      */
-    private static void generateServiceImpl(String basePackage, String entityName, Path targetDir) throws IOException {
+    private static void generateServiceImpl(String basePackage, String entityName, TypeName idType,
+                                            PaginationConfig pagination, KeysetSpec keyset, EntityGraphSpec graphs,
+                                            ApplicationConfig.MappingStrategy mappingStrategy, boolean bulk,
+                                            String cacheName, GeneratedOutput output) {
         String className = StringUtils.capitalizeFirst(entityName) + "ServiceImpl";
         String interfaceName = StringUtils.capitalizeFirst(entityName) + "Service";
         String dtoName = StringUtils.capitalizeFirst(entityName) + "DTO";
@@ -63,25 +130,52 @@ public class ServiceGenerator {
         ClassName dtoClass = ClassName.get(basePackage + ".dto", dtoName);
         ClassName repositoryClass = ClassName.get(basePackage + ".repository", repositoryName);
         ClassName serviceInterface = ClassName.get(basePackage + ".service", interfaceName);
+        Mapping mapping = new Mapping(mappingStrategy, entityClass, dtoClass);
+        // Одна запись загружается вместе со связями графа detail, если он есть
+        String finder = graphs != null ? RepositoryGenerator.DETAIL_FINDER : "findById";
 
         // Создаем класс реализации сервиса
-        TypeSpec serviceImpl = TypeSpec.classBuilder(className)
+        TypeSpec.Builder implBuilder = TypeSpec.classBuilder(className)
                 .addModifiers(Modifier.PUBLIC)
                 .addAnnotation(createServiceAnnotation()) // @Service
                 .addAnnotation(createTransactionalAnnotation()) // @Transactional
                 .addAnnotation(createRequiredArgsConstructorAnnotation()) // @RequiredArgsConstructor
                 .addSuperinterface(serviceInterface)
                 .addField(createRepositoryField(repositoryClass))
-                .addField(createModelMapperField())
-                .addMethod(createFindAllMethodImpl(entityClass, dtoClass))
-                .addMethod(createFindByIdMethodImpl(entityClass, dtoClass))
-                .addMethod(createSaveMethodImpl(entityClass, dtoClass))
-                .addMethod(createUpdateMethodImpl(entityClass, dtoClass))
-                .addMethod(createDeleteMethodImpl(entityClass))
-                .build();
+                .addField(mapping.createField(basePackage, entityName))
+                .addMethod(createFindAllMethodImpl(dtoClass, pagination, mapping));
+        if (keyset != null) {
+            implBuilder.addMethod(createFindAllByCursorMethodImpl(entityClass, dtoClass,
+                    cursorPageClass(basePackage), keyset, mapping));
+        }
+        implBuilder
+                .addMethod(withCache(createFindByIdMethodImpl(entityClass, dtoClass, idType, finder, mapping),
+                        "Cacheable", cacheName, false))
+                .addMethod(createSaveMethodImpl(entityClass, dtoClass, mapping))
+                .addMethod(withCache(createUpdateMethodImpl(entityClass, dtoClass, idType, finder, mapping),
+                        "CacheEvict", cacheName, false))
+                .addMethod(withCache(createDeleteMethodImpl(entityClass, idType), "CacheEvict", cacheName, false));
+        if (bulk) {
+            ClassName resultClass = bulkItemResultClass(basePackage);
+            implBuilder
+                    .addField(FieldSpec.builder(bulkExecutorClass(basePackage), "bulkExecutor",
+                                    Modifier.PRIVATE, Modifier.FINAL)
+                            .addAnnotation(createAutowiredAnnotation())
+                            .build())
+                    .addMethod(createSaveAllMethodImpl(entityClass, dtoClass, mapping))
+                    .addMethod(createBulkMethodImpl("createBulk", "createChunk", resultClass, dtoClass, dtoClass, "dtos"))
+                    .addMethod(withCache(createBulkMethodImpl("updateBulk", "updateChunk", resultClass, dtoClass,
+                            dtoClass, "dtos"), "CacheEvict", cacheName, true))
+                    .addMethod(withCache(createBulkMethodImpl("deleteBulk", "deleteChunk", resultClass, idType,
+                            idType, "ids"), "CacheEvict", cacheName, true))
+                    .addMethod(createCreateChunkMethod(entityClass, dtoClass, mapping))
+                    .addMethod(createUpdateChunkMethod(entityClass, dtoClass, idType, mapping))
+                    .addMethod(createDeleteChunkMethod(idType));
+        }
+        TypeSpec serviceImpl = implBuilder.build();
 
         // Записываем сгенерированную реализацию
-        writeJavaFile(basePackage + ".service", serviceImpl, targetDir);
+        writeJavaFile(basePackage + ".service", serviceImpl, output);
     }
 
     /**
@@ -94,13 +188,45 @@ public class ServiceGenerator {
     }
 
     /**
-     * Создает поле ModelMapper с аннотацией @Autowired
+     * Преобразования между сущностью и DTO для выбранной стратегии
+     * ModelMapper - общий бин на рефлексии, иначе - маппер сущности из пакета mapper
      */
-    private static FieldSpec createModelMapperField() {
-        return FieldSpec.builder(ClassName.get("org.modelmapper", "ModelMapper"),
-                        "modelMapper", Modifier.PRIVATE, Modifier.FINAL)
-                .addAnnotation(createAutowiredAnnotation())
-                .build();
+    record Mapping(ApplicationConfig.MappingStrategy strategy, ClassName entityClass, ClassName dtoClass) {
+
+        private boolean modelMapper() {
+            return strategy == ApplicationConfig.MappingStrategy.MODEL_MAPPER;
+        }
+
+        /**
+         * Создает поле маппера с аннотацией @Autowired
+         */
+        FieldSpec createField(String basePackage, String entityName) {
+            FieldSpec.Builder field = modelMapper()
+                    ? FieldSpec.builder(ClassName.get("org.modelmapper", "ModelMapper"),
+                    "modelMapper", Modifier.PRIVATE, Modifier.FINAL)
+                    : FieldSpec.builder(MapperGenerator.mapperClass(basePackage, entityName),
+                    "mapper", Modifier.PRIVATE, Modifier.FINAL);
+            return field.addAnnotation(createAutowiredAnnotation())
+                    .build();
+        }
+
+        CodeBlock toDto(String entity) {
+            return modelMapper()
+                    ? CodeBlock.of("modelMapper.map($L, $T.class)", entity, dtoClass)
+                    : CodeBlock.of("mapper.toDto($L)", entity);
+        }
+
+        CodeBlock toEntity(String dto) {
+            return modelMapper()
+                    ? CodeBlock.of("modelMapper.map($L, $T.class)", dto, entityClass)
+                    : CodeBlock.of("mapper.toEntity($L)", dto);
+        }
+
+        CodeBlock updateEntity(String dto, String entity) {
+            return modelMapper()
+                    ? CodeBlock.of("modelMapper.map($L, $L)", dto, entity)
+                    : CodeBlock.of("mapper.updateEntity($L, $L)", dto, entity);
+        }
     }
 
     /**
@@ -136,17 +262,27 @@ public class ServiceGenerator {
     }
 
     // Методы для создания методов интерфейса сервиса (без изменений)
-    private static MethodSpec createFindAllMethod(ClassName listClass, ClassName dtoClass) {
+    private static MethodSpec createFindAllMethod(ClassName pageClass, ClassName dtoClass) {
         return MethodSpec.methodBuilder("findAll")
                 .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
-                .returns(ParameterizedTypeName.get(listClass, dtoClass))
+                .addParameter(PAGEABLE, "pageable")
+                .returns(ParameterizedTypeName.get(pageClass, dtoClass))
+                .build();
+    }
+
+    private static MethodSpec createFindAllByCursorMethod(ClassName cursorPageClass, ClassName dtoClass) {
+        return MethodSpec.methodBuilder("findAllByCursor")
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .addParameter(ClassName.get(String.class), "cursor")
+                .addParameter(int.class, "size")
+                .returns(ParameterizedTypeName.get(cursorPageClass, dtoClass))
                 .build();
     }
 
-    private static MethodSpec createFindByIdMethod(ClassName dtoClass) {
+    private static MethodSpec createFindByIdMethod(ClassName dtoClass, TypeName idType) {
         return MethodSpec.methodBuilder("findById")
                 .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
-                .addParameter(ClassName.get(Long.class), "id")
+                .addParameter(idType, "id")
                 .returns(dtoClass)
                 .build();
     }
@@ -159,100 +295,208 @@ public class ServiceGenerator {
                 .build();
     }
 
-    private static MethodSpec createUpdateMethod(ClassName dtoClass) {
+    private static MethodSpec createSaveAllMethod(ClassName dtoClass) {
+        TypeName dtoList = ParameterizedTypeName.get(ClassName.get("java.util", "List"), dtoClass);
+        return MethodSpec.methodBuilder("saveAll")
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .addParameter(dtoList, "dtos")
+                .returns(dtoList)
+                .build();
+    }
+
+    private static MethodSpec createBulkMethod(String name, ClassName resultClass, TypeName itemType,
+                                               TypeName resultType, String parameterName) {
+        return MethodSpec.methodBuilder(name)
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .addParameter(ParameterizedTypeName.get(ClassName.get("java.util", "List"), itemType), parameterName)
+                .returns(ParameterizedTypeName.get(ClassName.get("java.util", "List"),
+                        ParameterizedTypeName.get(resultClass, resultType)))
+                .build();
+    }
+
+    private static MethodSpec createUpdateMethod(ClassName dtoClass, TypeName idType) {
         return MethodSpec.methodBuilder("update")
                 .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
-                .addParameter(ClassName.get(Long.class), "id")
+                .addParameter(idType, "id")
                 .addParameter(dtoClass, "dto")
                 .returns(dtoClass)
                 .build();
     }
 
-    private static MethodSpec createDeleteMethod() {
+    private static MethodSpec createDeleteMethod(TypeName idType) {
         return MethodSpec.methodBuilder("delete")
                 .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
-                .addParameter(ClassName.get(Long.class), "id")
+                .addParameter(idType, "id")
                 .build();
     }
 
     // Методы реализации сервиса (без изменений)
-    private static MethodSpec createFindAllMethodImpl(ClassName entityClass, ClassName dtoClass) {
+    /**
+     * Загружает одну страницу; для Slice используется запрос без подсчета общего числа записей
+     */
+    private static MethodSpec createFindAllMethodImpl(ClassName dtoClass, PaginationConfig pagination,
+                                                      Mapping mapping) {
+        String finder = pagination.getResponseType() == PaginationConfig.ResponseType.SLICE
+                ? RepositoryGenerator.SLICE_FINDER
+                : "findAll";
         return MethodSpec.methodBuilder("findAll")
                 .addModifiers(Modifier.PUBLIC)
                 .addAnnotation(createTransactionalReadOnlyAnnotation())
-                .returns(ParameterizedTypeName.get(ClassName.get("java.util", "List"), dtoClass))
-                .addStatement("$T<$T> entities = repository.findAll()",
-                        ClassName.get("java.util", "List"), entityClass)
-                .addStatement("return entities.stream()\n" +
-                                ".map(entity -> modelMapper.map(entity, $T.class))\n" +
-                                ".collect($T.toList())", dtoClass,
-                        ClassName.get("java.util.stream", "Collectors"))
+                .addParameter(PAGEABLE, "pageable")
+                .returns(ParameterizedTypeName.get(pageClass(pagination), dtoClass))
+                .addStatement("return repository.$L(pageable)\n" +
+                        ".map(entity -> $L)", finder, mapping.toDto("entity"))
+                .build();
+    }
+
+    /**
+     * Загружает страницу курсорной выдачи
+     * Запрашивается на одну строку больше размера страницы: лишняя строка означает, что следующая страница есть,
+     * поэтому ни count, ни OFFSET не нужны
+     */
+    private static MethodSpec createFindAllByCursorMethodImpl(ClassName entityClass, ClassName dtoClass,
+                                                              ClassName cursorPageClass, KeysetSpec keyset,
+                                                              Mapping mapping) {
+        ClassName listClass = ClassName.get("java.util", "List");
+        CodeBlock.Builder nextPage = CodeBlock.builder()
+                .addStatement("$T lastId", keyset.idType());
+        String nextPageArguments = "lastId, limit";
+        if (keyset.hasSortField()) {
+            nextPage.addStatement("$T sortValue", keyset.sortType());
+            nextPageArguments = "sortValue, " + nextPageArguments;
+        }
+        nextPage.beginControlFlow("try")
+                .addStatement("String[] key = $T.decode(cursor)", cursorPageClass)
+                .addStatement("lastId = $L", keyset.parseId("key[0]"));
+        if (keyset.hasSortField()) {
+            nextPage.addStatement("sortValue = $L", keyset.parseValue("key[1]"));
+        }
+        nextPage.nextControlFlow("catch ($T e)", RuntimeException.class)
+                .addStatement("throw new $T($T.BAD_REQUEST, $S, e)",
+                        ClassName.get("org.springframework.web.server", "ResponseStatusException"),
+                        ClassName.get("org.springframework.http", "HttpStatus"), "Invalid cursor")
+                .endControlFlow()
+                .addStatement("rows = repository.$L($L)", RepositoryGenerator.KEYSET_NEXT_PAGE, nextPageArguments);
+
+        CodeBlock lastKey = keyset.hasSortField()
+                ? CodeBlock.of("last.getId(), $L", keyset.formatValue("last.get"
+                + StringUtils.capitalizeFirst(keyset.sortField()) + "()"))
+                : CodeBlock.of("last.getId(), null");
+
+        return MethodSpec.methodBuilder("findAllByCursor")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(createTransactionalReadOnlyAnnotation())
+                .addParameter(ClassName.get(String.class), "cursor")
+                .addParameter(int.class, "size")
+                .returns(ParameterizedTypeName.get(cursorPageClass, dtoClass))
+                .addStatement("$T limit = $T.ofSize(size + 1)", PAGEABLE,
+                        ClassName.get("org.springframework.data.domain", "PageRequest"))
+                .addStatement("$T<$T> rows", listClass, entityClass)
+                .beginControlFlow("if (cursor == null || cursor.isEmpty())")
+                .addStatement("rows = repository.$L(limit)", RepositoryGenerator.KEYSET_FIRST_PAGE)
+                .nextControlFlow("else")
+                .addCode(nextPage.build())
+                .endControlFlow()
+                .addCode("\n")
+                .addStatement("boolean hasNext = rows.size() > size")
+                .addStatement("$T<$T> page = hasNext ? rows.subList(0, size) : rows", listClass, entityClass)
+                .addStatement("String nextCursor = null")
+                .beginControlFlow("if (hasNext)")
+                .addStatement("$T last = page.get(page.size() - 1)", entityClass)
+                .addStatement("nextCursor = $T.encode($L)", cursorPageClass, lastKey)
+                .endControlFlow()
+                .addStatement("return new $T<>(page.stream()\n" +
+                        ".map(entity -> $L)\n" +
+                        ".toList(), nextCursor)", cursorPageClass, mapping.toDto("entity"))
                 .build();
     }
 
-    private static MethodSpec createFindByIdMethodImpl(ClassName entityClass, ClassName dtoClass) {
+    private static MethodSpec createFindByIdMethodImpl(ClassName entityClass, ClassName dtoClass, TypeName idType,
+                                                       String finder, Mapping mapping) {
         return MethodSpec.methodBuilder("findById")
                 .addModifiers(Modifier.PUBLIC)
                 .addAnnotation(createTransactionalReadOnlyAnnotation())
-                .addParameter(ClassName.get(Long.class), "id")
+                .addParameter(idType, "id")
                 .returns(dtoClass)
-                .addStatement("$T<$T> entity = repository.findById(id)",
-                        ClassName.get("java.util", "Optional"), entityClass)
+                .addStatement("$T<$T> entity = repository.$L(id)",
+                        ClassName.get("java.util", "Optional"), entityClass, finder)
                 .addCode("""
                                 if (entity.isPresent()) {
-                                    return modelMapper.map(entity.get(), $T.class);
+                                    return $L;
                                 } else {
                                     throw new $T($S + id);
                                 }
-                                """, dtoClass,
+                                """, mapping.toDto("entity.get()"),
                         ClassName.get("jakarta.persistence", "EntityNotFoundException"),
                         "Сущность не найдена с id: ")
                 .build();
     }
 
 
-    private static MethodSpec createSaveMethodImpl(ClassName entityClass, ClassName dtoClass) {
+    private static MethodSpec createSaveMethodImpl(ClassName entityClass, ClassName dtoClass, Mapping mapping) {
         return MethodSpec.methodBuilder("save")
                 .addModifiers(Modifier.PUBLIC)
                 .addAnnotation(createTransactionalAnnotation())
                 .addParameter(dtoClass, "dto")
                 .returns(dtoClass)
-                .addStatement("$T entity = modelMapper.map(dto, $T.class)", entityClass, entityClass)
+                .addStatement("$T entity = $L", entityClass, mapping.toEntity("dto"))
                 .addStatement("$T savedEntity = repository.save(entity)", entityClass)
-                .addStatement("return modelMapper.map(savedEntity, $T.class)", dtoClass)
+                .addStatement("return $L", mapping.toDto("savedEntity"))
                 .build();
     }
 
-    private static MethodSpec createUpdateMethodImpl(ClassName entityClass, ClassName dtoClass) {
+    /**
+     * Сохраняет список записей одной транзакцией
+     * Вставки уходят в БД пакетами размера hibernate.jdbc.batch_size, если id не генерируются через IDENTITY
+     */
+    private static MethodSpec createSaveAllMethodImpl(ClassName entityClass, ClassName dtoClass, Mapping mapping) {
+        ClassName listClass = ClassName.get("java.util", "List");
+        return MethodSpec.methodBuilder("saveAll")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(createTransactionalAnnotation())
+                .addParameter(ParameterizedTypeName.get(listClass, dtoClass), "dtos")
+                .returns(ParameterizedTypeName.get(listClass, dtoClass))
+                .addStatement("$T<$T> entities = dtos.stream()\n" +
+                        ".map(dto -> $L)\n" +
+                        ".toList()", listClass, entityClass, mapping.toEntity("dto"))
+                .addStatement("return repository.saveAll(entities).stream()\n" +
+                        ".map(entity -> $L)\n" +
+                        ".toList()", mapping.toDto("entity"))
+                .build();
+    }
+
+    private static MethodSpec createUpdateMethodImpl(ClassName entityClass, ClassName dtoClass, TypeName idType,
+                                                     String finder, Mapping mapping) {
         return MethodSpec.methodBuilder("update")
                 .addModifiers(Modifier.PUBLIC)
                 .addAnnotation(createTransactionalAnnotation())
-                .addParameter(ClassName.get(Long.class), "id")
+                .addParameter(idType, "id")
                 .addParameter(dtoClass, "dto")
                 .returns(dtoClass)
-                .addStatement("$T<$T> existingEntity = repository.findById(id)",
-                        ClassName.get("java.util", "Optional"), entityClass)
+                .addStatement("$T<$T> existingEntity = repository.$L(id)",
+                        ClassName.get("java.util", "Optional"), entityClass, finder)
                 .addCode("""
                                 if (existingEntity.isPresent()) {
                                     $T entity = existingEntity.get();
-                                    modelMapper.map(dto, entity);
+                                    $L;
                                     $T updatedEntity = repository.save(entity);
-                                    return modelMapper.map(updatedEntity, $T.class);
+                                    return $L;
                                 } else {
                                     throw new $T($S + id);
                                 }
-                                """, entityClass, entityClass, dtoClass,
+                                """, entityClass, mapping.updateEntity("dto", "entity"), entityClass,
+                        mapping.toDto("updatedEntity"),
                         ClassName.get("jakarta.persistence", "EntityNotFoundException"),
                         "Сущность не найдена с id: ")
                 .build();
     }
 
 
-    private static MethodSpec createDeleteMethodImpl(ClassName entityClass) {
+    private static MethodSpec createDeleteMethodImpl(ClassName entityClass, TypeName idType) {
         return MethodSpec.methodBuilder("delete")
                 .addModifiers(Modifier.PUBLIC)
                 .addAnnotation(createTransactionalAnnotation())
-                .addParameter(ClassName.get(Long.class), "id")
+                .addParameter(idType, "id")
                 .addStatement("$T<$T> entity = repository.findById(id)",
                         ClassName.get("java.util", "Optional"), entityClass)
                 .addStatement("if (entity.isPresent()) {\n" +
@@ -265,6 +509,120 @@ public class ServiceGenerator {
                 .build();
     }
 
+    /**
+     * Массовая операция: элементы обрабатываются частями через BulkExecutor, каждая часть - своей транзакцией
+     * Общая транзакция класса здесь не нужна: иначе части выполнялись бы в ней и откатывались вместе
+     */
+    private static MethodSpec createBulkMethodImpl(String name, String chunkMethod, ClassName resultClass,
+                                                   TypeName itemType, TypeName resultType, String parameterName) {
+        return MethodSpec.methodBuilder(name)
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(AnnotationSpec.builder(ClassName.get("org.springframework.transaction.annotation", "Transactional"))
+                        .addMember("propagation", "$T.NOT_SUPPORTED",
+                                ClassName.get("org.springframework.transaction.annotation", "Propagation"))
+                        .build())
+                .addParameter(ParameterizedTypeName.get(ClassName.get("java.util", "List"), itemType), parameterName)
+                .returns(ParameterizedTypeName.get(ClassName.get("java.util", "List"),
+                        ParameterizedTypeName.get(resultClass, resultType)))
+                .addStatement("return bulkExecutor.execute($L, this::$L)", parameterName, chunkMethod)
+                .build();
+    }
+
+    private static MethodSpec createCreateChunkMethod(ClassName entityClass, ClassName dtoClass, Mapping mapping) {
+        ClassName listClass = ClassName.get("java.util", "List");
+        return MethodSpec.methodBuilder("createChunk")
+                .addModifiers(Modifier.PRIVATE)
+                .addParameter(ParameterizedTypeName.get(listClass, dtoClass), "chunk")
+                .returns(ParameterizedTypeName.get(listClass, dtoClass))
+                .addStatement("$T<$T> entities = chunk.stream()\n" +
+                        ".map(dto -> $L)\n" +
+                        ".toList()", listClass, entityClass, mapping.toEntity("dto"))
+                .addStatement("return repository.saveAll(entities).stream()\n" +
+                        ".map(entity -> $L)\n" +
+                        ".toList()", mapping.toDto("entity"))
+                .build();
+    }
+
+    /**
+     * Обновляет часть записей: все сущности части загружаются одним запросом вместо findById на каждую
+     */
+    private static MethodSpec createUpdateChunkMethod(ClassName entityClass, ClassName dtoClass, TypeName idType,
+                                                      Mapping mapping) {
+        ClassName listClass = ClassName.get("java.util", "List");
+        return MethodSpec.methodBuilder("updateChunk")
+                .addModifiers(Modifier.PRIVATE)
+                .addParameter(ParameterizedTypeName.get(listClass, dtoClass), "chunk")
+                .returns(ParameterizedTypeName.get(listClass, dtoClass))
+                .addStatement("$T<$T, $T> entities = repository.findAllById(chunk.stream()\n" +
+                                ".map($T::getId)\n" +
+                                ".toList()).stream()\n" +
+                                ".collect($T.toMap($T::getId, $T.identity()))",
+                        ClassName.get("java.util", "Map"), idType.box(), entityClass, dtoClass,
+                        ClassName.get("java.util.stream", "Collectors"), entityClass,
+                        ClassName.get("java.util.function", "Function"))
+                .addStatement("$T<$T> updated = new $T<>(chunk.size())", listClass, dtoClass,
+                        ClassName.get("java.util", "ArrayList"))
+                .beginControlFlow("for ($T dto : chunk)", dtoClass)
+                .addStatement("$T entity = entities.get(dto.getId())", entityClass)
+                .beginControlFlow("if (entity == null)")
+                .addStatement("throw new $T($S + dto.getId())",
+                        ClassName.get("jakarta.persistence", "EntityNotFoundException"), "Сущность не найдена с id: ")
+                .endControlFlow()
+                .addStatement("$L", mapping.updateEntity("dto", "entity"))
+                .addStatement("updated.add($L)", mapping.toDto("entity"))
+                .endControlFlow()
+                .addStatement("return updated")
+                .build();
+    }
+
+    /**
+     * Удаляет часть записей одним DELETE ... WHERE id IN (...)
+     * deleteAllByIdInBatch не сообщает об отсутствующих id, поэтому они проверяются заранее запросом только по id
+     */
+    private static MethodSpec createDeleteChunkMethod(TypeName idType) {
+        ClassName listClass = ClassName.get("java.util", "List");
+        TypeName idList = ParameterizedTypeName.get(listClass, idType.box());
+        return MethodSpec.methodBuilder("deleteChunk")
+                .addModifiers(Modifier.PRIVATE)
+                .addParameter(idList, "chunk")
+                .returns(idList)
+                .addStatement("$T<$T> existing = new $T<>(repository.$L(chunk))",
+                        ClassName.get("java.util", "Set"), idType.box(), ClassName.get("java.util", "HashSet"),
+                        RepositoryGenerator.EXISTING_IDS_FINDER)
+                .beginControlFlow("for ($T id : chunk)", idType.box())
+                .beginControlFlow("if (!existing.contains(id))")
+                .addStatement("throw new $T($S + id)",
+                        ClassName.get("jakarta.persistence", "EntityNotFoundException"), "Сущность не найдена с id: ")
+                .endControlFlow()
+                .endControlFlow()
+                .addStatement("repository.deleteAllByIdInBatch(chunk)")
+                .addStatement("return chunk")
+                .build();
+    }
+
+    /**
+     * Добавляет аннотацию кэша Spring (@Cacheable или @CacheEvict) по id записи
+     * Массовые операции затрагивают много id, поэтому очищают кэш сущности целиком
+     *
+     * @param cacheName имя кэша или null, если сущность не кэшируется
+     */
+    private static MethodSpec withCache(MethodSpec method, String annotation, String cacheName, boolean allEntries) {
+        if (cacheName == null) {
+            return method;
+        }
+        AnnotationSpec.Builder cache = AnnotationSpec.builder(ClassName.get("org.springframework.cache.annotation",
+                        annotation))
+                .addMember("cacheNames", "$S", cacheName);
+        if (allEntries) {
+            cache.addMember("allEntries", "$L", true);
+        } else {
+            cache.addMember("key", "$S", "#id");
+        }
+        return method.toBuilder()
+                .addAnnotation(cache.build())
+                .build();
+    }
+
     /**
      * Создает аннотацию @Transactional(readOnly = true)
      */
@@ -277,11 +635,9 @@ public class ServiceGenerator {
     /**
      * Записывает сгенерированный Java файл
      */
-    private static void writeJavaFile(String packageName, TypeSpec typeSpec, Path targetDir) throws IOException {
-        JavaFile javaFile = JavaFile.builder(packageName, typeSpec)
+    private static void writeJavaFile(String packageName, TypeSpec typeSpec, GeneratedOutput output) {
+        output.writeJavaFile(JavaFile.builder(packageName, typeSpec)
                 .indent("    ")
-                .build();
-
-        javaFile.writeTo(Paths.get(targetDir + "/src/main/java"));
+                .build());
     }
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+package vnikolaenko.github.jarch.generator.output;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * ZIP архив, упакованный во временный файл
+ * Результат, ожидающий скачивания, не занимает память; файл удаляется при освобождении архива
+ */
+@Slf4j
+public class FileArchive implements GeneratedArchive {
+
+    private final Path path;
+    private final long size;
+
+    private FileArchive(Path path) throws IOException {
+        this.path = path;
+        this.size = Files.size(path);
+    }
+
+    /**
+     * Упаковывает архив во временный файл потоково, без буфера в памяти
+     */
+    public static FileArchive spool(GeneratedArchive archive) throws IOException {
+        Path path = Files.createTempFile("jarch-", ".zip");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
+            archive.writeTo(out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+        return new FileArchive(path);
+    }
+
+    /**
+     * Копирует во временный файл уже упакованный ZIP (например, скачиваемый из MinIO)
+     */
+    public static FileArchive spool(InputStream zip) throws IOException {
+        Path path = Files.createTempFile("jarch-", ".zip");
+        try {
+            Files.copy(zip, path, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+        return new FileArchive(path);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public long sizeInBytes() {
+        return size;
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        Files.copy(path, out);
+    }
+
+    @Override
+    public void release() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Не удалось удалить временный архив {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package vnikolaenko.github.jarch.generator.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Готовый к скачиванию результат генерации
+ * Архив не буферизуется целиком, а пишется в поток по мере упаковки
+ */
+public interface GeneratedArchive {
+
+    /**
+     * Оценка объема памяти, занимаемого результатом
+     */
+    long sizeInBytes();
+
+    /**
+     * Пишет ZIP архив в переданный поток, не закрывая его
+     */
+    void writeTo(OutputStream out) throws IOException;
+
+    /**
+     * Освобождает ресурсы архива (например, временный файл), после чего архив нельзя записать
+     */
+    default void release() {
+    }
+}
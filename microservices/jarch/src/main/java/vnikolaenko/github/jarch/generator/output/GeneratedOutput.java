@@ -0,0 +1,148 @@
+package vnikolaenko.github.jarch.generator.output;
+
+import com.squareup.javapoet.JavaFile;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Виртуальный приемник сгенерированных файлов
+ * Хранит весь проект в памяти (путь относительно корня проекта -> содержимое)
+ * и упаковывает его в ZIP без обращения к файловой системе
+ */
+public class GeneratedOutput implements GeneratedArchive {
+
+    private static final String JAVA_SOURCE_ROOT = "src/main/java";
+
+    /**
+     * Файл в diff-архиве со списком удаленных относительно прошлой генерации путей
+     */
+    public static final String DELETED_FILES_MANIFEST = ".jarch-deleted-files";
+
+    private final NavigableMap<String, byte[]> files = new ConcurrentSkipListMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+
+    /**
+     * Записывает сгенерированный JavaPoet файл в src/main/java
+     */
+    public void writeJavaFile(JavaFile javaFile) {
+        String path = JAVA_SOURCE_ROOT + "/"
+                + javaFile.packageName.replace('.', '/') + "/"
+                + javaFile.typeSpec.name + ".java";
+        writeString(path, javaFile.toString());
+    }
+
+    /**
+     * Записывает текстовый файл по относительному пути
+     */
+    public void writeString(String path, String content) {
+        writeBytes(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Записывает бинарный файл по относительному пути
+     * У каждого файла ровно один автор: повторная запись того же пути считается ошибкой генерации
+     */
+    public void writeBytes(String path, byte[] content) {
+        String normalized = normalize(path);
+        if (files.putIfAbsent(normalized, content) != null) {
+            throw new IllegalStateException("File already generated: " + normalized);
+        }
+        totalBytes.addAndGet(content.length);
+    }
+
+    /**
+     * Переносит все файлы другого приемника (например, сгенерированные для одной сущности)
+     * Если хотя бы один путь уже занят, ничего не переносится
+     */
+    public void writeAll(GeneratedOutput other) {
+        for (String path : other.files.keySet()) {
+            if (files.containsKey(path)) {
+                throw new IllegalStateException("File already generated: " + path);
+            }
+        }
+        other.files.forEach(this::writeBytes);
+    }
+
+    /**
+     * Строит набор изменений относительно предыдущей генерации:
+     * новые и измененные файлы, а также манифест удаленных путей
+     */
+    public GeneratedOutput diff(GeneratedOutput previous) {
+        GeneratedOutput diff = new GeneratedOutput();
+        files.forEach((path, content) -> {
+            byte[] previousContent = previous.files.get(path);
+            if (previousContent == null || !Arrays.equals(previousContent, content)) {
+                diff.writeBytes(path, content);
+            }
+        });
+
+        List<String> deleted = previous.files.keySet().stream()
+                .filter(path -> !files.containsKey(path))
+                .toList();
+        if (!deleted.isEmpty()) {
+            diff.writeString(DELETED_FILES_MANIFEST, String.join("\n", deleted) + "\n");
+        }
+        return diff;
+    }
+
+    /**
+     * Возвращает содержимое файла или null, если файл не сгенерирован
+     */
+    public byte[] getFile(String path) {
+        return files.get(normalize(path));
+    }
+
+    /**
+     * Все сгенерированные файлы в порядке путей
+     */
+    public Map<String, byte[]> getFiles() {
+        return Collections.unmodifiableMap(files);
+    }
+
+    public int size() {
+        return files.size();
+    }
+
+    @Override
+    public long sizeInBytes() {
+        return totalBytes.get();
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        writeZip(out);
+    }
+
+    /**
+     * Упаковывает сгенерированный проект в ZIP и пишет его в переданный поток
+     * Поток не закрывается
+     */
+    public void writeZip(OutputStream out) throws IOException {
+        ZipOutputStream zos = new ZipOutputStream(out);
+        for (Map.Entry<String, byte[]> entry : files.entrySet()) {
+            zos.putNextEntry(new ZipEntry(entry.getKey()));
+            zos.write(entry.getValue());
+            zos.closeEntry();
+        }
+        zos.finish();
+    }
+
+    private static String normalize(String path) {
+        String normalized = path.replace('\\', '/');
+        while (normalized.startsWith("/")) {
+            normalized = normalized.substring(1);
+        }
+        return normalized;
+    }
+}
@@ -0,0 +1,47 @@
+package vnikolaenko.github.jarch.generator.output;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Результат генерации проекта, сохраняемый для инкрементальной перегенерации
+ * Хранит отпечатки сущностей и файлы, сгенерированные для каждой из них
+ */
+@Getter
+@AllArgsConstructor
+public class ProjectSnapshot {
+
+    private final Map<String, String> fingerprints;
+    private final Map<String, GeneratedOutput> entityOutputs;
+    private final GeneratedOutput output;
+
+    /**
+     * Сущности, которые не удалось сгенерировать; их файлов нет в output
+     */
+    private final List<String> failedEntities;
+
+    /**
+     * Все сущности сгенерированы
+     */
+    public boolean isComplete() {
+        return failedEntities.isEmpty();
+    }
+
+    /**
+     * Выбирает результаты сущностей, отпечатки которых не изменились
+     */
+    public Map<String, GeneratedOutput> reusableOutputs(Map<String, String> newFingerprints) {
+        Map<String, GeneratedOutput> reusable = new HashMap<>();
+        newFingerprints.forEach((entityName, fingerprint) -> {
+            GeneratedOutput previous = entityOutputs.get(entityName);
+            if (previous != null && fingerprint.equals(fingerprints.get(entityName))) {
+                reusable.put(entityName, previous);
+            }
+        });
+        return reusable;
+    }
+}
@@ -0,0 +1,30 @@
+package vnikolaenko.github.jarch.generator.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Уже упакованный ZIP архив (например, взятый из кэша генерации)
+ */
+public class ZipArchive implements GeneratedArchive {
+
+    private final byte[] content;
+
+    public ZipArchive(byte[] content) {
+        this.content = content;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    @Override
+    public long sizeInBytes() {
+        return content.length;
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(content);
+    }
+}
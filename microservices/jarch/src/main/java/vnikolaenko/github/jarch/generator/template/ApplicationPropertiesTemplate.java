@@ -3,188 +3,157 @@ package vnikolaenko.github.jarch.generator.template;
 
 import vnikolaenko.github.jarch.generator.config.ApplicationConfig;
 import vnikolaenko.github.jarch.generator.config.DatabaseConfig;
+import vnikolaenko.github.jarch.generator.config.EntityConfig;
+import vnikolaenko.github.jarch.generator.config.MigrationConfig;
+import vnikolaenko.github.jarch.generator.generator.MigrationGenerator;
+import vnikolaenko.github.jarch.generator.generator.included.ServiceGenerator;
+import vnikolaenko.github.jarch.generator.output.GeneratedOutput;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
 
 @Service
 public class ApplicationPropertiesTemplate {
 
-    public void generateApplicationProperties(ApplicationConfig config, Path targetDir) throws IOException {
-        String content;
+    // Очередь и предел соединений Tomcat на виртуальных потоках: поток на запрос почти ничего не стоит,
+    // поэтому одновременно обслуживается столько запросов, сколько принято соединений
+    static final int TOMCAT_MAX_CONNECTIONS = 10000;
+    static final int TOMCAT_ACCEPT_COUNT = 1000;
 
-        if (config.getPropertiesFormat() == ApplicationConfig.PropertiesFormat.YAML) {
-            content = generateApplicationYaml(config);
+    public void generateApplicationProperties(ApplicationConfig config, EntityConfig entityConfig, TemplateSet templates,
+                                              GeneratedOutput output) {
+        boolean yaml = config.getPropertiesFormat() == ApplicationConfig.PropertiesFormat.YAML;
+        boolean postgres = config.getDatabaseConfig().getType() == ApplicationConfig.DatabaseType.POSTGRESQL;
+
+        String template;
+        if (config.getStack() == ApplicationConfig.Stack.REACTIVE) {
+            if (yaml) {
+                template = postgres ? TemplateSet.YAML_POSTGRESQL_REACTIVE : TemplateSet.YAML_H2_REACTIVE;
+            } else {
+                template = postgres ? TemplateSet.PROPERTIES_POSTGRESQL_REACTIVE : TemplateSet.PROPERTIES_H2_REACTIVE;
+            }
+        } else if (yaml) {
+            template = postgres ? TemplateSet.YAML_POSTGRESQL : TemplateSet.YAML_H2;
         } else {
-            content = generate(config);
+            template = postgres ? TemplateSet.PROPERTIES_POSTGRESQL : TemplateSet.PROPERTIES_H2;
         }
 
-        String fileName = config.getPropertiesFormat() == ApplicationConfig.PropertiesFormat.YAML
-                ? "application.yml"
-                : "application.properties";
+        String fileName = yaml ? "application.yml" : "application.properties";
 
-        Files.writeString(Paths.get(targetDir + "/src/main/resources", fileName), content);
+        output.writeString("src/main/resources/" + fileName, templates.render(template, model(config, entityConfig, yaml, postgres)));
     }
 
-    private String generate(ApplicationConfig config) {
+    /**
+     * Переменные, доступные шаблонам настроек; значения могут быть null
+     */
+    private Map<String, Object> model(ApplicationConfig config, EntityConfig entityConfig, boolean yaml,
+                                      boolean postgres) {
+        MigrationConfig.Tool migrationTool = config.getMigrations().getTool();
         DatabaseConfig dbConfig = config.getDatabaseConfig();
 
-        if (dbConfig.getType() == ApplicationConfig.DatabaseType.POSTGRESQL) {
-            return """
-                # Server Configuration
-                server.port=%d
-                spring.application.name=%s
-                
-                # PostgreSQL Configuration
-                spring.datasource.url=jdbc:postgresql://%s:%d/%s
-                spring.datasource.username=%s
-                spring.datasource.password=%s
-                spring.datasource.driver-class-name=org.postgresql.Driver
-                
-                # JPA Configuration
-                spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect
-                spring.jpa.hibernate.ddl-auto=%s
-                spring.jpa.show-sql=true
-                spring.jpa.properties.hibernate.format_sql=true
-                
-                # Connection Pool
-                spring.datasource.hikari.maximum-pool-size=%d
-                spring.datasource.hikari.connection-timeout=20000
-                spring.datasource.hikari.idle-timeout=300000
-                
-                # Logging
-                logging.level.%s=DEBUG
-                """.formatted(
-                    config.getServerPort(),
-                    config.getApplicationName(),
-                    dbConfig.getHost(),
-                    dbConfig.getPort(),
-                    dbConfig.getDatabaseName(),
-                    dbConfig.getUsername(),
-                    dbConfig.getPassword(),
-                    dbConfig.getDdlAuto(),
-                    dbConfig.getPoolSize(),
-                    config.getBasePackage()
-            );
+        Map<String, Object> model = new HashMap<>();
+        model.put("serverPort", config.getServerPort());
+        model.put("applicationName", config.getApplicationName());
+        model.put("basePackage", config.getBasePackage());
+        model.put("dbHost", dbConfig.getHost());
+        model.put("dbPort", dbConfig.getPort());
+        model.put("dbName", dbConfig.getDatabaseName());
+        model.put("dbUsername", dbConfig.getUsername());
+        model.put("dbPassword", dbConfig.getPassword());
+        // Со скриптами миграций Hibernate только сверяет схему; встроенная H2 без них создается заново
+        if (migrationTool != MigrationConfig.Tool.NONE) {
+            model.put("ddlAuto", "validate");
         } else {
-            // H2 Configuration
-            return """
-                # Server Configuration
-                server.port=%d
-                spring.application.name=%s
-                
-                # H2 Database
-                spring.datasource.url=jdbc:h2:mem:testdb
-                spring.datasource.driver-class-name=org.h2.Driver
-                spring.datasource.username=sa
-                spring.datasource.password=
-                
-                # JPA Configuration
-                spring.jpa.database-platform=org.hibernate.dialect.H2Dialect
-                spring.jpa.hibernate.ddl-auto=create-drop
-                spring.jpa.show-sql=true
-                spring.jpa.properties.hibernate.format_sql=true
-                
-                # H2 Console
-                spring.h2.console.enabled=true
-                spring.h2.console.path=/h2-console
-                
-                # Logging
-                logging.level.%s=DEBUG
-                """.formatted(
-                    config.getServerPort(),
-                    config.getApplicationName(),
-                    config.getBasePackage()
-            );
+            model.put("ddlAuto", postgres ? dbConfig.getDdlAuto() : "create-drop");
         }
+        model.put("migrationProperties", migrationProperties(migrationTool, yaml));
+        // schema.sql реактивного стека пересоздает схему, как ddl-auto=create; PostgreSQL - только если это задано
+        String ddlAuto = dbConfig.getDdlAuto();
+        model.put("sqlInitMode", !postgres || "create".equals(ddlAuto) || "create-drop".equals(ddlAuto)
+                ? "always"
+                : "never");
+        model.put("poolSize", dbConfig.getPoolSize());
+        boolean virtualThreads = config.getConcurrencyModel() == ApplicationConfig.ConcurrencyModel.VIRTUAL_THREADS;
+        model.put("threadProperties", virtualThreads ? threadProperties(yaml) : "");
+        model.put("tomcatProperties", virtualThreads ? tomcatProperties(yaml) : "");
+        model.put("poolProperties", virtualThreads ? poolProperties(dbConfig.getPoolSize(), yaml, postgres) : "");
+        model.put("jdbcBatchSize", dbConfig.getBatchSize());
+        model.put("defaultPageSize", config.getPagination().getDefaultPageSize());
+        model.put("maxPageSize", config.getPagination().getMaxPageSize());
+        model.put("cacheProperties", cacheProperties(entityConfig, yaml));
+        return model;
     }
 
-    private String generateApplicationYaml(ApplicationConfig config) {
-        DatabaseConfig dbConfig = config.getDatabaseConfig();
+    private String threadProperties(boolean yaml) {
+        return yaml
+                ? "  threads:\n    virtual:\n      enabled: true\n"
+                : "spring.threads.virtual.enabled=true\n";
+    }
 
-        if (dbConfig.getType() == ApplicationConfig.DatabaseType.POSTGRESQL) {
-            return """
-                server:
-                  port: %d
-                  
-                spring:
-                  application:
-                    name: %s
-                    
-                  datasource:
-                    url: jdbc:postgresql://%s:%d/%s
-                    username: %s
-                    password: %s
-                    driver-class-name: org.postgresql.Driver
-                    hikari:
-                      maximum-pool-size: %d
-                      connection-timeout: 20000
-                      idle-timeout: 300000
-                      
-                  jpa:
-                    database-platform: org.hibernate.dialect.PostgreSQLDialect
-                    hibernate:
-                      ddl-auto: %s
-                    show-sql: true
-                    properties:
-                      hibernate:
-                        format_sql: true
-                        
-                logging:
-                  level:
-                    %s: DEBUG
-                """.formatted(
-                    config.getServerPort(),
-                    config.getApplicationName(),
-                    dbConfig.getHost(),
-                    dbConfig.getPort(),
-                    dbConfig.getDatabaseName(),
-                    dbConfig.getUsername(),
-                    dbConfig.getPassword(),
-                    dbConfig.getPoolSize(),
-                    dbConfig.getDdlAuto(),
-                    config.getBasePackage()
-            );
-        } else {
-            return """
-                server:
-                  port: %d
-                  
-                spring:
-                  application:
-                    name: %s
-                    
-                  datasource:
-                    url: jdbc:h2:mem:testdb
-                    driver-class-name: org.h2.Driver
-                    username: sa
-                    password: ''
-                    
-                  jpa:
-                    database-platform: org.hibernate.dialect.H2Dialect
-                    hibernate:
-                      ddl-auto: create-drop
-                    show-sql: true
-                    properties:
-                      hibernate:
-                        format_sql: true
-                        
-                  h2:
-                    console:
-                      enabled: true
-                      path: /h2-console
-                      
-                logging:
-                  level:
-                    %s: DEBUG
-                """.formatted(
-                    config.getServerPort(),
-                    config.getApplicationName(),
-                    config.getBasePackage()
-            );
+    private String tomcatProperties(boolean yaml) {
+        return yaml
+                ? "  tomcat:\n    max-connections: " + TOMCAT_MAX_CONNECTIONS + "\n    accept-count: " + TOMCAT_ACCEPT_COUNT + "\n"
+                : "server.tomcat.max-connections=" + TOMCAT_MAX_CONNECTIONS + "\nserver.tomcat.accept-count=" + TOMCAT_ACCEPT_COUNT + "\n";
+    }
+
+    /**
+     * Пул соединений постоянного размера: на виртуальных потоках запросов к базе больше, чем соединений,
+     * и пул не должен закрывать простаивающие соединения между всплесками нагрузки
+     * В шаблонах PostgreSQL размер пула и таймауты уже заданы, добавляется только minimum-idle
+     */
+    private String poolProperties(int poolSize, boolean yaml, boolean postgres) {
+        if (postgres) {
+            return yaml
+                    ? "      minimum-idle: " + poolSize + "\n"
+                    : "spring.datasource.hikari.minimum-idle=" + poolSize + "\n";
+        }
+        return yaml
+                ? "    hikari:\n      maximum-pool-size: " + poolSize + "\n      minimum-idle: " + poolSize + "\n"
+                : "\n# Connection Pool\nspring.datasource.hikari.maximum-pool-size=" + poolSize
+                        + "\nspring.datasource.hikari.minimum-idle=" + poolSize + "\n";
+    }
+
+    /**
+     * Расположение скриптов миграций; пустая строка, если миграции не генерируются
+     */
+    private String migrationProperties(MigrationConfig.Tool tool, boolean yaml) {
+        return switch (tool) {
+            case NONE -> "";
+            case FLYWAY -> yaml
+                    ? "  flyway:\n    locations: " + MigrationGenerator.FLYWAY_LOCATIONS + "\n\n"
+                    : "# Migrations\nspring.flyway.locations=" + MigrationGenerator.FLYWAY_LOCATIONS + "\n\n";
+            case LIQUIBASE -> yaml
+                    ? "  liquibase:\n    change-log: " + MigrationGenerator.LIQUIBASE_CHANGELOG + "\n\n"
+                    : "# Migrations\nspring.liquibase.change-log=" + MigrationGenerator.LIQUIBASE_CHANGELOG + "\n\n";
+        };
+    }
+
+    /**
+     * Размер и время жизни кэшей сущностей; пустая строка, если кэшируемых сущностей нет
+     */
+    private String cacheProperties(EntityConfig entityConfig, boolean yaml) {
+        StringBuilder properties = new StringBuilder();
+        for (EntityConfig.EntityDefinition entityDef : entityConfig.getEntities()) {
+            EntityConfig.CacheDefinition cache = entityDef.getCache();
+            if (cache == null) {
+                continue;
+            }
+            String name = ServiceGenerator.cacheName(entityDef.getName());
+            if (yaml) {
+                properties.append("    ").append(name).append(":\n")
+                        .append("      maximum-size: ").append(cache.getMaximumSize()).append('\n')
+                        .append("      ttl: ").append(cache.getTtlSeconds()).append("s\n");
+            } else {
+                properties.append("app.cache.").append(name).append(".maximum-size=")
+                        .append(cache.getMaximumSize()).append('\n')
+                        .append("app.cache.").append(name).append(".ttl=")
+                        .append(cache.getTtlSeconds()).append("s\n");
+            }
+        }
+        if (properties.isEmpty()) {
+            return "";
         }
+        return (yaml ? "app:\n  cache:\n" : "# Cache\n") + properties + "\n";
     }
 }
@@ -1,130 +1,137 @@
 package vnikolaenko.github.jarch.generator.template;
 
 import vnikolaenko.github.jarch.generator.config.ApplicationConfig;
+import vnikolaenko.github.jarch.generator.config.EntityConfig;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 @Service
 public class BuildTemplate {
 
-    public static String generateBuildFile(ApplicationConfig config) {
+    public static String generateBuildFile(ApplicationConfig config, EntityConfig entityConfig, TemplateSet templates) {
+        List<Dependency> dependencies = extraDependencies(config, entityConfig);
         if (config.getBuildTool() == ApplicationConfig.BuildTool.MAVEN) {
-            return generateMavenPom(config);
+            return generateMavenPom(config, dependencies, templates);
         } else {
-            return generateGradleBuild(config);
+            return generateGradleBuild(config, dependencies, templates);
         }
     }
 
-    private static String generateMavenPom(ApplicationConfig config) {
+    private static String generateMavenPom(ApplicationConfig config, List<Dependency> extraDependencies,
+                                           TemplateSet templates) {
         String artifactId = config.getBasePackage().substring(config.getBasePackage().lastIndexOf('.') + 1);
 
-        return """
-            <?xml version="1.0" encoding="UTF-8"?>
-            <project xmlns="http://maven.apache.org/POM/4.0.0"
-                     xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
-                     xsi:schemaLocation="http://maven.apache.org/POM/4.0.0 
-                     http://maven.apache.org/xsd/maven-4.0.0.xsd">
-                <modelVersion>4.0.0</modelVersion>
-                
-                <groupId>%s</groupId>
-                <artifactId>%s</artifactId>
-                <version>1.0.0</version>
-                <packaging>jar</packaging>
-                
-                    <parent>
-                            <groupId>org.springframework.boot</groupId>
-                            <artifactId>spring-boot-starter-parent</artifactId>
-                            <version>3.5.4</version>
-                            <relativePath/>
-                        </parent>
-                
-                        <properties>
-                            <java.version>21</java.version>
-                            <maven.compiler.source>21</maven.compiler.source>
-                            <maven.compiler.target>21</maven.compiler.target>
-                        </properties>
-                
-                <dependencies>
-                    <dependency>
-                        <groupId>org.springframework.boot</groupId>
-                        <artifactId>spring-boot-starter-web</artifactId>
-                    </dependency>
-                    <dependency>
-                        <groupId>org.springframework.boot</groupId>
-                        <artifactId>spring-boot-starter-data-jpa</artifactId>
-                    </dependency>
-                    <dependency>
-                        <groupId>com.h2database</groupId>
-                        <artifactId>h2</artifactId>
-                        <scope>runtime</scope>
-                    </dependency>
-                    <dependency>
-                         <groupId>org.projectlombok</groupId>
-                         <artifactId>lombok</artifactId>
-                         <version>1.18.34</version>
-                         <scope>provided</scope>
-                    </dependency>
-                    <dependency>
-                        <groupId>org.modelmapper</groupId>
-                        <artifactId>modelmapper</artifactId>
-                        <version>3.1.1</version>
-                    </dependency>
-                            <dependency>
-                                    <groupId>org.springdoc</groupId>
-                                    <artifactId>springdoc-openapi-starter-webmvc-ui</artifactId>
-                                    <version>2.8.4</version>
-                                </dependency>
-                </dependencies>
-                
-                <build>
-                    <plugins>
-                        <plugin>
-                            <groupId>org.springframework.boot</groupId>
-                            <artifactId>spring-boot-maven-plugin</artifactId>
-                            <configuration>
-                                <excludes>
-                                    <exclude>
-                                        <groupId>org.projectlombok</groupId>
-                                        <artifactId>lombok</artifactId>
-                                    </exclude>
-                                </excludes>
-                            </configuration>
-                        </plugin>
-                    </plugins>
-                </build>
-            </project>
-            """.formatted(config.getBasePackage(), artifactId);
+        StringBuilder dependencies = new StringBuilder();
+        for (Dependency dependency : extraDependencies) {
+            dependencies.append("\n        <dependency>")
+                    .append("\n            <groupId>").append(dependency.groupId()).append("</groupId>")
+                    .append("\n            <artifactId>").append(dependency.artifactId()).append("</artifactId>");
+            if (dependency.version() != null) {
+                dependencies.append("\n            <version>").append(dependency.version()).append("</version>");
+            }
+            if (dependency.processor()) {
+                dependencies.append("\n            <scope>provided</scope>");
+            }
+            dependencies.append("\n        </dependency>");
+        }
+
+        Map<String, Object> model = stackArtifacts(config);
+        model.put("groupId", config.getBasePackage());
+        model.put("artifactId", artifactId);
+        model.put("extraDependencies", dependencies.toString());
+        return templates.render(TemplateSet.POM, model);
+    }
+
+    private static String generateGradleBuild(ApplicationConfig config, List<Dependency> extraDependencies,
+                                              TemplateSet templates) {
+        StringBuilder dependencies = new StringBuilder();
+        for (Dependency dependency : extraDependencies) {
+            dependencies.append("\n    ")
+                    .append(dependency.processor() ? "annotationProcessor" : "implementation")
+                    .append(" '").append(dependency.groupId()).append(':').append(dependency.artifactId());
+            if (dependency.version() != null) {
+                dependencies.append(':').append(dependency.version());
+            }
+            dependencies.append('\'');
+        }
+
+        Map<String, Object> model = stackArtifacts(config);
+        model.put("group", config.getBasePackage());
+        model.put("extraDependencies", dependencies.toString());
+        return templates.render(TemplateSet.BUILD_GRADLE, model);
+    }
+
+    /**
+     * Стартеры и драйвер встроенной базы, которые различаются у servlet и реактивного стека
+     */
+    private static Map<String, Object> stackArtifacts(ApplicationConfig config) {
+        boolean reactive = config.getStack() == ApplicationConfig.Stack.REACTIVE;
+        Map<String, Object> model = new HashMap<>();
+        model.put("webStarter", reactive ? "spring-boot-starter-webflux" : "spring-boot-starter-web");
+        model.put("dataStarter", reactive ? "spring-boot-starter-data-r2dbc" : "spring-boot-starter-data-jpa");
+        model.put("databaseDriverGroupId", reactive ? "io.r2dbc" : "com.h2database");
+        model.put("databaseDriverArtifactId", reactive ? "r2dbc-h2" : "h2");
+        model.put("springdocStarter", reactive
+                ? "springdoc-openapi-starter-webflux-ui"
+                : "springdoc-openapi-starter-webmvc-ui");
+        return model;
     }
 
-    private static String generateGradleBuild(ApplicationConfig config) {
-        return """
-            plugins {
-                id 'org.springframework.boot' version '3.5.4'
-                id 'io.spring.dependency-management' version '1.1.0'
-                id 'java'
+    /**
+     * Зависимости, набор которых определяется настройками приложения и сущностей
+     */
+    private static List<Dependency> extraDependencies(ApplicationConfig config, EntityConfig entityConfig) {
+        List<Dependency> dependencies = new ArrayList<>();
+        switch (config.getMappingStrategy()) {
+            case MODEL_MAPPER -> dependencies.add(new Dependency("org.modelmapper", "modelmapper", "3.1.1", false));
+            case MAPSTRUCT -> {
+                dependencies.add(new Dependency("org.mapstruct", "mapstruct", "1.6.3", false));
+                dependencies.add(new Dependency("org.mapstruct", "mapstruct-processor", "1.6.3", true));
+                // Lombok должен отработать раньше MapStruct, иначе MapStruct не видит геттеры и сеттеры
+                dependencies.add(new Dependency("org.projectlombok", "lombok-mapstruct-binding", "0.2.0", true));
             }
-            
-            group = '%s'
-            version = '1.0.0'
-            sourceCompatibility = '21'
-            
-            repositories {
-                mavenCentral()
+            case GENERATED -> {
             }
-            
-            dependencies {
-                implementation 'org.springframework.boot:spring-boot-starter-web'
-                implementation 'org.springframework.boot:spring-boot-starter-data-jpa'
-                implementation 'org.springframework.boot:spring-boot-starter-validation'
-                implementation 'org.projectlombok:lombok'
-                implementation 'org.modelmapper:modelmapper:3.1.1'
-                implementation 'org.springdoc:springdoc-openapi-starter-webmvc-ui:2.8.4'
-                runtimeOnly 'com.h2database:h2'
-                annotationProcessor 'org.projectlombok:lombok'
+        }
+        boolean reactive = config.getStack() == ApplicationConfig.Stack.REACTIVE;
+        if (reactive && config.getDatabaseConfig().getType() == ApplicationConfig.DatabaseType.POSTGRESQL) {
+            dependencies.add(new Dependency("org.postgresql", "r2dbc-postgresql", null, false));
+        }
+        if (!reactive && entityConfig.getEntities().stream().anyMatch(entityDef -> entityDef.getCache() != null)) {
+            // Версии управляются Spring Boot
+            dependencies.add(new Dependency("org.springframework.boot", "spring-boot-starter-cache", null, false));
+            dependencies.add(new Dependency("com.github.ben-manes.caffeine", "jcache", null, false));
+            dependencies.add(new Dependency("org.hibernate.orm", "hibernate-jcache", null, false));
+        }
+        switch (config.getMigrations().getTool()) {
+            case FLYWAY -> {
+                dependencies.add(new Dependency("org.flywaydb", "flyway-core", null, false));
+                // Поддержка PostgreSQL и MySQL вынесена из flyway-core в отдельные модули
+                switch (config.getDatabaseConfig().getType()) {
+                    case POSTGRESQL -> dependencies.add(
+                            new Dependency("org.flywaydb", "flyway-database-postgresql", null, false));
+                    case MYSQL -> dependencies.add(new Dependency("org.flywaydb", "flyway-mysql", null, false));
+                    case H2 -> {
+                    }
+                }
             }
-            
-            tasks.named('test') {
-                useJUnitPlatform()
+            case LIQUIBASE -> dependencies.add(new Dependency("org.liquibase", "liquibase-core", null, false));
+            case NONE -> {
             }
-            """.formatted(config.getBasePackage());
+        }
+        return dependencies;
+    }
+
+    /**
+     * Зависимость файла сборки
+     *
+     * @param version   версия или null, если ею управляет Spring Boot
+     * @param processor процессор аннотаций: provided в Maven, annotationProcessor в Gradle
+     */
+    private record Dependency(String groupId, String artifactId, String version, boolean processor) {
     }
 }
@@ -0,0 +1,99 @@
+package vnikolaenko.github.jarch.generator.template;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Шаблон, разобранный один раз на литеральные части и подстановки ${name}
+ * Рендеринг сводится к последовательной записи частей в StringBuilder без повторного разбора текста
+ * Последовательность $${ выводится как литеральный ${
+ */
+public final class CompiledTemplate {
+
+    private final String name;
+    private final String[] literals;
+    private final String[] variables;
+    private final int literalLength;
+
+    private CompiledTemplate(String name, String[] literals, String[] variables) {
+        this.name = name;
+        this.literals = literals;
+        this.variables = variables;
+        this.literalLength = Arrays.stream(literals).mapToInt(String::length).sum();
+    }
+
+    /**
+     * Разбирает текст шаблона
+     *
+     * @throws IllegalArgumentException если подстановка не закрыта или имя переменной некорректно
+     */
+    public static CompiledTemplate compile(String name, String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+
+        int i = 0;
+        while (i < source.length()) {
+            if (source.startsWith("$${", i)) {
+                literal.append("${");
+                i += 3;
+            } else if (source.startsWith("${", i)) {
+                int end = source.indexOf('}', i + 2);
+                if (end == -1) {
+                    throw new IllegalArgumentException("Template " + name + ": unclosed placeholder at offset " + i);
+                }
+                String variable = source.substring(i + 2, end);
+                if (!variable.matches("[A-Za-z][A-Za-z0-9]*")) {
+                    throw new IllegalArgumentException("Template " + name + ": invalid placeholder ${" + variable + "}");
+                }
+                literals.add(literal.toString());
+                literal.setLength(0);
+                variables.add(variable);
+                i = end + 1;
+            } else {
+                literal.append(source.charAt(i++));
+            }
+        }
+        literals.add(literal.toString());
+
+        return new CompiledTemplate(name, literals.toArray(String[]::new), variables.toArray(String[]::new));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Переменные, используемые шаблоном
+     */
+    public Set<String> getVariables() {
+        return new LinkedHashSet<>(Arrays.asList(variables));
+    }
+
+    /**
+     * Дописывает результат в переданный буфер, что позволяет переиспользовать его между шаблонами
+     *
+     * @throws IllegalStateException если для переменной шаблона нет значения
+     */
+    public void render(Map<String, ?> model, StringBuilder out) {
+        for (int i = 0; i < variables.length; i++) {
+            out.append(literals[i]);
+            Object value = model.get(variables[i]);
+            if (value == null && !model.containsKey(variables[i])) {
+                throw new IllegalStateException("Template " + name + ": no value for ${" + variables[i] + "}");
+            }
+            out.append(value);
+        }
+        out.append(literals[variables.length]);
+    }
+
+    public String render(Map<String, ?> model) {
+        StringBuilder out = new StringBuilder(literalLength + variables.length * 16);
+        render(model, out);
+        return out.toString();
+    }
+}
@@ -3,26 +3,19 @@ package vnikolaenko.github.jarch.generator.template;
 import vnikolaenko.github.jarch.generator.config.ApplicationConfig;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+
 @Service
 public class DockerTemplate {
 
-    public static String generateDockerfile(ApplicationConfig config) {
+    public static String generateDockerfile(ApplicationConfig config, TemplateSet templates) {
         String buildCommand = config.getBuildTool() == ApplicationConfig.BuildTool.MAVEN ?
                 "./mvnw clean package" : "./gradlew clean build";
         String jarPath = config.getBuildTool() == ApplicationConfig.BuildTool.MAVEN ?
                 "target/*.jar" : "build/libs/*.jar";
 
-        return """
-            # Build stage
-            FROM maven:3.8.4-openjdk-17 AS build
-            COPY . .
-            RUN %s -DskipTests
-            
-            # Runtime stage
-            FROM openjdk:17-jdk-slim
-            COPY --from=build %s app.jar
-            EXPOSE 8080
-            ENTRYPOINT ["java", "-jar", "/app.jar"]
-            """.formatted(buildCommand, jarPath);
+        return templates.render(TemplateSet.DOCKERFILE, Map.of(
+                "buildCommand", buildCommand,
+                "jarPath", jarPath));
     }
 }
@@ -3,25 +3,12 @@ package vnikolaenko.github.jarch.generator.template;
 import vnikolaenko.github.jarch.generator.config.ApplicationConfig;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+
 @Service
 public class MainApplicationTemplate {
 
-    public static String generateMainApplication(ApplicationConfig config) {
-        String packageName = config.getBasePackage();
-
-        return """
-            package %s;
-            
-            import org.springframework.boot.SpringApplication;
-            import org.springframework.boot.autoconfigure.SpringBootApplication;
-            
-            @SpringBootApplication
-            public class MainApplication {
-                
-                public static void main(String[] args) {
-                    SpringApplication.run(MainApplication.class, args);
-                }
-            }
-            """.formatted(packageName);
+    public static String generateMainApplication(ApplicationConfig config, TemplateSet templates) {
+        return templates.render(TemplateSet.MAIN_APPLICATION, Map.of("packageName", config.getBasePackage()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,143 @@
+package vnikolaenko.github.jarch.generator.template;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Набор скомпилированных шаблонов файлов проекта
+ * Встроенные шаблоны читаются из classpath и компилируются один раз при загрузке класса;
+ * набор проекта - встроенные шаблоны, часть которых заменена пользовательскими
+ */
+public final class TemplateSet {
+
+    public static final String POM = "pom.xml";
+    public static final String BUILD_GRADLE = "build.gradle";
+    public static final String DOCKERFILE = "Dockerfile";
+    public static final String MAIN_APPLICATION = "MainApplication.java";
+    public static final String PROPERTIES_H2 = "application-h2.properties";
+    public static final String PROPERTIES_POSTGRESQL = "application-postgresql.properties";
+    public static final String YAML_H2 = "application-h2.yml";
+    public static final String YAML_POSTGRESQL = "application-postgresql.yml";
+    public static final String PROPERTIES_H2_REACTIVE = "application-h2-reactive.properties";
+    public static final String PROPERTIES_POSTGRESQL_REACTIVE = "application-postgresql-reactive.properties";
+    public static final String YAML_H2_REACTIVE = "application-h2-reactive.yml";
+    public static final String YAML_POSTGRESQL_REACTIVE = "application-postgresql-reactive.yml";
+
+    private static final List<String> NAMES = List.of(POM, BUILD_GRADLE, DOCKERFILE, MAIN_APPLICATION,
+            PROPERTIES_H2, PROPERTIES_POSTGRESQL, YAML_H2, YAML_POSTGRESQL, PROPERTIES_H2_REACTIVE,
+            PROPERTIES_POSTGRESQL_REACTIVE, YAML_H2_REACTIVE, YAML_POSTGRESQL_REACTIVE);
+
+    private static final String LOCATION = "templates/project/";
+
+    private static final TemplateSet BUILT_IN = loadBuiltIn();
+
+    private final Map<String, CompiledTemplate> templates;
+    private final String fingerprint;
+
+    private TemplateSet(Map<String, CompiledTemplate> templates, String fingerprint) {
+        this.templates = templates;
+        this.fingerprint = fingerprint;
+    }
+
+    public static TemplateSet builtIn() {
+        return BUILT_IN;
+    }
+
+    /**
+     * Имена шаблонов, которые можно переопределить
+     */
+    public static List<String> names() {
+        return NAMES;
+    }
+
+    /**
+     * Исходный текст встроенного шаблона
+     */
+    public static String builtInSource(String name) {
+        requireKnown(name);
+        try (InputStream in = TemplateSet.class.getClassLoader().getResourceAsStream(LOCATION + name + ".tmpl")) {
+            if (in == null) {
+                throw new IllegalStateException("Built-in template not found: " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read built-in template " + name, e);
+        }
+    }
+
+    /**
+     * Компилирует пользовательский шаблон
+     * Шаблон может использовать только переменные, которые передаются встроенному шаблону с тем же именем
+     *
+     * @throws IllegalArgumentException если имя неизвестно, шаблон некорректен или использует неизвестные переменные
+     */
+    public static CompiledTemplate compileOverride(String name, String source) {
+        requireKnown(name);
+        CompiledTemplate template = CompiledTemplate.compile(name, source);
+        Set<String> allowed = BUILT_IN.templates.get(name).getVariables();
+        for (String variable : template.getVariables()) {
+            if (!allowed.contains(variable)) {
+                throw new IllegalArgumentException("Template " + name + ": unknown variable ${" + variable
+                        + "}, available: " + allowed);
+            }
+        }
+        return template;
+    }
+
+    /**
+     * Набор, в котором часть встроенных шаблонов заменена
+     *
+     * @param fingerprint отпечаток переопределений, входит в ключ кэша генерации
+     */
+    public TemplateSet withOverrides(Map<String, CompiledTemplate> overrides, String fingerprint) {
+        if (overrides.isEmpty()) {
+            return this;
+        }
+        Map<String, CompiledTemplate> merged = new HashMap<>(templates);
+        merged.putAll(overrides);
+        return new TemplateSet(Map.copyOf(merged), fingerprint);
+    }
+
+    public String render(String name, Map<String, ?> model) {
+        return get(name).render(model);
+    }
+
+    public void render(String name, Map<String, ?> model, StringBuilder out) {
+        get(name).render(model, out);
+    }
+
+    /**
+     * Отпечаток переопределений; пустая строка для встроенного набора
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    private CompiledTemplate get(String name) {
+        CompiledTemplate template = templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown template: " + name);
+        }
+        return template;
+    }
+
+    private static void requireKnown(String name) {
+        if (!NAMES.contains(name)) {
+            throw new IllegalArgumentException("Unknown template: " + name + ", available: " + NAMES);
+        }
+    }
+
+    private static TemplateSet loadBuiltIn() {
+        Map<String, CompiledTemplate> templates = new LinkedHashMap<>();
+        for (String name : NAMES) {
+            templates.put(name, CompiledTemplate.compile(name, builtInSource(name)));
+        }
+        return new TemplateSet(Map.copyOf(templates), "");
+    }
+}
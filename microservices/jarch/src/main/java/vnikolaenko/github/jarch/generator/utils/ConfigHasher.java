@@ -0,0 +1,60 @@
+package vnikolaenko.github.jarch.generator.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Хэширование конфигураций по их нормализованному JSON представлению
+ * Порядок свойств и ключей в исходных файлах не влияет на результат
+ */
+public class ConfigHasher {
+
+    private static final ObjectMapper CANONICAL_MAPPER = JsonMapper.builder()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .build();
+
+    /**
+     * Вычисляет SHA-256 от последовательности частей
+     * Строки хэшируются как есть, остальные объекты - в нормализованном JSON
+     *
+     * @return хэш в шестнадцатеричном виде
+     */
+    public static String hash(Object... parts) {
+        MessageDigest digest = sha256();
+        for (Object part : parts) {
+            if (part instanceof String str) {
+                digest.update(str.getBytes(StandardCharsets.UTF_8));
+            } else {
+                digest.update(toCanonicalJson(part));
+            }
+            // Разделитель, чтобы ("ab", "c") и ("a", "bc") давали разные хэши
+            digest.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static byte[] toCanonicalJson(Object value) {
+        try {
+            return CANONICAL_MAPPER.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize configuration for hashing", e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
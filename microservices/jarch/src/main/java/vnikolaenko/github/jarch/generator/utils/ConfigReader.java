@@ -1,30 +1,366 @@
 package vnikolaenko.github.jarch.generator.utils;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.CascadeType;
+import jakarta.persistence.FetchType;
+import vnikolaenko.github.jarch.generator.auxiliary.TypeOfRelation;
 import vnikolaenko.github.jarch.generator.config.ApplicationConfig;
+import vnikolaenko.github.jarch.generator.config.BulkConfig;
 import vnikolaenko.github.jarch.generator.config.EntityConfig;
+import vnikolaenko.github.jarch.generator.config.IdGenerationConfig;
+import vnikolaenko.github.jarch.generator.config.MigrationConfig;
+import vnikolaenko.github.jarch.generator.config.PaginationConfig;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class ConfigReader {
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    // Потокобезопасны после настройки, поэтому общие для всех экземпляров
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final ObjectReader APPLICATION_CONFIG_READER = OBJECT_MAPPER.readerFor(ApplicationConfig.class);
+    private static final ObjectReader ENTITY_READER = OBJECT_MAPPER.readerFor(EntityConfig.EntityDefinition.class);
+
+    private static final Set<String> RELATION_TYPES = new LinkedHashSet<>();
+    private static final Set<String> FETCH_TYPES = new LinkedHashSet<>();
+    private static final Set<String> CASCADE_TYPES = new LinkedHashSet<>();
+
+    static {
+        for (TypeOfRelation type : TypeOfRelation.values()) {
+            RELATION_TYPES.add(type.name());
+        }
+        for (FetchType type : FetchType.values()) {
+            FETCH_TYPES.add(type.name());
+        }
+        for (CascadeType type : CascadeType.values()) {
+            CASCADE_TYPES.add(type.name());
+        }
+    }
 
     public ApplicationConfig readApplicationConfig(String configPath) throws IOException {
-        String content = Files.readString(Paths.get(configPath));
-        return objectMapper.readValue(content, ApplicationConfig.class);
+        try (InputStream in = Files.newInputStream(Paths.get(configPath))) {
+            return validate(APPLICATION_CONFIG_READER.readValue(in));
+        }
     }
 
     public EntityConfig readEntityConfig(String configPath) throws IOException {
-        String content = Files.readString(Paths.get(configPath));
-        return objectMapper.readValue(content, EntityConfig.class);
+        try (JsonParser parser = OBJECT_MAPPER.createParser(Files.newInputStream(Paths.get(configPath)))) {
+            return readEntityConfig(parser);
+        }
+    }
+
+    // Чтение конфигураций напрямую из содержимого (например, скачанного из MinIO)
+    public ApplicationConfig readApplicationConfig(byte[] content) throws IOException {
+        return validate(APPLICATION_CONFIG_READER.<ApplicationConfig>readValue(content));
+    }
+
+    public EntityConfig readEntityConfig(byte[] content) throws IOException {
+        try (JsonParser parser = OBJECT_MAPPER.createParser(content)) {
+            return readEntityConfig(parser);
+        }
     }
 
     // Для обратной совместимости
     public EntityConfig readConfig(String configFile) throws IOException {
         return readEntityConfig(configFile);
     }
+
+    private static ApplicationConfig validate(ApplicationConfig config) throws ConfigValidationException {
+        if (config.getMappingStrategy() == null) {
+            config.setMappingStrategy(ApplicationConfig.MappingStrategy.MODEL_MAPPER);
+        }
+        if (config.getConcurrencyModel() == null) {
+            config.setConcurrencyModel(ApplicationConfig.ConcurrencyModel.PLATFORM);
+        }
+        IdGenerationConfig idGeneration = config.getIdGeneration();
+        if (idGeneration == null) {
+            config.setIdGeneration(new IdGenerationConfig());
+        } else if (idGeneration.getStrategy() == null) {
+            throw new ConfigValidationException("/idGeneration/strategy", "must not be null");
+        } else if (idGeneration.getAllocationSize() < 1) {
+            throw new ConfigValidationException("/idGeneration/allocationSize", "must be positive");
+        }
+        if (config.getDatabaseConfig() != null && config.getDatabaseConfig().getBatchSize() < 1) {
+            throw new ConfigValidationException("/database/batchSize", "must be positive");
+        }
+        if (config.getDatabaseConfig() != null && config.getDatabaseConfig().getPoolSize() < 1) {
+            throw new ConfigValidationException("/database/poolSize", "must be positive");
+        }
+        PaginationConfig pagination = config.getPagination();
+        if (pagination == null) {
+            config.setPagination(new PaginationConfig());
+        } else if (pagination.getDefaultPageSize() < 1) {
+            throw new ConfigValidationException("/pagination/defaultPageSize", "must be positive");
+        } else if (pagination.getMaxPageSize() < pagination.getDefaultPageSize()) {
+            throw new ConfigValidationException("/pagination/maxPageSize",
+                    "must not be less than defaultPageSize " + pagination.getDefaultPageSize());
+        }
+        BulkConfig bulk = config.getBulk();
+        if (bulk == null) {
+            config.setBulk(new BulkConfig());
+        } else if (bulk.getChunkSize() < 1) {
+            throw new ConfigValidationException("/bulk/chunkSize", "must be positive");
+        }
+        MigrationConfig migrations = config.getMigrations();
+        if (migrations == null) {
+            config.setMigrations(new MigrationConfig());
+        } else if (migrations.getTool() == null) {
+            throw new ConfigValidationException("/migrations/tool", "must not be null");
+        }
+        if (config.getStack() == null) {
+            config.setStack(ApplicationConfig.Stack.SERVLET);
+        } else if (config.getStack() == ApplicationConfig.Stack.REACTIVE) {
+            validateReactive(config);
+        }
+        return config;
+    }
+
+    /**
+     * Возможности, которые сгенерированный реактивный проект не поддерживает: миграции построены на JDBC,
+     * а виртуальные потоки не нужны WebFlux. Массовые операции сводятся к /batch (см. {@link BulkConfig})
+     */
+    private static void validateReactive(ApplicationConfig config) throws ConfigValidationException {
+        if (config.getMigrations().getTool() != MigrationConfig.Tool.NONE) {
+            throw new ConfigValidationException("/migrations/tool", "is not supported by the REACTIVE stack");
+        }
+        if (config.getConcurrencyModel() == ApplicationConfig.ConcurrencyModel.VIRTUAL_THREADS) {
+            throw new ConfigValidationException("/concurrencyModel", "applies to the SERVLET stack only");
+        }
+    }
+
+    /**
+     * Потоковое чтение конфигурации сущностей: сущности связываются по одной и проверяются сразу,
+     * чтение прерывается на первой ошибке
+     * Проверяются типы связей, ссылки targetEntity на объявленные сущности и уникальность имен
+     *
+     * @throws ConfigValidationException с JSON Pointer на первую найденную ошибку
+     */
+    private EntityConfig readEntityConfig(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new ConfigValidationException("", "expected JSON object");
+        }
+
+        List<EntityConfig.EntityDefinition> entities = null;
+        Map<String, String> targetReferences = new LinkedHashMap<>();
+        Set<String> entityNames = new HashSet<>();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String property = parser.currentName();
+            parser.nextToken();
+            if (!"entities".equals(property)) {
+                throw new ConfigValidationException(pointer(property), "unknown property");
+            }
+            if (parser.currentToken() != JsonToken.START_ARRAY) {
+                throw new ConfigValidationException("/entities", "expected array");
+            }
+
+            entities = new ArrayList<>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                int index = entities.size();
+                EntityConfig.EntityDefinition entity = readEntity(parser, index);
+                validateEntity(entity, index, entityNames, targetReferences);
+                entities.add(entity);
+            }
+        }
+
+        if (entities == null) {
+            throw new ConfigValidationException("/entities", "entities array is required");
+        }
+
+        for (Map.Entry<String, String> reference : targetReferences.entrySet()) {
+            if (!entityNames.contains(reference.getValue())) {
+                throw new ConfigValidationException(reference.getKey(),
+                        "targetEntity '" + reference.getValue() + "' is not declared");
+            }
+        }
+
+        EntityConfig config = new EntityConfig();
+        config.setEntities(entities);
+        return config;
+    }
+
+    private static EntityConfig.EntityDefinition readEntity(JsonParser parser, int index) throws IOException {
+        try {
+            return ENTITY_READER.readValue(parser);
+        } catch (JsonMappingException e) {
+            StringBuilder path = new StringBuilder("/entities/" + index);
+            for (JsonMappingException.Reference reference : e.getPath()) {
+                path.append(reference.getFieldName() != null
+                        ? pointer(reference.getFieldName())
+                        : "/" + reference.getIndex());
+            }
+            throw new ConfigValidationException(path.toString(), e.getOriginalMessage());
+        }
+    }
+
+    private static void validateEntity(EntityConfig.EntityDefinition entity, int index, Set<String> entityNames,
+                                       Map<String, String> targetReferences) throws ConfigValidationException {
+        String entityPointer = "/entities/" + index;
+        if (entity == null) {
+            throw new ConfigValidationException(entityPointer, "entity must be an object");
+        }
+        if (entity.getName() == null || entity.getName().isBlank()) {
+            throw new ConfigValidationException(entityPointer + "/name", "entity name is required");
+        }
+        if (!entityNames.add(entity.getName())) {
+            throw new ConfigValidationException(entityPointer + "/name",
+                    "duplicate entity name '" + entity.getName() + "'");
+        }
+        List<EntityConfig.FieldDefinition> fields = entity.getFields() != null ? entity.getFields() : List.of();
+        Set<String> fieldNames = new HashSet<>();
+        for (int i = 0; i < fields.size(); i++) {
+            EntityConfig.FieldDefinition field = fields.get(i);
+            String fieldPointer = entityPointer + "/fields/" + i;
+            if (field.getName() == null || field.getName().isBlank()) {
+                throw new ConfigValidationException(fieldPointer + "/name", "field name is required");
+            }
+            if (!fieldNames.add(field.getName())) {
+                throw new ConfigValidationException(fieldPointer + "/name",
+                        "duplicate field name '" + field.getName() + "' in entity '" + entity.getName() + "'");
+            }
+
+            if ((field.isIndexed() || field.isUnique()) && !isColumn(field)) {
+                throw new ConfigValidationException(fieldPointer + (field.isUnique() ? "/unique" : "/indexed"),
+                        "field '" + field.getName() + "' is not a column of entity '" + entity.getName() + "'");
+            }
+
+            EntityConfig.RelationDefinition relation = field.getRelation();
+            if (relation == null) {
+                continue;
+            }
+            if (!RELATION_TYPES.contains(relation.getType())) {
+                throw new ConfigValidationException(fieldPointer + "/relation/type",
+                        "unknown relation type '" + relation.getType() + "', expected one of " + RELATION_TYPES);
+            }
+            if (relation.getFetchType() != null && !FETCH_TYPES.contains(relation.getFetchType())) {
+                throw new ConfigValidationException(fieldPointer + "/relation/fetchType",
+                        "unknown fetch type '" + relation.getFetchType() + "', expected one of " + FETCH_TYPES);
+            }
+            if (relation.getCascadeType() != null) {
+                for (String cascadeType : relation.getCascadeType().split(",")) {
+                    if (!CASCADE_TYPES.contains(cascadeType.trim())) {
+                        throw new ConfigValidationException(fieldPointer + "/relation/cascadeType",
+                                "unknown cascade type '" + cascadeType.trim() + "', expected one of " + CASCADE_TYPES);
+                    }
+                }
+            }
+            if (relation.getTargetEntity() != null) {
+                // Сущность может быть объявлена позже, поэтому ссылки проверяются после чтения всего массива
+                targetReferences.put(fieldPointer + "/relation/targetEntity", relation.getTargetEntity());
+            }
+        }
+
+        validateKeyset(entity, entityPointer);
+        validateCache(entity, entityPointer);
+        validateIndexes(entity, entityPointer);
+    }
+
+    /**
+     * Составной индекс может включать только поля, хранимые в таблице сущности, каждое не больше одного раза
+     */
+    private static void validateIndexes(EntityConfig.EntityDefinition entity, String entityPointer)
+            throws ConfigValidationException {
+        if (entity.getIndexes() == null) {
+            return;
+        }
+        Map<String, EntityConfig.FieldDefinition> fields = new LinkedHashMap<>();
+        if (entity.getFields() != null) {
+            entity.getFields().forEach(field -> fields.put(field.getName(), field));
+        }
+        for (int i = 0; i < entity.getIndexes().size(); i++) {
+            String indexPointer = entityPointer + "/indexes/" + i;
+            List<String> indexFields = entity.getIndexes().get(i).getFields();
+            if (indexFields == null || indexFields.isEmpty()) {
+                throw new ConfigValidationException(indexPointer + "/fields", "index must list at least one field");
+            }
+            Set<String> seen = new HashSet<>();
+            for (int j = 0; j < indexFields.size(); j++) {
+                String name = indexFields.get(j);
+                String pointer = indexPointer + "/fields/" + j;
+                EntityConfig.FieldDefinition field = fields.get(name);
+                if (field == null) {
+                    throw new ConfigValidationException(pointer, "field '" + name + "' is not declared");
+                }
+                if (!isColumn(field)) {
+                    throw new ConfigValidationException(pointer, "field '" + name + "' is not a column of entity '"
+                            + entity.getName() + "'");
+                }
+                if (!seen.add(name)) {
+                    throw new ConfigValidationException(pointer, "duplicate field '" + name + "' in index");
+                }
+            }
+        }
+    }
+
+    /**
+     * Хранится ли поле в колонке таблицы сущности: скалярное поле или внешний ключ связи "к одному"
+     */
+    private static boolean isColumn(EntityConfig.FieldDefinition field) {
+        if (field.getRelation() == null) {
+            return !TypeMapper.isCollectionType(field.getType());
+        }
+        String relationType = field.getRelation().getType();
+        return TypeOfRelation.MANY_TO_ONE.name().equals(relationType)
+                || TypeOfRelation.ONE_TO_ONE.name().equals(relationType);
+    }
+
+    private static void validateCache(EntityConfig.EntityDefinition entity, String entityPointer)
+            throws ConfigValidationException {
+        EntityConfig.CacheDefinition cache = entity.getCache();
+        if (cache == null) {
+            return;
+        }
+        if (cache.getMaximumSize() < 1) {
+            throw new ConfigValidationException(entityPointer + "/cache/maximumSize", "must be positive");
+        }
+        if (cache.getTtlSeconds() < 1) {
+            throw new ConfigValidationException(entityPointer + "/cache/ttlSeconds", "must be positive");
+        }
+    }
+
+    /**
+     * Поле сортировки курсора должно быть обязательным скалярным полем: строки с null выпали бы из выдачи
+     */
+    private static void validateKeyset(EntityConfig.EntityDefinition entity, String entityPointer)
+            throws ConfigValidationException {
+        if (entity.getKeyset() == null || entity.getKeyset().getSortField() == null) {
+            return;
+        }
+        String sortField = entity.getKeyset().getSortField();
+        String pointer = entityPointer + "/keyset/sortField";
+        EntityConfig.FieldDefinition field = entity.getFields() == null ? null : entity.getFields().stream()
+                .filter(f -> sortField.equals(f.getName()))
+                .findFirst()
+                .orElse(null);
+        if (field == null) {
+            throw new ConfigValidationException(pointer, "field '" + sortField + "' is not declared");
+        }
+        if (field.getRelation() != null || TypeMapper.isCollectionType(field.getType())) {
+            throw new ConfigValidationException(pointer, "field '" + sortField + "' must be a scalar column");
+        }
+        if (!field.isRequired()) {
+            throw new ConfigValidationException(pointer, "field '" + sortField + "' must be required");
+        }
+    }
+
+    /**
+     * Сегмент JSON Pointer с экранированием по RFC 6901
+     */
+    private static String pointer(String property) {
+        return "/" + property.replace("~", "~0").replace("/", "~1");
+    }
 }
@@ -0,0 +1,21 @@
+package vnikolaenko.github.jarch.generator.utils;
+
+import java.io.IOException;
+
+/**
+ * Ошибка в конфигурации приложения или сущностей
+ * Содержит JSON Pointer на место ошибки, например /entities/2/fields/0/relation/type
+ */
+public class ConfigValidationException extends IOException {
+
+    private final String pointer;
+
+    public ConfigValidationException(String pointer, String message) {
+        super("Invalid config at " + (pointer.isEmpty() ? "/" : pointer) + ": " + message);
+        this.pointer = pointer;
+    }
+
+    public String getPointer() {
+        return pointer;
+    }
+}
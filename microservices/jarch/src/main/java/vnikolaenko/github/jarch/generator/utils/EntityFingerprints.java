@@ -0,0 +1,64 @@
+package vnikolaenko.github.jarch.generator.utils;
+
+import vnikolaenko.github.jarch.generator.config.ApplicationConfig;
+import vnikolaenko.github.jarch.generator.config.EntityConfig;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Отпечатки сущностей для инкрементальной генерации
+ * Отпечаток зависит от настроек приложения, определения самой сущности
+ * и определений сущностей, на которые она ссылается через отношения
+ */
+public class EntityFingerprints {
+
+    /**
+     * Вычисляет отпечатки всех сущностей конфигурации
+     *
+     * @return имя сущности -> отпечаток, в порядке объявления
+     */
+    public static Map<String, String> compute(ApplicationConfig appConfig, EntityConfig entityConfig) {
+        Map<String, EntityConfig.EntityDefinition> definitions = new LinkedHashMap<>();
+        for (EntityConfig.EntityDefinition entityDef : entityConfig.getEntities()) {
+            definitions.put(entityDef.getName(), entityDef);
+        }
+
+        String appHash = ConfigHasher.hash(appConfig);
+        Map<String, String> fingerprints = new LinkedHashMap<>();
+        for (EntityConfig.EntityDefinition entityDef : definitions.values()) {
+            fingerprints.put(entityDef.getName(),
+                    ConfigHasher.hash(appHash, entityDef, relationTargets(entityDef, definitions)));
+        }
+        return fingerprints;
+    }
+
+    /**
+     * Определения сущностей, на которые ссылаются отношения, упорядоченные по имени
+     */
+    private static Map<String, EntityConfig.EntityDefinition> relationTargets(
+            EntityConfig.EntityDefinition entityDef, Map<String, EntityConfig.EntityDefinition> definitions) {
+        Map<String, EntityConfig.EntityDefinition> targets = new TreeMap<>();
+        if (entityDef.getFields() == null) {
+            return targets;
+        }
+
+        for (EntityConfig.FieldDefinition fieldDef : entityDef.getFields()) {
+            if (fieldDef.getRelation() == null) {
+                continue;
+            }
+            String targetName = fieldDef.getRelation().getTargetEntity() != null
+                    ? fieldDef.getRelation().getTargetEntity()
+                    : TypeMapper.isCollectionType(fieldDef.getType())
+                    ? TypeMapper.extractGenericType(fieldDef.getType())
+                    : fieldDef.getType();
+
+            EntityConfig.EntityDefinition target = definitions.get(targetName);
+            if (target != null && !targetName.equals(entityDef.getName())) {
+                targets.put(targetName, target);
+            }
+        }
+        return targets;
+    }
+}
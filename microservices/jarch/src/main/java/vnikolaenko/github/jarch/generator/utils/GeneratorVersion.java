@@ -0,0 +1,83 @@
+package vnikolaenko.github.jarch.generator.utils;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Версия генератора - отпечаток классов пакета generator и встроенных шаблонов проекта
+ * Меняется при любом изменении кода генерации или шаблонов, поэтому кэш результатов
+ * не может вернуть проект, собранный старой версией генератора
+ */
+@Slf4j
+@Getter
+@Component
+public class GeneratorVersion {
+
+    private static final String GENERATOR_ROOT = "vnikolaenko/github/jarch/generator/";
+    private static final String TEMPLATES_ROOT = "templates/project/";
+    private static final String GENERATOR_CLASSES = "classpath*:" + GENERATOR_ROOT + "**/*.class";
+    private static final String BUILT_IN_TEMPLATES = "classpath*:" + TEMPLATES_ROOT + "**/*.tmpl";
+
+    private final String version;
+
+    public GeneratorVersion() throws IOException {
+        this.version = computeVersion();
+        log.info("Версия генератора: {}", version);
+    }
+
+    private static String computeVersion() throws IOException {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        List<Resource> resources = new ArrayList<>();
+        resources.addAll(Arrays.asList(resolver.getResources(GENERATOR_CLASSES)));
+        resources.addAll(Arrays.asList(resolver.getResources(BUILT_IN_TEMPLATES)));
+        resources.sort(Comparator.comparing(GeneratorVersion::describe));
+
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[8192];
+        for (Resource resource : resources) {
+            digest.update(describe(resource).getBytes());
+            try (InputStream in = resource.getInputStream()) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest()).substring(0, 16);
+    }
+
+    private static String describe(Resource resource) {
+        String path = String.valueOf(resource.getFilename());
+        try {
+            String url = resource.getURL().toString();
+            int index = url.lastIndexOf(GENERATOR_ROOT);
+            if (index < 0) {
+                index = url.lastIndexOf(TEMPLATES_ROOT);
+            }
+            return index >= 0 ? url.substring(index) : path;
+        } catch (IOException e) {
+            return path;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
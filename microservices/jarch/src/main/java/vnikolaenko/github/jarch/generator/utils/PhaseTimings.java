@@ -0,0 +1,83 @@
+package vnikolaenko.github.jarch.generator.utils;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Время, затраченное на каждую фазу одной генерации
+ * Фазы, выполняемые параллельно (генераторы сущностей), суммируются по всем потокам
+ */
+public class PhaseTimings {
+
+    public static final String CONFIG = "config";
+    public static final String CACHE_LOOKUP = "cache-lookup";
+    public static final String BUILD_TEMPLATE = "build-template";
+    public static final String DOCKER_TEMPLATE = "docker-template";
+    public static final String APPLICATION_FILES = "application-files";
+    public static final String SHARED_COMPONENTS = "shared-components";
+    public static final String MIGRATIONS = "migrations";
+    public static final String MODEL = "model";
+    public static final String DTO = "dto";
+    public static final String MAPPER = "mapper";
+    public static final String REPOSITORY = "repository";
+    public static final String SERVICE = "service";
+    public static final String CONTROLLER = "controller";
+    public static final String ZIP = "zip";
+    public static final String CACHE_STORE = "cache-store";
+
+    private final Map<String, Phase> phases = new ConcurrentHashMap<>();
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    public void time(String phase, Runnable action) {
+        time(phase, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public <T> T time(String phase, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            record(phase, System.nanoTime() - start);
+        }
+    }
+
+    public void record(String phase, long durationNanos) {
+        phases.computeIfAbsent(phase, p -> new Phase(sequence.getAndIncrement(), new LongAdder()))
+                .nanos().add(durationNanos);
+    }
+
+    /**
+     * Длительности фаз в наносекундах в порядке первого выполнения
+     */
+    public Map<String, Long> getNanos() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        phases.entrySet().stream()
+                .sorted(Comparator.comparingInt(entry -> entry.getValue().order()))
+                .forEach(entry -> result.put(entry.getKey(), entry.getValue().nanos().sum()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Длительности фаз в миллисекундах (для журнала и итогового события)
+     */
+    public Map<String, Long> getMillis() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        getNanos().forEach((phase, value) -> result.put(phase, value / 1_000_000));
+        return result;
+    }
+
+    /**
+     * Порядковый номер фазы назначается вместе с ее счетчиком, поэтому номера не повторяются
+     */
+    private record Phase(int order, LongAdder nanos) {
+    }
+}
@@ -0,0 +1,75 @@
+package vnikolaenko.github.jarch.generator.utils;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Зарезервированные слова SQL поддерживаемых баз (H2 2.x, PostgreSQL, MySQL 8)
+ * Сгенерированный проект использует одни имена таблиц и колонок во всех диалектах сразу
+ * (JPA, миграции, schema.sql и запросы репозиториев), поэтому имя, зарезервированное хотя бы в одной базе,
+ * везде берется в кавычки. Остальные имена остаются без кавычек, чтобы не менять их регистр в H2
+ */
+public class SqlKeywords {
+
+    private static final Set<String> RESERVED = Set.of("""
+            accessible add all alter analyse analyze and any array as asc asensitive asymmetric authorization
+            before between bigint binary blob both by call cascade case cast change char character check collate
+            column condition constraint continue convert create cross cube cume_dist current_catalog current_date
+            current_path current_role current_schema current_time current_timestamp current_user cursor database
+            databases day day_hour day_microsecond day_minute day_second dec decimal declare default deferrable
+            delayed delete dense_rank desc describe deterministic distinct distinctrow div do double drop dual each
+            else elseif empty enclosed end escaped except exists exit explain false fetch first_value float float4
+            float8 for force foreign from full fulltext function generated get grant group groups having
+            high_priority hour hour_microsecond hour_minute hour_second if ignore ilike in index infile initially
+            inner inout insensitive insert int int1 int2 int3 int4 int8 integer intersect interval into
+            io_after_gtids io_before_gtids is iterate join json_table key keys kill lag last_value lateral lead
+            leading leave left like limit linear lines load localtime localtimestamp lock long longblob longtext
+            loop low_priority master_bind master_ssl_verify_server_cert match maxvalue mediumblob mediumint
+            mediumtext middleint minus minute minute_microsecond minute_second mod modifies month natural not
+            no_write_to_binlog nth_value ntile null numeric of offset on only optimize optimizer_costs option
+            optionally or order out outer outfile over partition percent_rank placing precision primary procedure
+            purge qualify range rank read reads read_write real recursive references regexp release rename repeat
+            replace require resignal restrict return returning revoke right rlike row rownum rows row_number
+            schema schemas second second_microsecond select sensitive separator session_user set show signal
+            smallint some spatial specific sql sqlexception sqlstate sqlwarning sql_big_result
+            sql_calc_found_rows sql_small_result ssl starting stored straight_join symmetric system system_user
+            table terminated then tinyblob tinyint tinytext to top trailing trigger true uescape undo union unique
+            unknown unlock unsigned update usage use user using utc_date utc_time utc_timestamp value values
+            varbinary varchar varcharacter variadic varying virtual when where while window with write xor year
+            year_month zerofill _rowid_
+            """.trim().split("\\s+"));
+
+    /**
+     * Зарезервировано ли имя таблицы или колонки хотя бы в одной из поддерживаемых баз
+     *
+     * @param identifier имя в snake_case, как оно попадает в SQL
+     */
+    public static boolean isReserved(String identifier) {
+        return RESERVED.contains(identifier.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Имя таблицы или колонки для SQL и аннотаций модели: зарезервированное слово в кавычках ANSI,
+     * которые Hibernate сам заменяет на кавычки диалекта
+     */
+    public static String quote(String identifier) {
+        return quote(identifier, '"');
+    }
+
+    /**
+     * Имя в кавычках ANSI, зарезервировано оно или нет: так все имена пишет Spring Data R2DBC
+     * сгенерированного реактивного проекта (forceQuote), и так же их пишут запросы в обход Spring Data
+     */
+    public static String quoteAlways(String identifier) {
+        return '"' + identifier + '"';
+    }
+
+    /**
+     * Имя таблицы или колонки для SQL конкретной базы
+     *
+     * @param quote символ кавычек диалекта: " по стандарту, ` в MySQL
+     */
+    public static String quote(String identifier, char quote) {
+        return isReserved(identifier) ? quote + identifier + quote : identifier;
+    }
+}
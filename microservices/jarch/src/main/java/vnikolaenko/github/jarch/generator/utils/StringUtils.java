@@ -19,6 +19,19 @@ public class StringUtils {
         return str.substring(0, 1).toUpperCase() + str.substring(1);
     }
 
+    /**
+     * Преобразует первую букву строки в нижний регистр
+     *
+     * @param str исходная строка
+     * @return строка с первой буквой в нижнем регистре
+     */
+    public static String uncapitalizeFirst(String str) {
+        if (str == null || str.isEmpty()) {
+            return str;
+        }
+        return str.substring(0, 1).toLowerCase() + str.substring(1);
+    }
+
     /**
      * Преобразует строку в snake_case формат
      *
@@ -3,177 +3,232 @@ package vnikolaenko.github.jarch.generator.utils;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
+import vnikolaenko.github.jarch.generator.config.ApplicationConfig;
+import vnikolaenko.github.jarch.generator.config.EntityConfig;
+import vnikolaenko.github.jarch.generator.config.IdGenerationConfig;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 
 /**
  * Маппер типов для преобразования строковых типов в Java TypeName
  * Обеспечивает соответствие между типами полей и Java типами
+ * <p>
+ * Экземпляр создается один раз на генерацию: все типы полей конфигурации разбираются заранее,
+ * поэтому поиск в генераторах сводится к чтению из неизменяемой таблицы без аллокаций
  */
 public class TypeMapper {
 
+    private static final ResolvedType STRING = basic(ClassName.get(String.class));
+    private static final ClassName LIST = ClassName.get(List.class);
+    private static final ClassName OBJECT = ClassName.get(Object.class);
+
     /**
-     * Преобразует строковый тип в соответствующий Java TypeName
-     *
-     * @param fieldType строковое представление типа
-     * @param basePackage базовый пакет приложения
-     * @return соответствующий TypeName
+     * Базовые типы по имени в нижнем регистре, общие для всех генераций (TypeName неизменяемы)
      */
-    public static TypeName getJavaType(String fieldType, String basePackage) {
-        if (fieldType == null || fieldType.isEmpty()) {
-            return ClassName.get(String.class);
-        }
-
-        String lowerType = fieldType.toLowerCase().trim();
+    private static final Map<String, ResolvedType> BASIC_TYPES = Map.ofEntries(
+            Map.entry("string", STRING),
+            Map.entry("text", STRING),
+            Map.entry("varchar", STRING),
+            Map.entry("integer", basic(ClassName.get(Integer.class))),
+            Map.entry("int", basic(ClassName.get(Integer.class))),
+            Map.entry("long", basic(ClassName.get(Long.class))),
+            Map.entry("double", basic(ClassName.get(Double.class))),
+            Map.entry("float", basic(ClassName.get(Float.class))),
+            Map.entry("boolean", basic(ClassName.get(Boolean.class))),
+            Map.entry("bool", basic(ClassName.get(Boolean.class))),
+            Map.entry("date", basic(ClassName.get(java.util.Date.class))),
+            Map.entry("datetime", basic(ClassName.get(java.time.LocalDateTime.class))),
+            Map.entry("localdatetime", basic(ClassName.get(java.time.LocalDateTime.class))),
+            Map.entry("localdate", basic(ClassName.get(java.time.LocalDate.class))),
+            Map.entry("localtime", basic(ClassName.get(java.time.LocalTime.class))),
+            Map.entry("bigdecimal", basic(ClassName.get(java.math.BigDecimal.class))),
+            Map.entry("timestamp", basic(ClassName.get(java.sql.Timestamp.class))));
 
-        // Обработка коллекционных типов (List<T>, Set<T>, Collection<T>)
-        if (fieldType.contains("<") && fieldType.contains(">")) {
-            return parseCollectionType(fieldType, basePackage);
+    /**
+     * Коллекции по имени в нижнем регистре; неизвестная коллекция считается списком
+     */
+    private static final Map<String, ClassName> COLLECTION_TYPES = Map.of(
+            "list", LIST,
+            "set", ClassName.get(Set.class),
+            "collection", ClassName.get(Collection.class));
+
+    private final String basePackage;
+    private final TypeName idType;
+    private final Map<String, ResolvedType> aliases;
+    private final Map<String, ResolvedType> resolved;
+
+    private TypeMapper(String basePackage, TypeName idType, Map<String, String> typeAliases,
+                       Iterable<String> fieldTypes) {
+        this.basePackage = basePackage;
+        this.idType = idType;
+
+        Map<String, ResolvedType> aliasTypes = new HashMap<>();
+        if (typeAliases != null) {
+            typeAliases.forEach((alias, target) -> aliasTypes.put(normalize(alias), resolveAlias(alias, target)));
         }
+        this.aliases = Map.copyOf(aliasTypes);
+
+        // Одинаковые строки типов и сущности разбираются один раз: TypeName общие для всех полей
+        Map<String, ResolvedType> types = new HashMap<>();
+        Map<String, ResolvedType> byNormalized = new HashMap<>();
+        for (String fieldType : fieldTypes) {
+            if (fieldType != null && !fieldType.isEmpty() && !types.containsKey(fieldType)) {
+                types.put(fieldType, byNormalized.computeIfAbsent(normalize(fieldType), key -> resolveType(fieldType)));
+            }
+        }
+        this.resolved = Map.copyOf(types);
+    }
 
-        // Обработка базовых типов
-        switch (lowerType) {
-            case "string":
-            case "text":
-            case "varchar":
-                return ClassName.get(String.class);
-
-            case "integer":
-            case "int":
-                return ClassName.get(Integer.class);
-
-            case "long":
-                return ClassName.get(Long.class);
-
-            case "double":
-                return ClassName.get(Double.class);
-
-            case "float":
-                return ClassName.get(Float.class);
-
-            case "boolean":
-            case "bool":
-                return ClassName.get(Boolean.class);
-
-            case "date":
-                return ClassName.get(java.util.Date.class);
-
-            case "datetime":
-            case "localdatetime":
-                return ClassName.get(java.time.LocalDateTime.class);
-
-            case "localdate":
-                return ClassName.get(java.time.LocalDate.class);
-
-            case "localtime":
-                return ClassName.get(java.time.LocalTime.class);
-
-            case "bigdecimal":
-                return ClassName.get(java.math.BigDecimal.class);
-
-            case "timestamp":
-                return ClassName.get(java.sql.Timestamp.class);
-
-            case "list":
-                return ParameterizedTypeName.get(ClassName.get(List.class), ClassName.get(Object.class));
+    /**
+     * Строит таблицу типов для генерации проекта
+     * Разбираются все типы полей конфигурации с учетом псевдонимов из настроек приложения
+     */
+    public static TypeMapper forProject(ApplicationConfig appConfig, EntityConfig entityConfig) {
+        List<String> fieldTypes = entityConfig.getEntities().stream()
+                .filter(entity -> entity.getFields() != null)
+                .flatMap(entity -> entity.getFields().stream())
+                .map(EntityConfig.FieldDefinition::getType)
+                .toList();
+        TypeName idType = appConfig.getIdGeneration().getStrategy() == IdGenerationConfig.Strategy.UUID_V7
+                ? ClassName.get(UUID.class)
+                : ClassName.get(Long.class);
+        return new TypeMapper(appConfig.getBasePackage(), idType, appConfig.getTypeAliases(), fieldTypes);
+    }
 
-            case "set":
-                return ParameterizedTypeName.get(ClassName.get(Set.class), ClassName.get(Object.class));
+    /**
+     * Таблица без заранее разобранных типов, типы разбираются при каждом обращении; id имеют тип Long
+     */
+    public static TypeMapper of(String basePackage) {
+        return new TypeMapper(basePackage, ClassName.get(Long.class), Map.of(), List.of());
+    }
 
-            case "collection":
-                return ParameterizedTypeName.get(ClassName.get(Collection.class), ClassName.get(Object.class));
+    /**
+     * Тип первичного ключа всех сущностей проекта: Long или UUID для стратегии UUID_V7
+     */
+    public TypeName getIdType() {
+        return idType;
+    }
 
-            default:
-                // Если тип не базовый, предполагаем что это имя класса сущности
-                String className = StringUtils.capitalizeFirst(fieldType);
-                return ClassName.get(basePackage + ".model", className);
+    /**
+     * Возвращает разобранный тип поля
+     * Типы, отсутствовавшие в конфигурации при создании таблицы, разбираются заново при каждом вызове
+     *
+     * @param fieldType строковое представление типа
+     */
+    public ResolvedType resolve(String fieldType) {
+        if (fieldType == null || fieldType.isEmpty()) {
+            return STRING;
         }
+        ResolvedType type = resolved.get(fieldType);
+        return type != null ? type : resolveType(fieldType);
     }
 
     /**
-     * Парсит коллекционные типы (List<T>, Set<T>, Collection<T>)
+     * Преобразует строковый тип в соответствующий Java TypeName
+     *
+     * @param fieldType строковое представление типа
+     * @return соответствующий TypeName
      */
-    private static TypeName parseCollectionType(String fieldType, String basePackage) {
-        try {
-            // Извлекаем основной тип коллекции и generic параметр
-            int genericStart = fieldType.indexOf("<");
-            int genericEnd = fieldType.lastIndexOf(">");
-
-            if (genericStart == -1 || genericEnd == -1) {
-                return ParameterizedTypeName.get(ClassName.get(List.class), ClassName.get(Object.class));
-            }
+    public TypeName getJavaType(String fieldType) {
+        return resolve(fieldType).typeName();
+    }
 
-            String collectionType = fieldType.substring(0, genericStart).trim();
-            String genericType = fieldType.substring(genericStart + 1, genericEnd).trim();
+    /**
+     * Проверяет, является ли тип базовым (хранимым в колонке, а не отношением)
+     */
+    public boolean isBasic(String fieldType) {
+        return resolve(fieldType).basic();
+    }
 
-            // Получаем TypeName для generic параметра
-            TypeName genericTypeName = getJavaType(genericType, basePackage);
+    private ResolvedType resolveType(String fieldType) {
+        String type = fieldType.trim();
+        if (type.isEmpty()) {
+            return STRING;
+        }
+        int genericStart = type.indexOf('<');
+        int genericEnd = type.lastIndexOf('>');
 
-            // Создаем ParameterizedTypeName для коллекции
-            switch (collectionType.toLowerCase()) {
-                case "list":
-                    return ParameterizedTypeName.get(ClassName.get(List.class), genericTypeName);
+        // Обработка коллекционных типов (List<T>, Set<T>, Collection<T>)
+        if (genericStart != -1 && genericEnd > genericStart) {
+            ClassName collection = COLLECTION_TYPES.getOrDefault(normalize(type.substring(0, genericStart)), LIST);
+            TypeName element = resolveType(type.substring(genericStart + 1, genericEnd)).typeName();
+            return new ResolvedType(ParameterizedTypeName.get(collection, element), false);
+        }
 
-                case "set":
-                    return ParameterizedTypeName.get(ClassName.get(Set.class), genericTypeName);
+        String normalized = normalize(type);
+        ResolvedType alias = aliases.get(normalized);
+        if (alias != null) {
+            return alias;
+        }
+        return resolveBuiltIn(type, normalized);
+    }
 
-                case "collection":
-                    return ParameterizedTypeName.get(ClassName.get(Collection.class), genericTypeName);
+    private ResolvedType resolveBuiltIn(String type, String normalized) {
+        ResolvedType basicType = BASIC_TYPES.get(normalized);
+        if (basicType != null) {
+            return basicType;
+        }
 
-                default:
-                    // По умолчанию используем List
-                    return ParameterizedTypeName.get(ClassName.get(List.class), genericTypeName);
-            }
-        } catch (Exception e) {
-            // В случае ошибки возвращаем List<Object>
-            return ParameterizedTypeName.get(ClassName.get(List.class), ClassName.get(Object.class));
+        ClassName collection = COLLECTION_TYPES.get(normalized);
+        if (collection != null) {
+            return new ResolvedType(ParameterizedTypeName.get(collection, OBJECT), false);
         }
+
+        // Если тип не базовый, предполагаем что это имя класса сущности
+        return new ResolvedType(ClassName.get(basePackage + ".model", StringUtils.capitalizeFirst(type)), false);
     }
 
     /**
-     * Получает TypeName для поля сущности с учетом отношений
-     * Этот метод используется в ModelGenerator для JPA полей
+     * Псевдоним ссылается на базовый тип, сущность или класс по полному имени
+     * Псевдонимы не раскрываются рекурсивно
      */
-    public static TypeName getFieldType(String fieldType, String basePackage) {
-        return getJavaType(fieldType, basePackage);
+    private ResolvedType resolveAlias(String alias, String target) {
+        if (target == null || target.isBlank()) {
+            throw new IllegalArgumentException("Type alias '" + alias + "' has no target type");
+        }
+        String type = target.trim();
+        if (type.indexOf('.') == -1 || type.indexOf('<') != -1) {
+            return resolveBuiltIn(type, normalize(type));
+        }
+        try {
+            return basic(ClassName.bestGuess(type));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Type alias '" + alias + "' refers to invalid class name '" + type + "'");
+        }
+    }
+
+    private static String normalize(String type) {
+        return type.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static ResolvedType basic(TypeName typeName) {
+        return new ResolvedType(typeName, true);
     }
 
     /**
-     * Получает TypeName для DTO поля (упрощенная версия без коллекций)
+     * Разобранный тип поля
+     *
+     * @param typeName Java тип поля
+     * @param basic    тип хранится в колонке таблицы (не сущность и не коллекция)
      */
-    public static TypeName getDtoFieldType(String fieldType, String basePackage) {
-        // Для DTO коллекционные поля преобразуем в List<Long> для ID
-        if (fieldType.contains("<") && fieldType.contains(">")) {
-            return ParameterizedTypeName.get(ClassName.get(List.class), ClassName.get(Long.class));
-        }
-
-        return getJavaType(fieldType, basePackage);
+    public record ResolvedType(TypeName typeName, boolean basic) {
     }
 
     /**
      * Проверяет, является ли тип базовым (не требующим импорта из model пакета)
+     * Псевдонимы не учитываются - для них используйте {@link #isBasic(String)}
      */
     public static boolean isBasicType(String fieldType) {
-        if (fieldType == null) {
+        if (fieldType == null || fieldType.contains("<")) {
             return false;
         }
-
-        String lowerType = fieldType.toLowerCase();
-
-        // Если это коллекционный тип, считаем его НЕ базовым
-        if (fieldType.contains("<") && fieldType.contains(">")) {
-            return false;
-        }
-
-        return lowerType.equals("string") || lowerType.equals("text") || lowerType.equals("varchar") ||
-                lowerType.equals("integer") || lowerType.equals("int") ||
-                lowerType.equals("long") || lowerType.equals("double") ||
-                lowerType.equals("float") || lowerType.equals("boolean") || lowerType.equals("bool") ||
-                lowerType.equals("date") || lowerType.equals("datetime") || lowerType.equals("localdatetime") ||
-                lowerType.equals("localdate") || lowerType.equals("localtime") ||
-                lowerType.equals("bigdecimal") || lowerType.equals("timestamp");
+        return BASIC_TYPES.containsKey(normalize(fieldType));
     }
 
     /**
@@ -227,4 +282,4 @@ public class TypeMapper {
             return "List";
         }
     }
-}
\ No newline at end of file
+}
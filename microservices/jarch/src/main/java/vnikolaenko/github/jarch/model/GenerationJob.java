@@ -0,0 +1,46 @@
+package vnikolaenko.github.jarch.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Entity
+@Table(name = "generation_jobs",
+        indexes = @Index(name = "idx_generation_jobs_username_status", columnList = "username, status"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class GenerationJob {
+    @Id
+    private String id;
+    private Long savingId;
+    // Для пакетной генерации - идентификаторы всех сохранений пакета
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "generation_job_batch_savings", joinColumns = @JoinColumn(name = "job_id"))
+    @OrderColumn(name = "position")
+    @Column(name = "saving_id")
+    private List<Long> batchSavingIds;
+    @Column(nullable = false)
+    private String username;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private GenerationJobStatus status;
+    @Column(length = 1000)
+    private String errorMessage;
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    // Время фаз генерации в миллисекундах
+    @JdbcTypeCode(SqlTypes.JSON)
+    private Map<String, Long> phaseTimings;
+}
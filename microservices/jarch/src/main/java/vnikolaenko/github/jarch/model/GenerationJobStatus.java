@@ -0,0 +1,15 @@
+package vnikolaenko.github.jarch.model;
+
+/**
+ * Состояния задачи генерации: QUEUED -> RUNNING -> DONE | FAILED
+ */
+public enum GenerationJobStatus {
+    QUEUED,
+    RUNNING,
+    DONE,
+    FAILED;
+
+    public boolean isFinished() {
+        return this == DONE || this == FAILED;
+    }
+}
@@ -0,0 +1,32 @@
+package vnikolaenko.github.jarch.rabbit;
+
+import lombok.AllArgsConstructor;
+import org.springframework.amqp.core.ExchangeTypes;
+import org.springframework.amqp.rabbit.annotation.Exchange;
+import org.springframework.amqp.rabbit.annotation.Queue;
+import org.springframework.amqp.rabbit.annotation.QueueBinding;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import vnikolaenko.github.jarch.config.RabbitMQConfig;
+import vnikolaenko.github.jarch.service.GenerationJobService;
+import vnikolaenko.github.network.rabbit.GenerationEventMessage;
+
+/**
+ * Получает события воркеров: у каждого узла своя временная очередь,
+ * поэтому журнал доступен клиенту, подключенному к любому узлу
+ */
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(name = "jarch.generation.mode", havingValue = "distributed")
+public class GenerationEventConsumer {
+
+    private final GenerationJobService jobService;
+
+    @RabbitListener(bindings = @QueueBinding(
+            value = @Queue(exclusive = "true", autoDelete = "true"),
+            exchange = @Exchange(value = RabbitMQConfig.GENERATION_EVENTS_EXCHANGE, type = ExchangeTypes.FANOUT)))
+    public void consume(GenerationEventMessage event) {
+        jobService.onEvent(event);
+    }
+}
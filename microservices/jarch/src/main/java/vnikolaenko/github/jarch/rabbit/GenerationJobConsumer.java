@@ -0,0 +1,37 @@
+package vnikolaenko.github.jarch.rabbit;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import vnikolaenko.github.jarch.config.RabbitMQConfig;
+import vnikolaenko.github.jarch.service.GenerationWorker;
+import vnikolaenko.github.jarch.service.RemoteResultStore;
+import vnikolaenko.github.network.rabbit.GenerationJobMessage;
+
+/**
+ * Воркер генерации: забирает задачи из очереди, архивы кладет в MinIO,
+ * журнал и итог публикует всем узлам через fanout
+ * Включается свойством jarch.generation.worker.enabled=true
+ */
+@Component
+@Slf4j
+@AllArgsConstructor
+@ConditionalOnProperty(name = "jarch.generation.worker.enabled", havingValue = "true")
+public class GenerationJobConsumer {
+
+    private final GenerationWorker worker;
+    private final RemoteResultStore remoteResultStore;
+    private final RabbitTemplate rabbitTemplate;
+
+    @RabbitListener(queues = RabbitMQConfig.GENERATION_JOBS_QUEUE,
+            concurrency = "${jarch.generation.worker.concurrency:2}")
+    public void consume(GenerationJobMessage task) {
+        log.info("Получена задача генерации {}", task.getJobId());
+        worker.execute(task,
+                event -> rabbitTemplate.convertAndSend(RabbitMQConfig.GENERATION_EVENTS_EXCHANGE, "", event),
+                remoteResultStore::put);
+    }
+}
@@ -0,0 +1,24 @@
+package vnikolaenko.github.jarch.repository;
+
+import vnikolaenko.github.jarch.model.GenerationJob;
+import vnikolaenko.github.jarch.model.GenerationJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface GenerationJobRepository extends JpaRepository<GenerationJob, String> {
+    long countByUsernameAndStatusIn(String username, Collection<GenerationJobStatus> statuses);
+
+    /**
+     * Блокировка задач пользователя до конца транзакции, общая для всех узлов (advisory lock PostgreSQL)
+     */
+    @Query(value = "select 1 from pg_advisory_xact_lock(hashtext(:username))", nativeQuery = true)
+    int lockUser(@Param("username") String username);
+
+    List<GenerationJob> findAllByStatusIn(Collection<GenerationJobStatus> statuses);
+}
@@ -2,13 +2,19 @@ package vnikolaenko.github.jarch.repository;
 
 import vnikolaenko.github.jarch.model.Saving;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SavingRepository extends JpaRepository<Saving, Long> {
     List<Saving> findAllByProject_Id(long project_id);
 
     List<Saving> findByProjectId(Long projectId);
+
+    @Query("select s.project.id from Saving s where s.id = :savingId")
+    Optional<Long> findProjectIdById(@Param("savingId") Long savingId);
 }
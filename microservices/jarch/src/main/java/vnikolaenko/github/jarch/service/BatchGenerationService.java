@@ -0,0 +1,298 @@
+package vnikolaenko.github.jarch.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.minio.messages.Item;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import vnikolaenko.github.jarch.generator.config.ApplicationConfig;
+import vnikolaenko.github.jarch.generator.config.EntityConfig;
+import vnikolaenko.github.jarch.generator.output.FileArchive;
+import vnikolaenko.github.jarch.generator.output.GeneratedArchive;
+import vnikolaenko.github.jarch.generator.template.TemplateSet;
+import vnikolaenko.github.jarch.generator.utils.ConfigHasher;
+import vnikolaenko.github.jarch.generator.utils.ConfigReader;
+import vnikolaenko.github.jarch.utils.LogCollector;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Пакетная генерация нескольких сохранений одной задачей
+ * Проекты генерируются параллельно; одинаковые конфигурации читаются один раз,
+ * проекты с одинаковым ключом кэша генерируются один раз
+ */
+@Service
+@Slf4j
+public class BatchGenerationService {
+
+    private static final String PREFIX = "generation-batches/";
+    private static final String MANIFEST = "manifest.json";
+
+    private final ProjectGenerationService generationService;
+    private final GenerationCache generationCache;
+    private final GenerationResultStore resultStore;
+    private final ConfigReader configReader;
+    private final TemplateOverrideService templateOverrides;
+    private final MinioService minioService;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+    private final int maxSize;
+    private final Duration ttl;
+
+    public BatchGenerationService(ProjectGenerationService generationService,
+                                  GenerationCache generationCache,
+                                  GenerationResultStore resultStore,
+                                  ConfigReader configReader,
+                                  TemplateOverrideService templateOverrides,
+                                  MinioService minioService,
+                                  ObjectMapper objectMapper,
+                                  @Qualifier("batchGenerationExecutor") ExecutorService executor,
+                                  @Value("${jarch.generation.batch.max-size:100}") int maxSize,
+                                  @Value("${jarch.generation.batch.ttl:P1D}") Duration ttl) {
+        this.generationService = generationService;
+        this.generationCache = generationCache;
+        this.resultStore = resultStore;
+        this.configReader = configReader;
+        this.templateOverrides = templateOverrides;
+        this.minioService = minioService;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Генерирует все проекты пакета
+     * ARCHIVE - один ZIP с архивами проектов и manifest.json, кладется в хранилище результатов под batchId;
+     * MANIFEST - архивы проектов загружаются в MinIO, клиенту отправляется манифест с их ключами.
+     * Архивы проектов хранятся во временных файлах, а не в памяти
+     *
+     * @return манифест пакета
+     */
+    public List<BatchManifestEntry> generate(String batchId, List<BatchItem> items, BatchOutput outputMode,
+                                             LogCollector logCollector) throws Exception {
+        logCollector.info("🚀 Пакетная генерация: " + items.size() + " проектов");
+
+        Map<String, ApplicationConfig> appConfigs = new HashMap<>();
+        Map<String, EntityConfig> entityConfigs = new HashMap<>();
+        Map<Long, TemplateSet> projectTemplates = new HashMap<>();
+        Map<String, CompletableFuture<FileArchive>> generations = new HashMap<>();
+        List<CompletableFuture<FileArchive>> futures = new ArrayList<>();
+
+        AtomicInteger completed = new AtomicInteger();
+        for (BatchItem item : items) {
+            CompletableFuture<FileArchive> future;
+            try {
+                ApplicationConfig appConfig = parse(appConfigs, item.appConfig(), configReader::readApplicationConfig);
+                EntityConfig entityConfig = parse(entityConfigs, item.entityConfig(), configReader::readEntityConfig);
+                // Шаблоны читаются один раз на проект
+                TemplateSet templates = projectTemplates.get(item.projectId());
+                if (templates == null) {
+                    templates = templateOverrides.forProject(item.projectId());
+                    projectTemplates.put(item.projectId(), templates);
+                }
+                TemplateSet itemTemplates = templates;
+
+                // Сохранения с одинаковыми конфигурациями и шаблонами дают одинаковый проект
+                future = generations.computeIfAbsent(generationCache.keyOf(appConfig, entityConfig, templates),
+                        key -> CompletableFuture.supplyAsync(() -> spool(generationService.generate(
+                                item.savingId(), appConfig, entityConfig, itemTemplates, new LogCollector()).archive()),
+                                executor));
+            } catch (Exception e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+
+            futures.add(future.whenComplete((archive, error) -> {
+                int done = completed.incrementAndGet();
+                logCollector.event("progress", Map.of(
+                        "completed", done,
+                        "total", items.size(),
+                        "savingId", item.savingId(),
+                        "status", error == null ? "DONE" : "FAILED"));
+                logCollector.info("[" + done + "/" + items.size() + "] " + item.name()
+                        + (error == null ? " сгенерирован" : " не сгенерирован: " + rootMessage(error)));
+            }));
+        }
+
+        BatchArchive batchArchive = new BatchArchive();
+        List<BatchManifestEntry> manifest = new ArrayList<>();
+        boolean stored = false;
+        try {
+            for (int i = 0; i < items.size(); i++) {
+                BatchItem item = items.get(i);
+                String fileName = directoryName(item) + ".zip";
+                try {
+                    FileArchive archive = futures.get(i).join();
+                    if (outputMode == BatchOutput.MANIFEST) {
+                        String objectKey = PREFIX + batchId + "/" + fileName;
+                        minioService.uploadFile(archive.getPath(), objectKey, "application/zip");
+                        manifest.add(new BatchManifestEntry(item.savingId(), item.name(), "DONE", objectKey, null));
+                    } else {
+                        batchArchive.addProject(fileName, archive);
+                        manifest.add(new BatchManifestEntry(item.savingId(), item.name(), "DONE", fileName, null));
+                    }
+                } catch (Exception e) {
+                    manifest.add(new BatchManifestEntry(item.savingId(), item.name(), "FAILED", null, rootMessage(e)));
+                }
+            }
+
+            byte[] manifestJson = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(manifest);
+            if (outputMode == BatchOutput.MANIFEST) {
+                minioService.uploadFile(manifestJson, PREFIX + batchId + "/" + MANIFEST, "application/json");
+            } else {
+                batchArchive.setManifest(manifestJson);
+                resultStore.put(batchId, batchArchive);
+                stored = true;
+            }
+        } finally {
+            // Сохраненный архив пакета сам освободит архивы проектов после скачивания
+            if (!stored) {
+                generations.values().forEach(generation -> generation.thenAccept(FileArchive::release));
+            }
+        }
+
+        long failed = manifest.stream().filter(entry -> entry.error() != null).count();
+        logCollector.info("📦 Сгенерировано проектов: " + (items.size() - failed) + " из " + items.size()
+                + ", уникальных генераций: " + generations.size());
+        logCollector.event("manifest", manifest);
+        return manifest;
+    }
+
+    /**
+     * Манифест пакета, сгенерированного в режиме MANIFEST
+     */
+    public byte[] getManifest(String batchId) throws Exception {
+        return minioService.downloadFile(PREFIX + batchId + "/" + MANIFEST);
+    }
+
+    @Scheduled(fixedDelayString = "${jarch.generation.batch.cleanup-interval:PT1H}")
+    public void evictExpired() {
+        try {
+            Instant threshold = Instant.now().minus(ttl);
+            for (Item item : minioService.listObjects(PREFIX)) {
+                if (item.lastModified().toInstant().isBefore(threshold)) {
+                    minioService.deleteFile(item.objectName());
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Не удалось очистить результаты пакетной генерации в MinIO: {}", e.getMessage());
+        }
+    }
+
+    private static <T> T parse(Map<String, T> parsed, byte[] content, ConfigParser<T> parser) throws IOException {
+        String key = ConfigHasher.hash(new String(content, StandardCharsets.UTF_8));
+        T config = parsed.get(key);
+        if (config == null) {
+            config = parser.parse(content);
+            parsed.put(key, config);
+        }
+        return config;
+    }
+
+    /**
+     * Архив проекта во временном файле; архив может использоваться несколькими сохранениями пакета
+     */
+    private static FileArchive spool(GeneratedArchive archive) {
+        if (archive instanceof FileArchive file) {
+            return file;
+        }
+        try {
+            return FileArchive.spool(archive);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            archive.release();
+        }
+    }
+
+    private static String directoryName(BatchItem item) {
+        return item.name().replaceAll("[^A-Za-z0-9._-]", "_") + "-" + item.savingId();
+    }
+
+    private static String rootMessage(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause.getMessage();
+    }
+
+    /**
+     * Архив пакета: ZIP с архивами проектов и манифестом
+     * Архивы проектов копируются из временных файлов прямо в поток скачивания
+     */
+    private static class BatchArchive implements GeneratedArchive {
+
+        private final Map<String, FileArchive> projects = new LinkedHashMap<>();
+        private byte[] manifest = new byte[0];
+
+        void addProject(String fileName, FileArchive archive) {
+            projects.put(fileName, archive);
+        }
+
+        void setManifest(byte[] manifest) {
+            this.manifest = manifest;
+        }
+
+        @Override
+        public long sizeInBytes() {
+            return projects.values().stream().distinct().mapToLong(FileArchive::sizeInBytes).sum() + manifest.length;
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            ZipOutputStream zos = new ZipOutputStream(out);
+            for (Map.Entry<String, FileArchive> project : projects.entrySet()) {
+                zos.putNextEntry(new ZipEntry(project.getKey()));
+                project.getValue().writeTo(zos);
+                zos.closeEntry();
+            }
+            zos.putNextEntry(new ZipEntry(MANIFEST));
+            zos.write(manifest);
+            zos.closeEntry();
+            zos.finish();
+        }
+
+        @Override
+        public void release() {
+            projects.values().stream().distinct().forEach(FileArchive::release);
+        }
+    }
+
+    public enum BatchOutput {
+        ARCHIVE,
+        MANIFEST
+    }
+
+    public record BatchItem(Long savingId, Long projectId, String name, byte[] appConfig, byte[] entityConfig) {
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record BatchManifestEntry(Long savingId, String name, String status, String location, String error) {
+    }
+
+    @FunctionalInterface
+    private interface ConfigParser<T> {
+        T parse(byte[] content) throws IOException;
+    }
+}
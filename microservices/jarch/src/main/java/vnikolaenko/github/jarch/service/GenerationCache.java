@@ -0,0 +1,203 @@
+package vnikolaenko.github.jarch.service;
+
+import io.minio.messages.Item;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import vnikolaenko.github.jarch.generator.config.ApplicationConfig;
+import vnikolaenko.github.jarch.generator.config.EntityConfig;
+import vnikolaenko.github.jarch.generator.output.FileArchive;
+import vnikolaenko.github.jarch.generator.template.TemplateSet;
+import vnikolaenko.github.jarch.generator.utils.ConfigHasher;
+import vnikolaenko.github.jarch.generator.utils.GeneratorVersion;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Кэш результатов генерации, адресуемый по содержимому конфигураций
+ * Ключ - SHA-256 от нормализованных ApplicationConfig и EntityConfig, версии генератора
+ * и отпечатка пользовательских шаблонов проекта.
+ * Два уровня: локальный LRU в памяти и MinIO. Оба ограничены по объему и возрасту записей.
+ */
+@Service
+@Slf4j
+public class GenerationCache {
+
+    private static final String REMOTE_PREFIX = "generation-cache/";
+
+    private final Map<String, CachedZip> localCache = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong localHits = new AtomicLong();
+    private final AtomicLong remoteHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private long localBytes;
+
+    private final MinioService minioService;
+    private final GeneratorVersion generatorVersion;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final long localMaxBytes;
+    private final long remoteMaxBytes;
+
+    public GenerationCache(MinioService minioService,
+                           GeneratorVersion generatorVersion,
+                           @Value("${jarch.generation.cache.enabled:true}") boolean enabled,
+                           @Value("${jarch.generation.cache.ttl:P7D}") Duration ttl,
+                           @Value("${jarch.generation.cache.local.max-bytes:67108864}") long localMaxBytes,
+                           @Value("${jarch.generation.cache.remote.max-bytes:1073741824}") long remoteMaxBytes) {
+        this.minioService = minioService;
+        this.generatorVersion = generatorVersion;
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.localMaxBytes = localMaxBytes;
+        this.remoteMaxBytes = remoteMaxBytes;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Вычисляет ключ кэша для пары конфигураций и шаблонов проекта
+     */
+    public String keyOf(ApplicationConfig appConfig, EntityConfig entityConfig, TemplateSet templates) {
+        if (templates.getFingerprint().isEmpty()) {
+            return ConfigHasher.hash(generatorVersion.getVersion(), appConfig, entityConfig);
+        }
+        return ConfigHasher.hash(generatorVersion.getVersion(), appConfig, entityConfig, templates.getFingerprint());
+    }
+
+    /**
+     * Ищет ZIP сначала в локальном кэше, затем в MinIO
+     *
+     * @return содержимое архива или null при промахе
+     */
+    public byte[] get(String key) {
+        if (!enabled) {
+            return null;
+        }
+
+        byte[] local = getLocal(key);
+        if (local != null) {
+            localHits.incrementAndGet();
+            return local;
+        }
+
+        try {
+            byte[] remote = minioService.downloadFile(REMOTE_PREFIX + key + ".zip");
+            remoteHits.incrementAndGet();
+            putLocal(key, remote);
+            return remote;
+        } catch (Exception e) {
+            // Объекта нет в MinIO или хранилище недоступно - считаем промахом
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * Сохраняет упакованный проект: в MinIO файл передается потоково,
+     * в локальный кэш читается только архив, умещающийся в его лимит
+     */
+    public void put(String key, FileArchive zip) {
+        if (!enabled) {
+            return;
+        }
+
+        if (zip.sizeInBytes() <= localMaxBytes) {
+            try {
+                putLocal(key, Files.readAllBytes(zip.getPath()));
+            } catch (IOException e) {
+                log.warn("Не удалось прочитать архив {} для локального кэша: {}", key, e.getMessage());
+            }
+        }
+        try {
+            minioService.uploadFile(zip.getPath(), REMOTE_PREFIX + key + ".zip", "application/zip");
+        } catch (Exception e) {
+            log.warn("Не удалось сохранить результат генерации {} в MinIO: {}", key, e.getMessage());
+        }
+    }
+
+    public Map<String, Long> getStats() {
+        synchronized (localCache) {
+            return Map.of(
+                    "localHits", localHits.get(),
+                    "remoteHits", remoteHits.get(),
+                    "misses", misses.get(),
+                    "localEntries", (long) localCache.size(),
+                    "localBytes", localBytes
+            );
+        }
+    }
+
+    /**
+     * Удаляет из MinIO устаревшие записи и самые старые записи сверх лимита объема
+     */
+    @Scheduled(fixedDelayString = "${jarch.generation.cache.cleanup-interval:PT1H}")
+    public void evictRemote() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            List<Item> items = minioService.listObjects(REMOTE_PREFIX);
+            items.sort(Comparator.comparing(Item::lastModified).reversed());
+
+            Instant threshold = Instant.now().minus(ttl);
+            long retainedBytes = 0;
+            for (Item item : items) {
+                retainedBytes += item.size();
+                if (item.lastModified().toInstant().isBefore(threshold) || retainedBytes > remoteMaxBytes) {
+                    minioService.deleteFile(item.objectName());
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Не удалось очистить кэш генерации в MinIO: {}", e.getMessage());
+        }
+    }
+
+    private byte[] getLocal(String key) {
+        synchronized (localCache) {
+            CachedZip cached = localCache.get(key);
+            if (cached == null) {
+                return null;
+            }
+            if (cached.createdAt().isBefore(Instant.now().minus(ttl))) {
+                localCache.remove(key);
+                localBytes -= cached.content().length;
+                return null;
+            }
+            return cached.content();
+        }
+    }
+
+    private void putLocal(String key, byte[] zip) {
+        if (zip.length > localMaxBytes) {
+            return;
+        }
+
+        synchronized (localCache) {
+            CachedZip previous = localCache.put(key, new CachedZip(zip, Instant.now()));
+            localBytes += zip.length - (previous != null ? previous.content().length : 0);
+
+            // Вытесняем наименее востребованные записи
+            Iterator<CachedZip> iterator = localCache.values().iterator();
+            while (localBytes > localMaxBytes && iterator.hasNext()) {
+                localBytes -= iterator.next().content().length;
+                iterator.remove();
+            }
+        }
+    }
+
+    private record CachedZip(byte[] content, Instant createdAt) {
+    }
+}
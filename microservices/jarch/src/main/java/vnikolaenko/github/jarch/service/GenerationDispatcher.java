@@ -0,0 +1,20 @@
+package vnikolaenko.github.jarch.service;
+
+import vnikolaenko.github.network.rabbit.GenerationJobMessage;
+
+/**
+ * Способ доставки задачи генерации до исполнителя
+ * Режим выбирается свойством jarch.generation.mode: local (по умолчанию) или distributed
+ */
+public interface GenerationDispatcher {
+
+    /**
+     * @throws TooManyGenerationsException если очередь задач заполнена
+     */
+    void dispatch(GenerationJobMessage task);
+
+    /**
+     * Переживают ли поставленные задачи перезапуск узла, принявшего запрос
+     */
+    boolean isDurable();
+}
@@ -0,0 +1,217 @@
+package vnikolaenko.github.jarch.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import vnikolaenko.github.jarch.model.GenerationJob;
+import vnikolaenko.github.jarch.model.GenerationJobStatus;
+import vnikolaenko.github.jarch.repository.GenerationJobRepository;
+import vnikolaenko.github.jarch.utils.LogCollector;
+import vnikolaenko.github.network.rabbit.GenerationEventMessage;
+import vnikolaenko.github.network.rabbit.GenerationJobMessage;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Очередь задач генерации
+ * Задачи выполняются ограниченным пулом воркеров (локально или через RabbitMQ), состояние каждой задачи
+ * хранится в БД, клиенты подключаются к журналу уже запущенной задачи через SSE
+ */
+@Service
+@Slf4j
+public class GenerationJobService {
+
+    private final Map<String, LogCollector> activeJobs = new ConcurrentHashMap<>();
+
+    private final GenerationJobRepository jobRepository;
+    private final GenerationJobStateService jobStateService;
+    private final GenerationDispatcher dispatcher;
+    private final ThreadPoolExecutor executor;
+    private final int perUserLimit;
+
+    public GenerationJobService(GenerationJobRepository jobRepository,
+                                GenerationJobStateService jobStateService,
+                                GenerationDispatcher dispatcher,
+                                @Qualifier("generationJobExecutor") ThreadPoolExecutor executor,
+                                @Value("${jarch.generation.jobs.per-user-limit:2}") int perUserLimit) {
+        this.jobRepository = jobRepository;
+        this.jobStateService = jobStateService;
+        this.dispatcher = dispatcher;
+        this.executor = executor;
+        this.perUserLimit = perUserLimit;
+    }
+
+    /**
+     * Ставит генерацию в очередь
+     *
+     * @throws TooManyGenerationsException если у пользователя слишком много активных задач или очередь заполнена
+     */
+    public GenerationJob submit(Long savingId, String username, byte[] appConfig, byte[] entityConfig) {
+        GenerationJob job = createJob(GenerationJob.builder().savingId(savingId), username);
+
+        try {
+            dispatcher.dispatch(new GenerationJobMessage(job.getId(), savingId, appConfig, entityConfig));
+        } catch (RuntimeException e) {
+            activeJobs.remove(job.getId());
+            jobStateService.markFailed(job.getId(), e.getMessage());
+            throw e;
+        }
+        return job;
+    }
+
+    /**
+     * Ставит в очередь пакетную генерацию
+     * Пакет занимает одного исполнителя и учитывается в лимите пользователя как одна задача;
+     * выполняется на узле, принявшем запрос
+     */
+    public GenerationJob submitBatch(List<Long> savingIds, String username, BatchTask task) {
+        GenerationJob job = createJob(GenerationJob.builder().batchSavingIds(new ArrayList<>(savingIds)), username);
+        String jobId = job.getId();
+        LogCollector logCollector = activeJobs.get(jobId);
+
+        try {
+            executor.execute(() -> runBatch(jobId, task, logCollector));
+        } catch (RejectedExecutionException e) {
+            activeJobs.remove(jobId);
+            jobStateService.markFailed(jobId, "Generation queue is full");
+            throw new TooManyGenerationsException("Generation queue is full, try again later");
+        }
+        return job;
+    }
+
+    public Optional<GenerationJob> getJob(String jobId) {
+        return jobRepository.findById(jobId);
+    }
+
+    /**
+     * Подключает SSE клиента к журналу задачи
+     * Для завершенной задачи сразу отправляется итоговое событие
+     */
+    public void attach(String jobId, SseEmitter emitter) {
+        LogCollector logCollector = activeJobs.get(jobId);
+        if (logCollector != null) {
+            logCollector.attach(emitter);
+            return;
+        }
+
+        Optional<GenerationJob> job = jobRepository.findById(jobId);
+        if (job.isPresent() && !job.get().getStatus().isFinished()) {
+            // Задача поставлена другим узлом: журнал доступен с момента подключения
+            activeJobs.computeIfAbsent(jobId, id -> new LogCollector()).attach(emitter);
+            // Задача могла завершиться до регистрации журнала
+            if (jobRepository.findById(jobId).map(j -> j.getStatus().isFinished()).orElse(true)) {
+                LogCollector late = activeJobs.remove(jobId);
+                if (late != null) {
+                    late.complete();
+                }
+            }
+            return;
+        }
+
+        try {
+            if (job.isEmpty()) {
+                emitter.send(SseEmitter.event().name("error").data("Задача не найдена"));
+            } else if (job.get().getStatus() == GenerationJobStatus.DONE) {
+                emitter.send(SseEmitter.event().name(GenerationEventMessage.ZIP_READY)
+                        .data(GenerationEventMessage.zipReady(job.get().getPhaseTimings())));
+            } else {
+                // Клиент завершенного журнала получает историю с ошибкой, после чего соединение закрывается
+                LogCollector failed = new LogCollector();
+                failed.error("❌ Ошибка: " + job.get().getErrorMessage());
+                failed.complete();
+                failed.attach(emitter);
+                return;
+            }
+        } catch (IOException ignored) {
+        }
+        emitter.complete();
+    }
+
+    /**
+     * Событие воркера: пересылается подключенным клиентам, итоговое событие закрывает журнал
+     */
+    @EventListener
+    public void onEvent(GenerationEventMessage event) {
+        LogCollector logCollector = activeJobs.get(event.getJobId());
+        if (logCollector == null) {
+            // Задача не отслеживается этим узлом
+            return;
+        }
+
+        if (!GenerationEventMessage.FAILED.equals(event.getName())) {
+            logCollector.event(event.getName(), event.getData());
+        }
+        if (event.isFinal()) {
+            logCollector.complete();
+            activeJobs.remove(event.getJobId());
+        }
+    }
+
+    private GenerationJob createJob(GenerationJob.GenerationJobBuilder builder, String username) {
+        GenerationJob job = jobStateService.create(builder
+                .id(UUID.randomUUID().toString())
+                .username(username)
+                .status(GenerationJobStatus.QUEUED)
+                .createdAt(LocalDateTime.now())
+                .build(), perUserLimit);
+
+        LogCollector logCollector = new LogCollector();
+        logCollector.info("⏳ Задача поставлена в очередь");
+        activeJobs.put(job.getId(), logCollector);
+        return job;
+    }
+
+    private void runBatch(String jobId, BatchTask task, LogCollector logCollector) {
+        try {
+            jobStateService.markRunning(jobId);
+            task.run(jobId, logCollector);
+            jobStateService.markDone(jobId);
+
+            logCollector.info("✅ Пакетная генерация завершена");
+            logCollector.event(GenerationEventMessage.ZIP_READY, GenerationEventMessage.zipReady(null));
+        } catch (Exception e) {
+            log.error("Пакетная генерация {} завершилась ошибкой", jobId, e);
+            jobStateService.markFailed(jobId, e.getMessage());
+            logCollector.error("❌ Ошибка: " + e.getMessage());
+        } finally {
+            logCollector.complete();
+            activeJobs.remove(jobId);
+        }
+    }
+
+    /**
+     * Задачи, прерванные остановкой сервиса, не могут быть продолжены, если их данные были только в памяти
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        for (GenerationJob job : jobRepository.findAllByStatusIn(GenerationJobStateService.ACTIVE_STATUSES)) {
+            // Пакеты всегда выполняются в памяти узла
+            if (dispatcher.isDurable() && CollectionUtils.isEmpty(job.getBatchSavingIds())) {
+                continue;
+            }
+            jobStateService.markFailed(job.getId(), "Interrupted by service restart");
+        }
+    }
+
+    /**
+     * Работа пакетной задачи, выполняемая исполнителем из пула
+     */
+    @FunctionalInterface
+    public interface BatchTask {
+        void run(String jobId, LogCollector logCollector) throws Exception;
+    }
+}
@@ -0,0 +1,78 @@
+package vnikolaenko.github.jarch.service;
+
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import vnikolaenko.github.jarch.model.GenerationJob;
+import vnikolaenko.github.jarch.model.GenerationJobStatus;
+import vnikolaenko.github.jarch.repository.GenerationJobRepository;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Переходы задачи генерации между состояниями
+ * Используется и узлом, принявшим запрос, и воркером, выполняющим задачу
+ */
+@Service
+@AllArgsConstructor
+public class GenerationJobStateService {
+
+    static final Set<GenerationJobStatus> ACTIVE_STATUSES =
+            EnumSet.of(GenerationJobStatus.QUEUED, GenerationJobStatus.RUNNING);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final GenerationJobRepository jobRepository;
+    private final GenerationMetrics metrics;
+
+    /**
+     * Сохраняет новую задачу, если у пользователя меньше perUserLimit активных задач
+     * Проверка и вставка выполняются под блокировкой пользователя в БД, поэтому лимит общий для всех узлов
+     *
+     * @throws TooManyGenerationsException если лимит пользователя исчерпан
+     */
+    @Transactional
+    public GenerationJob create(GenerationJob job, int perUserLimit) {
+        jobRepository.lockUser(job.getUsername());
+        if (jobRepository.countByUsernameAndStatusIn(job.getUsername(), ACTIVE_STATUSES) >= perUserLimit) {
+            throw new TooManyGenerationsException("Too many active generations, limit per user is " + perUserLimit);
+        }
+        return jobRepository.save(job);
+    }
+
+    public void markRunning(String jobId) {
+        jobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(GenerationJobStatus.RUNNING);
+            job.setStartedAt(LocalDateTime.now());
+            jobRepository.save(job);
+        });
+    }
+
+    public void markDone(String jobId) {
+        markDone(jobId, null);
+    }
+
+    public void markDone(String jobId, Map<String, Long> phaseTimings) {
+        finish(jobId, GenerationJobStatus.DONE, null, phaseTimings);
+    }
+
+    public void markFailed(String jobId, String errorMessage) {
+        finish(jobId, GenerationJobStatus.FAILED, errorMessage, null);
+    }
+
+    private void finish(String jobId, GenerationJobStatus status, String errorMessage, Map<String, Long> phaseTimings) {
+        metrics.countJob(status.name());
+        jobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(status);
+            job.setPhaseTimings(phaseTimings);
+            job.setErrorMessage(errorMessage == null || errorMessage.length() <= MAX_ERROR_LENGTH
+                    ? errorMessage
+                    : errorMessage.substring(0, MAX_ERROR_LENGTH));
+            job.setFinishedAt(LocalDateTime.now());
+            jobRepository.save(job);
+        });
+    }
+}
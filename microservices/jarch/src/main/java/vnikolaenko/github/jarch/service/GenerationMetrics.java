@@ -0,0 +1,77 @@
+package vnikolaenko.github.jarch.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import vnikolaenko.github.jarch.generator.utils.PhaseTimings;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Метрики генерации (Micrometer, экспортируются через /actuator/prometheus)
+ * Все метрики проекта помечены группой по числу сущностей и системой сборки
+ */
+@Service
+@AllArgsConstructor
+public class GenerationMetrics {
+
+    private final MeterRegistry registry;
+
+    /**
+     * Записывает время каждой фазы одной генерации
+     */
+    public void recordPhases(PhaseTimings timings, int entityCount, String buildTool) {
+        String entities = entityCountBucket(entityCount);
+        timings.getNanos().forEach((phase, nanos) -> Timer.builder("jarch.generation.phase")
+                .description("Время фазы генерации проекта")
+                .tag("phase", phase)
+                .tag("entities", entities)
+                .tag("build_tool", buildTool)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Учитывает сгенерированный проект
+     *
+     * @param source cache - взят из кэша генерации, generated - сгенерирован
+     */
+    public void countProject(String source, int entityCount, String buildTool) {
+        Counter.builder("jarch.generation.projects")
+                .description("Число сгенерированных проектов")
+                .tag("source", source)
+                .tag("entities", entityCountBucket(entityCount))
+                .tag("build_tool", buildTool)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Учитывает завершенную задачу генерации
+     */
+    public void countJob(String status) {
+        Counter.builder("jarch.generation.jobs")
+                .description("Число завершенных задач генерации")
+                .tag("status", status)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Группа по числу сущностей, чтобы число временных рядов не зависело от размеров проектов
+     */
+    static String entityCountBucket(int entityCount) {
+        if (entityCount <= 10) {
+            return "1-10";
+        }
+        if (entityCount <= 100) {
+            return "11-100";
+        }
+        if (entityCount <= 1000) {
+            return "101-1000";
+        }
+        return "1000+";
+    }
+}
@@ -0,0 +1,123 @@
+package vnikolaenko.github.jarch.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import vnikolaenko.github.jarch.generator.output.FileArchive;
+import vnikolaenko.github.jarch.generator.output.GeneratedArchive;
+import vnikolaenko.github.jarch.generator.output.GeneratedOutput;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Хранилище готовых результатов генерации до их скачивания
+ * Сгенерированные проекты хранятся упакованными во временные файлы, а не в памяти.
+ * Ограничено по количеству и суммарному объему архивов, невостребованные результаты удаляются по TTL
+ */
+@Service
+@Slf4j
+public class GenerationResultStore {
+
+    private final Map<String, StoredResult> results = new LinkedHashMap<>();
+    private final Duration ttl;
+    private final long maxBytes;
+    private final int maxEntries;
+    private long totalBytes;
+
+    public GenerationResultStore(@Value("${jarch.generation.results.ttl:PT15M}") Duration ttl,
+                                 @Value("${jarch.generation.results.max-bytes:268435456}") long maxBytes,
+                                 @Value("${jarch.generation.results.max-entries:100}") int maxEntries) {
+        this.ttl = ttl;
+        this.maxBytes = maxBytes;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Сохраняет результат; более старые результаты вытесняются при превышении лимитов
+     *
+     * @throws IllegalStateException если один результат больше лимита хранилища
+     */
+    public void put(String id, GeneratedArchive archive) throws IOException {
+        // Упаковка во временный файл - вне блокировки хранилища
+        GeneratedArchive stored = archive instanceof GeneratedOutput ? FileArchive.spool(archive) : archive;
+        if (stored.sizeInBytes() > maxBytes) {
+            stored.release();
+            throw new IllegalStateException("Generation result of " + stored.sizeInBytes()
+                    + " bytes exceeds the result store limit of " + maxBytes + " bytes");
+        }
+
+        synchronized (this) {
+            StoredResult previous = results.remove(id);
+            if (previous != null) {
+                release(previous);
+            }
+
+            results.put(id, new StoredResult(stored, Instant.now()));
+            totalBytes += stored.sizeInBytes();
+
+            evictExpired();
+            evictOverflow(id);
+        }
+    }
+
+    /**
+     * Забирает результат из хранилища; повторное скачивание невозможно
+     * После записи архива вызывающий освобождает его через {@link GeneratedArchive#release()}
+     */
+    public synchronized GeneratedArchive take(String id) {
+        evictExpired();
+
+        StoredResult result = results.remove(id);
+        if (result == null) {
+            return null;
+        }
+        totalBytes -= result.archive().sizeInBytes();
+        return result.archive();
+    }
+
+    @Scheduled(fixedDelayString = "${jarch.generation.results.cleanup-interval:PT1M}")
+    public synchronized void evictExpired() {
+        Instant threshold = Instant.now().minus(ttl);
+        Iterator<Map.Entry<String, StoredResult>> iterator = results.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, StoredResult> entry = iterator.next();
+            if (entry.getValue().createdAt().isAfter(threshold)) {
+                // Записи упорядочены по времени добавления
+                break;
+            }
+            iterator.remove();
+            release(entry.getValue());
+            log.info("Результат генерации {} удален по TTL", entry.getKey());
+        }
+    }
+
+    /**
+     * Вытесняет самые старые результаты, кроме только что сохраненного: о нем клиенту уже сообщено
+     */
+    private void evictOverflow(String insertedId) {
+        Iterator<Map.Entry<String, StoredResult>> iterator = results.entrySet().iterator();
+        while ((totalBytes > maxBytes || results.size() > maxEntries) && iterator.hasNext()) {
+            Map.Entry<String, StoredResult> entry = iterator.next();
+            if (entry.getKey().equals(insertedId)) {
+                continue;
+            }
+            iterator.remove();
+            release(entry.getValue());
+            log.warn("Результат генерации {} вытеснен: превышен лимит хранилища", entry.getKey());
+        }
+    }
+
+    private void release(StoredResult result) {
+        totalBytes -= result.archive().sizeInBytes();
+        result.archive().release();
+    }
+
+    private record StoredResult(GeneratedArchive archive, Instant createdAt) {
+    }
+}
@@ -0,0 +1,60 @@
+package vnikolaenko.github.jarch.service;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import vnikolaenko.github.jarch.generator.output.GeneratedArchive;
+import vnikolaenko.github.jarch.utils.LogCollector;
+import vnikolaenko.github.network.rabbit.GenerationEventMessage;
+import vnikolaenko.github.network.rabbit.GenerationJobMessage;
+
+import java.util.function.Consumer;
+
+/**
+ * Выполнение одной задачи генерации
+ * Не зависит от транспорта: журнал и итог отправляются в переданный приемник событий,
+ * архивы - в переданное хранилище результатов
+ */
+@Service
+@Slf4j
+@AllArgsConstructor
+public class GenerationWorker {
+
+    private final ProjectGenerationService generationService;
+    private final GenerationJobStateService jobStateService;
+
+    public void execute(GenerationJobMessage task, Consumer<GenerationEventMessage> events, ResultSink results) {
+        String jobId = task.getJobId();
+
+        LogCollector logCollector = new LogCollector();
+        logCollector.addListener((name, data) -> events.accept(new GenerationEventMessage(jobId, name, data)));
+
+        try {
+            jobStateService.markRunning(jobId);
+            ProjectGenerationService.GenerationResult result = generationService.generate(
+                    task.getSavingId(), task.getAppConfig(), task.getEntityConfig(), logCollector);
+
+            results.put(jobId, result.archive());
+            if (result.diff() != null) {
+                results.put(jobId + ProjectGenerationService.DIFF_SUFFIX, result.diff());
+            }
+            jobStateService.markDone(jobId, result.timings());
+
+            logCollector.info("✅ Генерация завершена");
+            logCollector.event(GenerationEventMessage.ZIP_READY, GenerationEventMessage.zipReady(result.timings()));
+        } catch (Exception e) {
+            log.error("Генерация {} завершилась ошибкой", jobId, e);
+            jobStateService.markFailed(jobId, e.getMessage());
+            logCollector.error("❌ Ошибка: " + e.getMessage());
+            logCollector.event(GenerationEventMessage.FAILED, e.getMessage());
+        }
+    }
+
+    /**
+     * Хранилище готовых архивов, из которого их заберет узел, обслуживающий скачивание
+     */
+    @FunctionalInterface
+    public interface ResultSink {
+        void put(String id, GeneratedArchive archive) throws Exception;
+    }
+}
@@ -0,0 +1,44 @@
+package vnikolaenko.github.jarch.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import vnikolaenko.github.jarch.generator.output.ProjectSnapshot;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Последние результаты генерации сохранений для инкрементальной перегенерации
+ * Хранятся только для ограниченного числа недавно генерировавшихся сохранений
+ */
+@Service
+public class IncrementalGenerationStore {
+
+    private final Map<Long, ProjectSnapshot> snapshots;
+    private final boolean enabled;
+
+    public IncrementalGenerationStore(@Value("${jarch.generation.incremental.enabled:true}") boolean enabled,
+                                      @Value("${jarch.generation.incremental.max-savings:20}") int maxSavings) {
+        this.enabled = enabled;
+        this.snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ProjectSnapshot> eldest) {
+                return size() > maxSavings;
+            }
+        };
+    }
+
+    public synchronized ProjectSnapshot get(Long savingId) {
+        return enabled ? snapshots.get(savingId) : null;
+    }
+
+    public synchronized void put(Long savingId, ProjectSnapshot snapshot) {
+        if (enabled) {
+            snapshots.put(savingId, snapshot);
+        }
+    }
+
+    public synchronized void remove(Long savingId) {
+        snapshots.remove(savingId);
+    }
+}
@@ -0,0 +1,48 @@
+package vnikolaenko.github.jarch.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import vnikolaenko.github.network.rabbit.GenerationJobMessage;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Генерация внутри того же узла на ограниченном пуле
+ * События воркера доставляются через события приложения, результаты остаются в памяти узла
+ */
+@Service
+@ConditionalOnProperty(name = "jarch.generation.mode", havingValue = "local", matchIfMissing = true)
+public class LocalGenerationDispatcher implements GenerationDispatcher {
+
+    private final ThreadPoolExecutor executor;
+    private final GenerationWorker worker;
+    private final ApplicationEventPublisher eventPublisher;
+    private final GenerationResultStore resultStore;
+
+    public LocalGenerationDispatcher(@Qualifier("generationJobExecutor") ThreadPoolExecutor executor,
+                                     GenerationWorker worker,
+                                     ApplicationEventPublisher eventPublisher,
+                                     GenerationResultStore resultStore) {
+        this.executor = executor;
+        this.worker = worker;
+        this.eventPublisher = eventPublisher;
+        this.resultStore = resultStore;
+    }
+
+    @Override
+    public void dispatch(GenerationJobMessage task) {
+        try {
+            executor.execute(() -> worker.execute(task, eventPublisher::publishEvent, resultStore::put));
+        } catch (RejectedExecutionException e) {
+            throw new TooManyGenerationsException("Generation queue is full, try again later");
+        }
+    }
+
+    @Override
+    public boolean isDurable() {
+        return false;
+    }
+}
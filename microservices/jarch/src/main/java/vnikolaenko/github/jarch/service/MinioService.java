@@ -3,6 +3,8 @@ package vnikolaenko.github.jarch.service;
 import io.minio.*;
 import io.minio.http.Method;
 import io.minio.messages.Item;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,12 +12,14 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @Slf4j
@@ -24,6 +28,9 @@ public class MinioService {
     @Autowired
     private MinioClient minioClient;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Value("${minio.bucket}")
     private String bucketName;
 
@@ -59,24 +66,50 @@ public class MinioService {
         return filename;
     }
 
+    // 📤 Сохранить файл с диска потоково, с указанным типом содержимого
+    public String uploadFile(Path filePath, String filename, String contentType) throws Exception {
+        long size = Files.size(filePath);
+        timed("upload", () -> {
+            try (InputStream inputStream = Files.newInputStream(filePath)) {
+                return minioClient.putObject(
+                        PutObjectArgs.builder()
+                                .bucket(bucketName)
+                                .object(filename)
+                                .stream(inputStream, size, -1)
+                                .contentType(contentType)
+                                .build()
+                );
+            }
+        });
+
+        log.info("Файл {} сохранен в MinIO из пути {}, размер: {} bytes", filename, filePath, size);
+        return filename;
+    }
+
     // 📤 Сохранить файл из byte[]
     public String uploadFile(byte[] fileBytes, String filename) throws Exception {
+        return uploadFile(fileBytes, filename, "application/json");
+    }
+
+    // 📤 Сохранить файл из byte[] с указанным типом содержимого
+    public String uploadFile(byte[] fileBytes, String filename, String contentType) throws Exception {
         if (filename == null || filename.isEmpty()) {
             filename = UUID.randomUUID().toString();
         }
 
-        String contentType = "application/json";
-
-        try (ByteArrayInputStream inputStream = new ByteArrayInputStream(fileBytes)) {
-            minioClient.putObject(
-                    PutObjectArgs.builder()
-                            .bucket(bucketName)
-                            .object(filename)
-                            .stream(inputStream, fileBytes.length, -1)
-                            .contentType(contentType)
-                            .build()
-            );
-        }
+        String objectName = filename;
+        timed("upload", () -> {
+            try (ByteArrayInputStream inputStream = new ByteArrayInputStream(fileBytes)) {
+                return minioClient.putObject(
+                        PutObjectArgs.builder()
+                                .bucket(bucketName)
+                                .object(objectName)
+                                .stream(inputStream, fileBytes.length, -1)
+                                .contentType(contentType)
+                                .build()
+                );
+            }
+        });
 
         log.info("Файл {} сохранен в MinIO из byte[], размер: {} bytes", filename, fileBytes.length);
         return filename;
@@ -84,14 +117,30 @@ public class MinioService {
 
     // 📥 Скачать файл
     public byte[] downloadFile(String filename) throws Exception {
-        try (InputStream stream = minioClient.getObject(
-                GetObjectArgs.builder()
-                        .bucket(bucketName)
-                        .object(filename)
-                        .build()
-        )) {
-            return stream.readAllBytes();
-        }
+        return timed("download", () -> {
+            try (InputStream stream = minioClient.getObject(
+                    GetObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(filename)
+                            .build()
+            )) {
+                return stream.readAllBytes();
+            }
+        });
+    }
+
+    // 📥 Скачать файл потоково: содержимое читается переданным обработчиком, а не загружается в память
+    public <T> T downloadFile(String filename, ContentReader<T> reader) throws Exception {
+        return timed("download", () -> {
+            try (InputStream stream = minioClient.getObject(
+                    GetObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(filename)
+                            .build()
+            )) {
+                return reader.read(stream);
+            }
+        });
     }
 
     // 📄 Получить информацию о файле
@@ -106,12 +155,15 @@ public class MinioService {
 
     // 🗑️ Удалить файл
     public void deleteFile(String filename) throws Exception {
-        minioClient.removeObject(
-                RemoveObjectArgs.builder()
-                        .bucket(bucketName)
-                        .object(filename)
-                        .build()
-        );
+        timed("delete", () -> {
+            minioClient.removeObject(
+                    RemoveObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(filename)
+                            .build()
+            );
+            return null;
+        });
         log.info("Файл {} удален из MinIO", filename);
     }
 
@@ -130,6 +182,25 @@ public class MinioService {
         return files;
     }
 
+    // 📋 Список объектов с указанным префиксом (с размером и датой изменения)
+    public List<Item> listObjects(String prefix) throws Exception {
+        return timed("list", () -> {
+            List<Item> items = new ArrayList<>();
+            Iterable<Result<Item>> results = minioClient.listObjects(
+                    ListObjectsArgs.builder()
+                            .bucket(bucketName)
+                            .prefix(prefix)
+                            .recursive(true)
+                            .build()
+            );
+
+            for (Result<Item> result : results) {
+                items.add(result.get());
+            }
+            return items;
+        });
+    }
+
     // 🔗 Получить временную ссылку для скачивания
     public String getPresignedUrl(String filename) throws Exception {
         return minioClient.getPresignedObjectUrl(
@@ -141,4 +212,33 @@ public class MinioService {
                         .build()
         );
     }
+
+    // ⏱️ Замер времени обращения к MinIO (метрика jarch.minio.requests)
+    private <T> T timed(String operation, MinioCall<T> call) throws Exception {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return call.execute();
+        } catch (Exception e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            Timer.builder("jarch.minio.requests")
+                    .description("Время обращения к MinIO")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @FunctionalInterface
+    private interface MinioCall<T> {
+        T execute() throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface ContentReader<T> {
+        T read(InputStream content) throws IOException;
+    }
 }
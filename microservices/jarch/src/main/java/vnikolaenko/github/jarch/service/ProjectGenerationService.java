@@ -0,0 +1,129 @@
+package vnikolaenko.github.jarch.service;
+
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import vnikolaenko.github.jarch.generator.CodeGenerationOrchestrator;
+import vnikolaenko.github.jarch.generator.config.ApplicationConfig;
+import vnikolaenko.github.jarch.generator.config.EntityConfig;
+import vnikolaenko.github.jarch.generator.output.FileArchive;
+import vnikolaenko.github.jarch.generator.output.GeneratedArchive;
+import vnikolaenko.github.jarch.generator.output.GeneratedOutput;
+import vnikolaenko.github.jarch.generator.output.ProjectSnapshot;
+import vnikolaenko.github.jarch.generator.output.ZipArchive;
+import vnikolaenko.github.jarch.generator.template.TemplateSet;
+import vnikolaenko.github.jarch.generator.utils.ConfigReader;
+import vnikolaenko.github.jarch.generator.utils.PhaseTimings;
+import vnikolaenko.github.jarch.utils.LogCollector;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * Полный цикл генерации проекта по конфигурациям сохранения:
+ * чтение конфигураций и шаблонов проекта, кэш и инкрементальная генерация
+ */
+@Service
+@AllArgsConstructor
+public class ProjectGenerationService {
+
+    /**
+     * Суффикс идентификатора результата, содержащего только изменения
+     */
+    public static final String DIFF_SUFFIX = ":diff";
+
+    private final CodeGenerationOrchestrator orchestrator;
+    private final ConfigReader configReader;
+    private final GenerationCache generationCache;
+    private final IncrementalGenerationStore incrementalStore;
+    private final GenerationMetrics metrics;
+    private final TemplateOverrideService templateOverrides;
+
+    /**
+     * Генерирует проект по конфигурациям сохранения
+     */
+    public GenerationResult generate(Long savingId, byte[] appConfig, byte[] entityConfig,
+                                     LogCollector logCollector) throws Exception {
+        logCollector.info("🚀 Начало генерации проекта...");
+
+        PhaseTimings timings = new PhaseTimings();
+        long start = System.nanoTime();
+        ApplicationConfig config = configReader.readApplicationConfig(appConfig);
+        EntityConfig entities = configReader.readEntityConfig(entityConfig);
+        TemplateSet templates = templateOverrides.forSaving(savingId);
+        timings.record(PhaseTimings.CONFIG, System.nanoTime() - start);
+
+        logCollector.info("📋 Конфигурация загружена");
+
+        return generate(savingId, config, entities, templates, logCollector, timings);
+    }
+
+    /**
+     * Генерирует проект по уже прочитанным конфигурациям (например, общим для нескольких сохранений пакета)
+     */
+    public GenerationResult generate(Long savingId, ApplicationConfig config, EntityConfig entities,
+                                     TemplateSet templates, LogCollector logCollector) {
+        return generate(savingId, config, entities, templates, logCollector, new PhaseTimings());
+    }
+
+    private GenerationResult generate(Long savingId, ApplicationConfig config, EntityConfig entities,
+                                      TemplateSet templates, LogCollector logCollector, PhaseTimings timings) {
+        int entityCount = entities.getEntities() != null ? entities.getEntities().size() : 0;
+        String buildTool = String.valueOf(config.getBuildTool());
+
+        String cacheKey = generationCache.keyOf(config, entities, templates);
+        byte[] cachedZip = timings.time(PhaseTimings.CACHE_LOOKUP, () -> generationCache.get(cacheKey));
+
+        if (cachedZip != null) {
+            logCollector.info("♻️ Проект с такой конфигурацией уже генерировался, результат взят из кэша");
+            return finish(new ZipArchive(cachedZip), null, timings, entityCount, buildTool, "cache", logCollector);
+        }
+
+        ProjectSnapshot previous = incrementalStore.get(savingId);
+        ProjectSnapshot snapshot = orchestrator.generateProject(config, entities, logCollector, previous, templates,
+                timings);
+        incrementalStore.put(savingId, snapshot);
+
+        GeneratedOutput output = snapshot.getOutput();
+        // Только изменения относительно предыдущей генерации сохранения
+        GeneratedArchive diff = previous != null ? output.diff(previous.getOutput()) : null;
+
+        if (generationCache.isEnabled() && !snapshot.isComplete()) {
+            // Неполный проект не должен выдаваться последующим запросам как попадание в кэш
+            logCollector.warn("⚠️ Проект сгенерирован не полностью и не сохранен в кэш");
+        } else if (generationCache.isEnabled()) {
+            logCollector.info("📦 Упаковка в ZIP...");
+            // ZIP собирается один раз во временный файл: он же уходит в кэш и на скачивание
+            FileArchive archive = timings.time(PhaseTimings.ZIP, () -> spool(output));
+            timings.time(PhaseTimings.CACHE_STORE, () -> generationCache.put(cacheKey, archive));
+            return finish(archive, diff, timings, entityCount, buildTool, "generated", logCollector);
+        }
+        // Упаковка в ZIP происходит потоково при скачивании
+        return finish(output, diff, timings, entityCount, buildTool, "generated", logCollector);
+    }
+
+    private static FileArchive spool(GeneratedOutput output) {
+        try {
+            return FileArchive.spool(output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private GenerationResult finish(GeneratedArchive archive, GeneratedArchive diff, PhaseTimings timings,
+                                    int entityCount, String buildTool, String source, LogCollector logCollector) {
+        metrics.recordPhases(timings, entityCount, buildTool);
+        metrics.countProject(source, entityCount, buildTool);
+
+        Map<String, Long> millis = timings.getMillis();
+        logCollector.info("⏱️ Фазы генерации (мс): " + millis);
+        return new GenerationResult(archive, diff, millis);
+    }
+
+    /**
+     * Результат генерации: полный архив, при наличии предыдущей генерации - архив изменений,
+     * и время каждой фазы в миллисекундах
+     */
+    public record GenerationResult(GeneratedArchive archive, GeneratedArchive diff, Map<String, Long> timings) {
+    }
+}
@@ -0,0 +1,49 @@
+package vnikolaenko.github.jarch.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import vnikolaenko.github.jarch.config.RabbitMQConfig;
+import vnikolaenko.github.network.rabbit.GenerationJobMessage;
+
+/**
+ * Публикация задач генерации в очередь RabbitMQ для отдельно масштабируемых воркеров
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "jarch.generation.mode", havingValue = "distributed")
+public class RabbitGenerationDispatcher implements GenerationDispatcher {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final AmqpAdmin amqpAdmin;
+    private final int queueCapacity;
+
+    public RabbitGenerationDispatcher(RabbitTemplate rabbitTemplate,
+                                      AmqpAdmin amqpAdmin,
+                                      @Value("${jarch.generation.jobs.queue-capacity:50}") int queueCapacity) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.amqpAdmin = amqpAdmin;
+        this.queueCapacity = queueCapacity;
+    }
+
+    @Override
+    public void dispatch(GenerationJobMessage task) {
+        QueueInformation queue = amqpAdmin.getQueueInfo(RabbitMQConfig.GENERATION_JOBS_QUEUE);
+        if (queue != null && queue.getMessageCount() >= queueCapacity) {
+            throw new TooManyGenerationsException("Generation queue is full, try again later");
+        }
+
+        rabbitTemplate.convertAndSend(RabbitMQConfig.GENERATION_EXCHANGE,
+                RabbitMQConfig.GENERATION_JOBS_ROUTING_KEY, task);
+        log.info("Задача генерации {} отправлена воркерам", task.getJobId());
+    }
+
+    @Override
+    public boolean isDurable() {
+        return true;
+    }
+}
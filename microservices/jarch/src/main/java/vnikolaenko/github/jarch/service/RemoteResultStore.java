@@ -0,0 +1,104 @@
+package vnikolaenko.github.jarch.service;
+
+import io.minio.messages.Item;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import vnikolaenko.github.jarch.generator.output.FileArchive;
+import vnikolaenko.github.jarch.generator.output.GeneratedArchive;
+import vnikolaenko.github.jarch.generator.output.ZipArchive;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Результаты генерации, выполненной воркерами: архивы передаются через MinIO
+ * и забираются любым узлом, обслуживающим скачивание
+ */
+@Service
+@Slf4j
+public class RemoteResultStore {
+
+    private static final String PREFIX = "generation-results/";
+
+    private final MinioService minioService;
+    private final boolean enabled;
+    private final Duration ttl;
+
+    public RemoteResultStore(MinioService minioService,
+                             @Value("${jarch.generation.mode:local}") String mode,
+                             @Value("${jarch.generation.results.ttl:PT15M}") Duration ttl) {
+        this.minioService = minioService;
+        this.enabled = "distributed".equals(mode);
+        this.ttl = ttl;
+    }
+
+    /**
+     * Загружает архив в MinIO; после загрузки архив на воркере больше не нужен и освобождается
+     */
+    public void put(String id, GeneratedArchive archive) throws Exception {
+        try {
+            if (archive instanceof ZipArchive zip) {
+                minioService.uploadFile(zip.getContent(), objectName(id), "application/zip");
+                return;
+            }
+            // Архив загружается из временного файла, а не из буфера в памяти
+            FileArchive file = archive instanceof FileArchive spooled ? spooled : FileArchive.spool(archive);
+            try {
+                minioService.uploadFile(file.getPath(), objectName(id), "application/zip");
+            } finally {
+                file.release();
+            }
+        } finally {
+            archive.release();
+        }
+    }
+
+    /**
+     * Забирает результат из MinIO во временный файл; повторное скачивание невозможно
+     *
+     * @return архив или null, если результата нет
+     */
+    public GeneratedArchive take(String id) {
+        if (!enabled) {
+            return null;
+        }
+
+        FileArchive archive;
+        try {
+            archive = minioService.downloadFile(objectName(id), FileArchive::spool);
+        } catch (Exception e) {
+            return null;
+        }
+        try {
+            minioService.deleteFile(objectName(id));
+        } catch (Exception e) {
+            // Объект удалит очистка по времени жизни
+            log.warn("Не удалось удалить результат генерации {} из MinIO: {}", id, e.getMessage());
+        }
+        return archive;
+    }
+
+    @Scheduled(fixedDelayString = "${jarch.generation.results.cleanup-interval:PT1M}")
+    public void evictExpired() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            Instant threshold = Instant.now().minus(ttl);
+            for (Item item : minioService.listObjects(PREFIX)) {
+                if (item.lastModified().toInstant().isBefore(threshold)) {
+                    minioService.deleteFile(item.objectName());
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Не удалось очистить результаты генерации в MinIO: {}", e.getMessage());
+        }
+    }
+
+    private static String objectName(String id) {
+        return PREFIX + id.replace(':', '-') + ".zip";
+    }
+}
@@ -0,0 +1,144 @@
+package vnikolaenko.github.jarch.service;
+
+import io.minio.messages.Item;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import vnikolaenko.github.jarch.generator.template.CompiledTemplate;
+import vnikolaenko.github.jarch.generator.template.TemplateSet;
+import vnikolaenko.github.jarch.generator.utils.ConfigHasher;
+import vnikolaenko.github.jarch.repository.SavingRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Пользовательские шаблоны файлов проекта, хранящиеся в MinIO
+ * Скомпилированные шаблоны кэшируются по проекту вместе с отпечатком из ETag объектов:
+ * изменение шаблона на любом узле обнаруживается при следующей генерации
+ */
+@Service
+@Slf4j
+public class TemplateOverrideService {
+
+    private static final String PREFIX = "template-overrides/";
+
+    private final Map<Long, CachedTemplates> cache = new ConcurrentHashMap<>();
+
+    private final MinioService minioService;
+    private final SavingRepository savingRepository;
+
+    public TemplateOverrideService(MinioService minioService, SavingRepository savingRepository) {
+        this.minioService = minioService;
+        this.savingRepository = savingRepository;
+        // Встроенные шаблоны компилируются при старте, а не при первой генерации
+        TemplateSet.builtIn();
+    }
+
+    /**
+     * Шаблоны для генерации сохранения: встроенные с переопределениями его проекта
+     */
+    public TemplateSet forSaving(Long savingId) throws Exception {
+        Long projectId = savingId != null ? savingRepository.findProjectIdById(savingId).orElse(null) : null;
+        return projectId != null ? forProject(projectId) : TemplateSet.builtIn();
+    }
+
+    public TemplateSet forProject(Long projectId) throws Exception {
+        Map<String, String> etags = new TreeMap<>();
+        for (Item item : minioService.listObjects(prefix(projectId))) {
+            etags.put(item.objectName(), item.etag());
+        }
+        if (etags.isEmpty()) {
+            cache.remove(projectId);
+            return TemplateSet.builtIn();
+        }
+
+        String fingerprint = ConfigHasher.hash(etags);
+        CachedTemplates cached = cache.get(projectId);
+        if (cached != null && cached.fingerprint().equals(fingerprint)) {
+            return cached.templates();
+        }
+
+        Map<String, CompiledTemplate> overrides = new HashMap<>();
+        for (String objectName : etags.keySet()) {
+            String name = objectName.substring(prefix(projectId).length());
+            if (!TemplateSet.names().contains(name)) {
+                log.warn("Неизвестный шаблон {} в проекте {} пропущен", name, projectId);
+                continue;
+            }
+            String source = new String(minioService.downloadFile(objectName), StandardCharsets.UTF_8);
+            overrides.put(name, TemplateSet.compileOverride(name, source));
+        }
+
+        TemplateSet templates = TemplateSet.builtIn().withOverrides(overrides, fingerprint);
+        cache.put(projectId, new CachedTemplates(fingerprint, templates));
+        return templates;
+    }
+
+    /**
+     * Все шаблоны с признаком переопределения в проекте
+     */
+    public List<TemplateInfo> list(Long projectId) throws Exception {
+        Set<String> overridden = overriddenNames(projectId);
+        List<TemplateInfo> templates = new ArrayList<>();
+        for (String name : TemplateSet.names()) {
+            templates.add(new TemplateInfo(name, overridden.contains(name)));
+        }
+        return templates;
+    }
+
+    /**
+     * Текст шаблона, действующего в проекте
+     */
+    public String getSource(Long projectId, String name) throws Exception {
+        if (overriddenNames(projectId).contains(name)) {
+            return new String(minioService.downloadFile(prefix(projectId) + name), StandardCharsets.UTF_8);
+        }
+        return TemplateSet.builtInSource(name);
+    }
+
+    /**
+     * Сохраняет пользовательский шаблон; шаблон компилируется до загрузки, поэтому ошибки видны сразу
+     *
+     * @throws IllegalArgumentException если шаблон некорректен
+     */
+    public void upload(Long projectId, String name, String source) throws Exception {
+        TemplateSet.compileOverride(name, source);
+        minioService.uploadFile(source.getBytes(StandardCharsets.UTF_8), prefix(projectId) + name, "text/plain");
+        cache.remove(projectId);
+    }
+
+    /**
+     * Удаляет пользовательский шаблон, проект возвращается к встроенному
+     */
+    public void delete(Long projectId, String name) throws Exception {
+        if (!TemplateSet.names().contains(name)) {
+            throw new IllegalArgumentException("Unknown template: " + name);
+        }
+        minioService.deleteFile(prefix(projectId) + name);
+        cache.remove(projectId);
+    }
+
+    private Set<String> overriddenNames(Long projectId) throws Exception {
+        String prefix = prefix(projectId);
+        return minioService.listObjects(prefix).stream()
+                .map(item -> item.objectName().substring(prefix.length()))
+                .collect(Collectors.toSet());
+    }
+
+    private static String prefix(Long projectId) {
+        return PREFIX + projectId + "/";
+    }
+
+    public record TemplateInfo(String name, boolean overridden) {
+    }
+
+    private record CachedTemplates(String fingerprint, TemplateSet templates) {
+    }
+}
@@ -0,0 +1,10 @@
+package vnikolaenko.github.jarch.service;
+
+/**
+ * Генерация отклонена: очередь заполнена или превышен лимит одновременных задач пользователя
+ */
+public class TooManyGenerationsException extends RuntimeException {
+    public TooManyGenerationsException(String message) {
+        super(message);
+    }
+}
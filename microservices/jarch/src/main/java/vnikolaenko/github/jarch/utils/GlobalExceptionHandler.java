@@ -5,6 +5,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
+import vnikolaenko.github.jarch.service.TooManyGenerationsException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
@@ -27,6 +28,10 @@ public class GlobalExceptionHandler {
     }
 
     private HttpStatus determineHttpStatus(Throwable ex) {
+        if (ex instanceof TooManyGenerationsException) {
+            return HttpStatus.TOO_MANY_REQUESTS;
+        }
+
         if (ex instanceof IllegalArgumentException ||
                 ex instanceof IllegalStateException) {
             return HttpStatus.BAD_REQUEST;
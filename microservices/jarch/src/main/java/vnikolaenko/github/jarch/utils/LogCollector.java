@@ -1,27 +1,64 @@
 package vnikolaenko.github.jarch.utils;
 
-import lombok.Getter;
-import lombok.Setter;
-import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
 import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
 
-@Setter
-@Getter
-@Service
+/**
+ * Журнал генерации конкретной задачи, транслируемый клиентам через SSE
+ * Хранит историю последних событий, поэтому клиент может подключиться к уже идущей генерации.
+ * Отправка клиентам и обработчикам выполняется в отдельном потоке журнала в порядке событий:
+ * потоки генерации только добавляют событие в очередь и не ждут медленного клиента или брокер
+ */
 public class LogCollector {
-    private SseEmitter emitter;
+
+    /**
+     * Сколько последних событий получает подключившийся клиент
+     */
+    public static final int HISTORY_LIMIT = 1000;
+
+    /**
+     * Сколько событий журнала ждет отправки; при превышении самые старые сообщения log не доставляются
+     */
+    public static final int PENDING_LIMIT = 1000;
+
+    private static final String LOG_EVENT = "log";
+    private static final Executor DELIVERY = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Deque<Event> history = new ArrayDeque<>();
+    private final Deque<Delivery> pending = new ArrayDeque<>();
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private final List<BiConsumer<String, Object>> listeners = new CopyOnWriteArrayList<>();
+    private final Executor delivery;
+    private boolean delivering;
+    private boolean completed;
 
     public LogCollector() {
-        this.emitter = new SseEmitter();
+        this(DELIVERY);
     }
 
     public LogCollector(SseEmitter emitter) {
-        this.emitter = new SseEmitter();
+        this();
+        attach(emitter);
+    }
+
+    /**
+     * @param delivery исполнитель, в котором события отправляются клиентам и обработчикам
+     */
+    public LogCollector(Executor delivery) {
+        this.delivery = delivery;
     }
 
     public void info(String message) {
@@ -36,20 +73,139 @@ public class LogCollector {
         sendLog("ERROR", message);
     }
 
+    /**
+     * Подключает клиента: сначала отправляется накопленная история, затем новые события
+     * Если генерация уже завершена, соединение закрывается сразу после истории
+     */
+    public synchronized void attach(SseEmitter emitter) {
+        List<Event> snapshot = new ArrayList<>(history);
+        // События после подключения и закрытие журнала доставит очередь, если они поставлены позже
+        boolean completedBefore = completed;
+        enqueue(null, () -> {
+            for (Event event : snapshot) {
+                if (!send(emitter, event)) {
+                    return;
+                }
+            }
+            if (completedBefore) {
+                emitter.complete();
+                return;
+            }
+            emitters.add(emitter);
+            emitter.onCompletion(() -> emitters.remove(emitter));
+            emitter.onTimeout(() -> emitters.remove(emitter));
+            emitter.onError(e -> emitters.remove(emitter));
+        });
+    }
+
+    /**
+     * Подписывает обработчик на новые события (например, для пересылки журнала воркера в брокер)
+     */
+    public void addListener(BiConsumer<String, Object> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Отправляет всем подключенным клиентам произвольное событие
+     * Порядок событий из разных потоков генерации сохраняется: он задается очередью отправки
+     */
+    public synchronized void event(String name, Object data) {
+        Event event = new Event(name, data);
+        history.addLast(event);
+        if (history.size() > HISTORY_LIMIT) {
+            history.removeFirst();
+        }
+        enqueue(name, () -> {
+            for (SseEmitter emitter : emitters) {
+                if (!send(emitter, event)) {
+                    emitters.remove(emitter);
+                }
+            }
+            for (BiConsumer<String, Object> listener : listeners) {
+                listener.accept(name, data);
+            }
+        });
+    }
+
+    /**
+     * Закрывает все подключения после отправки уже поставленных событий; новые клиенты получат только историю
+     */
+    public synchronized void complete() {
+        completed = true;
+        enqueue(null, () -> {
+            for (SseEmitter emitter : emitters) {
+                emitter.complete();
+            }
+            emitters.clear();
+        });
+    }
+
+    /**
+     * Ставит отправку в очередь; если очередь не обрабатывается, запускает ее обработку
+     */
+    private void enqueue(String eventName, Runnable action) {
+        pending.addLast(new Delivery(eventName, action));
+        if (pending.size() > PENDING_LIMIT) {
+            dropOldestLog();
+        }
+        if (!delivering) {
+            delivering = true;
+            delivery.execute(this::deliverPending);
+        }
+    }
+
+    private void dropOldestLog() {
+        Iterator<Delivery> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            if (LOG_EVENT.equals(iterator.next().eventName())) {
+                iterator.remove();
+                return;
+            }
+        }
+    }
+
+    private void deliverPending() {
+        while (true) {
+            Delivery next;
+            synchronized (this) {
+                next = pending.pollFirst();
+                if (next == null) {
+                    delivering = false;
+                    return;
+                }
+            }
+            try {
+                next.action().run();
+            } catch (RuntimeException e) {
+                System.err.println("Ошибка отправки лога: " + e.getMessage());
+            }
+        }
+    }
+
     private void sendLog(String level, String message) {
+        Map<String, String> logEvent = new HashMap<>();
+        logEvent.put("level", level);
+        logEvent.put("message", message);
+        logEvent.put("timestamp", Instant.now().toString());
+        event(LOG_EVENT, logEvent);
+    }
+
+    private static boolean send(SseEmitter emitter, Event event) {
         try {
-            Map<String, String> logEvent = new HashMap<>();
-            logEvent.put("level", level);
-            logEvent.put("message", message);
-            logEvent.put("timestamp", Instant.now().toString());
-
-            SseEmitter.SseEventBuilder event = SseEmitter.event()
-                    .name("log")
-                    .data(logEvent);
-            emitter.send(event);
-        } catch (IOException e) {
+            emitter.send(SseEmitter.event().name(event.name()).data(event.data()));
+            return true;
+        } catch (IOException | IllegalStateException e) {
             System.err.println("Ошибка отправки лога: " + e.getMessage());
+            return false;
         }
     }
 
+    private record Event(String name, Object data) {
+    }
+
+    /**
+     * Отправка в очереди журнала; eventName - имя события или null для подключения и закрытия клиентов
+     */
+    private record Delivery(String eventName, Runnable action) {
+    }
 }
@@ -0,0 +1,49 @@
+package vnikolaenko.github.network.rabbit;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Событие хода генерации от воркера: запись журнала или итог задачи
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GenerationEventMessage implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final String ZIP_READY = "zipReady";
+    public static final String FAILED = "failed";
+
+    private String jobId;
+    private String name;
+    private Object data;
+
+    /**
+     * Данные итогового события: признак готовности и время фаз генерации в миллисекундах
+     */
+    public static Map<String, Object> zipReady(Map<String, Long> timings) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("status", "ready");
+        if (timings != null) {
+            data.put("timings", timings);
+        }
+        return data;
+    }
+
+    /**
+     * Последнее событие задачи, после него журнал закрывается
+     */
+    @JsonIgnore
+    public boolean isFinal() {
+        return ZIP_READY.equals(name) || FAILED.equals(name);
+    }
+}
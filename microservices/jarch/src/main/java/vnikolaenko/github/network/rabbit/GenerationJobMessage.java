@@ -0,0 +1,22 @@
+package vnikolaenko.github.network.rabbit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Задача генерации проекта для воркера
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GenerationJobMessage implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String jobId;
+    private Long savingId;
+    private byte[] appConfig;
+    private byte[] entityConfig;
+}
@@ -0,0 +1,184 @@
+package vnikolaenko.github.jarch.generator;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.DefaultResourceLoader;
+import vnikolaenko.github.jarch.generator.config.ApplicationConfig;
+import vnikolaenko.github.jarch.generator.config.EntityConfig;
+import vnikolaenko.github.jarch.generator.generator.ApplicationFileGenerator;
+import vnikolaenko.github.jarch.generator.generator.EntityGenerator;
+import vnikolaenko.github.jarch.generator.generator.MigrationGenerator;
+import vnikolaenko.github.jarch.generator.generator.SharedComponentGenerator;
+import vnikolaenko.github.jarch.generator.output.GeneratedOutput;
+import vnikolaenko.github.jarch.generator.template.ApplicationPropertiesTemplate;
+import vnikolaenko.github.jarch.generator.utils.ConfigReader;
+import vnikolaenko.github.jarch.utils.LogCollector;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сгенерированный проект в каталоге теста: генерация, компиляция и запуск в этой же JVM
+ * Проект компилируется с classpath тестов, поэтому его зависимости должны быть тестовыми зависимостями JArch
+ */
+class GeneratedProject implements AutoCloseable {
+
+    /**
+     * Автоконфигурации самого JArch (безопасность, брокер), которые не нужны сгенерированному приложению
+     */
+    private static final List<String> JARCH_AUTO_CONFIGURATIONS = List.of(
+            "org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration",
+            "org.springframework.boot.autoconfigure.security.servlet.SecurityFilterAutoConfiguration",
+            "org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration",
+            "org.springframework.boot.actuate.autoconfigure.security.servlet.ManagementWebSecurityAutoConfiguration",
+            "org.springframework.boot.autoconfigure.security.reactive.ReactiveSecurityAutoConfiguration",
+            "org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration",
+            "org.springframework.boot.actuate.autoconfigure.security.reactive.ReactiveManagementWebSecurityAutoConfiguration",
+            "org.springframework.boot.autoconfigure.amqp.RabbitAutoConfiguration");
+
+    /**
+     * Автоконфигурации другого стека: на classpath тестов есть и JPA, и R2DBC
+     */
+    private static final List<String> JPA_AUTO_CONFIGURATIONS = List.of(
+            "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration",
+            "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration");
+    private static final List<String> R2DBC_AUTO_CONFIGURATIONS = List.of(
+            "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration",
+            "org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration");
+
+    private final URLClassLoader loader;
+    private final ConfigurableApplicationContext context;
+
+    private GeneratedProject(URLClassLoader loader, ConfigurableApplicationContext context) {
+        this.loader = loader;
+        this.context = context;
+    }
+
+    /**
+     * Генерирует проект в каталог и компилирует его в target/classes
+     *
+     * @return каталог скомпилированных классов
+     */
+    static Path generateAndCompile(Path projectDir, String appConfig, String entityConfig) throws IOException {
+        write(projectDir, generate(appConfig, entityConfig));
+        return compile(projectDir);
+    }
+
+    /**
+     * Генерирует, компилирует и запускает проект на свободном порту
+     *
+     * @param args дополнительные аргументы приложения, например адрес базы
+     */
+    static GeneratedProject start(Path projectDir, String appConfig, String entityConfig, String... args)
+            throws Exception {
+        ApplicationConfig config = new ConfigReader().readApplicationConfig(appConfig.getBytes(StandardCharsets.UTF_8));
+        Path classes = generateAndCompile(projectDir, appConfig, entityConfig);
+
+        URLClassLoader loader = new URLClassLoader(new URL[]{
+                classes.toUri().toURL(),
+                projectDir.resolve("src/main/resources").toUri().toURL()
+        }, GeneratedProject.class.getClassLoader());
+        boolean reactive = config.getStack() == ApplicationConfig.Stack.REACTIVE;
+        SpringApplication application = new SpringApplication(new DefaultResourceLoader(loader),
+                loader.loadClass(config.getBasePackage() + ".MainApplication"));
+        application.setWebApplicationType(reactive ? WebApplicationType.REACTIVE : WebApplicationType.SERVLET);
+
+        List<String> excluded = new ArrayList<>(JARCH_AUTO_CONFIGURATIONS);
+        excluded.addAll(reactive ? JPA_AUTO_CONFIGURATIONS : R2DBC_AUTO_CONFIGURATIONS);
+        List<String> arguments = new ArrayList<>(List.of(args));
+        arguments.add("--server.port=0");
+        arguments.add("--spring.autoconfigure.exclude=" + String.join(",", excluded));
+
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(loader);
+        try {
+            return new GeneratedProject(loader, application.run(arguments.toArray(String[]::new)));
+        } catch (RuntimeException e) {
+            loader.close();
+            throw e;
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    ConfigurableApplicationContext context() {
+        return context;
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        loader.close();
+    }
+
+    private static GeneratedOutput generate(String appConfig, String entityConfig) throws IOException {
+        ConfigReader reader = new ConfigReader();
+        ApplicationConfig application = reader.readApplicationConfig(appConfig.getBytes(StandardCharsets.UTF_8));
+        EntityConfig entities = reader.readEntityConfig(entityConfig.getBytes(StandardCharsets.UTF_8));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CodeGenerationOrchestrator orchestrator = new CodeGenerationOrchestrator(new EntityGenerator(executor),
+                    new ApplicationFileGenerator(new ApplicationPropertiesTemplate()), new SharedComponentGenerator(),
+                    new MigrationGenerator());
+            return orchestrator.generateCompleteProject(application, entities, new LogCollector(Runnable::run));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void write(Path projectDir, GeneratedOutput output) throws IOException {
+        for (Map.Entry<String, byte[]> file : output.getFiles().entrySet()) {
+            Path target = projectDir.resolve(file.getKey());
+            Files.createDirectories(target.getParent());
+            Files.write(target, file.getValue());
+        }
+    }
+
+    /**
+     * Компилирует исходники проекта с classpath тестов; Lombok (и MapStruct) подключаются как обработчики аннотаций
+     */
+    private static Path compile(Path projectDir) throws IOException {
+        Path classes = Files.createDirectories(projectDir.resolve("target/classes"));
+        List<Path> javaFiles;
+        try (Stream<Path> walk = Files.walk(projectDir.resolve("src/main/java"))) {
+            javaFiles = walk.filter(path -> path.toString().endsWith(".java")).toList();
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager =
+                     compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            List<String> options = List.of("-d", classes.toString(),
+                    "-classpath", System.getProperty("java.class.path"),
+                    "-parameters", "-proc:full");
+            boolean compiled = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjectsFromPaths(javaFiles)).call();
+            assertThat(compiled).as("generated project compiles: %s", diagnostics.getDiagnostics()).isTrue();
+        }
+        return classes;
+    }
+}
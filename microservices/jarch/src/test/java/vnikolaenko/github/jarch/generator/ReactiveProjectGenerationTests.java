@@ -0,0 +1,178 @@
+package vnikolaenko.github.jarch.generator;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Реактивный проект генерируется, компилируется и запускается в этой же JVM на H2 R2DBC,
+ * после чего CRUD проверяется через HTTP
+ */
+class ReactiveProjectGenerationTests {
+
+    private static final String APP_CONFIG = """
+            {"basePackage": "com.example.library", "applicationName": "library", "stack": "REACTIVE",
+             "mappingStrategy": "GENERATED", "database": {"type": "H2"}, "bulk": {"enabled": true}}
+            """;
+
+    private static final String ENTITY_CONFIG = """
+            {"entities": [
+              {"name": "Author", "fields": [
+                {"name": "fullName", "type": "String", "required": true},
+                {"name": "books", "type": "List<Book>", "relation": {"type": "ONE_TO_MANY", "targetEntity": "Book"}}]},
+              {"name": "Book", "keyset": {"sortField": "title"}, "fields": [
+                {"name": "title", "type": "String", "required": true},
+                {"name": "price", "type": "BigDecimal"},
+                {"name": "author", "type": "Author", "relation": {"type": "MANY_TO_ONE", "targetEntity": "Author"}},
+                {"name": "tags", "type": "List<Tag>", "relation": {"type": "MANY_TO_MANY", "targetEntity": "Tag"}}]},
+              {"name": "Tag", "fields": [{"name": "value", "type": "String"}]}
+            ]}
+            """;
+
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_OBJECT =
+            new ParameterizedTypeReference<>() {
+            };
+
+    @TempDir
+    static Path projectDir;
+
+    private static GeneratedProject project;
+    private static WebTestClient client;
+
+    @BeforeAll
+    static void generateCompileAndStart() throws Exception {
+        project = GeneratedProject.start(projectDir, APP_CONFIG, ENTITY_CONFIG,
+                "--spring.r2dbc.url=r2dbc:h2:mem:///reactive-project-test?options=DB_CLOSE_DELAY=-1");
+        client = WebTestClient.bindToServer().baseUrl(project.baseUrl()).build();
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        if (project != null) {
+            project.close();
+        }
+    }
+
+    @Test
+    void createsReadsUpdatesAndDeletesEntityWithRelations() {
+        long authorId = id(create("/api/Authors", "{\"fullName\": \"Ursula K. Le Guin\"}"));
+        long tagId = id(create("/api/Tags", "{\"value\": \"fantasy\"}"));
+
+        Map<String, Object> book = create("/api/Books", "{\"title\": \"A Wizard of Earthsea\", \"price\": 9.99, "
+                + "\"authorId\": " + authorId + ", \"tagsIds\": [" + tagId + "]}");
+        long bookId = id(book);
+        assertThat(book).containsEntry("title", "A Wizard of Earthsea")
+                .containsEntry("price", 9.99);
+
+        Map<String, Object> loaded = get("/api/Books/" + bookId);
+        assertThat(((Number) loaded.get("authorId")).longValue()).isEqualTo(authorId);
+        assertThat(loaded.get("tagsIds")).isEqualTo(List.of((int) tagId));
+
+        Map<String, Object> updated = client.put().uri("/api/Books/" + bookId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"title\": \"The Tombs of Atuan\", \"authorId\": " + authorId + "}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JSON_OBJECT).returnResult().getResponseBody();
+        assertThat(updated).containsEntry("title", "The Tombs of Atuan");
+        assertThat(get("/api/Books/" + bookId)).containsEntry("title", "The Tombs of Atuan");
+
+        client.delete().uri("/api/Books/" + bookId).exchange().expectStatus().isOk();
+        client.get().uri("/api/Books/" + bookId).exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    void pagesThroughEntities() {
+        create("/api/Tags", "{\"value\": \"paged\"}");
+
+        Map<String, Object> page = get("/api/Tags?size=1");
+        assertThat((List<?>) page.get("content")).hasSize(1)
+                .allSatisfy(tag -> assertThat(((Map<?, ?>) tag).get("value")).isNotNull());
+        assertThat(((Map<?, ?>) page.get("page")).get("size")).isEqualTo(1);
+    }
+
+    @Test
+    void pagesByCursorInSortFieldOrder() {
+        long authorId = id(create("/api/Authors", "{\"fullName\": \"Cursor Author\"}"));
+        for (String title : List.of("cursor-c", "cursor-a", "cursor-b")) {
+            create("/api/Books", "{\"title\": \"" + title + "\", \"authorId\": " + authorId + "}");
+        }
+
+        List<String> titles = new ArrayList<>();
+        String cursor = null;
+        do {
+            Map<String, Object> page = get("/api/Books/cursor?size=2" + (cursor != null ? "&cursor=" + cursor : ""));
+            for (Object item : (List<?>) page.get("content")) {
+                titles.add((String) ((Map<?, ?>) item).get("title"));
+            }
+            cursor = (String) page.get("nextCursor");
+        } while (cursor != null);
+
+        assertThat(titles).isSorted();
+        assertThat(titles).containsSubsequence("cursor-a", "cursor-b", "cursor-c");
+    }
+
+    @Test
+    void savesBatch() {
+        List<?> saved = client.post().uri("/api/Tags/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[{\"value\": \"first\"}, {\"value\": \"second\"}]")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(List.class).returnResult().getResponseBody();
+
+        assertThat(saved).hasSize(2)
+                .allSatisfy(tag -> assertThat(((Map<?, ?>) tag).get("id")).isNotNull());
+    }
+
+    @Test
+    void rejectsMissingRequiredField() {
+        client.post().uri("/api/Authors")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{}")
+                .exchange()
+                .expectStatus().isBadRequest();
+        client.post().uri("/api/Authors/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[{\"fullName\": \"valid\"}, {}]")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        client.get().uri("/api/Books/cursor?cursor=not-a-cursor!").exchange().expectStatus().isBadRequest();
+    }
+
+    private static Map<String, Object> create(String path, String json) {
+        return client.post().uri(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(json)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JSON_OBJECT).returnResult().getResponseBody();
+    }
+
+    private static Map<String, Object> get(String path) {
+        return client.get().uri(path)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JSON_OBJECT).returnResult().getResponseBody();
+    }
+
+    private static long id(Map<String, Object> dto) {
+        return ((Number) dto.get("id")).longValue();
+    }
+}
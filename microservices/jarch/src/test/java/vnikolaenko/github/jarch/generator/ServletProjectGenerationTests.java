@@ -0,0 +1,385 @@
+package vnikolaenko.github.jarch.generator;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Servlet проект со всеми включенными опциями генерируется, компилируется и запускается в этой же JVM на H2,
+ * после чего сгенерированный API проверяется через HTTP
+ */
+class ServletProjectGenerationTests {
+
+    private static final String APP_CONFIG = """
+            {"basePackage": "com.example.shop", "applicationName": "shop", "stack": "SERVLET",
+             "mappingStrategy": "GENERATED", "concurrencyModel": "VIRTUAL_THREADS",
+             "database": {"type": "H2", "batchSize": 25, "poolSize": 4},
+             "idGeneration": {"strategy": "SEQUENCE", "allocationSize": 50},
+             "pagination": {"defaultPageSize": 2, "maxPageSize": 3},
+             "bulk": {"enabled": true, "chunkSize": 2}}
+            """;
+
+    private static final String ENTITY_CONFIG = """
+            {"entities": [
+              {"name": "Customer", "fields": [
+                {"name": "fullName", "type": "String", "required": true},
+                {"name": "orders", "type": "List<Purchase>",
+                 "relation": {"type": "ONE_TO_MANY", "targetEntity": "Purchase"}}]},
+              {"name": "Purchase", "keyset": {"sortField": "title"},
+               "indexes": [{"fields": ["amount", "title"]}], "fields": [
+                {"name": "title", "type": "String", "required": true},
+                {"name": "amount", "type": "BigDecimal"},
+                {"name": "code", "type": "String", "unique": true},
+                {"name": "customer", "type": "Customer",
+                 "relation": {"type": "MANY_TO_ONE", "targetEntity": "Customer", "fetchType": "LAZY"}},
+                {"name": "labels", "type": "List<Label>",
+                 "relation": {"type": "MANY_TO_MANY", "targetEntity": "Label", "fetchType": "LAZY"}}]},
+              {"name": "Label", "cache": {"maximumSize": 100, "ttlSeconds": 60},
+               "fields": [{"name": "text", "type": "String"}]}
+            ]}
+            """;
+
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_OBJECT =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private static final ParameterizedTypeReference<List<Map<String, Object>>> JSON_LIST =
+            new ParameterizedTypeReference<>() {
+            };
+
+    @TempDir
+    static Path projectDir;
+
+    private static GeneratedProject project;
+    private static WebTestClient client;
+
+    @BeforeAll
+    static void generateCompileAndStart() throws Exception {
+        project = GeneratedProject.start(projectDir, APP_CONFIG, ENTITY_CONFIG,
+                "--spring.datasource.url=jdbc:h2:mem:servlet-project-test;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.properties.hibernate.generate_statistics=true");
+        client = WebTestClient.bindToServer().baseUrl(project.baseUrl()).build();
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        if (project != null) {
+            project.close();
+        }
+    }
+
+    @Test
+    void createsReadsUpdatesAndDeletesEntityWithRelations() {
+        long customerId = id(create("/api/Customers", "{\"fullName\": \"Ada Lovelace\"}"));
+        long labelId = id(create("/api/Labels", "{\"text\": \"gift\"}"));
+
+        Map<String, Object> purchase = create("/api/Purchases", "{\"title\": \"Engine\", \"amount\": 12.5, "
+                + "\"customerId\": " + customerId + ", \"labelsIds\": [" + labelId + "]}");
+        long purchaseId = id(purchase);
+        assertThat(purchase).containsEntry("title", "Engine").containsEntry("amount", 12.5);
+
+        Map<String, Object> loaded = get("/api/Purchases/" + purchaseId);
+        assertThat(((Number) loaded.get("customerId")).longValue()).isEqualTo(customerId);
+        assertThat(loaded.get("labelsIds")).isEqualTo(List.of((int) labelId));
+
+        client.put().uri("/api/Purchases/" + purchaseId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"title\": \"Analytical Engine\", \"customerId\": " + customerId + "}")
+                .exchange()
+                .expectStatus().isOk();
+        assertThat(get("/api/Purchases/" + purchaseId)).containsEntry("title", "Analytical Engine");
+
+        client.delete().uri("/api/Purchases/" + purchaseId).exchange().expectStatus().isOk();
+        client.get().uri("/api/Purchases/" + purchaseId).exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    void pagesWithConfiguredDefaultAndMaximumSize() {
+        for (String text : List.of("page-c", "page-a", "page-b", "page-d")) {
+            create("/api/Labels", "{\"text\": \"" + text + "\"}");
+        }
+
+        Map<String, Object> firstPage = get("/api/Labels");
+        assertThat((List<?>) firstPage.get("content")).hasSize(2);
+        assertThat(((Map<?, ?>) firstPage.get("page")).get("size")).isEqualTo(2);
+        assertThat(((Number) ((Map<?, ?>) firstPage.get("page")).get("totalElements")).intValue())
+                .isGreaterThanOrEqualTo(4);
+
+        Map<String, Object> clamped = get("/api/Labels?size=50&sort=text,desc");
+        assertThat(((Map<?, ?>) clamped.get("page")).get("size")).isEqualTo(3);
+        assertThat((List<?>) clamped.get("content")).extracting(label -> (String) ((Map<?, ?>) label).get("text"))
+                .isSortedAccordingTo((left, right) -> right.compareTo(left));
+    }
+
+    @Test
+    void pagesByCursorInSortFieldOrder() {
+        long customerId = id(create("/api/Customers", "{\"fullName\": \"Cursor Customer\"}"));
+        for (String title : List.of("cursor-c", "cursor-a", "cursor-b")) {
+            create("/api/Purchases", "{\"title\": \"" + title + "\", \"customerId\": " + customerId + "}");
+        }
+
+        List<String> titles = new ArrayList<>();
+        String cursor = null;
+        do {
+            Map<String, Object> page =
+                    get("/api/Purchases/cursor?size=2" + (cursor != null ? "&cursor=" + cursor : ""));
+            for (Object item : (List<?>) page.get("content")) {
+                titles.add((String) ((Map<?, ?>) item).get("title"));
+            }
+            cursor = (String) page.get("nextCursor");
+        } while (cursor != null);
+
+        assertThat(titles).isSorted();
+        assertThat(titles).containsSubsequence("cursor-a", "cursor-b", "cursor-c");
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        client.get().uri("/api/Purchases/cursor?cursor=not-a-cursor!").exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    void rejectsMissingRequiredField() {
+        client.post().uri("/api/Customers")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{}")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void compilesWithSliceResponses(@TempDir Path sliceProjectDir) throws IOException {
+        GeneratedProject.generateAndCompile(sliceProjectDir, APP_CONFIG.replace("\"maxPageSize\": 3",
+                "\"maxPageSize\": 3, \"responseType\": \"SLICE\""), ENTITY_CONFIG);
+    }
+
+    @Test
+    void loadsLazyRelationsThroughEntityGraphs() {
+        long customerId = id(create("/api/Customers", "{\"fullName\": \"Graph Customer\"}"));
+        long first = id(create("/api/Labels", "{\"text\": \"graph-1\"}"));
+        long second = id(create("/api/Labels", "{\"text\": \"graph-2\"}"));
+        for (String title : List.of("graph-a", "graph-b", "graph-c")) {
+            create("/api/Purchases", "{\"title\": \"" + title + "\", \"customerId\": " + customerId
+                    + ", \"labelsIds\": [" + first + ", " + second + "]}");
+        }
+        long purchaseId = id(create("/api/Purchases", "{\"title\": \"graph-d\", \"customerId\": " + customerId
+                + ", \"labelsIds\": [" + first + ", " + second + "]}"));
+        Statistics statistics = project.context().getBean(EntityManagerFactory.class)
+                .unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        Map<String, Object> loaded = get("/api/Purchases/" + purchaseId);
+        assertThat(loaded.get("labelsIds")).isEqualTo(List.of((int) first, (int) second));
+        // Связь и коллекция приходят одним запросом вместе с сущностью
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        assertThat((List<?>) get("/api/Purchases?size=3").get("content")).hasSize(3);
+        // Страница со связью и count, коллекции трех сущностей догружаются пачками по default_batch_fetch_size (2)
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void servesCachedEntitiesUntilTheyChange() {
+        long labelId = id(create("/api/Labels", "{\"text\": \"cached\"}"));
+        Statistics statistics = project.context().getBean(EntityManagerFactory.class)
+                .unwrap(SessionFactory.class).getStatistics();
+        get("/api/Labels/" + labelId);
+
+        statistics.clear();
+        assertThat(get("/api/Labels/" + labelId)).containsEntry("text", "cached");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        client.put().uri("/api/Labels/" + labelId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"text\": \"changed\"}")
+                .exchange()
+                .expectStatus().isOk();
+        assertThat(get("/api/Labels/" + labelId)).containsEntry("text", "changed");
+        client.delete().uri("/api/Labels/" + labelId).exchange().expectStatus().isOk();
+        client.get().uri("/api/Labels/" + labelId).exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    void createsConfiguredIndexes() {
+        JdbcTemplate jdbc = new JdbcTemplate(project.context().getBean(DataSource.class));
+        List<String> indexes = jdbc.queryForList("select lower(index_name) from information_schema.indexes "
+                + "where table_name = 'PURCHASE'", String.class);
+        assertThat(indexes).contains("idx_purchase_customer_id", "idx_purchase_amount_title", "idx_purchase_title_id");
+        // Уникальный индекс H2 создает как ограничение со своим индексом
+        assertThat(jdbc.queryForList("select lower(constraint_name) from information_schema.table_constraints "
+                + "where table_name = 'PURCHASE' and constraint_type = 'UNIQUE'", String.class))
+                .containsExactly("uk_purchase_code");
+
+        List<Map<String, Object>> created = bulk(HttpMethod.POST, "/api/Purchases/bulk",
+                "[{\"title\": \"unique-1\", \"code\": \"A-1\"}, {\"title\": \"unique-2\", \"code\": \"A-1\"}]");
+        assertThat(created).extracting(result -> result.get("success")).containsExactly(true, false);
+    }
+
+    @Test
+    void servesRequestsOnVirtualThreadsWithFixedPool() {
+        TomcatWebServer webServer = (TomcatWebServer) ((ServletWebServerApplicationContext) project.context())
+                .getWebServer();
+        assertThat(webServer.getTomcat().getConnector().getProtocolHandler().getExecutor())
+                .isInstanceOf(VirtualThreadExecutor.class);
+
+        HikariDataSource dataSource = project.context().getBean(HikariDataSource.class);
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(4);
+        assertThat(dataSource.getMinimumIdle()).isEqualTo(4);
+    }
+
+    @Test
+    void startsWithYamlProperties(@TempDir Path yamlProjectDir) throws Exception {
+        String appConfig = APP_CONFIG.replace("\"stack\": \"SERVLET\"",
+                "\"stack\": \"SERVLET\", \"propertiesFormat\": \"YAML\"");
+
+        assertThat(roundTrip(yamlProjectDir, appConfig, "yaml")).containsEntry("title", "Mapped");
+    }
+
+    @Test
+    void savesBatch() {
+        List<?> saved = client.post().uri("/api/Labels/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[{\"text\": \"first\"}, {\"text\": \"second\"}]")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(List.class).returnResult().getResponseBody();
+
+        assertThat(saved).hasSize(2)
+                .allSatisfy(label -> assertThat(((Map<?, ?>) label).get("id")).isNotNull());
+    }
+
+    @Test
+    void reportsBulkResultsPerItemWithoutDriverDetails() {
+        long customerId = id(create("/api/Customers", "{\"fullName\": \"Bulk Customer\"}"));
+
+        List<Map<String, Object>> created = bulk(HttpMethod.POST, "/api/Purchases/bulk", "["
+                + "{\"title\": \"bulk-1\", \"customerId\": " + customerId + "}, "
+                + "{\"title\": \"bulk-2\", \"customerId\": 999999}, "
+                + "{\"title\": \"bulk-3\"}]");
+        assertThat(created).extracting(result -> result.get("success")).containsExactly(true, false, true);
+        assertThat(created.get(1).get("error")).isEqualTo("Нарушено ограничение целостности данных");
+        Map<?, ?> first = (Map<?, ?>) created.get(0).get("data");
+        assertThat(first.get("labelsIds")).isEqualTo(List.of());
+
+        List<Map<String, Object>> updated = bulk(HttpMethod.PUT, "/api/Purchases/bulk",
+                "[{\"id\": " + first.get("id") + ", \"title\": \"bulk-1 updated\"}]");
+        assertThat(updated).singleElement().satisfies(result -> assertThat(result).containsEntry("success", true));
+        assertThat(get("/api/Purchases/" + first.get("id"))).containsEntry("title", "bulk-1 updated");
+
+        List<Map<String, Object>> deleted = bulk(HttpMethod.DELETE, "/api/Purchases/bulk",
+                "[" + first.get("id") + ", 999999]");
+        assertThat(deleted).extracting(result -> result.get("success")).containsExactly(true, false);
+        client.get().uri("/api/Purchases/" + first.get("id")).exchange().expectStatus().isNotFound();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"MAPSTRUCT", "MODEL_MAPPER"})
+    void mapsEntitiesWithEveryMappingStrategy(String mappingStrategy, @TempDir Path strategyProjectDir)
+            throws Exception {
+        String appConfig = APP_CONFIG.replace("\"mappingStrategy\": \"GENERATED\"",
+                "\"mappingStrategy\": \"" + mappingStrategy + "\"");
+
+        assertThat(roundTrip(strategyProjectDir, appConfig, mappingStrategy))
+                .containsEntry("title", "Mapped").containsEntry("amount", 3.5);
+    }
+
+    @Test
+    void allocatesSequenceIdsInPoolsAndBatchesStatements() {
+        create("/api/Labels", "{\"text\": \"sequenced\"}");
+
+        JdbcTemplate jdbc = new JdbcTemplate(project.context().getBean(DataSource.class));
+        assertThat(jdbc.queryForObject("select increment from information_schema.sequences "
+                + "where sequence_name = 'LABEL_SEQ'", Long.class)).isEqualTo(50L);
+        assertThat(project.context().getEnvironment()
+                .getProperty("spring.jpa.properties.hibernate.jdbc.batch_size")).isEqualTo("25");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"IDENTITY", "UUID_V7"})
+    void generatesIdsWithEveryStrategy(String strategy, @TempDir Path strategyProjectDir) throws Exception {
+        String appConfig = APP_CONFIG.replace("\"strategy\": \"SEQUENCE\"", "\"strategy\": \"" + strategy + "\"");
+
+        Map<String, Object> loaded = roundTrip(strategyProjectDir, appConfig, strategy);
+        assertThat(loaded).containsEntry("title", "Mapped");
+        if (strategy.equals("UUID_V7")) {
+            assertThat(UUID.fromString((String) loaded.get("id")).version()).isEqualTo(7);
+        }
+    }
+
+    /**
+     * Запускает отдельный проект с другой конфигурацией, сохраняет и читает через него одну сущность
+     */
+    private static Map<String, Object> roundTrip(Path projectDir, String appConfig, String database)
+            throws Exception {
+        try (GeneratedProject variant = GeneratedProject.start(projectDir, appConfig, ENTITY_CONFIG,
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1")) {
+            WebTestClient variantClient = WebTestClient.bindToServer().baseUrl(variant.baseUrl()).build();
+            Map<String, Object> created = variantClient.post().uri("/api/Purchases")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue("{\"title\": \"Mapped\", \"amount\": 3.5}")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(JSON_OBJECT).returnResult().getResponseBody();
+
+            return variantClient.get().uri("/api/Purchases/" + created.get("id"))
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(JSON_OBJECT).returnResult().getResponseBody();
+        }
+    }
+
+    private static Map<String, Object> create(String path, String json) {
+        return client.post().uri(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(json)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JSON_OBJECT).returnResult().getResponseBody();
+    }
+
+    private static List<Map<String, Object>> bulk(HttpMethod method, String path, String json) {
+        return client.method(method).uri(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(json)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JSON_LIST).returnResult().getResponseBody();
+    }
+
+    private static Map<String, Object> get(String path) {
+        return client.get().uri(path)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JSON_OBJECT).returnResult().getResponseBody();
+    }
+
+    private static long id(Map<String, Object> dto) {
+        return ((Number) dto.get("id")).longValue();
+    }
+}
@@ -0,0 +1,202 @@
+package vnikolaenko.github.jarch.generator.generator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import vnikolaenko.github.jarch.generator.config.ApplicationConfig;
+import vnikolaenko.github.jarch.generator.config.EntityConfig;
+import vnikolaenko.github.jarch.generator.output.GeneratedOutput;
+import vnikolaenko.github.jarch.generator.utils.ConfigReader;
+import vnikolaenko.github.jarch.utils.LogCollector;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MigrationGeneratorTests {
+
+    private static final String ENTITIES = """
+            {"entities": [
+              {"name": "Author", "fields": [
+                {"name": "fullName", "type": "String", "required": true, "indexed": true},
+                {"name": "books", "type": "List<Book>", "relation": {"type": "ONE_TO_MANY", "targetEntity": "Book"}}]},
+              {"name": "Book", "fields": [
+                {"name": "title", "type": "String"},
+                {"name": "price", "type": "BigDecimal"},
+                {"name": "author", "type": "Author", "required": true,
+                 "relation": {"type": "MANY_TO_ONE", "targetEntity": "Author"}},
+                {"name": "tags", "type": "List<Tag>", "relation": {"type": "MANY_TO_MANY", "targetEntity": "Tag"}}]},
+              {"name": "Tag", "fields": [{"name": "label", "type": "String"}]}
+            ]}
+            """;
+
+    private static final String RESERVED_ENTITIES = """
+            {"entities": [
+              {"name": "User", "fields": [
+                {"name": "value", "type": "Integer", "indexed": true},
+                {"name": "orders", "type": "List<Order>", "relation": {"type": "ONE_TO_MANY", "targetEntity": "Order"}}]},
+              {"name": "Order", "fields": [
+                {"name": "key", "type": "String", "unique": true},
+                {"name": "customer", "type": "User", "relation": {"type": "MANY_TO_ONE", "targetEntity": "User"}}]}
+            ]}
+            """;
+
+    private final ConfigReader reader = new ConfigReader();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void flywayWritesBaselineScriptForEveryDatabase() throws IOException {
+        GeneratedOutput output = generate("\"migrations\": {\"tool\": \"FLYWAY\"}");
+
+        assertThat(output.getFiles()).containsOnlyKeys(
+                "src/main/resources/db/migration/h2/V1__init_schema.sql",
+                "src/main/resources/db/migration/postgresql/V1__init_schema.sql",
+                "src/main/resources/db/migration/mysql/V1__init_schema.sql");
+        assertThat(file(output, "src/main/resources/db/migration/postgresql/V1__init_schema.sql"))
+                .startsWith("-- Baseline schema generated by JArch")
+                .contains("full_name varchar(255) not null")
+                .contains("author_id bigint not null")
+                .contains("title varchar(255),");
+    }
+
+    @Test
+    void h2ScriptCreatesSchemaThatEnforcesConstraints() throws Exception {
+        GeneratedOutput output = generate("\"migrations\": {\"tool\": \"FLYWAY\"}");
+
+        try (Connection connection = h2()) {
+            runScript(connection, file(output, "src/main/resources/db/migration/h2/V1__init_schema.sql"));
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("insert into author (id, full_name) values (1, 'Le Guin')");
+                statement.execute("insert into book (id, title, author_id) values (1, 'Earthsea', 1)");
+
+                assertThatThrownBy(() -> statement.execute("insert into author (id) values (2)"))
+                        .isInstanceOf(SQLException.class);
+                assertThatThrownBy(() -> statement.execute("insert into book (id, author_id) values (2, 99)"))
+                        .isInstanceOf(SQLException.class);
+            }
+        }
+    }
+
+    @Test
+    void liquibaseChangelogIncludesScriptForEveryDatabase() throws IOException {
+        GeneratedOutput output = generate("\"migrations\": {\"tool\": \"LIQUIBASE\"}");
+
+        assertThat(file(output, "src/main/resources/db/changelog/db.changelog-master.yaml"))
+                .contains("file: db/changelog/h2/001-init-schema.sql")
+                .contains("file: db/changelog/postgresql/001-init-schema.sql")
+                .contains("file: db/changelog/mysql/001-init-schema.sql");
+        assertThat(file(output, "src/main/resources/db/changelog/mysql/001-init-schema.sql"))
+                .startsWith("--liquibase formatted sql")
+                .contains("--changeset jarch:001-init-schema dbms:mysql");
+    }
+
+    @Test
+    void servletProjectWithoutMigrationToolGetsNoScripts() throws IOException {
+        assertThat(generate("").size()).isZero();
+    }
+
+    @Test
+    void reactiveSchemaCanBeAppliedRepeatedly() throws Exception {
+        GeneratedOutput output = generate(
+                "\"stack\": \"REACTIVE\", \"idGeneration\": {\"strategy\": \"SEQUENCE\", \"allocationSize\": 50}");
+        String schema = file(output, "src/main/resources/schema.sql");
+
+        try (Connection connection = h2()) {
+            runScript(connection, schema);
+            runScript(connection, schema);
+            try (Statement statement = connection.createStatement();
+                 ResultSet next = statement.executeQuery("select next value for \"book_seq\"")) {
+                assertThat(next.next()).isTrue();
+                assertThat(next.getLong(1)).isEqualTo(1);
+            }
+        }
+    }
+
+    @Test
+    void reservedNamesAreQuotedForEveryDatabase() throws Exception {
+        GeneratedOutput output = generate("\"migrations\": {\"tool\": \"FLYWAY\"}", RESERVED_ENTITIES);
+
+        assertThat(file(output, "src/main/resources/db/migration/postgresql/V1__init_schema.sql"))
+                .contains("create table \"order\" (")
+                .contains("\"key\" varchar(255)")
+                .contains("references \"user\" (id)");
+        assertThat(file(output, "src/main/resources/db/migration/mysql/V1__init_schema.sql"))
+                .contains("create table `user` (")
+                .contains("`value` integer");
+        try (Connection connection = h2()) {
+            runScript(connection, file(output, "src/main/resources/db/migration/h2/V1__init_schema.sql"));
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("insert into \"user\" (id, \"value\") values (1, 7)");
+                statement.execute("insert into \"order\" (id, \"key\", customer_id) values (1, 'a', 1)");
+                assertThatThrownBy(() -> statement.execute(
+                        "insert into \"order\" (id, \"key\", customer_id) values (2, 'a', 1)"))
+                        .isInstanceOf(SQLException.class);
+            }
+        }
+    }
+
+    @Test
+    void reactiveSchemaQuotesEveryName() throws Exception {
+        String schema = file(generate("\"stack\": \"REACTIVE\"", RESERVED_ENTITIES), "src/main/resources/schema.sql");
+
+        assertThat(schema).contains("create table \"order\" (").contains("\"customer_id\" bigint");
+        try (Connection connection = h2()) {
+            runScript(connection, schema);
+            runScript(connection, schema);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("insert into \"user\" (\"value\") values (7)");
+            }
+        }
+    }
+
+    @Test
+    void scriptsAreDeterministic() throws IOException {
+        String app = "\"migrations\": {\"tool\": \"FLYWAY\"}";
+
+        assertThat(generate(app).getFiles()).usingRecursiveComparison().isEqualTo(generate(app).getFiles());
+    }
+
+    /**
+     * Генерирует миграции для проекта com.example с дополнительными настройками приложения
+     */
+    private GeneratedOutput generate(String settings) throws IOException {
+        return generate(settings, ENTITIES);
+    }
+
+    private GeneratedOutput generate(String settings, String entities) throws IOException {
+        String appJson = "{\"basePackage\": \"com.example\"" + (settings.isEmpty() ? "" : ", " + settings) + "}";
+        ApplicationConfig appConfig = reader.readApplicationConfig(appJson.getBytes(StandardCharsets.UTF_8));
+        EntityConfig entityConfig = reader.readEntityConfig(entities.getBytes(StandardCharsets.UTF_8));
+        GeneratedOutput output = new GeneratedOutput();
+        new MigrationGenerator().generateMigrations(appConfig, entityConfig, output, new LogCollector(Runnable::run));
+        return output;
+    }
+
+    private static String file(GeneratedOutput output, String path) {
+        byte[] content = output.getFile(path);
+        assertThat(content).as(path).isNotNull();
+        return new String(content, StandardCharsets.UTF_8);
+    }
+
+    private static Connection h2() throws SQLException {
+        return DriverManager.getConnection("jdbc:h2:mem:" + UUID.randomUUID(), "sa", "");
+    }
+
+    private void runScript(Connection connection, String script) throws IOException, SQLException {
+        Path file = Files.writeString(Files.createTempFile(tempDir, "schema", ".sql"), script);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("runscript from '" + file + "'");
+        }
+    }
+}
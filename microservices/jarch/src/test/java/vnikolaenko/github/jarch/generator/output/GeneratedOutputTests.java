@@ -0,0 +1,118 @@
+package vnikolaenko.github.jarch.generator.output;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GeneratedOutputTests {
+
+    @Test
+    void normalizesPathsAndCountsBytes() {
+        GeneratedOutput output = new GeneratedOutput();
+        output.writeString("/src\\main\\resources/application.properties", "a=1");
+        output.writeBytes("README.md", new byte[10]);
+
+        assertThat(output.getFile("src/main/resources/application.properties"))
+                .isEqualTo("a=1".getBytes(StandardCharsets.UTF_8));
+        assertThat(output.size()).isEqualTo(2);
+        assertThat(output.sizeInBytes()).isEqualTo(13);
+    }
+
+    @Test
+    void rejectsSecondWriteOfSamePath() {
+        GeneratedOutput output = new GeneratedOutput();
+        output.writeString("pom.xml", "first");
+
+        assertThatThrownBy(() -> output.writeString("/pom.xml", "second"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("pom.xml");
+        assertThat(output.getFile("pom.xml")).isEqualTo("first".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writeAllTransfersNothingOnConflict() {
+        GeneratedOutput output = new GeneratedOutput();
+        output.writeString("b.txt", "taken");
+        GeneratedOutput other = new GeneratedOutput();
+        other.writeString("a.txt", "new");
+        other.writeString("b.txt", "conflict");
+
+        assertThatThrownBy(() -> output.writeAll(other)).isInstanceOf(IllegalStateException.class);
+        assertThat(output.getFile("a.txt")).isNull();
+        assertThat(output.size()).isEqualTo(1);
+    }
+
+    @Test
+    void diffContainsChangedFilesAndDeletedManifest() {
+        GeneratedOutput previous = new GeneratedOutput();
+        previous.writeString("same.txt", "same");
+        previous.writeString("changed.txt", "old");
+        previous.writeString("removed.txt", "gone");
+        GeneratedOutput current = new GeneratedOutput();
+        current.writeString("same.txt", "same");
+        current.writeString("changed.txt", "new");
+        current.writeString("added.txt", "added");
+
+        GeneratedOutput diff = current.diff(previous);
+
+        assertThat(diff.getFiles()).containsOnlyKeys("changed.txt", "added.txt",
+                GeneratedOutput.DELETED_FILES_MANIFEST);
+        assertThat(new String(diff.getFile(GeneratedOutput.DELETED_FILES_MANIFEST), StandardCharsets.UTF_8))
+                .isEqualTo("removed.txt\n");
+    }
+
+    @Test
+    void zipContainsAllFilesInPathOrder() throws IOException {
+        GeneratedOutput output = new GeneratedOutput();
+        output.writeString("src/B.java", "class B {}");
+        output.writeString("pom.xml", "<project/>");
+
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        output.writeZip(zip);
+
+        assertThat(unzip(zip.toByteArray())).containsExactly(
+                Map.entry("pom.xml", "<project/>"),
+                Map.entry("src/B.java", "class B {}"));
+    }
+
+    @Test
+    void spooledArchiveMatchesInMemoryZipAndIsDeletedOnRelease() throws IOException {
+        GeneratedOutput output = new GeneratedOutput();
+        output.writeString("pom.xml", "<project/>");
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        output.writeZip(expected);
+
+        FileArchive archive = FileArchive.spool(output);
+        try {
+            ByteArrayOutputStream actual = new ByteArrayOutputStream();
+            archive.writeTo(actual);
+            assertThat(actual.toByteArray()).isEqualTo(expected.toByteArray());
+            assertThat(archive.sizeInBytes()).isEqualTo(expected.size());
+        } finally {
+            archive.release();
+        }
+        assertThat(Files.exists(archive.getPath())).isFalse();
+    }
+
+    static Map<String, String> unzip(byte[] zip) throws IOException {
+        Map<String, String> files = new LinkedHashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                files.put(entry.getName(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return files;
+    }
+}
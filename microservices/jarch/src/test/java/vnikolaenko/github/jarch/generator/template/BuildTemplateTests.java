@@ -0,0 +1,65 @@
+package vnikolaenko.github.jarch.generator.template;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+import vnikolaenko.github.jarch.generator.config.ApplicationConfig;
+import vnikolaenko.github.jarch.generator.config.EntityConfig;
+import vnikolaenko.github.jarch.generator.utils.ConfigReader;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BuildTemplateTests {
+
+    private final ConfigReader reader = new ConfigReader();
+
+    @Test
+    void mavenPomIsWellFormedAndIndentedByLevel() throws Exception {
+        String pom = BuildTemplate.generateBuildFile(appConfig("MAVEN"), entities(), TemplateSet.builtIn());
+
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new InputSource(new StringReader(pom)));
+        assertThat(document.getElementsByTagName("dependency").getLength()).isGreaterThan(5);
+        assertIndentedByLevel(pom);
+    }
+
+    @Test
+    void gradleBuildIsIndentedByLevel() throws Exception {
+        String build = BuildTemplate.generateBuildFile(appConfig("GRADLE"), entities(), TemplateSet.builtIn());
+
+        assertThat(build).contains("\n    annotationProcessor 'org.mapstruct:mapstruct-processor:1.6.3'");
+        assertIndentedByLevel(build);
+    }
+
+    /**
+     * Каждая строка файла сборки сдвинута на целое число уровней по 4 пробела
+     */
+    private static void assertIndentedByLevel(String content) {
+        assertThat(content.lines()
+                .filter(line -> !line.isBlank())
+                .filter(line -> !line.stripLeading().startsWith("xmlns") && !line.stripLeading().startsWith("xsi:")
+                        && !line.stripLeading().startsWith("http://")))
+                .allSatisfy(line -> assertThat((line.length() - line.stripLeading().length()) % 4)
+                        .as(line)
+                        .isZero());
+    }
+
+    private ApplicationConfig appConfig(String buildTool) throws IOException {
+        return reader.readApplicationConfig(("""
+                {"basePackage": "com.example.shop", "buildTool": "%s", "mappingStrategy": "MAPSTRUCT",
+                 "database": {"type": "POSTGRESQL"}, "migrations": {"tool": "FLYWAY"}}
+                """.formatted(buildTool)).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private EntityConfig entities() throws IOException {
+        return reader.readEntityConfig("""
+                {"entities": [{"name": "Order", "cache": {},
+                  "fields": [{"name": "title", "type": "String"}]}]}
+                """.getBytes(StandardCharsets.UTF_8));
+    }
+}
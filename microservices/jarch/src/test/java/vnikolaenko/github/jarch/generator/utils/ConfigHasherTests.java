@@ -0,0 +1,77 @@
+package vnikolaenko.github.jarch.generator.utils;
+
+import org.junit.jupiter.api.Test;
+import vnikolaenko.github.jarch.generator.config.ApplicationConfig;
+import vnikolaenko.github.jarch.generator.config.EntityConfig;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConfigHasherTests {
+
+    private final ConfigReader reader = new ConfigReader();
+
+    @Test
+    void propertyOrderDoesNotChangeHash() throws IOException {
+        ApplicationConfig first = readApp("""
+                {"basePackage": "com.example", "applicationName": "shop",
+                 "typeAliases": {"Uuid": "java.util.UUID", "Instant": "java.time.Instant"}}
+                """);
+        ApplicationConfig second = readApp("""
+                {"typeAliases": {"Instant": "java.time.Instant", "Uuid": "java.util.UUID"},
+                 "applicationName": "shop", "basePackage": "com.example"}
+                """);
+
+        assertThat(ConfigHasher.hash(first)).isEqualTo(ConfigHasher.hash(second));
+    }
+
+    @Test
+    void anySettingChangesHash() throws IOException {
+        ApplicationConfig config = readApp("{\"basePackage\": \"com.example\"}");
+        ApplicationConfig changed = readApp("{\"basePackage\": \"com.example\", \"serverPort\": 9090}");
+
+        assertThat(ConfigHasher.hash(config)).isNotEqualTo(ConfigHasher.hash(changed));
+    }
+
+    @Test
+    void entityChangeChangesHash() throws IOException {
+        EntityConfig config = readEntities("""
+                {"entities": [{"name": "Book", "fields": [{"name": "title", "type": "String"}]}]}
+                """);
+        EntityConfig changed = readEntities("""
+                {"entities": [{"name": "Book", "fields": [{"name": "title", "type": "String", "required": true}]}]}
+                """);
+
+        assertThat(ConfigHasher.hash(config)).isNotEqualTo(ConfigHasher.hash(changed));
+    }
+
+    @Test
+    void partBoundariesAreSignificant() {
+        assertThat(ConfigHasher.hash("ab", "c")).isNotEqualTo(ConfigHasher.hash("a", "bc"));
+        assertThat(ConfigHasher.hash("abc")).hasSize(64).isEqualTo(ConfigHasher.hash("abc"));
+    }
+
+    @Test
+    void mapsAreHashedInKeyOrder() {
+        Map<String, Integer> first = new LinkedHashMap<>();
+        first.put("a", 1);
+        first.put("b", 2);
+        Map<String, Integer> second = new LinkedHashMap<>();
+        second.put("b", 2);
+        second.put("a", 1);
+
+        assertThat(ConfigHasher.hash(first)).isEqualTo(ConfigHasher.hash(second));
+    }
+
+    private ApplicationConfig readApp(String json) throws IOException {
+        return reader.readApplicationConfig(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private EntityConfig readEntities(String json) throws IOException {
+        return reader.readEntityConfig(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,155 @@
+package vnikolaenko.github.jarch.generator.utils;
+
+import org.junit.jupiter.api.Test;
+import vnikolaenko.github.jarch.generator.config.ApplicationConfig;
+import vnikolaenko.github.jarch.generator.config.EntityConfig;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConfigReaderTests {
+
+    private final ConfigReader reader = new ConfigReader();
+
+    @Test
+    void appliesApplicationDefaults() throws IOException {
+        ApplicationConfig config = readApp("{\"basePackage\": \"com.example\"}");
+
+        assertThat(config.getMappingStrategy()).isEqualTo(ApplicationConfig.MappingStrategy.MODEL_MAPPER);
+        assertThat(config.getConcurrencyModel()).isEqualTo(ApplicationConfig.ConcurrencyModel.PLATFORM);
+        assertThat(config.getStack()).isEqualTo(ApplicationConfig.Stack.SERVLET);
+        assertThat(config.getIdGeneration()).isNotNull();
+        assertThat(config.getPagination()).isNotNull();
+        assertThat(config.getBulk().isEnabled()).isFalse();
+    }
+
+    @Test
+    void rejectsInvalidApplicationSettings() {
+        assertInvalidApp("{\"idGeneration\": {\"strategy\": \"SEQUENCE\", \"allocationSize\": 0}}",
+                "/idGeneration/allocationSize");
+        assertInvalidApp("{\"pagination\": {\"defaultPageSize\": 50, \"maxPageSize\": 10}}",
+                "/pagination/maxPageSize");
+        assertInvalidApp("{\"bulk\": {\"enabled\": true, \"chunkSize\": 0}}", "/bulk/chunkSize");
+        assertInvalidApp("{\"database\": {\"type\": \"H2\", \"poolSize\": 0}}", "/database/poolSize");
+    }
+
+    @Test
+    void reactiveStackRejectsJdbcOnlyFeatures() throws IOException {
+        assertInvalidApp("{\"stack\": \"REACTIVE\", \"migrations\": {\"tool\": \"FLYWAY\"}}", "/migrations/tool");
+        assertInvalidApp("{\"stack\": \"REACTIVE\", \"concurrencyModel\": \"VIRTUAL_THREADS\"}", "/concurrencyModel");
+
+        ApplicationConfig bulk = readApp("{\"stack\": \"REACTIVE\", \"bulk\": {\"enabled\": true}}");
+        assertThat(bulk.getBulk().isEnabled()).isTrue();
+    }
+
+    @Test
+    void readsValidEntities() throws IOException {
+        EntityConfig config = readEntities("""
+                {"entities": [
+                  {"name": "Book", "keyset": {"sortField": "title"}, "fields": [
+                    {"name": "title", "type": "String", "required": true, "indexed": true},
+                    {"name": "author", "type": "Author",
+                     "relation": {"type": "MANY_TO_ONE", "targetEntity": "Author", "fetchType": "LAZY"}}]},
+                  {"name": "Author", "fields": [{"name": "fullName", "type": "String"}]}
+                ]}
+                """);
+
+        assertThat(config.getEntities()).extracting(EntityConfig.EntityDefinition::getName)
+                .containsExactly("Book", "Author");
+    }
+
+    @Test
+    void reportsPointerToInvalidRelation() {
+        assertInvalidEntities("""
+                {"entities": [{"name": "Book", "fields": [
+                  {"name": "title", "type": "String"},
+                  {"name": "author", "type": "Author", "relation": {"type": "BELONGS_TO", "targetEntity": "Book"}}]}]}
+                """, "/entities/0/fields/1/relation/type");
+        assertInvalidEntities("""
+                {"entities": [{"name": "Book", "fields": [
+                  {"name": "author", "type": "Author", "relation": {"type": "MANY_TO_ONE", "targetEntity": "Author"}}]}]}
+                """, "/entities/0/fields/0/relation/targetEntity");
+        assertInvalidEntities("""
+                {"entities": [{"name": "Book", "fields": [
+                  {"name": "tags", "type": "List<Book>",
+                   "relation": {"type": "MANY_TO_MANY", "targetEntity": "Book", "cascadeType": "PERSIST,EXPLODE"}}]}]}
+                """, "/entities/0/fields/0/relation/cascadeType");
+    }
+
+    @Test
+    void rejectsDuplicateNames() {
+        assertInvalidEntities("""
+                {"entities": [{"name": "Book"}, {"name": "Book"}]}
+                """, "/entities/1/name");
+        assertInvalidEntities("""
+                {"entities": [{"name": "Book", "fields": [
+                  {"name": "title", "type": "String"}, {"name": "title", "type": "String"}]}]}
+                """, "/entities/0/fields/1/name");
+    }
+
+    @Test
+    void acceptsReservedSqlNames() throws IOException {
+        // Зарезервированные слова генератор берет в кавычки, конфигурации с ними остаются рабочими
+        EntityConfig config = readEntities("""
+                {"entities": [
+                  {"name": "Order", "fields": [{"name": "total", "type": "BigDecimal"},
+                    {"name": "group", "type": "List<Tag>", "relation": {"type": "ONE_TO_MANY", "targetEntity": "Tag"}}]},
+                  {"name": "Tag", "fields": [{"name": "value", "type": "String"}, {"name": "key", "type": "String"}]}
+                ]}
+                """);
+
+        assertThat(config.getEntities()).hasSize(2);
+    }
+
+    @Test
+    void keysetSortFieldMustBeRequiredScalar() {
+        assertInvalidEntities("""
+                {"entities": [{"name": "Book", "keyset": {"sortField": "title"},
+                  "fields": [{"name": "title", "type": "String"}]}]}
+                """, "/entities/0/keyset/sortField");
+        assertInvalidEntities("""
+                {"entities": [{"name": "Book", "keyset": {"sortField": "isbn"},
+                  "fields": [{"name": "title", "type": "String", "required": true}]}]}
+                """, "/entities/0/keyset/sortField");
+    }
+
+    @Test
+    void indexesOnlyCoverColumns() {
+        assertInvalidEntities("""
+                {"entities": [{"name": "Book", "indexes": [{"fields": ["title", "title"]}],
+                  "fields": [{"name": "title", "type": "String"}]}]}
+                """, "/entities/0/indexes/0/fields/1");
+        assertInvalidEntities("""
+                {"entities": [{"name": "Book", "fields": [{"name": "tags", "type": "List<String>", "indexed": true}]}]}
+                """, "/entities/0/fields/0/indexed");
+    }
+
+    @Test
+    void rejectsUnknownProperties() {
+        assertInvalidEntities("{\"entity\": []}", "/entity");
+        assertInvalidEntities("{}", "/entities");
+    }
+
+    private ApplicationConfig readApp(String json) throws IOException {
+        return reader.readApplicationConfig(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private EntityConfig readEntities(String json) throws IOException {
+        return reader.readEntityConfig(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void assertInvalidApp(String json, String pointer) {
+        assertThatThrownBy(() -> readApp(json))
+                .isInstanceOfSatisfying(ConfigValidationException.class,
+                        e -> assertThat(e.getPointer()).isEqualTo(pointer));
+    }
+
+    private void assertInvalidEntities(String json, String pointer) {
+        assertThatThrownBy(() -> readEntities(json))
+                .isInstanceOfSatisfying(ConfigValidationException.class,
+                        e -> assertThat(e.getPointer()).isEqualTo(pointer));
+    }
+}
@@ -0,0 +1,67 @@
+package vnikolaenko.github.jarch.generator.utils;
+
+import org.junit.jupiter.api.Test;
+import vnikolaenko.github.jarch.generator.config.ApplicationConfig;
+import vnikolaenko.github.jarch.generator.config.EntityConfig;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EntityFingerprintsTests {
+
+    private static final String ENTITIES = """
+            {"entities": [
+              {"name": "Book", "fields": [
+                {"name": "title", "type": "%s"},
+                {"name": "author", "type": "Author", "relation": {"type": "MANY_TO_ONE", "targetEntity": "Author"}},
+                {"name": "sequel", "type": "Book", "relation": {"type": "ONE_TO_ONE", "targetEntity": "Book"}}]},
+              {"name": "Author", "fields": [{"name": "fullName", "type": "%s"}]},
+              {"name": "Tag", "fields": [{"name": "label", "type": "String"}]}
+            ]}
+            """;
+
+    private final ConfigReader reader = new ConfigReader();
+
+    @Test
+    void fingerprintsFollowDeclarationOrder() throws IOException {
+        Map<String, String> fingerprints = compute("{\"basePackage\": \"com.example\"}", "String", "String");
+
+        assertThat(fingerprints).containsOnlyKeys("Book", "Author", "Tag");
+        assertThat(fingerprints.keySet()).containsExactly("Book", "Author", "Tag");
+        assertThat(fingerprints).isEqualTo(compute("{\"basePackage\": \"com.example\"}", "String", "String"));
+    }
+
+    @Test
+    void changeOfEntityAffectsOnlyItAndEntitiesReferencingIt() throws IOException {
+        Map<String, String> base = compute("{\"basePackage\": \"com.example\"}", "String", "String");
+
+        Map<String, String> bookChanged = compute("{\"basePackage\": \"com.example\"}", "Text", "String");
+        assertThat(bookChanged.get("Book")).isNotEqualTo(base.get("Book"));
+        assertThat(bookChanged.get("Author")).isEqualTo(base.get("Author"));
+        assertThat(bookChanged.get("Tag")).isEqualTo(base.get("Tag"));
+
+        Map<String, String> authorChanged = compute("{\"basePackage\": \"com.example\"}", "String", "Text");
+        assertThat(authorChanged.get("Author")).isNotEqualTo(base.get("Author"));
+        assertThat(authorChanged.get("Book")).isNotEqualTo(base.get("Book"));
+        assertThat(authorChanged.get("Tag")).isEqualTo(base.get("Tag"));
+    }
+
+    @Test
+    void applicationSettingsAffectEveryEntity() throws IOException {
+        Map<String, String> base = compute("{\"basePackage\": \"com.example\"}", "String", "String");
+        Map<String, String> changed = compute("{\"basePackage\": \"com.example\", \"serverPort\": 9090}",
+                "String", "String");
+
+        base.forEach((name, fingerprint) -> assertThat(changed.get(name)).as(name).isNotEqualTo(fingerprint));
+    }
+
+    private Map<String, String> compute(String appJson, String titleType, String nameType) throws IOException {
+        ApplicationConfig appConfig = reader.readApplicationConfig(appJson.getBytes(StandardCharsets.UTF_8));
+        EntityConfig entityConfig = reader.readEntityConfig(
+                ENTITIES.formatted(titleType, nameType).getBytes(StandardCharsets.UTF_8));
+        return EntityFingerprints.compute(appConfig, entityConfig);
+    }
+}
@@ -0,0 +1,64 @@
+package vnikolaenko.github.jarch.generator.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PhaseTimingsTests {
+
+    @Test
+    void keepsPhasesInOrderOfFirstExecution() {
+        PhaseTimings timings = new PhaseTimings();
+        timings.record(PhaseTimings.CONFIG, 5);
+        timings.record(PhaseTimings.MODEL, 10);
+        timings.record(PhaseTimings.CONFIG, 7);
+        timings.record(PhaseTimings.ZIP, 3_000_000);
+
+        assertThat(timings.getNanos()).containsExactly(
+                entry(PhaseTimings.CONFIG, 12L),
+                entry(PhaseTimings.MODEL, 10L),
+                entry(PhaseTimings.ZIP, 3_000_000L));
+        assertThat(timings.getMillis()).containsEntry(PhaseTimings.ZIP, 3L);
+    }
+
+    @Test
+    void sumsParallelPhasesWithoutLosingAny() throws Exception {
+        PhaseTimings timings = new PhaseTimings();
+        List<String> phases = IntStream.range(0, 50).mapToObj(i -> "phase-" + i).toList();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                tasks.add(executor.submit(() -> {
+                    start.await();
+                    phases.forEach(phase -> timings.record(phase, 1));
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Каждая фаза учтена один раз, со своим номером и суммой всех потоков
+        assertThat(timings.getNanos()).hasSize(phases.size()).allSatisfy((phase, nanos) ->
+                assertThat(nanos).isEqualTo(8L));
+    }
+
+    private static Map.Entry<String, Long> entry(String phase, long nanos) {
+        return Map.entry(phase, nanos);
+    }
+}
@@ -0,0 +1,100 @@
+package vnikolaenko.github.jarch.generator.utils;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.ParameterizedTypeName;
+import org.junit.jupiter.api.Test;
+import vnikolaenko.github.jarch.generator.config.ApplicationConfig;
+import vnikolaenko.github.jarch.generator.config.EntityConfig;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TypeMapperTests {
+
+    private final ConfigReader reader = new ConfigReader();
+
+    @Test
+    void resolvesBasicTypesIgnoringCase() {
+        TypeMapper mapper = TypeMapper.of("com.example");
+
+        assertThat(mapper.getJavaType("String")).isEqualTo(ClassName.get(String.class));
+        assertThat(mapper.getJavaType(" text ")).isEqualTo(ClassName.get(String.class));
+        assertThat(mapper.getJavaType("BIGDECIMAL")).isEqualTo(ClassName.get(BigDecimal.class));
+        assertThat(mapper.getJavaType("dateTime")).isEqualTo(ClassName.get(LocalDateTime.class));
+        assertThat(mapper.getJavaType(null)).isEqualTo(ClassName.get(String.class));
+        assertThat(mapper.isBasic("int")).isTrue();
+    }
+
+    @Test
+    void resolvesEntitiesAndCollections() {
+        TypeMapper mapper = TypeMapper.of("com.example");
+        ClassName book = ClassName.get("com.example.model", "Book");
+
+        assertThat(mapper.resolve("book")).isEqualTo(new TypeMapper.ResolvedType(book, false));
+        assertThat(mapper.resolve("Set<Book>"))
+                .isEqualTo(new TypeMapper.ResolvedType(ParameterizedTypeName.get(ClassName.get(Set.class), book), false));
+        assertThat(mapper.getJavaType("Bag<String>"))
+                .isEqualTo(ParameterizedTypeName.get(ClassName.get(List.class), ClassName.get(String.class)));
+        assertThat(mapper.isBasic("List<String>")).isFalse();
+    }
+
+    @Test
+    void projectMapperAppliesAliasesAndIdType() throws IOException {
+        ApplicationConfig appConfig = reader.readApplicationConfig("""
+                {"basePackage": "com.example", "idGeneration": {"strategy": "UUID_V7"},
+                 "typeAliases": {"Instant": "java.time.Instant", "Money": "BigDecimal", "Owner": "Author"}}
+                """.getBytes(StandardCharsets.UTF_8));
+        TypeMapper mapper = TypeMapper.forProject(appConfig, entities());
+
+        assertThat(mapper.getIdType()).isEqualTo(ClassName.get(UUID.class));
+        assertThat(mapper.resolve("instant")).isEqualTo(new TypeMapper.ResolvedType(ClassName.get(Instant.class), true));
+        assertThat(mapper.resolve("Money")).isEqualTo(new TypeMapper.ResolvedType(ClassName.get(BigDecimal.class), true));
+        assertThat(mapper.resolve("Owner"))
+                .isEqualTo(new TypeMapper.ResolvedType(ClassName.get("com.example.model", "Author"), false));
+        assertThat(TypeMapper.of("com.example").getIdType()).isEqualTo(ClassName.get(Long.class));
+    }
+
+    @Test
+    void rejectsInvalidAliasTarget() {
+        ApplicationConfig appConfig = new ApplicationConfig();
+        appConfig.setBasePackage("com.example");
+        appConfig.setTypeAliases(Map.of("Broken", "java.time.1nstant"));
+
+        assertThatThrownBy(() -> TypeMapper.forProject(appConfig, entities()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Broken");
+    }
+
+    @Test
+    void staticHelpersParseCollectionTypes() {
+        assertThat(TypeMapper.isBasicType("Long")).isTrue();
+        assertThat(TypeMapper.isBasicType("List<Long>")).isFalse();
+        assertThat(TypeMapper.isCollectionType("Set<Tag>")).isTrue();
+        assertThat(TypeMapper.isCollectionType("Tag")).isFalse();
+        assertThat(TypeMapper.extractGenericType("List< Tag >")).isEqualTo("Tag");
+        assertThat(TypeMapper.extractGenericType("Tag")).isEqualTo("Object");
+        assertThat(TypeMapper.extractCollectionType("Set<Tag>")).isEqualTo("Set");
+        assertThat(TypeMapper.extractCollectionType(null)).isEqualTo("List");
+    }
+
+    private EntityConfig entities() {
+        try {
+            return reader.readEntityConfig("""
+                    {"entities": [{"name": "Author", "fields": [
+                      {"name": "born", "type": "Instant"}, {"name": "fee", "type": "Money"}]}]}
+                    """.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package vnikolaenko.github.jarch.rabbit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import vnikolaenko.github.jarch.config.RabbitMQConfig;
+import vnikolaenko.github.jarch.generator.output.GeneratedOutput;
+import vnikolaenko.github.jarch.service.GenerationJobService;
+import vnikolaenko.github.jarch.service.GenerationWorker;
+import vnikolaenko.github.jarch.service.RemoteResultStore;
+import vnikolaenko.github.network.rabbit.GenerationEventMessage;
+import vnikolaenko.github.network.rabbit.GenerationJobMessage;
+
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class GenerationConsumersTests {
+
+    @Test
+    void workerPublishesEventsToAllNodesAndResultsToMinio() throws Exception {
+        GenerationWorker worker = mock(GenerationWorker.class);
+        RemoteResultStore resultStore = mock(RemoteResultStore.class);
+        RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+        GeneratedOutput archive = new GeneratedOutput();
+        GenerationEventMessage done = new GenerationEventMessage("job", GenerationEventMessage.ZIP_READY, null);
+        doAnswer(invocation -> {
+            invocation.<GenerationWorker.ResultSink>getArgument(2).put("job", archive);
+            invocation.<Consumer<GenerationEventMessage>>getArgument(1).accept(done);
+            return null;
+        }).when(worker).execute(any(), any(), any());
+
+        new GenerationJobConsumer(worker, resultStore, rabbitTemplate)
+                .consume(new GenerationJobMessage("job", 1L, new byte[0], new byte[0]));
+
+        verify(resultStore).put("job", archive);
+        verify(rabbitTemplate).convertAndSend(eq(RabbitMQConfig.GENERATION_EVENTS_EXCHANGE), eq(""), eq(done));
+    }
+
+    @Test
+    void nodeForwardsWorkerEventsToJobJournal() {
+        GenerationJobService jobService = mock(GenerationJobService.class);
+        GenerationEventMessage event = new GenerationEventMessage("job", "log", "entities generated");
+
+        new GenerationEventConsumer(jobService).consume(event);
+
+        verify(jobService).onEvent(event);
+    }
+}
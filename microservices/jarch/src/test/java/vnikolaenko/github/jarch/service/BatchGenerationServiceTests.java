@@ -0,0 +1,139 @@
+package vnikolaenko.github.jarch.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import vnikolaenko.github.jarch.generator.config.EntityConfig;
+import vnikolaenko.github.jarch.generator.output.GeneratedArchive;
+import vnikolaenko.github.jarch.generator.output.GeneratedOutput;
+import vnikolaenko.github.jarch.generator.template.TemplateSet;
+import vnikolaenko.github.jarch.generator.utils.ConfigReader;
+import vnikolaenko.github.jarch.utils.LogCollector;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BatchGenerationServiceTests {
+
+    private static final byte[] APP_CONFIG = "{\"basePackage\": \"com.example\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final ProjectGenerationService generationService = mock(ProjectGenerationService.class);
+    private final GenerationCache generationCache = mock(GenerationCache.class);
+    private final TemplateOverrideService templateOverrides = mock(TemplateOverrideService.class);
+    private final MinioService minioService = mock(MinioService.class);
+    private final GenerationResultStore resultStore = new GenerationResultStore(Duration.ofMinutes(1), 1 << 20, 10);
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private BatchGenerationService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(templateOverrides.forProject(any())).thenReturn(TemplateSet.builtIn());
+        // Ключ кэша - имя единственной сущности, чтобы одинаковые конфигурации давали один ключ
+        when(generationCache.keyOf(any(), any(), any())).thenAnswer(invocation ->
+                invocation.<EntityConfig>getArgument(1).getEntities().get(0).getName());
+        when(generationService.generate(any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            String entity = invocation.<EntityConfig>getArgument(2).getEntities().get(0).getName();
+            if (entity.equals("Broken")) {
+                throw new IllegalStateException("Broken project");
+            }
+            GeneratedOutput output = new GeneratedOutput();
+            output.writeString("src/" + entity + ".java", "class " + entity + " {}");
+            return new ProjectGenerationService.GenerationResult(output, null, Map.of());
+        });
+        service = new BatchGenerationService(generationService, generationCache, resultStore, new ConfigReader(),
+                templateOverrides, minioService, new ObjectMapper(), executor, 10, Duration.ofDays(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void archiveContainsEveryProjectAndManifest() throws Exception {
+        List<BatchGenerationService.BatchManifestEntry> manifest = service.generate("batch", List.of(
+                item(1L, "shop", "Order"),
+                item(2L, "shop copy", "Order"),
+                item(3L, "blog", "Post"),
+                item(4L, "broken", "Broken")), BatchGenerationService.BatchOutput.ARCHIVE, new LogCollector());
+
+        assertThat(manifest).extracting(BatchGenerationService.BatchManifestEntry::status)
+                .containsExactly("DONE", "DONE", "DONE", "FAILED");
+        assertThat(manifest.get(3).error()).isEqualTo("Broken project");
+        // Одинаковые конфигурации генерируются один раз
+        verify(generationService, times(3)).generate(any(), any(), any(), any(), any());
+
+        GeneratedArchive archive = resultStore.take("batch");
+        Map<String, byte[]> entries = unzip(archive);
+        archive.release();
+        assertThat(entries).containsOnlyKeys("shop-1.zip", "shop_copy-2.zip", "blog-3.zip", "manifest.json");
+        assertThat(unzip(entries.get("blog-3.zip"))).containsOnlyKeys("src/Post.java");
+        assertThat(new String(entries.get("manifest.json"), StandardCharsets.UTF_8)).contains("\"broken\"");
+    }
+
+    @Test
+    void manifestModeUploadsProjectFilesAndDeletesThem() throws Exception {
+        List<Path> uploaded = new ArrayList<>();
+        doAnswer(invocation -> {
+            Path path = invocation.getArgument(0);
+            assertThat(path).exists();
+            uploaded.add(path);
+            return null;
+        }).when(minioService).uploadFile(any(Path.class), anyString(), eq("application/zip"));
+
+        service.generate("batch", List.of(item(1L, "shop", "Order"), item(2L, "blog", "Post")),
+                BatchGenerationService.BatchOutput.MANIFEST, new LogCollector());
+
+        assertThat(uploaded).hasSize(2).noneMatch(Files::exists);
+        verify(minioService).uploadFile(any(byte[].class), eq("generation-batches/batch/manifest.json"),
+                eq("application/json"));
+        assertThat(resultStore.take("batch")).isNull();
+    }
+
+    private static BatchGenerationService.BatchItem item(Long savingId, String name, String entity) {
+        String entities = "{\"entities\": [{\"name\": \"" + entity + "\", "
+                + "\"fields\": [{\"name\": \"title\", \"type\": \"String\"}]}]}";
+        return new BatchGenerationService.BatchItem(savingId, 1L, name, APP_CONFIG,
+                entities.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, byte[]> unzip(GeneratedArchive archive) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        archive.writeTo(out);
+        return unzip(out.toByteArray());
+    }
+
+    private static Map<String, byte[]> unzip(byte[] zip) throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            for (ZipEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+                entries.put(entry.getName(), in.readAllBytes());
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,130 @@
+package vnikolaenko.github.jarch.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import vnikolaenko.github.jarch.generator.config.ApplicationConfig;
+import vnikolaenko.github.jarch.generator.config.EntityConfig;
+import vnikolaenko.github.jarch.generator.output.FileArchive;
+import vnikolaenko.github.jarch.generator.output.GeneratedOutput;
+import vnikolaenko.github.jarch.generator.template.TemplateSet;
+import vnikolaenko.github.jarch.generator.utils.GeneratorVersion;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class GenerationCacheTests {
+
+    private final MinioService minioService = mock(MinioService.class);
+    private final GeneratorVersion generatorVersion = mock(GeneratorVersion.class);
+    private FileArchive archive;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(generatorVersion.getVersion()).thenReturn("v1");
+        GeneratedOutput output = new GeneratedOutput();
+        output.writeString("pom.xml", "<project/>");
+        archive = FileArchive.spool(output);
+    }
+
+    @AfterEach
+    void tearDown() {
+        archive.release();
+    }
+
+    @Test
+    void keyDependsOnGeneratorVersionAndTemplateOverrides() {
+        GenerationCache cache = cache(true, 1024);
+        ApplicationConfig appConfig = new ApplicationConfig();
+        EntityConfig entityConfig = new EntityConfig();
+        entityConfig.setEntities(List.of());
+        String key = cache.keyOf(appConfig, entityConfig, TemplateSet.builtIn());
+
+        assertThat(cache.keyOf(appConfig, entityConfig, TemplateSet.builtIn())).isEqualTo(key);
+        TemplateSet customized = TemplateSet.builtIn().withOverrides(Map.of(TemplateSet.DOCKERFILE,
+                TemplateSet.compileOverride(TemplateSet.DOCKERFILE,
+                        TemplateSet.builtInSource(TemplateSet.DOCKERFILE) + "\n# custom")), "custom");
+        assertThat(cache.keyOf(appConfig, entityConfig, customized)).isNotEqualTo(key);
+        when(generatorVersion.getVersion()).thenReturn("v2");
+        assertThat(cache.keyOf(appConfig, entityConfig, TemplateSet.builtIn())).isNotEqualTo(key);
+    }
+
+    @Test
+    void servesStoredArchiveFromLocalTierAndUploadsItToMinio() throws Exception {
+        GenerationCache cache = cache(true, 1024);
+
+        cache.put("key", archive);
+
+        assertThat(cache.get("key")).isEqualTo(Files.readAllBytes(archive.getPath()));
+        verify(minioService).uploadFile(archive.getPath(), "generation-cache/key.zip", "application/zip");
+        verify(minioService, never()).downloadFile(anyString());
+        assertThat(cache.getStats()).containsEntry("localHits", 1L).containsEntry("localEntries", 1L);
+    }
+
+    @Test
+    void archiveOverLocalLimitIsOnlyUploaded() throws Exception {
+        GenerationCache cache = cache(true, archive.sizeInBytes() - 1);
+        when(minioService.downloadFile(anyString())).thenThrow(new IllegalStateException("not found"));
+
+        cache.put("key", archive);
+
+        verify(minioService).uploadFile(eq(archive.getPath()), anyString(), anyString());
+        assertThat(cache.getStats()).containsEntry("localEntries", 0L);
+        assertThat(cache.get("key")).isNull();
+    }
+
+    @Test
+    void remoteHitIsCachedLocally() throws Exception {
+        GenerationCache cache = cache(true, 1024);
+        when(minioService.downloadFile("generation-cache/key.zip")).thenReturn(new byte[]{1, 2, 3});
+
+        assertThat(cache.get("key")).containsExactly(1, 2, 3);
+        assertThat(cache.get("key")).containsExactly(1, 2, 3);
+
+        verify(minioService).downloadFile(anyString());
+        assertThat(cache.getStats()).containsEntry("remoteHits", 1L).containsEntry("localHits", 1L);
+    }
+
+    @Test
+    void unavailableMinioIsAMiss() throws Exception {
+        GenerationCache cache = cache(true, 1024);
+        when(minioService.downloadFile(anyString())).thenThrow(new IOException("connection refused"));
+        when(minioService.uploadFile(any(Path.class), anyString(), anyString()))
+                .thenThrow(new IOException("connection refused"));
+
+        assertThat(cache.get("key")).isNull();
+        cache.put("key", archive);
+
+        assertThat(cache.getStats()).containsEntry("misses", 1L);
+        assertThat(cache.get("key")).isNotNull();
+    }
+
+    @Test
+    void disabledCacheDoesNothing() {
+        GenerationCache cache = cache(false, 1024);
+
+        cache.put("key", archive);
+
+        assertThat(cache.get("key")).isNull();
+        verifyNoInteractions(minioService);
+    }
+
+    private GenerationCache cache(boolean enabled, long localMaxBytes) {
+        return new GenerationCache(minioService, generatorVersion, enabled, Duration.ofDays(7), localMaxBytes,
+                1024 * 1024);
+    }
+}
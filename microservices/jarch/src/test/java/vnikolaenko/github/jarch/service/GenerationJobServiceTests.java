@@ -0,0 +1,227 @@
+package vnikolaenko.github.jarch.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import vnikolaenko.github.jarch.model.GenerationJob;
+import vnikolaenko.github.jarch.model.GenerationJobStatus;
+import vnikolaenko.github.jarch.repository.GenerationJobRepository;
+import vnikolaenko.github.network.rabbit.GenerationEventMessage;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GenerationJobServiceTests {
+
+    private static final int PER_USER_LIMIT = 2;
+
+    private final Map<String, GenerationJob> jobs = new ConcurrentHashMap<>();
+    private final GenerationJobRepository repository = mock(GenerationJobRepository.class);
+    private final GenerationJobStateService stateService =
+            new GenerationJobStateService(repository, new GenerationMetrics(new SimpleMeterRegistry()));
+    private final GenerationDispatcher dispatcher = mock(GenerationDispatcher.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ThreadPoolExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.save(any())).thenAnswer(invocation -> {
+            GenerationJob job = invocation.getArgument(0);
+            jobs.put(job.getId(), job);
+            return job;
+        });
+        when(repository.findById(anyString())).thenAnswer(invocation ->
+                Optional.ofNullable(jobs.get(invocation.<String>getArgument(0))));
+        when(repository.countByUsernameAndStatusIn(anyString(), anyCollection())).thenAnswer(invocation ->
+                jobs.values().stream()
+                        .filter(job -> job.getUsername().equals(invocation.getArgument(0)))
+                        .filter(job -> !job.getStatus().isFinished())
+                        .count());
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void rejectsJobsOverUserLimitUnderDatabaseLock() {
+        GenerationJobService service = service(dispatcher);
+        service.submit(1L, "alice", new byte[0], new byte[0]);
+        service.submit(2L, "alice", new byte[0], new byte[0]);
+
+        assertThatThrownBy(() -> service.submit(3L, "alice", new byte[0], new byte[0]))
+                .isInstanceOf(TooManyGenerationsException.class);
+        assertThat(service.submit(4L, "bob", new byte[0], new byte[0]).getStatus())
+                .isEqualTo(GenerationJobStatus.QUEUED);
+        assertThat(jobs).hasSize(3);
+
+        InOrder order = inOrder(repository);
+        order.verify(repository).lockUser("alice");
+        order.verify(repository).countByUsernameAndStatusIn(eq("alice"), anyCollection());
+        order.verify(repository).save(any());
+    }
+
+    @Test
+    void finishedJobsDoNotCountTowardsLimit() {
+        GenerationJobService service = service(dispatcher);
+        String first = service.submit(1L, "alice", new byte[0], new byte[0]).getId();
+        service.submit(2L, "alice", new byte[0], new byte[0]);
+        stateService.markDone(first);
+
+        assertThat(service.submit(3L, "alice", new byte[0], new byte[0]).getStatus())
+                .isEqualTo(GenerationJobStatus.QUEUED);
+    }
+
+    @Test
+    void failsJobWhenGenerationQueueIsFull() {
+        GenerationWorker worker = mock(GenerationWorker.class);
+        doAnswer(invocation -> release.await(10, TimeUnit.SECONDS)).when(worker).execute(any(), any(), any());
+        GenerationJobService service = service(new LocalGenerationDispatcher(executor, worker,
+                mock(ApplicationEventPublisher.class), mock(GenerationResultStore.class)));
+
+        // Один исполнитель занят, одна задача ждет в очереди
+        service.submit(1L, "alice", new byte[0], new byte[0]);
+        service.submit(2L, "bob", new byte[0], new byte[0]);
+
+        assertThatThrownBy(() -> service.submit(3L, "carol", new byte[0], new byte[0]))
+                .isInstanceOf(TooManyGenerationsException.class);
+        assertThat(jobs.values()).filteredOn(job -> job.getUsername().equals("carol"))
+                .singleElement()
+                .satisfies(job -> assertThat(job.getStatus()).isEqualTo(GenerationJobStatus.FAILED));
+    }
+
+    @Test
+    void failsBatchWhenGenerationQueueIsFull() {
+        GenerationJobService service = service(dispatcher);
+        GenerationJobService.BatchTask blocking = (jobId, logCollector) -> release.await(10, TimeUnit.SECONDS);
+        service.submitBatch(List.of(1L), "alice", blocking);
+        service.submitBatch(List.of(2L), "bob", blocking);
+
+        assertThatThrownBy(() -> service.submitBatch(List.of(3L), "carol", blocking))
+                .isInstanceOf(TooManyGenerationsException.class);
+        assertThat(jobs.values()).filteredOn(job -> job.getUsername().equals("carol"))
+                .singleElement()
+                .satisfies(job -> assertThat(job.getStatus()).isEqualTo(GenerationJobStatus.FAILED));
+    }
+
+    @Test
+    void lateClientReceivesHistoryAndLiveEvents() throws InterruptedException {
+        GenerationJobService service = service(dispatcher);
+        String jobId = service.submit(1L, "alice", new byte[0], new byte[0]).getId();
+        service.onEvent(new GenerationEventMessage(jobId, "log", Map.of("message", "entities generated")));
+
+        RecordingEmitter client = new RecordingEmitter();
+        service.attach(jobId, client);
+        service.onEvent(new GenerationEventMessage(jobId, GenerationEventMessage.ZIP_READY,
+                GenerationEventMessage.zipReady(null)));
+
+        assertThat(client.awaitCompletion()).isTrue();
+        assertThat(client.text())
+                .containsSubsequence("Задача поставлена в очередь", "entities generated", "event:zipReady");
+    }
+
+    @Test
+    void clientOfFinishedJobGetsItsResult() throws InterruptedException {
+        jobs.put("done", job("done", GenerationJobStatus.DONE, null));
+        jobs.put("failed", job("failed", GenerationJobStatus.FAILED, "Invalid config"));
+        GenerationJobService service = service(dispatcher);
+
+        RecordingEmitter done = new RecordingEmitter();
+        service.attach("done", done);
+        RecordingEmitter failed = new RecordingEmitter();
+        service.attach("failed", failed);
+
+        assertThat(done.awaitCompletion()).isTrue();
+        assertThat(done.text()).contains("event:zipReady");
+        assertThat(failed.awaitCompletion()).isTrue();
+        assertThat(failed.text()).contains("Invalid config");
+    }
+
+    @Test
+    void interruptedJobsFailOnStartupUnlessDispatcherIsDurable() {
+        jobs.put("single", job("single", GenerationJobStatus.RUNNING, null));
+        GenerationJob batch = job("batch", GenerationJobStatus.QUEUED, null);
+        batch.setBatchSavingIds(List.of(1L, 2L));
+        jobs.put("batch", batch);
+        when(repository.findAllByStatusIn(anyCollection())).thenReturn(List.copyOf(jobs.values()));
+        when(dispatcher.isDurable()).thenReturn(true);
+
+        service(dispatcher).failInterruptedJobs();
+
+        assertThat(jobs.get("single").getStatus()).isEqualTo(GenerationJobStatus.RUNNING);
+        assertThat(jobs.get("batch").getStatus()).isEqualTo(GenerationJobStatus.FAILED);
+        verify(dispatcher, never()).dispatch(any());
+    }
+
+    private GenerationJobService service(GenerationDispatcher dispatcher) {
+        return new GenerationJobService(repository, stateService, dispatcher, executor, PER_USER_LIMIT);
+    }
+
+    private static GenerationJob job(String id, GenerationJobStatus status, String errorMessage) {
+        return GenerationJob.builder()
+                .id(id)
+                .username("alice")
+                .status(status)
+                .errorMessage(errorMessage)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * SSE клиент, запоминающий отправленные ему события
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sent.add(builder.build().stream()
+                    .map(part -> String.valueOf(part.getData()))
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        boolean awaitCompletion() throws InterruptedException {
+            return completed.await(10, TimeUnit.SECONDS);
+        }
+
+        String text() {
+            return String.join("\n", sent);
+        }
+    }
+}
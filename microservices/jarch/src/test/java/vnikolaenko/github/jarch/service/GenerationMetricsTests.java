@@ -0,0 +1,57 @@
+package vnikolaenko.github.jarch.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import vnikolaenko.github.jarch.generator.utils.PhaseTimings;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GenerationMetricsTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final GenerationMetrics metrics = new GenerationMetrics(registry);
+
+    @Test
+    void recordsEveryPhaseWithProjectTags() {
+        PhaseTimings timings = new PhaseTimings();
+        timings.record(PhaseTimings.MODEL, TimeUnit.MILLISECONDS.toNanos(20));
+        timings.record(PhaseTimings.ZIP, TimeUnit.MILLISECONDS.toNanos(5));
+
+        metrics.recordPhases(timings, 42, "maven");
+        metrics.recordPhases(timings, 42, "maven");
+
+        var model = registry.get("jarch.generation.phase")
+                .tags("phase", PhaseTimings.MODEL, "entities", "11-100", "build_tool", "maven")
+                .timer();
+        assertThat(model.count()).isEqualTo(2);
+        assertThat(model.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(40);
+        assertThat(registry.get("jarch.generation.phase").timers()).hasSize(2);
+    }
+
+    @Test
+    void countsProjectsAndJobsByTags() {
+        metrics.countProject("cache", 3, "gradle");
+        metrics.countProject("cache", 5, "gradle");
+        metrics.countProject("generated", 3, "gradle");
+        metrics.countJob("DONE");
+
+        assertThat(registry.get("jarch.generation.projects")
+                .tags("source", "cache", "entities", "1-10", "build_tool", "gradle")
+                .counter().count()).isEqualTo(2);
+        assertThat(registry.get("jarch.generation.projects").tag("source", "generated").counter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("jarch.generation.jobs").tag("status", "DONE").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void groupsEntityCountsIntoBuckets() {
+        assertThat(GenerationMetrics.entityCountBucket(1)).isEqualTo("1-10");
+        assertThat(GenerationMetrics.entityCountBucket(10)).isEqualTo("1-10");
+        assertThat(GenerationMetrics.entityCountBucket(11)).isEqualTo("11-100");
+        assertThat(GenerationMetrics.entityCountBucket(100)).isEqualTo("11-100");
+        assertThat(GenerationMetrics.entityCountBucket(1000)).isEqualTo("101-1000");
+        assertThat(GenerationMetrics.entityCountBucket(1001)).isEqualTo("1000+");
+    }
+}
@@ -0,0 +1,128 @@
+package vnikolaenko.github.jarch.service;
+
+import org.junit.jupiter.api.Test;
+import vnikolaenko.github.jarch.generator.output.FileArchive;
+import vnikolaenko.github.jarch.generator.output.GeneratedArchive;
+import vnikolaenko.github.jarch.generator.output.GeneratedOutput;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GenerationResultStoreTests {
+
+    @Test
+    void spoolsGeneratedOutputToTempFileUntilTaken() throws IOException {
+        GenerationResultStore store = new GenerationResultStore(Duration.ofMinutes(15), 1024 * 1024, 10);
+        GeneratedOutput output = new GeneratedOutput();
+        output.writeString("pom.xml", "<project/>");
+
+        store.put("job", output);
+        GeneratedArchive taken = store.take("job");
+
+        assertThat(taken).isInstanceOf(FileArchive.class);
+        assertThat(Files.exists(((FileArchive) taken).getPath())).isTrue();
+        assertThat(store.take("job")).isNull();
+        taken.release();
+        assertThat(Files.exists(((FileArchive) taken).getPath())).isFalse();
+    }
+
+    @Test
+    void evictsOldestEntriesButNeverTheInsertedOne() throws IOException {
+        GenerationResultStore store = new GenerationResultStore(Duration.ofMinutes(15), 100, 10);
+        TestArchive first = new TestArchive(40);
+        TestArchive second = new TestArchive(40);
+        TestArchive third = new TestArchive(90);
+
+        store.put("first", first);
+        store.put("second", second);
+        store.put("third", third);
+
+        assertThat(first.released).isTrue();
+        assertThat(second.released).isTrue();
+        assertThat(store.take("first")).isNull();
+        assertThat(store.take("second")).isNull();
+        assertThat(store.take("third")).isSameAs(third);
+        assertThat(third.released).isFalse();
+    }
+
+    @Test
+    void evictsOverEntryLimit() throws IOException {
+        GenerationResultStore store = new GenerationResultStore(Duration.ofMinutes(15), 1000, 2);
+        TestArchive first = new TestArchive(1);
+
+        store.put("first", first);
+        store.put("second", new TestArchive(1));
+        store.put("third", new TestArchive(1));
+
+        assertThat(first.released).isTrue();
+        assertThat(store.take("first")).isNull();
+        assertThat(store.take("second")).isNotNull();
+        assertThat(store.take("third")).isNotNull();
+    }
+
+    @Test
+    void rejectsResultLargerThanStore() {
+        GenerationResultStore store = new GenerationResultStore(Duration.ofMinutes(15), 100, 10);
+        TestArchive archive = new TestArchive(101);
+
+        assertThatThrownBy(() -> store.put("job", archive)).isInstanceOf(IllegalStateException.class);
+        assertThat(archive.released).isTrue();
+        assertThat(store.take("job")).isNull();
+    }
+
+    @Test
+    void replacingEntryReleasesPreviousArchive() throws IOException {
+        GenerationResultStore store = new GenerationResultStore(Duration.ofMinutes(15), 100, 10);
+        TestArchive previous = new TestArchive(60);
+        TestArchive replacement = new TestArchive(60);
+
+        store.put("job", previous);
+        store.put("job", replacement);
+
+        assertThat(previous.released).isTrue();
+        assertThat(store.take("job")).isSameAs(replacement);
+    }
+
+    @Test
+    void evictsExpiredEntries() throws Exception {
+        GenerationResultStore store = new GenerationResultStore(Duration.ofMillis(50), 100, 10);
+        TestArchive archive = new TestArchive(1);
+
+        store.put("job", archive);
+        assertThat(archive.released).isFalse();
+        Thread.sleep(100);
+        store.evictExpired();
+
+        assertThat(archive.released).isTrue();
+        assertThat(store.take("job")).isNull();
+    }
+
+    private static class TestArchive implements GeneratedArchive {
+
+        private final long size;
+        private boolean released;
+
+        TestArchive(long size) {
+            this.size = size;
+        }
+
+        @Override
+        public long sizeInBytes() {
+            return size;
+        }
+
+        @Override
+        public void writeTo(OutputStream out) {
+        }
+
+        @Override
+        public void release() {
+            released = true;
+        }
+    }
+}
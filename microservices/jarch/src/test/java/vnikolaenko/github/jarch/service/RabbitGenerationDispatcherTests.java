@@ -0,0 +1,47 @@
+package vnikolaenko.github.jarch.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import vnikolaenko.github.jarch.config.RabbitMQConfig;
+import vnikolaenko.github.network.rabbit.GenerationJobMessage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RabbitGenerationDispatcherTests {
+
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final AmqpAdmin amqpAdmin = mock(AmqpAdmin.class);
+    private final RabbitGenerationDispatcher dispatcher = new RabbitGenerationDispatcher(rabbitTemplate, amqpAdmin, 2);
+
+    @Test
+    void publishesJobForWorkers() {
+        when(amqpAdmin.getQueueInfo(RabbitMQConfig.GENERATION_JOBS_QUEUE))
+                .thenReturn(new QueueInformation(RabbitMQConfig.GENERATION_JOBS_QUEUE, 1, 1));
+        GenerationJobMessage task = new GenerationJobMessage("job", 1L, new byte[0], new byte[0]);
+
+        dispatcher.dispatch(task);
+
+        verify(rabbitTemplate).convertAndSend(RabbitMQConfig.GENERATION_EXCHANGE,
+                RabbitMQConfig.GENERATION_JOBS_ROUTING_KEY, task);
+        assertThat(dispatcher.isDurable()).isTrue();
+    }
+
+    @Test
+    void rejectsJobWhenQueueIsFull() {
+        when(amqpAdmin.getQueueInfo(RabbitMQConfig.GENERATION_JOBS_QUEUE))
+                .thenReturn(new QueueInformation(RabbitMQConfig.GENERATION_JOBS_QUEUE, 2, 1));
+
+        assertThatThrownBy(() -> dispatcher.dispatch(new GenerationJobMessage("job", 1L, new byte[0], new byte[0])))
+                .isInstanceOf(TooManyGenerationsException.class);
+        verify(rabbitTemplate, never()).convertAndSend(anyString(), anyString(), any(Object.class));
+    }
+}
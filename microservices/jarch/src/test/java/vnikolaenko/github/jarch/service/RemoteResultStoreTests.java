@@ -0,0 +1,97 @@
+package vnikolaenko.github.jarch.service;
+
+import org.junit.jupiter.api.Test;
+import vnikolaenko.github.jarch.generator.output.FileArchive;
+import vnikolaenko.github.jarch.generator.output.GeneratedArchive;
+import vnikolaenko.github.jarch.generator.output.GeneratedOutput;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class RemoteResultStoreTests {
+
+    private final MinioService minioService = mock(MinioService.class);
+    private final RemoteResultStore store = new RemoteResultStore(minioService, "distributed", Duration.ofMinutes(15));
+
+    @Test
+    void uploadsGeneratedProjectFromTemporaryFile() throws Exception {
+        List<Path> uploaded = new ArrayList<>();
+        doAnswer(invocation -> {
+            Path path = invocation.getArgument(0);
+            assertThat(path).exists();
+            uploaded.add(path);
+            return null;
+        }).when(minioService).uploadFile(any(Path.class), anyString(), anyString());
+        GeneratedOutput output = new GeneratedOutput();
+        output.writeString("pom.xml", "<project/>");
+
+        store.put("job:1", output);
+
+        verify(minioService).uploadFile(any(Path.class), eq("generation-results/job-1.zip"), eq("application/zip"));
+        assertThat(uploaded).singleElement().satisfies(path -> assertThat(path).doesNotExist());
+    }
+
+    @Test
+    void takesResultIntoTemporaryFileAndDeletesObject() throws Exception {
+        byte[] zip = zip();
+        when(minioService.downloadFile(eq("generation-results/job.zip"), any())).thenAnswer(invocation ->
+                invocation.<MinioService.ContentReader<?>>getArgument(1).read(new ByteArrayInputStream(zip)));
+
+        GeneratedArchive archive = store.take("job");
+
+        assertThat(archive).isInstanceOf(FileArchive.class);
+        Path path = ((FileArchive) archive).getPath();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        archive.writeTo(out);
+        assertThat(out.toByteArray()).isEqualTo(zip);
+        verify(minioService).deleteFile("generation-results/job.zip");
+        archive.release();
+        assertThat(path).doesNotExist();
+    }
+
+    @Test
+    void keepsDownloadedResultWhenObjectCannotBeDeleted() throws Exception {
+        when(minioService.downloadFile(anyString(), any())).thenAnswer(invocation ->
+                invocation.<MinioService.ContentReader<?>>getArgument(1).read(new ByteArrayInputStream(zip())));
+        doThrow(new IllegalStateException("MinIO is unavailable")).when(minioService).deleteFile(anyString());
+
+        GeneratedArchive archive = store.take("job");
+
+        assertThat(archive).isNotNull();
+        archive.release();
+    }
+
+    @Test
+    void missingOrLocalResultIsNull() throws Exception {
+        when(minioService.downloadFile(anyString(), any())).thenThrow(new IllegalStateException("NoSuchKey"));
+
+        assertThat(store.take("missing")).isNull();
+        MinioService localMinio = mock(MinioService.class);
+        assertThat(new RemoteResultStore(localMinio, "local", Duration.ofMinutes(15)).take("job")).isNull();
+        verifyNoInteractions(localMinio);
+    }
+
+    private static byte[] zip() throws Exception {
+        GeneratedOutput output = new GeneratedOutput();
+        output.writeString("README.md", "# Project");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        output.writeTo(out);
+        return out.toByteArray();
+    }
+}